@@ -74,3 +74,43 @@ DROP TABLE IF EXISTS calculated_field_link;
 ANALYZE calculated_field;
 
 -- REMOVAL OF CALCULATED FIELD LINKS PERSISTENCE END
+
+-- TIME SERIES ROLLUPS START
+
+CREATE TABLE IF NOT EXISTS ts_rollup
+(
+    entity_id   uuid   NOT NULL,
+    key         int    NOT NULL,
+    interval_ms bigint NOT NULL,
+    ts          bigint NOT NULL,
+    bool_cnt    bigint NOT NULL,
+    str_cnt     bigint NOT NULL,
+    json_cnt    bigint NOT NULL,
+    long_cnt    bigint NOT NULL,
+    dbl_cnt     bigint NOT NULL,
+    long_sum    bigint,
+    dbl_sum     double precision,
+    long_min    bigint,
+    long_max    bigint,
+    dbl_min     double precision,
+    dbl_max     double precision,
+    max_ts      bigint NOT NULL,
+    CONSTRAINT ts_rollup_pkey PRIMARY KEY (entity_id, key, interval_ms, ts)
+);
+
+CREATE TABLE IF NOT EXISTS ts_rollup_watermark
+(
+    interval_ms bigint NOT NULL CONSTRAINT ts_rollup_watermark_pkey PRIMARY KEY,
+    start_ts    bigint NOT NULL,
+    end_ts      bigint NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS ts_rollup_pending
+(
+    entity_id uuid   NOT NULL,
+    key       int    NOT NULL,
+    ts        bigint NOT NULL,
+    CONSTRAINT ts_rollup_pending_pkey PRIMARY KEY (entity_id, key, ts)
+);
+
+-- TIME SERIES ROLLUPS END
@@ -56,6 +56,7 @@ import org.thingsboard.server.dao.resource.ImageCacheKey;
 import org.thingsboard.server.dao.resource.ImageService;
 import org.thingsboard.server.dao.service.validator.ResourceDataValidator;
 import org.thingsboard.server.queue.util.TbCoreComponent;
+import org.thingsboard.server.service.resource.CachedImageData;
 import org.thingsboard.server.service.resource.TbImageService;
 import org.thingsboard.server.service.security.model.SecurityUser;
 import org.thingsboard.server.service.security.permission.Operation;
@@ -288,34 +289,45 @@ public class ImageController extends BaseController {
         }
 
         TbResourceInfo imageInfo = checkNotNull(imageInfoSupplier.get());
-        String fileName = imageInfo.getFileName();
         ImageDescriptor descriptor = imageInfo.getDescriptor(ImageDescriptor.class);
-        byte[] data;
         if (cacheKey.isPreview()) {
             descriptor = descriptor.getPreviewDescriptor();
-            data = imageService.getImagePreview(imageInfo.getTenantId(), imageInfo.getId());
-        } else {
-            data = imageService.getImageData(imageInfo.getTenantId(), imageInfo.getId());
         }
-        tbImageService.putETag(cacheKey, descriptor.getEtag());
+        // the image info is always loaded, so the cached content is used only while the image is still public and unchanged
+        CachedImageData image = cacheKey.isPublic() ? tbImageService.getPublicImageData(cacheKey) : null;
+        if (image == null || !image.etag().equals(descriptor.getEtag())) {
+            byte[] data;
+            if (cacheKey.isPreview()) {
+                data = imageService.getImagePreview(imageInfo.getTenantId(), imageInfo.getId());
+            } else {
+                data = imageService.getImageData(imageInfo.getTenantId(), imageInfo.getId());
+            }
+            image = new CachedImageData(imageInfo.getTenantId(), imageInfo.getFileName(), descriptor.getMediaType(), descriptor.getEtag(), data);
+            if (cacheKey.isPublic()) {
+                tbImageService.putPublicImageData(cacheKey, image);
+            }
+        }
+        tbImageService.putETag(cacheKey, image.etag());
+        String fileName = image.fileName();
+        byte[] data = image.data();
         var result = ResponseEntity.ok()
-                .header("Content-Type", descriptor.getMediaType())
+                .header("Content-Type", image.mediaType())
                 .header("Content-Security-Policy", "default-src 'none'")
-                .eTag(descriptor.getEtag());
+                .eTag(image.etag());
         if (!cacheKey.isPublic()) {
             result
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment;filename=" + fileName)
                     .header("x-filename", fileName);
         }
-        if (systemImagesBrowserTtlInMinutes > 0 && imageInfo.getTenantId().isSysTenantId()) {
+        if (systemImagesBrowserTtlInMinutes > 0 && image.tenantId().isSysTenantId()) {
             result.cacheControl(CacheControl.maxAge(systemImagesBrowserTtlInMinutes, TimeUnit.MINUTES));
-        } else if (tenantImagesBrowserTtlInMinutes > 0 && !imageInfo.getTenantId().isSysTenantId()) {
+        } else if (tenantImagesBrowserTtlInMinutes > 0 && !image.tenantId().isSysTenantId()) {
             result.cacheControl(CacheControl.maxAge(tenantImagesBrowserTtlInMinutes, TimeUnit.MINUTES));
         } else {
             result.cacheControl(CacheControl.noCache());
         }
         var responseData = data;
-        if (mediaTypeToFileExtension(descriptor.getMediaType()).equals("svg") &&
+        if (mediaTypeToFileExtension(image.mediaType()).equals("svg") &&
                 StringUtils.isNotEmpty(acceptEncodingHeader) && acceptEncodingHeader.contains("gzip")) {
             result.header(HttpHeaders.CONTENT_ENCODING, "gzip");
             var outputStream = new ByteArrayOutputStream();
@@ -16,6 +16,7 @@
 package org.thingsboard.server.service.apiusage;
 
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.Striped;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
@@ -54,6 +55,8 @@ import org.thingsboard.server.common.msg.queue.ServiceType;
 import org.thingsboard.server.common.msg.queue.TbCallback;
 import org.thingsboard.server.common.msg.queue.TopicPartitionInfo;
 import org.thingsboard.server.common.msg.tools.SchedulerUtils;
+import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.common.stats.StatsTimer;
 import org.thingsboard.server.common.util.ProtoUtils;
 import org.thingsboard.server.dao.tenant.TbTenantProfileCache;
 import org.thingsboard.server.dao.tenant.TenantService;
@@ -75,15 +78,16 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -92,6 +96,8 @@ import java.util.stream.Collectors;
 public class DefaultTbApiUsageStateService extends AbstractPartitionBasedService<EntityId> implements TbApiUsageStateService {
 
     public static final String HOURLY = "Hourly";
+    private static final String STATS_KEY = "apiUsage";
+    private static final int STATE_LOCK_STRIPES = 1024;
 
     private final PartitionService partitionService;
     private final TenantService tenantService;
@@ -102,6 +108,7 @@ public class DefaultTbApiUsageStateService extends AbstractPartitionBasedService
     private final NotificationRuleProcessor notificationRuleProcessor;
     private final DbCallbackExecutorService dbExecutor;
     private final MailExecutorService mailExecutor;
+    private final StatsFactory statsFactory;
 
     @Lazy
     @Autowired
@@ -114,6 +121,13 @@ public class DefaultTbApiUsageStateService extends AbstractPartitionBasedService
 
     final Set<EntityId> deletedEntities = Collections.newSetFromMap(new ConcurrentHashMap<>());
 
+    // Usage states are updated under the lock of the owner entity, so reports for different tenants and customers are processed concurrently.
+    // The locks are striped, so they are never removed while in use and their number does not grow with the number of owners
+    private final Striped<Lock> stateLocks = Striped.lock(STATE_LOCK_STRIPES);
+    // Usage counters pending to be saved, keyed by the API usage state id. Only the latest value of each counter is saved.
+    // The counters are flushed on partition removal and shutdown, but up to ts_flush_interval of updates are lost if the service crashes
+    private final ConcurrentMap<ApiUsageStateId, UsageTsBatch> pendingTsWrites = new ConcurrentHashMap<>();
+
     @Value("${usage.stats.report.enabled:true}")
     private boolean enabled;
 
@@ -123,14 +137,24 @@ public class DefaultTbApiUsageStateService extends AbstractPartitionBasedService
     @Value("${usage.stats.gauge_report_interval:180000}")
     private long gaugeReportInterval;
 
-    private final Lock updateLock = new ReentrantLock();
+    @Value("${usage.stats.ts_flush_interval:1000}")
+    private long tsFlushInterval;
+
+    private StatsTimer processingLagTimer;
+    private StatsTimer processingTimer;
 
     @PostConstruct
     public void init() {
         super.init();
+        processingLagTimer = statsFactory.createStatsTimer(STATS_KEY, "processingLag");
+        processingTimer = statsFactory.createStatsTimer(STATS_KEY, "processingTime");
+        statsFactory.createGauge(STATS_KEY, "pendingTsWrites", pendingTsWrites, Map::size);
         if (enabled) {
             log.info("Starting api usage service.");
             scheduledExecutor.scheduleAtFixedRate(this::checkStartOfNextCycle, nextCycleCheckInterval, nextCycleCheckInterval, TimeUnit.MILLISECONDS);
+            if (tsFlushInterval > 0) {
+                scheduledExecutor.scheduleWithFixedDelay(this::flushPendingTsWrites, tsFlushInterval, tsFlushInterval, TimeUnit.MILLISECONDS);
+            }
             log.info("Started api usage service.");
         }
     }
@@ -149,6 +173,10 @@ public class DefaultTbApiUsageStateService extends AbstractPartitionBasedService
     public void process(TbProtoQueueMsg<ToUsageStatsServiceMsg> msgPack, TbCallback callback) {
         ToUsageStatsServiceMsg serviceMsg = msgPack.getValue();
         String serviceId = serviceMsg.getServiceId();
+        long startTs = System.currentTimeMillis();
+        if (serviceMsg.getTs() > 0) {
+            processingLagTimer.record(Math.max(0, startTs - serviceMsg.getTs()));
+        }
 
         List<TransportProtos.UsageStatsServiceMsg> msgs;
 
@@ -180,6 +208,7 @@ public class DefaultTbApiUsageStateService extends AbstractPartitionBasedService
 
             processEntityUsageStats(tenantId, ownerId, msg.getValuesList(), serviceId);
         });
+        processingTimer.record(System.currentTimeMillis() - startTs);
         callback.onSuccess();
     }
 
@@ -190,7 +219,8 @@ public class DefaultTbApiUsageStateService extends AbstractPartitionBasedService
         List<TsKvEntry> updatedEntries;
         Map<ApiFeature, ApiUsageStateValue> result;
 
-        updateLock.lock();
+        Lock stateLock = getStateLock(ownerId);
+        stateLock.lock();
         try {
             usageState = getOrFetchState(tenantId, ownerId);
             long ts = usageState.getCurrentCycleTs();
@@ -232,15 +262,11 @@ public class DefaultTbApiUsageStateService extends AbstractPartitionBasedService
             } else {
                 result = Collections.emptyMap();
             }
+            log.trace("[{}][{}] Saving new stats: {}", tenantId, ownerId, updatedEntries);
+            saveUsageTimeseries(usageState, updatedEntries);
         } finally {
-            updateLock.unlock();
+            stateLock.unlock();
         }
-        log.trace("[{}][{}] Saving new stats: {}", tenantId, ownerId, updatedEntries);
-        tsWsService.saveTimeseriesInternal(TimeseriesSaveRequest.builder()
-                .tenantId(tenantId)
-                .entityId(usageState.getApiUsageState().getId())
-                .entries(updatedEntries)
-                .build());
         if (!result.isEmpty()) {
             persistAndNotify(usageState, result);
         }
@@ -281,34 +307,26 @@ public class DefaultTbApiUsageStateService extends AbstractPartitionBasedService
     public void onTenantProfileUpdate(TenantProfileId tenantProfileId) {
         log.info("[{}] On Tenant Profile Update", tenantProfileId);
         TenantProfile tenantProfile = tenantProfileCache.get(tenantProfileId);
-        updateLock.lock();
-        try {
-            myUsageStates.values().stream()
-                    .filter(state -> state.getEntityType() == EntityType.TENANT)
-                    .map(state -> (TenantApiUsageState) state)
-                    .forEach(state -> {
-                        if (tenantProfile.getId().equals(state.getTenantProfileId())) {
-                            updateTenantState(state, tenantProfile);
-                        }
-                    });
-        } finally {
-            updateLock.unlock();
-        }
+        myUsageStates.values().stream()
+                .filter(state -> state.getEntityType() == EntityType.TENANT)
+                .map(state -> (TenantApiUsageState) state)
+                .forEach(state -> {
+                    if (tenantProfile.getId().equals(state.getTenantProfileId())) {
+                        withStateLock(state.getEntityId(), () -> updateTenantState(state, tenantProfile));
+                    }
+                });
     }
 
     @Override
     public void onTenantUpdate(TenantId tenantId) {
         log.info("[{}] On Tenant Update.", tenantId);
         TenantProfile tenantProfile = tenantProfileCache.get(tenantId);
-        updateLock.lock();
-        try {
+        withStateLock(tenantId, () -> {
             TenantApiUsageState state = (TenantApiUsageState) myUsageStates.get(tenantId);
             if (state != null && !state.getTenantProfileId().equals(tenantProfile.getId())) {
                 updateTenantState(state, tenantProfile);
             }
-        } finally {
-            updateLock.unlock();
-        }
+        });
     }
 
     private void updateTenantState(TenantApiUsageState state, TenantProfile profile) {
@@ -357,19 +375,46 @@ public class DefaultTbApiUsageStateService extends AbstractPartitionBasedService
 
     public void onTenantDelete(TenantId tenantId) {
         deletedEntities.add(tenantId);
-        myUsageStates.remove(tenantId);
+        dropPendingTsWrites(removeState(tenantId));
         otherUsageStates.remove(tenantId);
     }
 
     @Override
     public void onCustomerDelete(CustomerId customerId) {
         deletedEntities.add(customerId);
-        myUsageStates.remove(customerId);
+        dropPendingTsWrites(removeState(customerId));
     }
 
     @Override
     protected void cleanupEntityOnPartitionRemoval(EntityId entityId) {
-        myUsageStates.remove(entityId);
+        BaseApiUsageState state = removeState(entityId);
+        if (state != null) {
+            flushPendingTsWrites(state.getApiUsageState().getId());
+        }
+    }
+
+    private BaseApiUsageState removeState(EntityId entityId) {
+        return myUsageStates.remove(entityId);
+    }
+
+    private void dropPendingTsWrites(BaseApiUsageState state) {
+        if (state != null) {
+            pendingTsWrites.remove(state.getApiUsageState().getId());
+        }
+    }
+
+    private Lock getStateLock(EntityId entityId) {
+        return stateLocks.get(entityId);
+    }
+
+    private void withStateLock(EntityId entityId, Runnable action) {
+        Lock stateLock = getStateLock(entityId);
+        stateLock.lock();
+        try {
+            action.run();
+        } finally {
+            stateLock.unlock();
+        }
     }
 
     private void persistAndNotify(BaseApiUsageState state, Map<ApiFeature, ApiUsageStateValue> result) {
@@ -443,10 +488,9 @@ public class DefaultTbApiUsageStateService extends AbstractPartitionBasedService
     }
 
     public void checkStartOfNextCycle() {
-        updateLock.lock();
         try {
             long now = System.currentTimeMillis();
-            myUsageStates.values().forEach(state -> {
+            myUsageStates.values().forEach(state -> withStateLock(state.getEntityId(), () -> {
                 if ((state.getNextCycleTs() < now) && (now - state.getNextCycleTs() < TimeUnit.HOURS.toMillis(1))) {
                     state.setCycles(state.getNextCycleTs(), SchedulerUtils.getStartOfNextMonth());
                     if (log.isTraceEnabled()) {
@@ -458,11 +502,9 @@ public class DefaultTbApiUsageStateService extends AbstractPartitionBasedService
                         updateTenantState((TenantApiUsageState) state, tenantProfileCache.get(tenantId));
                     }
                 }
-            });
+            }));
         } catch (Throwable e) {
             log.error("Failed to check start of next cycle", e);
-        } finally {
-            updateLock.unlock();
         }
     }
 
@@ -471,13 +513,52 @@ public class DefaultTbApiUsageStateService extends AbstractPartitionBasedService
                 .map(key -> new BasicTsKvEntry(state.getCurrentCycleTs(), new LongDataEntry(key.getApiCountKey(), 0L)))
                 .collect(Collectors.toList());
 
+        saveUsageTimeseries(state, counts);
+    }
+
+    private void saveUsageTimeseries(BaseApiUsageState state, List<TsKvEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        ApiUsageStateId apiUsageStateId = state.getApiUsageState().getId();
+        if (tsFlushInterval <= 0) {
+            saveUsageTimeseries(state.getTenantId(), apiUsageStateId, entries);
+            return;
+        }
+        pendingTsWrites.compute(apiUsageStateId, (id, batch) -> {
+            if (batch == null) {
+                batch = new UsageTsBatch(state.getTenantId());
+            }
+            batch.add(entries);
+            return batch;
+        });
+    }
+
+    private void saveUsageTimeseries(TenantId tenantId, ApiUsageStateId apiUsageStateId, List<TsKvEntry> entries) {
         tsWsService.saveTimeseriesInternal(TimeseriesSaveRequest.builder()
-                .tenantId(state.getTenantId())
-                .entityId(state.getApiUsageState().getId())
-                .entries(counts)
+                .tenantId(tenantId)
+                .entityId(apiUsageStateId)
+                .entries(entries)
                 .build());
     }
 
+    void flushPendingTsWrites() {
+        try {
+            for (ApiUsageStateId apiUsageStateId : pendingTsWrites.keySet()) {
+                flushPendingTsWrites(apiUsageStateId);
+            }
+        } catch (Throwable e) {
+            log.error("Failed to flush API usage counters", e);
+        }
+    }
+
+    private void flushPendingTsWrites(ApiUsageStateId apiUsageStateId) {
+        UsageTsBatch batch = pendingTsWrites.remove(apiUsageStateId);
+        if (batch != null) {
+            saveUsageTimeseries(batch.tenantId, apiUsageStateId, new ArrayList<>(batch.entries.values()));
+        }
+    }
+
     BaseApiUsageState getOrFetchState(TenantId tenantId, EntityId ownerId) {
         if (ownerId == null || ownerId.isNullUid()) {
             ownerId = tenantId;
@@ -550,12 +631,7 @@ public class DefaultTbApiUsageStateService extends AbstractPartitionBasedService
     protected void onRepartitionEvent() {
         otherUsageStates.entrySet().removeIf(entry ->
                 partitionService.resolve(ServiceType.TB_CORE, entry.getValue().getTenantId(), entry.getKey()).isMyPartition());
-        updateLock.lock();
-        try {
-            myUsageStates.values().forEach(BaseApiUsageState::onRepartitionEvent);
-        } finally {
-            updateLock.unlock();
-        }
+        myUsageStates.values().forEach(state -> withStateLock(state.getEntityId(), state::onRepartitionEvent));
     }
 
     @Override
@@ -563,30 +639,26 @@ public class DefaultTbApiUsageStateService extends AbstractPartitionBasedService
         var result = new HashMap<TopicPartitionInfo, List<ListenableFuture<?>>>();
         try {
             log.info("Initializing tenant states.");
-            updateLock.lock();
-            try {
-                PageDataIterable<Tenant> tenantIterator = new PageDataIterable<>(tenantService::findTenants, 1024);
-                for (Tenant tenant : tenantIterator) {
-                    TopicPartitionInfo tpi = partitionService.resolve(ServiceType.TB_CORE, tenant.getId(), tenant.getId());
-                    if (addedPartitions.contains(tpi)) {
-                        if (!myUsageStates.containsKey(tenant.getId()) && tpi.isMyPartition()) {
-                            log.debug("[{}] Initializing tenant state.", tenant.getId());
-                            result.computeIfAbsent(tpi, tmp -> new ArrayList<>()).add(dbExecutor.submit(() -> {
-                                try {
-                                    updateTenantState((TenantApiUsageState) getOrFetchState(tenant.getId(), tenant.getId()), tenantProfileCache.get(tenant.getTenantProfileId()));
-                                    log.debug("[{}] Initialized tenant state.", tenant.getId());
-                                } catch (Exception e) {
-                                    log.warn("[{}] Failed to initialize tenant API state", tenant.getId(), e);
-                                }
-                                return null;
-                            }));
-                        }
-                    } else {
-                        log.debug("[{}][{}] Tenant doesn't belong to current partition. tpi [{}]", tenant.getName(), tenant.getId(), tpi);
+            PageDataIterable<Tenant> tenantIterator = new PageDataIterable<>(tenantService::findTenants, 1024);
+            for (Tenant tenant : tenantIterator) {
+                TopicPartitionInfo tpi = partitionService.resolve(ServiceType.TB_CORE, tenant.getId(), tenant.getId());
+                if (addedPartitions.contains(tpi)) {
+                    if (!myUsageStates.containsKey(tenant.getId()) && tpi.isMyPartition()) {
+                        log.debug("[{}] Initializing tenant state.", tenant.getId());
+                        result.computeIfAbsent(tpi, tmp -> new ArrayList<>()).add(dbExecutor.submit(() -> {
+                            try {
+                                withStateLock(tenant.getId(), () -> updateTenantState((TenantApiUsageState) getOrFetchState(tenant.getId(), tenant.getId()),
+                                        tenantProfileCache.get(tenant.getTenantProfileId())));
+                                log.debug("[{}] Initialized tenant state.", tenant.getId());
+                            } catch (Exception e) {
+                                log.warn("[{}] Failed to initialize tenant API state", tenant.getId(), e);
+                            }
+                            return null;
+                        }));
                     }
+                } else {
+                    log.debug("[{}][{}] Tenant doesn't belong to current partition. tpi [{}]", tenant.getName(), tenant.getId(), tpi);
                 }
-            } finally {
-                updateLock.unlock();
             }
         } catch (Exception e) {
             log.warn("Unknown failure", e);
@@ -597,5 +669,27 @@ public class DefaultTbApiUsageStateService extends AbstractPartitionBasedService
     @PreDestroy
     private void destroy() {
         super.stop();
+        flushPendingTsWrites();
     }
+
+    private static class UsageTsBatch {
+
+        private final TenantId tenantId;
+        private final Map<String, TsKvEntry> entries = new LinkedHashMap<>();
+
+        private UsageTsBatch(TenantId tenantId) {
+            this.tenantId = tenantId;
+        }
+
+        private void add(List<TsKvEntry> newEntries) {
+            for (TsKvEntry entry : newEntries) {
+                String key = entry.getKey() + "_" + entry.getTs();
+                // re-insert to keep the entries in the order of updates
+                entries.remove(key);
+                entries.put(key, entry);
+            }
+        }
+
+    }
+
 }
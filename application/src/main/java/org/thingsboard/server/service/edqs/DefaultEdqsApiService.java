@@ -30,6 +30,7 @@ import org.thingsboard.server.common.data.edqs.query.EdqsResponse;
 import org.thingsboard.server.common.data.id.CustomerId;
 import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.msg.edqs.EdqsApiService;
+import org.thingsboard.server.common.stats.StatsFactory;
 import org.thingsboard.server.edqs.state.EdqsPartitionService;
 import org.thingsboard.server.gen.transport.TransportProtos;
 import org.thingsboard.server.gen.transport.TransportProtos.FromEdqsMsg;
@@ -48,11 +49,13 @@ public class DefaultEdqsApiService implements EdqsApiService {
 
     private final EdqsPartitionService edqsPartitionService;
     private final EdqsClientQueueFactory queueFactory;
+    private final StatsFactory statsFactory;
     private TbQueueRequestTemplate<TbProtoQueueMsg<ToEdqsMsg>, TbProtoQueueMsg<FromEdqsMsg>> requestTemplate;
 
     @PostConstruct
     private void init() {
         requestTemplate = queueFactory.createEdqsRequestTemplate();
+        requestTemplate.setLatencyStats(statsFactory, "edqs");
         requestTemplate.init();
     }
 
@@ -15,6 +15,7 @@
  */
 package org.thingsboard.server.service.housekeeper;
 
+import com.google.common.collect.Lists;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
@@ -23,6 +24,8 @@ import org.thingsboard.common.util.JacksonUtil;
 import org.thingsboard.common.util.ThingsBoardThreadFactory;
 import org.thingsboard.server.common.data.housekeeper.HousekeeperTask;
 import org.thingsboard.server.common.data.housekeeper.HousekeeperTaskType;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.util.TbPair;
 import org.thingsboard.server.common.data.notification.rule.trigger.TaskProcessingFailureTrigger;
 import org.thingsboard.server.common.msg.notification.NotificationRuleProcessor;
 import org.thingsboard.server.gen.transport.TransportProtos.ToHousekeeperServiceMsg;
@@ -36,6 +39,8 @@ import org.thingsboard.server.queue.util.TbCoreComponent;
 import org.thingsboard.server.service.housekeeper.processor.HousekeeperTaskProcessor;
 import org.thingsboard.server.service.housekeeper.stats.HousekeeperStatsService;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -90,18 +95,109 @@ public class HousekeeperService {
     }
 
     private void processMsgs(List<TbProtoQueueMsg<ToHousekeeperServiceMsg>> msgs, TbQueueConsumer<TbProtoQueueMsg<ToHousekeeperServiceMsg>> consumer) {
+        statsService.ifPresent(statsService -> statsService.reportBacklog(msgs.size()));
+        try {
+            if (config.getBatchSize() > 1 && msgs.size() > 1) {
+                processInBatches(msgs);
+            } else {
+                for (TbProtoQueueMsg<ToHousekeeperServiceMsg> msg : msgs) {
+                    processMsg(msg.getValue());
+                }
+            }
+        } catch (InterruptedException e) {
+            return;
+        } finally {
+            statsService.ifPresent(statsService -> statsService.reportBacklog(0));
+        }
+        consumer.commit();
+    }
+
+    // groups the tasks of the same type and tenant, so that the processors supporting it execute a single set-based operation
+    private void processInBatches(List<TbProtoQueueMsg<ToHousekeeperServiceMsg>> msgs) throws InterruptedException {
+        Map<TbPair<HousekeeperTaskType, TenantId>, List<ToHousekeeperServiceMsg>> batches = new LinkedHashMap<>();
         for (TbProtoQueueMsg<ToHousekeeperServiceMsg> msg : msgs) {
-            log.trace("Processing task: {}", msg);
+            HousekeeperTask task;
             try {
-                processTask(msg.getValue());
-            } catch (InterruptedException e) {
-                return;
+                task = JacksonUtil.fromString(msg.getValue().getTask().getValue(), HousekeeperTask.class);
             } catch (Throwable e) {
-                log.error("Unexpected error during message processing [{}]", msg, e);
-                reprocessingService.submitForReprocessing(msg.getValue(), e);
+                processMsg(msg.getValue());
+                continue;
+            }
+            HousekeeperTaskProcessor<?> taskProcessor = taskProcessors.get(task.getTaskType());
+            if (taskProcessor != null && taskProcessor.isBatchProcessingSupported() && !config.getDisabledTaskTypes().contains(task.getTaskType())) {
+                batches.computeIfAbsent(TbPair.of(task.getTaskType(), task.getTenantId()), key -> new ArrayList<>()).add(msg.getValue());
+            } else {
+                processMsg(msg.getValue());
             }
         }
-        consumer.commit();
+        for (var batch : batches.entrySet()) {
+            for (List<ToHousekeeperServiceMsg> partition : Lists.partition(batch.getValue(), config.getBatchSize())) {
+                processBatch(batch.getKey().getFirst(), batch.getKey().getSecond(), partition);
+            }
+        }
+    }
+
+    private void processMsg(ToHousekeeperServiceMsg msg) throws InterruptedException {
+        log.trace("Processing task: {}", msg);
+        try {
+            processTask(msg);
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Throwable e) {
+            log.error("Unexpected error during message processing [{}]", msg, e);
+            reprocessingService.submitForReprocessing(msg, e);
+        }
+        statsService.ifPresent(statsService -> statsService.reportBacklogProcessed(1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends HousekeeperTask> void processBatch(HousekeeperTaskType taskType, TenantId tenantId, List<ToHousekeeperServiceMsg> msgs) throws InterruptedException {
+        if (msgs.size() == 1) {
+            processMsg(msgs.get(0));
+            return;
+        }
+        HousekeeperTaskProcessor<T> taskProcessor = (HousekeeperTaskProcessor<T>) taskProcessors.get(taskType);
+        List<T> tasks = msgs.stream()
+                .map(msg -> (T) JacksonUtil.fromString(msg.getTask().getValue(), HousekeeperTask.class))
+                .toList();
+
+        Future<Object> future = null;
+        try {
+            long startTs = System.currentTimeMillis();
+            future = taskExecutor.submit(() -> {
+                taskProcessor.processBatch(tenantId, tasks);
+                return null;
+            });
+            future.get(getBatchProcessingTimeout(msgs.size()), TimeUnit.MILLISECONDS);
+
+            long timing = System.currentTimeMillis() - startTs;
+            log.debug("[{}] Processed batch of {} {} tasks in {} ms", tenantId, msgs.size(), taskType, timing);
+            statsService.ifPresent(statsService -> {
+                statsService.reportBatchProcessed(taskType, msgs, timing);
+                statsService.reportBacklogProcessed(msgs.size());
+            });
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Throwable e) {
+            log.warn("[{}] Failed to process batch of {} {} tasks, processing them one by one", tenantId, msgs.size(), taskType, e);
+            if (future != null && !future.isDone()) {
+                future.cancel(true);
+            }
+            for (ToHousekeeperServiceMsg msg : msgs) {
+                processMsg(msg);
+            }
+        } finally {
+            if (future != null && !future.isDone()) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private long getBatchProcessingTimeout(int batchSize) {
+        if (config.getBatchProcessingTimeout() > 0) {
+            return config.getBatchProcessingTimeout();
+        }
+        return (long) config.getTaskProcessingTimeout() * batchSize;
     }
 
     @SuppressWarnings("unchecked")
@@ -20,8 +20,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.thingsboard.server.common.data.housekeeper.HousekeeperTask;
 import org.thingsboard.server.common.data.housekeeper.HousekeeperTaskType;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.dao.attributes.AttributesService;
 
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -35,6 +39,18 @@ public class AttributesDeletionTaskProcessor extends HousekeeperTaskProcessor<Ho
         log.debug("[{}][{}][{}] Deleted {} attributes", task.getTenantId(), task.getEntityId().getEntityType(), task.getEntityId(), deletedCount);
     }
 
+    @Override
+    public boolean isBatchProcessingSupported() {
+        return true;
+    }
+
+    @Override
+    public void processBatch(TenantId tenantId, List<HousekeeperTask> tasks) throws Exception {
+        List<EntityId> entityIds = tasks.stream().map(HousekeeperTask::getEntityId).toList();
+        int deletedCount = attributesService.removeAllByEntityIds(tenantId, entityIds);
+        log.debug("[{}] Deleted {} attributes of {} entities", tenantId, deletedCount, entityIds.size());
+    }
+
     @Override
     public HousekeeperTaskType getTaskType() {
         return HousekeeperTaskType.DELETE_ATTRIBUTES;
@@ -19,8 +19,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.thingsboard.server.common.data.housekeeper.HousekeeperTask;
 import org.thingsboard.server.common.data.housekeeper.HousekeeperTaskType;
+import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.dao.event.EventService;
 
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 public class EventsDeletionTaskProcessor extends HousekeeperTaskProcessor<HousekeeperTask> {
@@ -32,6 +35,16 @@ public class EventsDeletionTaskProcessor extends HousekeeperTaskProcessor<Housek
         eventService.removeEvents(task.getTenantId(), task.getEntityId(), null, 0L, System.currentTimeMillis());
     }
 
+    @Override
+    public boolean isBatchProcessingSupported() {
+        return true;
+    }
+
+    @Override
+    public void processBatch(TenantId tenantId, List<HousekeeperTask> tasks) throws Exception {
+        eventService.removeEvents(tenantId, tasks.stream().map(HousekeeperTask::getEntityId).toList(), 0L, System.currentTimeMillis());
+    }
+
     @Override
     public HousekeeperTaskType getTaskType() {
         return HousekeeperTaskType.DELETE_EVENTS;
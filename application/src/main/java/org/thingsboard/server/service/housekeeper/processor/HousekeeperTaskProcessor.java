@@ -18,8 +18,10 @@ package org.thingsboard.server.service.housekeeper.processor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.thingsboard.server.common.data.housekeeper.HousekeeperTask;
 import org.thingsboard.server.common.data.housekeeper.HousekeeperTaskType;
+import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.msg.housekeeper.HousekeeperClient;
 
+import java.util.List;
 import java.util.concurrent.Future;
 
 public abstract class HousekeeperTaskProcessor<T extends HousekeeperTask> {
@@ -31,6 +33,19 @@ public abstract class HousekeeperTaskProcessor<T extends HousekeeperTask> {
 
     public abstract HousekeeperTaskType getTaskType();
 
+    /**
+     * Whether the tasks of the same tenant may be processed together by {@link #processBatch}, e.g. with a single set-based delete
+     */
+    public boolean isBatchProcessingSupported() {
+        return false;
+    }
+
+    public void processBatch(TenantId tenantId, List<T> tasks) throws Exception {
+        for (T task : tasks) {
+            process(task);
+        }
+    }
+
     public <V> V wait(Future<V> future) throws Exception {
         try {
             return future.get(); // will be interrupted after taskProcessingTimeout
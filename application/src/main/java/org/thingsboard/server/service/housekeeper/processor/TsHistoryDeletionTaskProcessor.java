@@ -15,16 +15,23 @@
  */
 package org.thingsboard.server.service.housekeeper.processor;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.thingsboard.server.common.data.housekeeper.HousekeeperTaskType;
 import org.thingsboard.server.common.data.housekeeper.TsHistoryDeletionHousekeeperTask;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.kv.BaseDeleteTsKvQuery;
 import org.thingsboard.server.common.data.kv.DeleteTsKvQuery;
 import org.thingsboard.server.dao.timeseries.TimeseriesService;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
@@ -40,6 +47,26 @@ public class TsHistoryDeletionTaskProcessor extends HousekeeperTaskProcessor<TsH
         log.debug("[{}][{}][{}] Deleted timeseries history for key '{}'", task.getTenantId(), task.getEntityId().getEntityType(), task.getEntityId(), task.getKey());
     }
 
+    @Override
+    public boolean isBatchProcessingSupported() {
+        return true;
+    }
+
+    @Override
+    public void processBatch(TenantId tenantId, List<TsHistoryDeletionHousekeeperTask> tasks) throws Exception {
+        // the entities of a tenant usually share the keys, so the history of each key is removed with a single query
+        Map<String, List<EntityId>> entityIdsByKey = tasks.stream().collect(Collectors.groupingBy(TsHistoryDeletionHousekeeperTask::getKey,
+                Collectors.mapping(TsHistoryDeletionHousekeeperTask::getEntityId, Collectors.toList())));
+        long endTs = System.currentTimeMillis();
+        List<ListenableFuture<Void>> futures = new ArrayList<>(entityIdsByKey.size());
+        entityIdsByKey.forEach((key, entityIds) -> {
+            DeleteTsKvQuery deleteQuery = new BaseDeleteTsKvQuery(key, 0, endTs, false, false);
+            futures.add(timeseriesService.removeHistory(tenantId, entityIds, deleteQuery));
+        });
+        wait(Futures.allAsList(futures));
+        log.debug("[{}] Deleted timeseries history for {} keys of {} entities", tenantId, entityIdsByKey.size(), tasks.size());
+    }
+
     @Override
     public HousekeeperTaskType getTaskType() {
         return HousekeeperTaskType.DELETE_TS_HISTORY;
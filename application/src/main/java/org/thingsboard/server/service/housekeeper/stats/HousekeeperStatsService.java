@@ -33,6 +33,7 @@ import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Service
@@ -41,11 +42,13 @@ import java.util.stream.Collectors;
 public class HousekeeperStatsService {
 
     private final Map<HousekeeperTaskType, HousekeeperStats> stats = new EnumMap<>(HousekeeperTaskType.class);
+    private final AtomicInteger backlog = new AtomicInteger();
 
     public HousekeeperStatsService(StatsFactory statsFactory) {
         for (HousekeeperTaskType taskType : HousekeeperTaskType.values()) {
             stats.put(taskType, new HousekeeperStats(taskType, statsFactory));
         }
+        statsFactory.createGauge(StatsType.HOUSEKEEPER.getName(), "backlog", backlog, AtomicInteger::get);
     }
 
     @Scheduled(initialDelayString = "${queue.core.housekeeper.stats.print-interval-ms:60000}",
@@ -65,7 +68,7 @@ public class HousekeeperStatsService {
 
         if (!statsStr.isEmpty()) {
             stats.values().forEach(HousekeeperStats::reset);
-            log.info("Housekeeper stats: {}", statsStr);
+            log.info("Housekeeper stats: {} backlog [{}]", statsStr, backlog.get());
         }
     }
 
@@ -79,6 +82,27 @@ public class HousekeeperStatsService {
         stats.getProcessingTimer().record(timing);
     }
 
+    public void reportBatchProcessed(HousekeeperTaskType taskType, List<ToHousekeeperServiceMsg> msgs, long timing) {
+        HousekeeperStats stats = this.stats.get(taskType);
+        stats.getBatchesCounter().increment();
+        for (ToHousekeeperServiceMsg msg : msgs) {
+            if (msg.getTask().getErrorsCount() == 0) {
+                stats.getProcessedCounter().increment();
+            } else {
+                stats.getReprocessedCounter().increment();
+            }
+        }
+        stats.getProcessingTimer().record(timing / msgs.size());
+    }
+
+    public void reportBacklog(int size) {
+        backlog.set(size);
+    }
+
+    public void reportBacklogProcessed(int count) {
+        backlog.updateAndGet(size -> Math.max(0, size - count));
+    }
+
     public void reportFailure(HousekeeperTaskType taskType, ToHousekeeperServiceMsg msg) {
         HousekeeperStats stats = this.stats.get(taskType);
         if (msg.getTask().getErrorsCount() == 0) {
@@ -97,6 +121,7 @@ public class HousekeeperStatsService {
         private final StatsCounter failedProcessingCounter;
         private final StatsCounter reprocessedCounter;
         private final StatsCounter failedReprocessingCounter;
+        private final StatsCounter batchesCounter;
 
         private final StatsTimer processingTimer;
 
@@ -106,6 +131,7 @@ public class HousekeeperStatsService {
             this.failedProcessingCounter = register("failedProcessing", statsFactory);
             this.reprocessedCounter = register("reprocessed", statsFactory);
             this.failedReprocessingCounter = register("failedReprocessing", statsFactory);
+            this.batchesCounter = register("batches", statsFactory);
             this.processingTimer = statsFactory.createStatsTimer(StatsType.HOUSEKEEPER.getName(), "processingTime", "taskType", taskType.name());
         }
 
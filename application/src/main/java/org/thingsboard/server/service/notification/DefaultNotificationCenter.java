@@ -15,11 +15,20 @@
  */
 package org.thingsboard.server.service.notification;
 
+import com.google.common.collect.Iterables;
 import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.thingsboard.common.util.ThingsBoardExecutors;
 import org.thingsboard.rule.engine.api.NotificationCenter;
 import org.thingsboard.server.cache.limits.RateLimitService;
 import org.thingsboard.server.common.data.EntityType;
@@ -78,6 +87,7 @@ import org.thingsboard.server.service.ws.notification.sub.NotificationUpdate;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -103,7 +113,31 @@ public class DefaultNotificationCenter extends AbstractSubscriptionService imple
     private final TbQueueProducerProvider producerProvider;
     private final RateLimitService rateLimitService;
 
+    @Value("${notification_system.fan_out.batch_size:256}")
+    private int fanOutBatchSize;
+    @Value("${notification_system.fan_out.channel_thread_pool_size:4}")
+    private int channelThreadPoolSize;
+    @Value("${notification_system.fan_out.channel_queue_size:1000}")
+    private int channelQueueSize;
+    @Value("${notification_system.fan_out.stats_update_interval_ms:5000}")
+    private long statsUpdateIntervalMs;
+
     private Map<NotificationDeliveryMethod, NotificationChannel> channels;
+    private final Map<NotificationDeliveryMethod, ListeningExecutorService> channelExecutors = new EnumMap<>(NotificationDeliveryMethod.class);
+
+    @PostConstruct
+    public void init() {
+        for (NotificationDeliveryMethod deliveryMethod : NotificationDeliveryMethod.values()) {
+            String name = "notification-" + deliveryMethod.name().toLowerCase().replace('_', '-') + "-sender";
+            channelExecutors.put(deliveryMethod, MoreExecutors.listeningDecorator(
+                    ThingsBoardExecutors.newLimitedTasksExecutor(channelThreadPoolSize, channelQueueSize, name)));
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        channelExecutors.values().forEach(ListeningExecutorService::shutdownNow);
+    }
 
     @Override
     public NotificationRequest processNotificationRequest(TenantId tenantId, NotificationRequest request, FutureCallback<NotificationRequestStats> callback) {
@@ -239,6 +273,7 @@ public class DefaultNotificationCenter extends AbstractSubscriptionService imple
         notificationExecutor.submit(() -> {
             long startTs = System.currentTimeMillis();
             NotificationRequestId requestId = ctx.getRequest().getId();
+            ctx.setStartTs(startTs);
             for (NotificationTarget target : targets) {
                 try {
                     processForTarget(target, ctx);
@@ -255,6 +290,7 @@ public class DefaultNotificationCenter extends AbstractSubscriptionService imple
             }
 
             NotificationRequestStats stats = ctx.getStats();
+            stats.reportProgress(startTs);
             long time = System.currentTimeMillis() - startTs;
             int sent = stats.getTotalSent().get();
             int errors = stats.getTotalErrors().get();
@@ -271,13 +307,30 @@ public class DefaultNotificationCenter extends AbstractSubscriptionService imple
     }
 
     private void updateRequestStats(NotificationProcessingContext ctx, NotificationRequestId requestId, NotificationRequestStats stats) {
+        updateRequestStats(ctx, requestId, NotificationRequestStatus.SENT, stats);
+    }
+
+    private void updateRequestStats(NotificationProcessingContext ctx, NotificationRequestId requestId, NotificationRequestStatus status, NotificationRequestStats stats) {
         try {
-            notificationRequestService.updateNotificationRequest(ctx.getTenantId(), requestId, NotificationRequestStatus.SENT, stats);
+            notificationRequestService.updateNotificationRequest(ctx.getTenantId(), requestId, status, stats);
         } catch (Exception e) {
             log.error("[{}] Failed to update stats for notification request", requestId, e);
         }
     }
 
+    private void reportProgress(NotificationProcessingContext ctx) {
+        long now = System.currentTimeMillis();
+        if (ctx.getRequest().getId() == null || now - ctx.getLastStatsUpdateTs() < statsUpdateIntervalMs) {
+            return;
+        }
+        ctx.setLastStatsUpdateTs(now);
+        NotificationRequestStats stats = ctx.getStats();
+        stats.reportProgress(ctx.getStartTs());
+        log.debug("[{}][{}] Notification request processing progress: sent {}, errors {}, {} notifications/s", ctx.getTenantId(),
+                ctx.getRequest().getId(), stats.getTotalSent().get(), stats.getTotalErrors().get(), String.format("%.1f", stats.getThroughput()));
+        updateRequestStats(ctx, ctx.getRequest().getId(), NotificationRequestStatus.PROCESSING, stats);
+    }
+
     private void processForTarget(NotificationTarget target, NotificationProcessingContext ctx) {
         Iterable<? extends NotificationRecipient> recipients;
         switch (target.getConfiguration().getType()) {
@@ -286,11 +339,11 @@ public class DefaultNotificationCenter extends AbstractSubscriptionService imple
                 if (targetConfig.getUsersFilter().getType().isForRules() && ctx.getRequest().getInfo() instanceof RuleOriginatedNotificationInfo) {
                     recipients = new PageDataIterable<>(pageLink -> {
                         return notificationTargetService.findRecipientsForRuleNotificationTargetConfig(ctx.getTenantId(), targetConfig, (RuleOriginatedNotificationInfo) ctx.getRequest().getInfo(), pageLink);
-                    }, 256);
+                    }, fanOutBatchSize);
                 } else {
                     recipients = new PageDataIterable<>(pageLink -> {
                         return notificationTargetService.findRecipientsForNotificationTargetConfig(target.getTenantId(), targetConfig, pageLink);
-                    }, 256);
+                    }, fanOutBatchSize);
                 }
             }
             case SLACK -> {
@@ -311,19 +364,88 @@ public class DefaultNotificationCenter extends AbstractSubscriptionService imple
             return;
         }
 
-        for (NotificationRecipient recipient : recipients) {
+        /*
+         * Recipients are processed in batches: web notifications of a batch are inserted with a single batch insert,
+         * other delivery methods are sent in parallel on the bounded per-channel executors.
+         * The next batch is fetched when the current one is completed, so the memory usage does not depend on the recipients count
+         * */
+        for (List<? extends NotificationRecipient> batch : Iterables.partition(recipients, fanOutBatchSize)) {
+            List<ListenableFuture<?>> futures = new ArrayList<>();
             for (NotificationDeliveryMethod deliveryMethod : deliveryMethods) {
-                try {
-                    processForRecipient(deliveryMethod, recipient, ctx);
-                    ctx.getStats().reportSent(deliveryMethod, recipient);
-                } catch (Exception error) {
-                    ctx.getStats().reportError(deliveryMethod, error, recipient);
+                ListeningExecutorService executor = channelExecutors.get(deliveryMethod);
+                if (deliveryMethod == WEB) {
+                    futures.add(executor.submit(() -> processWebNotifications(batch, ctx)));
+                } else {
+                    for (NotificationRecipient recipient : batch) {
+                        futures.add(executor.submit(() -> processForRecipient(deliveryMethod, recipient, ctx)));
+                    }
                 }
             }
+            try {
+                Futures.successfulAsList(futures).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Notification request processing interrupted", e);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+            reportProgress(ctx);
+        }
+    }
+
+    private void processForRecipient(NotificationDeliveryMethod deliveryMethod, NotificationRecipient recipient, NotificationProcessingContext ctx) {
+        try {
+            checkRecipient(deliveryMethod, recipient, ctx);
+            NotificationChannel notificationChannel = channels.get(deliveryMethod);
+            DeliveryMethodNotificationTemplate processedTemplate = ctx.getProcessedTemplate(deliveryMethod, recipient);
+
+            log.trace("[{}] Sending {} notification for recipient {}", ctx.getRequest().getId(), deliveryMethod, recipient);
+            notificationChannel.sendNotification(recipient, processedTemplate, ctx);
+            ctx.getStats().reportSent(deliveryMethod, recipient);
+        } catch (Exception error) {
+            ctx.getStats().reportError(deliveryMethod, error, recipient);
         }
     }
 
-    private void processForRecipient(NotificationDeliveryMethod deliveryMethod, NotificationRecipient recipient, NotificationProcessingContext ctx) throws Exception {
+    private void processWebNotifications(List<? extends NotificationRecipient> recipients, NotificationProcessingContext ctx) {
+        List<User> users = new ArrayList<>(recipients.size());
+        List<Notification> notifications = new ArrayList<>(recipients.size());
+        for (NotificationRecipient recipient : recipients) {
+            try {
+                checkRecipient(WEB, recipient, ctx);
+                WebDeliveryMethodNotificationTemplate processedTemplate = ctx.getProcessedTemplate(WEB, recipient);
+                users.add((User) recipient);
+                notifications.add(toWebNotification((User) recipient, processedTemplate, ctx));
+            } catch (Exception error) {
+                ctx.getStats().reportError(WEB, error, recipient);
+            }
+        }
+        if (notifications.isEmpty()) {
+            return;
+        }
+        try {
+            notifications = notificationService.saveNotifications(ctx.getTenantId(), notifications);
+        } catch (Exception e) {
+            log.error("[{}] Failed to create {} notifications", ctx.getRequest().getId(), notifications.size(), e);
+            users.forEach(user -> ctx.getStats().reportError(WEB, e, user));
+            return;
+        }
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            NotificationUpdate update = NotificationUpdate.builder()
+                    .created(true)
+                    .notification(notifications.get(i))
+                    .build();
+            try {
+                onNotificationUpdate(user.getTenantId(), user.getId(), update);
+                ctx.getStats().reportSent(WEB, user);
+            } catch (Exception error) {
+                ctx.getStats().reportError(WEB, error, user);
+            }
+        }
+    }
+
+    private void checkRecipient(NotificationDeliveryMethod deliveryMethod, NotificationRecipient recipient, NotificationProcessingContext ctx) {
         if (ctx.getStats().contains(deliveryMethod, recipient.getId())) {
             throw new AlreadySentException();
         } else {
@@ -336,28 +458,11 @@ public class DefaultNotificationCenter extends AbstractSubscriptionService imple
                 throw new RuntimeException("User disabled " + deliveryMethod.getName() + " notifications of this type");
             }
         }
-
-        NotificationChannel notificationChannel = channels.get(deliveryMethod);
-        DeliveryMethodNotificationTemplate processedTemplate = ctx.getProcessedTemplate(deliveryMethod, recipient);
-
-        log.trace("[{}] Sending {} notification for recipient {}", ctx.getRequest().getId(), deliveryMethod, recipient);
-        notificationChannel.sendNotification(recipient, processedTemplate, ctx);
     }
 
     @Override
     public void sendNotification(User recipient, WebDeliveryMethodNotificationTemplate processedTemplate, NotificationProcessingContext ctx) throws Exception {
-        NotificationRequest request = ctx.getRequest();
-        Notification notification = Notification.builder()
-                .requestId(request.getId())
-                .recipientId(recipient.getId())
-                .type(ctx.getNotificationType())
-                .deliveryMethod(WEB)
-                .subject(processedTemplate.getSubject())
-                .text(processedTemplate.getBody())
-                .additionalConfig(processedTemplate.getAdditionalConfig())
-                .info(request.getInfo())
-                .status(NotificationStatus.SENT)
-                .build();
+        Notification notification = toWebNotification(recipient, processedTemplate, ctx);
         try {
             notification = notificationService.saveNotification(recipient.getTenantId(), notification);
         } catch (Exception e) {
@@ -372,6 +477,21 @@ public class DefaultNotificationCenter extends AbstractSubscriptionService imple
         onNotificationUpdate(recipient.getTenantId(), recipient.getId(), update);
     }
 
+    private Notification toWebNotification(User recipient, WebDeliveryMethodNotificationTemplate processedTemplate, NotificationProcessingContext ctx) {
+        NotificationRequest request = ctx.getRequest();
+        return Notification.builder()
+                .requestId(request.getId())
+                .recipientId(recipient.getId())
+                .type(ctx.getNotificationType())
+                .deliveryMethod(WEB)
+                .subject(processedTemplate.getSubject())
+                .text(processedTemplate.getBody())
+                .additionalConfig(processedTemplate.getAdditionalConfig())
+                .info(request.getInfo())
+                .status(NotificationStatus.SENT)
+                .build();
+    }
+
     @Override
     public void markNotificationAsRead(TenantId tenantId, UserId recipientId, NotificationId notificationId) {
         boolean updated = notificationService.markNotificationAsRead(tenantId, recipientId, notificationId);
@@ -18,6 +18,7 @@ package org.thingsboard.server.service.notification;
 import com.google.common.base.Strings;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.Setter;
 import org.apache.commons.lang3.StringUtils;
 import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.notification.NotificationDeliveryMethod;
@@ -56,6 +57,11 @@ public class NotificationProcessingContext {
     private final Map<NotificationDeliveryMethod, DeliveryMethodNotificationTemplate> templates;
     @Getter
     private final NotificationRequestStats stats;
+    @Getter
+    private volatile long startTs;
+    @Getter
+    @Setter
+    private volatile long lastStatsUpdateTs;
 
     @Builder
     public NotificationProcessingContext(TenantId tenantId, NotificationRequest request, Set<NotificationDeliveryMethod> deliveryMethods,
@@ -82,6 +88,11 @@ public class NotificationProcessingContext {
         });
     }
 
+    public void setStartTs(long startTs) {
+        this.startTs = startTs;
+        this.lastStatsUpdateTs = startTs;
+    }
+
     public <C extends NotificationDeliveryMethodConfig> C getDeliveryMethodConfig(NotificationDeliveryMethod deliveryMethod) {
         NotificationSettings settings;
         if (deliveryMethod == NotificationDeliveryMethod.MOBILE_APP) {
@@ -73,6 +73,7 @@ import org.thingsboard.server.common.util.ProtoUtils;
 import org.thingsboard.server.dao.edge.EdgeService;
 import org.thingsboard.server.gen.transport.TransportProtos;
 import org.thingsboard.server.gen.transport.TransportProtos.ComponentLifecycleMsgProto;
+import org.thingsboard.server.gen.transport.TransportProtos.DeviceCredentialsChangeMsg;
 import org.thingsboard.server.gen.transport.TransportProtos.DeviceStateServiceMsgProto;
 import org.thingsboard.server.gen.transport.TransportProtos.EdgeNotificationMsgProto;
 import org.thingsboard.server.gen.transport.TransportProtos.EntityDeleteMsg;
@@ -424,6 +425,18 @@ public class DefaultTbClusterService implements TbClusterService {
         broadcastEntityStateChangeEvent(tenantId, deviceId, ComponentLifecycleEvent.DELETED);
     }
 
+    @Override
+    public void onDeviceCredentialsUpdated(TenantId tenantId, DeviceId deviceId, TbQueueCallback callback) {
+        log.trace("[{}][{}] Processing device credentials update event", tenantId, deviceId);
+        DeviceCredentialsChangeMsg credentialsChangeMsg = DeviceCredentialsChangeMsg.newBuilder()
+                .setTenantIdMSB(tenantId.getId().getMostSignificantBits())
+                .setTenantIdLSB(tenantId.getId().getLeastSignificantBits())
+                .setDeviceIdMSB(deviceId.getId().getMostSignificantBits())
+                .setDeviceIdLSB(deviceId.getId().getLeastSignificantBits())
+                .build();
+        broadcast(ToTransportMsg.newBuilder().setDeviceCredentialsChangeMsg(credentialsChangeMsg).build(), callback);
+    }
+
     @Override
     public void onAssetDeleted(TenantId tenantId, Asset asset, TbQueueCallback callback) {
         AssetId assetId = asset.getId();
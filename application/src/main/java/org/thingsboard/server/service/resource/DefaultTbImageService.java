@@ -21,6 +21,7 @@ import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.thingsboard.server.cluster.TbClusterService;
 import org.thingsboard.server.common.data.EntityType;
 import org.thingsboard.server.common.data.ImageDescriptor;
@@ -32,6 +33,7 @@ import org.thingsboard.server.common.data.User;
 import org.thingsboard.server.common.data.audit.ActionType;
 import org.thingsboard.server.common.data.id.TbResourceId;
 import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.dao.eventsourcing.DeleteEntityEvent;
 import org.thingsboard.server.dao.resource.ImageCacheKey;
 import org.thingsboard.server.dao.resource.ImageService;
 import org.thingsboard.server.gen.transport.TransportProtos;
@@ -59,11 +61,14 @@ public class DefaultTbImageService extends AbstractTbEntityService implements Tb
     private final ImageService imageService;
     private final AccessControlService accessControlService;
     private final Cache<ImageCacheKey, String> etagCache;
+    private final Cache<ImageCacheKey, CachedImageData> publicImageDataCache;
 
     public DefaultTbImageService(TbClusterService clusterService, ImageService imageService,
                                  AccessControlService accessControlService,
                                  @Value("${cache.image.etag.timeToLiveInMinutes:44640}") int cacheTtl,
-                                 @Value("${cache.image.etag.maxSize:10000}") int cacheMaxSize) {
+                                 @Value("${cache.image.etag.maxSize:10000}") int cacheMaxSize,
+                                 @Value("${cache.image.publicData.maxSizeInMb:64}") int publicDataCacheMaxSizeInMb,
+                                 @Value("${cache.image.publicData.timeToLiveInMinutes:60}") int publicDataCacheTtl) {
         this.clusterService = clusterService;
         this.imageService = imageService;
         this.accessControlService = accessControlService;
@@ -71,6 +76,11 @@ public class DefaultTbImageService extends AbstractTbEntityService implements Tb
                 .expireAfterAccess(cacheTtl, TimeUnit.MINUTES)
                 .maximumSize(cacheMaxSize)
                 .build();
+        this.publicImageDataCache = Caffeine.newBuilder()
+                .expireAfterWrite(publicDataCacheTtl, TimeUnit.MINUTES)
+                .maximumWeight(Math.max(publicDataCacheMaxSizeInMb, 0) * 1024L)
+                .weigher((ImageCacheKey key, CachedImageData imageData) -> imageData.data().length / 1024 + 1)
+                .build();
     }
 
     @Override
@@ -88,9 +98,28 @@ public class DefaultTbImageService extends AbstractTbEntityService implements Tb
         etagCache.invalidate(imageCacheKey);
         if (imageCacheKey.getPublicResourceKey() == null) {
             etagCache.invalidate(imageCacheKey.withPreview(true));
+        } else {
+            publicImageDataCache.invalidate(imageCacheKey);
         }
     }
 
+    @Override
+    public CachedImageData getPublicImageData(ImageCacheKey imageCacheKey) {
+        return publicImageDataCache.getIfPresent(imageCacheKey);
+    }
+
+    @Override
+    public void putPublicImageData(ImageCacheKey imageCacheKey, CachedImageData imageData) {
+        publicImageDataCache.put(imageCacheKey, imageData);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true,
+            condition = "#event.entityId.getEntityType() == T(org.thingsboard.server.common.data.EntityType).TENANT")
+    public void handleTenantDeleteEvent(DeleteEntityEvent<?> event) {
+        TenantId tenantId = event.getTenantId();
+        publicImageDataCache.asMap().values().removeIf(imageData -> tenantId.equals(imageData.tenantId()));
+    }
+
     @Override
     public TbResourceInfo save(TbResource image, User user) throws Exception {
         ActionType actionType = image.getId() == null ? ActionType.ADDED : ActionType.UPDATED;
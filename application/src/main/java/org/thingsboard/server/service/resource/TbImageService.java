@@ -37,6 +37,10 @@ public interface TbImageService {
 
     void evictETags(ImageCacheKey imageCacheKey);
 
+    CachedImageData getPublicImageData(ImageCacheKey imageCacheKey);
+
+    void putPublicImageData(ImageCacheKey imageCacheKey, CachedImageData imageData);
+
     TbResourceInfo importImage(ResourceExportData imageData, boolean checkExisting, SecurityUser user) throws Exception;
 
 }
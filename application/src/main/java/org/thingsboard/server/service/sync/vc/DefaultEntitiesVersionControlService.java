@@ -17,16 +17,21 @@ package org.thingsboard.server.service.sync.vc;
 
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.support.TransactionTemplate;
 import org.thingsboard.common.util.DonAsynchron;
 import org.thingsboard.common.util.JacksonUtil;
 import org.thingsboard.common.util.TbStopWatch;
+import org.thingsboard.common.util.ThingsBoardThreadFactory;
 import org.thingsboard.server.cache.TbTransactionalCache;
 import org.thingsboard.server.common.data.EntityType;
 import org.thingsboard.server.common.data.ExportableEntity;
@@ -93,6 +98,8 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.function.Function;
 
 import static com.google.common.util.concurrent.Futures.transform;
@@ -114,6 +121,25 @@ public class DefaultEntitiesVersionControlService implements EntitiesVersionCont
     private final TbTransactionalCache<UUID, VersionControlTaskCacheEntry> taskCache;
     private final VersionControlExecutor executor;
 
+    @Value("${vc.export.parallelism:4}")
+    private int exportParallelism;
+    @Value("${vc.export.max_pending_entities:100}")
+    private int exportMaxPendingEntities;
+
+    private ListeningExecutorService exportExecutor;
+
+    @PostConstruct
+    public void init() {
+        exportExecutor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(Math.max(exportParallelism, 1), ThingsBoardThreadFactory.forName("vc-export")));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (exportExecutor != null) {
+            exportExecutor.shutdownNow();
+        }
+    }
+
     @Override
     public ListenableFuture<UUID> saveEntitiesVersion(User user, VersionCreateRequest request) {
         checkBranchName(request.getBranch());
@@ -181,6 +207,8 @@ public class DefaultEntitiesVersionControlService implements EntitiesVersionCont
 
     private void handleComplexRequest(ComplexEntitiesExportCtx parentCtx) {
         ComplexVersionCreateRequest request = parentCtx.getRequest();
+        // bounds the entities queued for export, so the entity ids are fetched only as fast as they are exported
+        Semaphore pendingEntities = new Semaphore(Math.max(exportMaxPendingEntities, 1));
         request.getEntityTypes().forEach((entityType, config) -> {
             EntityTypeExportCtx ctx = new EntityTypeExportCtx(parentCtx, config, request.getSyncStrategy(), entityType);
             if (ctx.isOverwrite()) {
@@ -189,25 +217,31 @@ public class DefaultEntitiesVersionControlService implements EntitiesVersionCont
 
             if (config.isAllEntities()) {
                 DaoUtil.processInBatches(pageLink -> exportableEntitiesService.findEntitiesIdsByTenantId(ctx.getTenantId(), entityType, pageLink),
-                        100, entityId -> {
-                            try {
-                                ctx.add(saveEntityData(ctx, entityId));
-                            } catch (Exception e) {
-                                throw new RuntimeException(e);
-                            }
-                        });
+                        100, entityId -> ctx.add(submitEntityData(ctx, entityId, pendingEntities)));
             } else {
                 for (UUID entityId : config.getEntityIds()) {
-                    try {
-                        ctx.add(saveEntityData(ctx, EntityIdFactory.getByTypeAndUuid(entityType, entityId)));
-                    } catch (Exception e) {
-                        throw new RuntimeException(e);
-                    }
+                    ctx.add(submitEntityData(ctx, EntityIdFactory.getByTypeAndUuid(entityType, entityId), pendingEntities));
                 }
             }
         });
     }
 
+    private ListenableFuture<Void> submitEntityData(EntitiesExportCtx<?> ctx, EntityId entityId, Semaphore pendingEntities) {
+        try {
+            pendingEntities.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        return Futures.submitAsync(() -> {
+            try {
+                return saveEntityData(ctx, entityId);
+            } finally {
+                pendingEntities.release();
+            }
+        }, exportExecutor);
+    }
+
     private ListenableFuture<Void> saveEntityData(EntitiesExportCtx<?> ctx, EntityId entityId) throws Exception {
         EntityExportData<ExportableEntity<EntityId>> entityData = exportImportService.exportEntity(ctx, entityId);
         return gitServiceQueue.addToCommit(ctx.getCommit(), entityData);
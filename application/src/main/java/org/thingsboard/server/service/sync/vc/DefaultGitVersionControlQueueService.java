@@ -307,8 +307,11 @@ public class DefaultGitVersionControlQueueService implements GitVersionControlQu
                     submitFuture.setException(t);
                 }
             });
-            if (request.getTimeoutTask() == null) {
-                request.setTimeoutTask(scheduler.schedule(() -> processTimeout(request.getRequestId()), requestTimeout, TimeUnit.MILLISECONDS));
+            // entities of a commit are exported in parallel, so the timeout task must be scheduled only once
+            synchronized (request) {
+                if (request.getTimeoutTask() == null) {
+                    request.setTimeoutTask(scheduler.schedule(() -> processTimeout(request.getRequestId()), requestTimeout, TimeUnit.MILLISECONDS));
+                }
             }
             return submitFuture;
         } else {
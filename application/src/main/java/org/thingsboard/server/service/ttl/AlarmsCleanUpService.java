@@ -21,6 +21,7 @@ import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.thingsboard.server.common.data.TenantProfile;
 import org.thingsboard.server.common.data.alarm.Alarm;
 import org.thingsboard.server.common.data.audit.ActionType;
 import org.thingsboard.server.common.data.id.AlarmId;
@@ -33,6 +34,7 @@ import org.thingsboard.server.common.msg.queue.ServiceType;
 import org.thingsboard.server.dao.alarm.AlarmDao;
 import org.thingsboard.server.dao.alarm.AlarmService;
 import org.thingsboard.server.dao.tenant.TbTenantProfileCache;
+import org.thingsboard.server.dao.tenant.TenantProfileService;
 import org.thingsboard.server.dao.tenant.TenantService;
 import org.thingsboard.server.queue.discovery.PartitionService;
 import org.thingsboard.server.queue.util.TbCoreComponent;
@@ -54,6 +56,7 @@ public class AlarmsCleanUpService {
     private Integer removalBatchSize;
 
     private final TenantService tenantService;
+    private final TenantProfileService tenantProfileService;
     private final AlarmDao alarmDao;
     private final AlarmService alarmService;
     private final EntityActionService entityActionService;
@@ -62,12 +65,19 @@ public class AlarmsCleanUpService {
 
     @Scheduled(initialDelayString = "#{T(org.apache.commons.lang3.RandomUtils).nextLong(0, ${sql.ttl.alarms.checking_interval})}", fixedDelayString = "${sql.ttl.alarms.checking_interval}")
     public void cleanUp() {
-        PageDataIterable<TenantId> tenants = new PageDataIterable<>(tenantService::findTenantsIds, 10_000);
-        for (TenantId tenantId : tenants) {
-            try {
-                cleanUp(tenantId);
-            } catch (Exception e) {
-                getLogger().warn("Failed to clean up alarms by ttl for tenant {}", tenantId, e);
+        // alarms TTL is configured per tenant profile, so only the tenants of the profiles with the TTL set are visited
+        PageDataIterable<TenantProfile> tenantProfiles = new PageDataIterable<>(pageLink -> tenantProfileService.findTenantProfiles(TenantId.SYS_TENANT_ID, pageLink), 1000);
+        for (TenantProfile tenantProfile : tenantProfiles) {
+            if (tenantProfile.getProfileConfiguration().map(DefaultTenantProfileConfiguration::getAlarmsTtlDays).orElse(0) == 0) {
+                continue;
+            }
+            PageDataIterable<TenantId> tenantIds = new PageDataIterable<>(pageLink -> tenantService.findTenantIdsByTenantProfileId(tenantProfile.getId(), pageLink), 10_000);
+            for (TenantId tenantId : tenantIds) {
+                try {
+                    cleanUp(tenantId);
+                } catch (Exception e) {
+                    getLogger().warn("Failed to clean up alarms by ttl for tenant {}", tenantId, e);
+                }
             }
         }
     }
@@ -0,0 +1,56 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.ttl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.thingsboard.server.dao.audit.AuditLogDao;
+import org.thingsboard.server.dao.event.EventService;
+import org.thingsboard.server.queue.discovery.PartitionService;
+
+@Slf4j
+@Service
+public class PartitionsCreateAheadService extends AbstractCleanUpService {
+
+    private final EventService eventService;
+    private final AuditLogDao auditLogDao;
+
+    public PartitionsCreateAheadService(PartitionService partitionService, EventService eventService, AuditLogDao auditLogDao) {
+        super(partitionService);
+        this.eventService = eventService;
+        this.auditLogDao = auditLogDao;
+    }
+
+    @Scheduled(initialDelayString = "#{T(org.apache.commons.lang3.RandomUtils).nextLong(0, ${sql.partitions_create_ahead_interval_ms:3600000})}",
+            fixedDelayString = "${sql.partitions_create_ahead_interval_ms:3600000}")
+    public void createPartitionsAhead() {
+        if (!isSystemTenantPartitionMine()) {
+            return;
+        }
+        try {
+            eventService.createPartitionsAhead();
+        } catch (Exception e) {
+            log.warn("Failed to create upcoming partitions of the event tables", e);
+        }
+        try {
+            auditLogDao.createPartitionsAhead();
+        } catch (Exception e) {
+            log.warn("Failed to create upcoming partitions of the audit logs table", e);
+        }
+    }
+
+}
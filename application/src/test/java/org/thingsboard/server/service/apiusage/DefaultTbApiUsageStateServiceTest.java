@@ -27,26 +27,35 @@ import org.thingsboard.server.common.data.TenantProfile;
 import org.thingsboard.server.common.data.id.ApiUsageStateId;
 import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
 import org.thingsboard.server.common.data.tenant.profile.DefaultTenantProfileConfiguration;
 import org.thingsboard.server.common.data.tenant.profile.TenantProfileData;
 import org.thingsboard.server.common.msg.queue.TbCallback;
 import org.thingsboard.server.controller.AbstractControllerTest;
 import org.thingsboard.server.dao.service.DaoSqlTest;
+import org.thingsboard.server.dao.timeseries.TimeseriesService;
 import org.thingsboard.server.dao.usagerecord.ApiUsageStateService;
 import org.thingsboard.server.gen.transport.TransportProtos;
 import org.thingsboard.server.queue.common.TbProtoQueueMsg;
 
 import java.lang.reflect.Field;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import static java.time.ZoneOffset.UTC;
 import static java.time.temporal.ChronoField.DAY_OF_MONTH;
 import static java.time.temporal.ChronoUnit.MONTHS;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
 import static org.junit.Assert.assertEquals;
 
 @DaoSqlTest
@@ -58,6 +67,9 @@ public class DefaultTbApiUsageStateServiceTest extends AbstractControllerTest {
     @Autowired
     private ApiUsageStateService apiUsageStateService;
 
+    @Autowired
+    private TimeseriesService tsService;
+
     private TenantId tenantId;
     private Tenant savedTenant;
     private TenantProfile savedTenantProfile;
@@ -122,6 +134,47 @@ public class DefaultTbApiUsageStateServiceTest extends AbstractControllerTest {
         assertEquals(ApiUsageStateValue.DISABLED, apiUsageStateService.findTenantApiUsageState(tenantId).getDbStorageState());
     }
 
+    @Test
+    public void testProcess_concurrentReportsForSameTenantAreNotLost() throws Exception {
+        int threads = 8;
+        int reportsPerThread = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < reportsPerThread; j++) {
+                        service.process(createStatsMsg(ApiUsageRecordKey.TRANSPORT_MSG_COUNT, 1), TbCallback.EMPTY);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(service.myUsageStates.get(tenantId).get(ApiUsageRecordKey.TRANSPORT_MSG_COUNT)).isEqualTo((long) threads * reportsPerThread);
+    }
+
+    @Test
+    public void testProcess_counterWritesAreCoalescedUntilFlush() throws Exception {
+        service.flushPendingTsWrites();
+        ApiUsageStateId apiUsageStateId = apiUsageStateService.findTenantApiUsageState(tenantId).getId();
+        String countKey = ApiUsageRecordKey.TRANSPORT_MSG_COUNT.getApiCountKey();
+
+        service.process(createStatsMsg(ApiUsageRecordKey.TRANSPORT_MSG_COUNT, 3), TbCallback.EMPTY);
+        service.process(createStatsMsg(ApiUsageRecordKey.TRANSPORT_MSG_COUNT, 4), TbCallback.EMPTY);
+        service.flushPendingTsWrites();
+
+        await().atMost(TIMEOUT, TimeUnit.SECONDS).untilAsserted(() -> {
+            Optional<TsKvEntry> latest = tsService.findLatest(tenantId, apiUsageStateId, countKey).get();
+            assertThat(latest).isPresent();
+            assertThat(latest.get().getLongValue()).contains(7L);
+        });
+    }
+
     @Test
     public void checkStartOfNextCycle_setsNextCycleToNextMonth() throws Exception {
         ApiUsageState apiUsageState = new ApiUsageState(new ApiUsageStateId(UUID.randomUUID()));
@@ -157,6 +210,21 @@ public class DefaultTbApiUsageStateServiceTest extends AbstractControllerTest {
         assertThat(tenantApiUsageState.getNextCycleTs()).isEqualTo(firstOfNextMonth);
     }
 
+    private TbProtoQueueMsg<TransportProtos.ToUsageStatsServiceMsg> createStatsMsg(ApiUsageRecordKey key, long value) {
+        TransportProtos.ToUsageStatsServiceMsg msg = TransportProtos.ToUsageStatsServiceMsg.newBuilder()
+                .setTenantIdMSB(tenantId.getId().getMostSignificantBits())
+                .setTenantIdLSB(tenantId.getId().getLeastSignificantBits())
+                .setCustomerIdMSB(0)
+                .setCustomerIdLSB(0)
+                .setServiceId("testService")
+                .addValues(TransportProtos.UsageStatsKVProto.newBuilder()
+                        .setKey(key.name())
+                        .setValue(value)
+                        .build())
+                .build();
+        return new TbProtoQueueMsg<>(UUID.randomUUID(), msg);
+    }
+
     private TenantProfile createTenantProfile() {
         TenantProfile tenantProfile = new TenantProfile();
         tenantProfile.setName("Tenant Profile");
@@ -64,6 +64,7 @@ import org.thingsboard.server.common.data.query.EdgeSearchQueryFilter;
 import org.thingsboard.server.common.data.query.EdgeTypeFilter;
 import org.thingsboard.server.common.data.query.EntityCountQuery;
 import org.thingsboard.server.common.data.query.EntityData;
+import org.thingsboard.server.common.data.query.EntityDataCountMode;
 import org.thingsboard.server.common.data.query.EntityDataPageLink;
 import org.thingsboard.server.common.data.query.EntityDataQuery;
 import org.thingsboard.server.common.data.query.EntityDataSortOrder;
@@ -862,6 +863,47 @@ public class EntityServiceTest extends AbstractControllerTest {
         deviceService.deleteDevicesByTenantId(tenantId);
     }
 
+    @Test
+    public void testFindEntityDataByQueryWithDifferentCountModes() throws InterruptedException {
+        for (int i = 0; i < 97; i++) {
+            Device device = new Device();
+            device.setTenantId(tenantId);
+            device.setName("Device" + i);
+            device.setType("default");
+            //TO make sure devices have different created time
+            Thread.sleep(1);
+            deviceService.saveDevice(device);
+        }
+
+        DeviceTypeFilter filter = new DeviceTypeFilter();
+        filter.setDeviceTypes(List.of("default"));
+        filter.setDeviceNameFilter("");
+
+        EntityDataSortOrder sortOrder = new EntityDataSortOrder(
+                new EntityKey(EntityKeyType.ENTITY_FIELD, "createdTime"), EntityDataSortOrder.Direction.ASC
+        );
+        List<EntityKey> entityFields = Collections.singletonList(new EntityKey(EntityKeyType.ENTITY_FIELD, "name"));
+
+        for (int page : List.of(0, 5, 9, 10)) {
+            for (String textSearch : Arrays.asList(null, "device1")) {
+                PageData<EntityData> expected = findByQuery(new EntityDataQuery(filter,
+                        new EntityDataPageLink(10, page, textSearch, sortOrder, false, EntityDataCountMode.SEPARATE), entityFields, null, null));
+                for (EntityDataCountMode countMode : List.of(EntityDataCountMode.WINDOW, EntityDataCountMode.ESTIMATED)) {
+                    PageData<EntityData> actual = findByQuery(new EntityDataQuery(filter,
+                            new EntityDataPageLink(10, page, textSearch, sortOrder, false, countMode), entityFields, null, null));
+                    String message = countMode + " page " + page + " search " + textSearch;
+                    Assert.assertEquals(message, expected.getTotalElements(), actual.getTotalElements());
+                    Assert.assertEquals(message, expected.getTotalPages(), actual.getTotalPages());
+                    Assert.assertEquals(message, expected.hasNext(), actual.hasNext());
+                    Assert.assertEquals(message, expected.getData().stream().map(EntityData::getEntityId).collect(Collectors.toList()),
+                            actual.getData().stream().map(EntityData::getEntityId).collect(Collectors.toList()));
+                }
+            }
+        }
+
+        deviceService.deleteDevicesByTenantId(tenantId);
+    }
+
     @Test
     public void testFindEntityDataByQuery_operationEqual_emptySearchQuery() {
         List<Device> devices = createMockDevices(10);
@@ -0,0 +1,78 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.housekeeper.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.thingsboard.server.common.data.housekeeper.HousekeeperTask;
+import org.thingsboard.server.common.data.id.AssetId;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.dao.attributes.AttributesService;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+
+@ExtendWith(MockitoExtension.class)
+public class AttributesDeletionTaskProcessorTest {
+
+    @Mock
+    private AttributesService attributesService;
+    @InjectMocks
+    private AttributesDeletionTaskProcessor processor;
+
+    private final TenantId tenantId = TenantId.fromUUID(UUID.randomUUID());
+
+    @Test
+    public void givenTasks_whenProcessBatch_thenAttributesOfAllEntitiesRemovedAtOnce() throws Exception {
+        DeviceId deviceId = new DeviceId(UUID.randomUUID());
+        AssetId assetId = new AssetId(UUID.randomUUID());
+        List<EntityId> entityIds = List.of(deviceId, assetId);
+        given(attributesService.removeAllByEntityIds(tenantId, entityIds)).willReturn(5);
+
+        processor.processBatch(tenantId, List.of(
+                HousekeeperTask.deleteAttributes(tenantId, deviceId),
+                HousekeeperTask.deleteAttributes(tenantId, assetId)
+        ));
+
+        then(attributesService).should().removeAllByEntityIds(tenantId, entityIds);
+        then(attributesService).shouldHaveNoMoreInteractions();
+    }
+
+    @Test
+    public void givenTask_whenProcess_thenAttributesOfEntityRemoved() throws Exception {
+        DeviceId deviceId = new DeviceId(UUID.randomUUID());
+
+        processor.process(HousekeeperTask.deleteAttributes(tenantId, deviceId));
+
+        then(attributesService).should().removeAllByEntityId(tenantId, deviceId);
+        then(attributesService).shouldHaveNoMoreInteractions();
+    }
+
+    @Test
+    public void whenIsBatchProcessingSupported_thenTrue() {
+        assertThat(processor.isBatchProcessingSupported()).isTrue();
+    }
+
+}
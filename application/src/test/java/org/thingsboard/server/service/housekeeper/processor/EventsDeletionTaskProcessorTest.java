@@ -0,0 +1,76 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.housekeeper.processor;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.thingsboard.server.common.data.housekeeper.HousekeeperTask;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.RuleNodeId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.dao.event.EventService;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.then;
+
+@ExtendWith(MockitoExtension.class)
+public class EventsDeletionTaskProcessorTest {
+
+    @Mock
+    private EventService eventService;
+    @InjectMocks
+    private EventsDeletionTaskProcessor processor;
+
+    private final TenantId tenantId = TenantId.fromUUID(UUID.randomUUID());
+
+    @Test
+    public void givenTasks_whenProcessBatch_thenEventsOfAllEntitiesRemovedWithinTimeBounds() throws Exception {
+        DeviceId deviceId = new DeviceId(UUID.randomUUID());
+        RuleNodeId ruleNodeId = new RuleNodeId(UUID.randomUUID());
+        long startTs = System.currentTimeMillis();
+
+        processor.processBatch(tenantId, List.of(
+                HousekeeperTask.deleteEvents(tenantId, deviceId),
+                HousekeeperTask.deleteEvents(tenantId, ruleNodeId)
+        ));
+
+        ArgumentCaptor<Long> endTime = ArgumentCaptor.forClass(Long.class);
+        then(eventService).should().removeEvents(eq(tenantId), eq(List.of(deviceId, ruleNodeId)), eq(0L), endTime.capture());
+        then(eventService).shouldHaveNoMoreInteractions();
+        assertThat(endTime.getValue()).isBetween(startTs, System.currentTimeMillis());
+    }
+
+    @Test
+    public void givenTask_whenProcess_thenEventsOfEntityRemovedWithinTimeBounds() throws Exception {
+        DeviceId deviceId = new DeviceId(UUID.randomUUID());
+
+        processor.process(HousekeeperTask.deleteEvents(tenantId, deviceId));
+
+        then(eventService).should().removeEvents(eq(tenantId), eq(deviceId), isNull(), eq(0L), anyLong());
+        then(eventService).shouldHaveNoMoreInteractions();
+    }
+
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.housekeeper.processor;
+
+import com.google.common.util.concurrent.Futures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.thingsboard.server.common.data.housekeeper.TsHistoryDeletionHousekeeperTask;
+import org.thingsboard.server.common.data.id.AssetId;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.DeleteTsKvQuery;
+import org.thingsboard.server.dao.timeseries.TimeseriesService;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+
+@ExtendWith(MockitoExtension.class)
+public class TsHistoryDeletionTaskProcessorTest {
+
+    @Mock
+    private TimeseriesService timeseriesService;
+    @InjectMocks
+    private TsHistoryDeletionTaskProcessor processor;
+
+    private final TenantId tenantId = TenantId.fromUUID(UUID.randomUUID());
+
+    @Test
+    public void givenTasks_whenProcessBatch_thenHistoryOfEachKeyRemovedAtOnce() throws Exception {
+        DeviceId deviceId = new DeviceId(UUID.randomUUID());
+        AssetId assetId = new AssetId(UUID.randomUUID());
+        given(timeseriesService.removeHistory(eq(tenantId), anyList(), any())).willReturn(Futures.immediateFuture(null));
+
+        processor.processBatch(tenantId, List.of(
+                new TsHistoryDeletionHousekeeperTask(tenantId, deviceId, "temperature"),
+                new TsHistoryDeletionHousekeeperTask(tenantId, assetId, "temperature"),
+                new TsHistoryDeletionHousekeeperTask(tenantId, deviceId, "humidity")
+        ));
+
+        ArgumentCaptor<DeleteTsKvQuery> temperatureQuery = ArgumentCaptor.forClass(DeleteTsKvQuery.class);
+        then(timeseriesService).should().removeHistory(eq(tenantId), eq(List.<EntityId>of(deviceId, assetId)), temperatureQuery.capture());
+        assertThat(temperatureQuery.getValue().getKey()).isEqualTo("temperature");
+        assertThat(temperatureQuery.getValue().getStartTs()).isZero();
+        assertThat(temperatureQuery.getValue().getDeleteLatest()).isFalse();
+
+        ArgumentCaptor<DeleteTsKvQuery> humidityQuery = ArgumentCaptor.forClass(DeleteTsKvQuery.class);
+        then(timeseriesService).should().removeHistory(eq(tenantId), eq(List.<EntityId>of(deviceId)), humidityQuery.capture());
+        assertThat(humidityQuery.getValue().getKey()).isEqualTo("humidity");
+        then(timeseriesService).shouldHaveNoMoreInteractions();
+    }
+
+    @Test
+    public void whenIsBatchProcessingSupported_thenTrue() {
+        assertThat(processor.isBatchProcessingSupported()).isTrue();
+    }
+
+}
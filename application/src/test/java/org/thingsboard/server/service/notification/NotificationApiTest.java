@@ -26,6 +26,7 @@ import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpEntity;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.web.client.RestTemplate;
 import org.thingsboard.common.util.JacksonUtil;
@@ -44,6 +45,7 @@ import org.thingsboard.server.common.data.id.NotificationRequestId;
 import org.thingsboard.server.common.data.id.NotificationRuleId;
 import org.thingsboard.server.common.data.id.NotificationTargetId;
 import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.id.UserId;
 import org.thingsboard.server.common.data.mobile.MobileSessionInfo;
 import org.thingsboard.server.common.data.notification.Notification;
 import org.thingsboard.server.common.data.notification.NotificationDeliveryMethod;
@@ -86,6 +88,7 @@ import org.thingsboard.server.common.data.page.PageLink;
 import org.thingsboard.server.common.data.security.Authority;
 import org.thingsboard.server.dao.notification.DefaultNotifications;
 import org.thingsboard.server.dao.notification.DefaultNotifications.DefaultNotification;
+import org.thingsboard.server.dao.notification.NotificationService;
 import org.thingsboard.server.dao.service.DaoSqlTest;
 import org.thingsboard.server.service.notification.channels.MicrosoftTeamsNotificationChannel;
 import org.thingsboard.server.service.notification.channels.TeamsAdaptiveCard;
@@ -125,6 +128,8 @@ public class NotificationApiTest extends AbstractNotificationApiTest {
     private NotificationCenter notificationCenter;
     @Autowired
     private MicrosoftTeamsNotificationChannel microsoftTeamsNotificationChannel;
+    @Autowired
+    private NotificationService notificationService;
     @MockitoBean
     private FirebaseService firebaseService;
 
@@ -481,6 +486,43 @@ public class NotificationApiTest extends AbstractNotificationApiTest {
         sessions.values().forEach(WebSocketClient::close);
     }
 
+    @Test
+    public void testWebNotificationsFanOutInBatches() throws Exception {
+        int usersCount = 25;
+        Object fanOutBatchSize = ReflectionTestUtils.getField(notificationCenter, "fanOutBatchSize");
+        ReflectionTestUtils.setField(notificationCenter, "fanOutBatchSize", 4);
+        try {
+            List<User> users = new ArrayList<>();
+            for (int i = 1; i <= usersCount; i++) {
+                User user = new User();
+                user.setTenantId(tenantId);
+                user.setAuthority(Authority.TENANT_ADMIN);
+                user.setEmail("batch-user-" + i + "@thingsboard.org");
+                users.add(createUser(user, "12345678"));
+            }
+            NotificationTarget notificationTarget = createNotificationTarget(users.stream().map(User::getId).toArray(UserId[]::new));
+
+            NotificationRequest notificationRequest = submitNotificationRequest(List.of(notificationTarget.getId()),
+                    "Hello, ${recipientEmail}", 0, NotificationDeliveryMethod.WEB);
+            await().atMost(TIMEOUT, TimeUnit.SECONDS)
+                    .until(() -> findNotificationRequest(notificationRequest.getId()).isSent());
+            NotificationRequestStats stats = getStats(notificationRequest.getId());
+            assertThat(stats.getSent().get(NotificationDeliveryMethod.WEB)).hasValue(usersCount);
+            assertThat(stats.getTotalErrors()).hasValue(0);
+
+            for (User user : users) {
+                List<Notification> notifications = notificationService.findNotificationsByRecipientIdAndReadStatus(tenantId,
+                        NotificationDeliveryMethod.WEB, user.getId(), true, new PageLink(10)).getData();
+                assertThat(notifications).singleElement().satisfies(notification -> {
+                    assertThat(notification.getRequestId()).isEqualTo(notificationRequest.getId());
+                    assertThat(notification.getText()).isEqualTo("Hello, " + user.getEmail());
+                });
+            }
+        } finally {
+            ReflectionTestUtils.setField(notificationCenter, "fanOutBatchSize", fanOutBatchSize);
+        }
+    }
+
     @Test
     public void testNotificationRequestPreview() throws Exception {
         NotificationTarget tenantAdminTarget = new NotificationTarget();
@@ -90,6 +90,7 @@ import org.thingsboard.server.common.data.sync.vc.RepositoryAuthMethod;
 import org.thingsboard.server.common.data.sync.vc.RepositorySettings;
 import org.thingsboard.server.common.data.sync.vc.VersionCreationResult;
 import org.thingsboard.server.common.data.sync.vc.VersionLoadResult;
+import org.thingsboard.server.common.data.sync.vc.VersionedEntityInfo;
 import org.thingsboard.server.common.data.sync.vc.request.create.ComplexVersionCreateRequest;
 import org.thingsboard.server.common.data.sync.vc.request.create.EntityTypeVersionCreateConfig;
 import org.thingsboard.server.common.data.sync.vc.request.create.SyncStrategy;
@@ -260,6 +261,40 @@ public class VersionControlTest extends AbstractControllerTest {
         assertThat(importedDevice.getSoftwareId()).isEqualTo(software.getId());
     }
 
+    @Test
+    public void testDeviceVc_manyDevicesExportedInParallel() throws Exception {
+        DeviceProfile deviceProfile = createDeviceProfile(null, null, "Device profile v1.0");
+        List<UUID> deviceIds = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            deviceIds.add(createDevice(deviceProfile.getId(), "Device " + i, "token" + i).getId().getId());
+        }
+
+        String versionId = createVersion("devices", EntityType.DEVICE);
+
+        assertThat(listEntitiesAtVersion(versionId, EntityType.DEVICE)).extracting(info -> info.getExternalId().getId())
+                .containsExactlyInAnyOrderElementsOf(deviceIds);
+    }
+
+    @Test
+    public void testDeviceVc_overwrite_removesDeletedAndSkipsUnchanged() throws Exception {
+        DeviceProfile deviceProfile = createDeviceProfile(null, null, "Device profile v1.0");
+        Device device1 = createDevice(deviceProfile.getId(), "Device 1", "token1");
+        Device device2 = createDevice(deviceProfile.getId(), "Device 2", "token2");
+        Device device3 = createDevice(deviceProfile.getId(), "Device 3", "token3");
+        createVersion("v1", SyncStrategy.OVERWRITE, EntityType.DEVICE);
+
+        doDelete("/api/device/" + device3.getId()).andExpect(status().isOk());
+        String versionId = createVersion("v2", SyncStrategy.OVERWRITE, EntityType.DEVICE);
+        assertThat(listEntitiesAtVersion(versionId, EntityType.DEVICE)).extracting(info -> info.getExternalId().getId())
+                .containsExactlyInAnyOrder(device1.getId().getId(), device2.getId().getId());
+
+        VersionCreationResult result = createVersionAndAwait(toComplexVersionCreateRequest("v3", SyncStrategy.OVERWRITE, EntityType.DEVICE), 30);
+        assertThat(result.getVersion()).isNull();
+        assertThat(result.getAdded()).isZero();
+        assertThat(result.getModified()).isZero();
+        assertThat(result.getRemoved()).isZero();
+    }
+
     @Test
     public void testDeviceVc_withProfileAndOtaPackage_betweenTenants() throws Exception {
         DeviceProfile deviceProfile = createDeviceProfile(null, null, "Device profile of tenant 1");
@@ -796,10 +831,20 @@ public class VersionControlTest extends AbstractControllerTest {
     }
 
     private String createVersion(String name, EntityType... entityTypes) throws Exception {
+        return createVersion(name, SyncStrategy.MERGE, entityTypes);
+    }
+
+    private String createVersion(String name, SyncStrategy syncStrategy, EntityType... entityTypes) throws Exception {
+        VersionCreationResult result = createVersionAndAwait(toComplexVersionCreateRequest(name, syncStrategy, entityTypes), 30);
+        assertThat(result.getVersion()).isNotNull();
+        return result.getVersion().getId();
+    }
+
+    private ComplexVersionCreateRequest toComplexVersionCreateRequest(String name, SyncStrategy syncStrategy, EntityType... entityTypes) {
         ComplexVersionCreateRequest request = new ComplexVersionCreateRequest();
         request.setVersionName(name);
         request.setBranch(branch);
-        request.setSyncStrategy(SyncStrategy.MERGE);
+        request.setSyncStrategy(syncStrategy);
         request.setEntityTypes(Arrays.stream(entityTypes).collect(Collectors.toMap(t -> t, entityType -> {
             EntityTypeVersionCreateConfig config = new EntityTypeVersionCreateConfig();
             config.setAllEntities(true);
@@ -809,17 +854,7 @@ public class VersionControlTest extends AbstractControllerTest {
             config.setSaveCalculatedFields(true);
             return config;
         })));
-
-        UUID requestId = doPostAsync("/api/entities/vc/version", request, UUID.class, status().isOk());
-        VersionCreationResult result = await().atMost(30, TimeUnit.SECONDS)
-                .until(() -> doGet("/api/entities/vc/version/" + requestId + "/status", VersionCreationResult.class), r -> {
-                    if (r.getError() != null) {
-                        throw new RuntimeException("Failed to create version '" + name + "': " + r.getError());
-                    }
-                    return r.isDone();
-                });
-        assertThat(result.getVersion()).isNotNull();
-        return result.getVersion().getId();
+        return request;
     }
 
     private String createVersion(String name, EntityId... entities) throws Exception {
@@ -845,16 +880,24 @@ public class VersionControlTest extends AbstractControllerTest {
     }
 
     private String createVersion(VersionCreateRequest request) throws Exception {
+        VersionCreationResult result = createVersionAndAwait(request, 60);
+        assertThat(result.getVersion()).isNotNull();
+        return result.getVersion().getId();
+    }
+
+    private VersionCreationResult createVersionAndAwait(VersionCreateRequest request, int timeoutSeconds) throws Exception {
         UUID requestId = doPostAsync("/api/entities/vc/version", request, UUID.class, status().isOk());
-        VersionCreationResult result = await().atMost(60, TimeUnit.SECONDS)
+        return await().atMost(timeoutSeconds, TimeUnit.SECONDS)
                 .until(() -> doGet("/api/entities/vc/version/" + requestId + "/status", VersionCreationResult.class), r -> {
                     if (r.getError() != null) {
                         throw new RuntimeException("Failed to create version '" + request.getVersionName() + "': " + r.getError());
                     }
                     return r.isDone();
                 });
-        assertThat(result.getVersion()).isNotNull();
-        return result.getVersion().getId();
+    }
+
+    private List<VersionedEntityInfo> listEntitiesAtVersion(String versionId, EntityType entityType) throws Exception {
+        return doGetAsyncTyped("/api/entities/vc/entity/" + entityType + "/" + versionId, new TypeReference<List<VersionedEntityInfo>>() {});
     }
 
     private Map<EntityType, EntityTypeLoadResult> loadVersion(String versionId, EntityType... entityTypes) throws Exception {
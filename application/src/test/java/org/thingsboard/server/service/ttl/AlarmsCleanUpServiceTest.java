@@ -37,7 +37,9 @@ import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.BDDMockito.willReturn;
@@ -114,4 +116,33 @@ public class AlarmsCleanUpServiceTest extends AbstractControllerTest {
         verify(cleanUpServiceLoggerSpy).info(startsWith("Removed {} outdated alarm"), eq((long) count), eq(tenantId), any());
     }
 
+    @Test
+    public void testAlarmsCleanUpSkipsTenantsWithoutTtl() throws Exception {
+        updateDefaultTenantProfileConfig(profileConfiguration -> {
+            profileConfiguration.setAlarmsTtlDays(0);
+        });
+
+        loginTenantAdmin();
+        Device device = createDevice("device_1", "device_1");
+        long ts = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(365);
+        Alarm alarm = Alarm.builder()
+                .tenantId(tenantId)
+                .originator(device.getId())
+                .cleared(false)
+                .acknowledged(false)
+                .severity(AlarmSeverity.CRITICAL)
+                .type("old_alarm")
+                .startTs(ts)
+                .endTs(ts)
+                .build();
+        alarm.setId(new AlarmId(UUID.randomUUID()));
+        alarm.setCreatedTime(ts);
+        AlarmId alarmId = alarmDao.save(tenantId, alarm).getId();
+
+        alarmsCleanUpService.cleanUp();
+
+        verify(alarmService, never()).delAlarm(any(), any(AlarmId.class), anyBoolean());
+        assertThat(alarmDao.findAlarmById(tenantId, alarmId.getId())).isNotNull();
+    }
+
 }
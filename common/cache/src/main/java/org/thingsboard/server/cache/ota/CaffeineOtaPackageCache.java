@@ -15,13 +15,22 @@
  */
 package org.thingsboard.server.cache.ota;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
 import static org.thingsboard.server.common.data.CacheConstants.OTA_PACKAGE_DATA_CACHE;
 
+@Slf4j
 @Service
 @ConditionalOnProperty(prefix = "cache", value = "type", havingValue = "caffeine", matchIfMissing = true)
 @RequiredArgsConstructor
@@ -29,6 +38,30 @@ public class CaffeineOtaPackageCache implements OtaPackageDataCache {
 
     private final CacheManager cacheManager;
 
+    @Value("${cache.ota.blob_store.enabled:false}")
+    private boolean blobStoreEnabled;
+    @Value("${cache.ota.blob_store.path:${java.io.tmpdir}/tb-ota-packages}")
+    private String blobStorePath;
+    @Value("${cache.ota.blob_store.max_size_mb:1024}")
+    private long blobStoreMaxSizeMb;
+
+    private OtaPackageBlobStore blobStore;
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (blobStoreEnabled) {
+            blobStore = new OtaPackageBlobStore(Path.of(blobStorePath), blobStoreMaxSizeMb * 1024 * 1024);
+            log.info("Using OTA package blob store at {}", blobStorePath);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (blobStore != null) {
+            blobStore.destroy();
+        }
+    }
+
     @Override
     public byte[] get(String key) {
         return get(key, 0, 0);
@@ -36,6 +69,9 @@ public class CaffeineOtaPackageCache implements OtaPackageDataCache {
 
     @Override
     public byte[] get(String key, int chunkSize, int chunk) {
+        if (blobStore != null) {
+            return toByteArray(blobStore.get(key, chunkSize, chunk));
+        }
         byte[] data = cacheManager.getCache(OTA_PACKAGE_DATA_CACHE).get(key, byte[].class);
 
         if (chunkSize < 1) {
@@ -56,13 +92,52 @@ public class CaffeineOtaPackageCache implements OtaPackageDataCache {
         return new byte[0];
     }
 
+    @Override
+    public ByteBuffer getChunk(String key, int chunkSize, int chunk) {
+        if (blobStore != null) {
+            return blobStore.get(key, chunkSize, chunk);
+        }
+        byte[] data = cacheManager.getCache(OTA_PACKAGE_DATA_CACHE).get(key, byte[].class);
+        if (chunkSize < 1) {
+            return data != null ? ByteBuffer.wrap(data).asReadOnlyBuffer() : null;
+        }
+
+        if (data != null && data.length > 0) {
+            int startIndex = chunkSize * chunk;
+
+            int size = Math.min(data.length - startIndex, chunkSize);
+
+            if (startIndex < data.length && size > 0) {
+                return ByteBuffer.wrap(data, startIndex, size).slice().asReadOnlyBuffer();
+            }
+        }
+        return ByteBuffer.allocate(0);
+    }
+
     @Override
     public void put(String key, byte[] value) {
+        if (blobStore != null) {
+            blobStore.putIfAbsent(key, value);
+            return;
+        }
         cacheManager.getCache(OTA_PACKAGE_DATA_CACHE).putIfAbsent(key, value);
     }
 
     @Override
     public void evict(String key) {
+        if (blobStore != null) {
+            blobStore.evict(key);
+        }
         cacheManager.getCache(OTA_PACKAGE_DATA_CACHE).evict(key);
     }
+
+    private static byte[] toByteArray(ByteBuffer data) {
+        if (data == null) {
+            return null;
+        }
+        byte[] result = new byte[data.remaining()];
+        data.get(result);
+        return result;
+    }
+
 }
@@ -0,0 +1,169 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.cache.ota;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Keeps OTA package data in local files mapped into memory, so the packages are not held on the heap
+ * and the requested chunks are served as read-only slices of the mapped files.
+ * <p>
+ * The total size of the stored packages is limited, the least recently used packages are evicted first.
+ * Slices that are still in use stay valid after eviction, the mapping is released once they are garbage collected.
+ */
+@Slf4j
+public class OtaPackageBlobStore {
+
+    private static final ByteBuffer EMPTY = ByteBuffer.allocate(0).asReadOnlyBuffer();
+    private static final String FILE_PREFIX = "ota-package-";
+    private static final String FILE_SUFFIX = ".bin";
+    private static final String TMP_FILE_SUFFIX = FILE_SUFFIX + ".tmp";
+
+    private final Path dir;
+    private final long maxSizeBytes;
+    // access-ordered, the eldest entry is the least recently used one
+    private final LinkedHashMap<String, Blob> blobs = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSizeBytes;
+
+    public OtaPackageBlobStore(Path dir, long maxSizeBytes) throws IOException {
+        this.dir = dir;
+        this.maxSizeBytes = maxSizeBytes;
+        Files.createDirectories(dir);
+        // only the files left by a previous run of the store are removed, the directory may be shared with other files
+        try (Stream<Path> files = Files.list(dir)) {
+            files.filter(OtaPackageBlobStore::isStoreFile).forEach(this::deleteFile);
+        }
+    }
+
+    public ByteBuffer get(String key) {
+        Blob blob;
+        synchronized (blobs) {
+            blob = blobs.get(key);
+        }
+        return blob != null ? blob.data().duplicate() : null;
+    }
+
+    public ByteBuffer get(String key, int chunkSize, int chunk) {
+        ByteBuffer data = get(key);
+        if (chunkSize < 1) {
+            return data;
+        }
+        long startIndex = (long) chunkSize * chunk;
+        if (data == null || startIndex >= data.capacity()) {
+            return EMPTY;
+        }
+        int size = (int) Math.min(data.capacity() - startIndex, chunkSize);
+        return data.slice((int) startIndex, size);
+    }
+
+    public void putIfAbsent(String key, byte[] value) {
+        if (value.length > maxSizeBytes) {
+            log.warn("[{}] OTA package of {} bytes exceeds the blob store size limit", key, value.length);
+            return;
+        }
+        synchronized (blobs) {
+            if (blobs.containsKey(key)) {
+                return;
+            }
+        }
+        String fileName = FILE_PREFIX + UUID.randomUUID();
+        Path file = dir.resolve(fileName + FILE_SUFFIX);
+        Path tmpFile = dir.resolve(fileName + TMP_FILE_SUFFIX);
+        ByteBuffer data;
+        try {
+            Files.write(tmpFile, value);
+            Files.move(tmpFile, file, StandardCopyOption.ATOMIC_MOVE);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                data = channel.map(FileChannel.MapMode.READ_ONLY, 0, value.length).asReadOnlyBuffer();
+            }
+        } catch (IOException e) {
+            log.warn("[{}] Failed to store OTA package data in {}", key, dir, e);
+            deleteFile(tmpFile);
+            deleteFile(file);
+            return;
+        }
+        List<Blob> evicted = new ArrayList<>();
+        synchronized (blobs) {
+            if (blobs.putIfAbsent(key, new Blob(file, data)) != null) {
+                evicted.add(new Blob(file, data));
+            } else {
+                totalSizeBytes += value.length;
+                Iterator<Map.Entry<String, Blob>> it = blobs.entrySet().iterator();
+                while (totalSizeBytes > maxSizeBytes && it.hasNext()) {
+                    Blob eldest = it.next().getValue();
+                    it.remove();
+                    totalSizeBytes -= eldest.data().capacity();
+                    evicted.add(eldest);
+                }
+            }
+        }
+        evicted.forEach(blob -> deleteFile(blob.file()));
+    }
+
+    public void evict(String key) {
+        Blob blob;
+        synchronized (blobs) {
+            blob = blobs.remove(key);
+            if (blob != null) {
+                totalSizeBytes -= blob.data().capacity();
+            }
+        }
+        if (blob != null) {
+            deleteFile(blob.file());
+        }
+    }
+
+    public void destroy() {
+        List<Blob> evicted;
+        synchronized (blobs) {
+            evicted = new ArrayList<>(blobs.values());
+            blobs.clear();
+            totalSizeBytes = 0;
+        }
+        evicted.forEach(blob -> deleteFile(blob.file()));
+    }
+
+    private void deleteFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete OTA package file {}", file, e);
+        }
+    }
+
+    private static boolean isStoreFile(Path file) {
+        String fileName = file.getFileName().toString();
+        return Files.isRegularFile(file) && fileName.startsWith(FILE_PREFIX) && (fileName.endsWith(FILE_SUFFIX) || fileName.endsWith(TMP_FILE_SUFFIX));
+    }
+
+    private record Blob(Path file, ByteBuffer data) {}
+
+}
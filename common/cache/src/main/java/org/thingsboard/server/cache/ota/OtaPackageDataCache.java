@@ -15,12 +15,22 @@
  */
 package org.thingsboard.server.cache.ota;
 
+import java.nio.ByteBuffer;
+
 public interface OtaPackageDataCache {
 
     byte[] get(String key);
 
     byte[] get(String key, int chunkSize, int chunk);
 
+    /**
+     * Same as {@link #get(String, int, int)}, but allows the implementation to return a read-only view of the stored data instead of a copy.
+     */
+    default ByteBuffer getChunk(String key, int chunkSize, int chunk) {
+        byte[] data = get(key, chunkSize, chunk);
+        return data != null ? ByteBuffer.wrap(data) : null;
+    }
+
     void put(String key, byte[] value);
 
     void evict(String key);
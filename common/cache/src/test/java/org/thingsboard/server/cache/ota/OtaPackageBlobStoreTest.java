@@ -0,0 +1,88 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.cache.ota;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class OtaPackageBlobStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testChunks() throws Exception {
+        OtaPackageBlobStore store = new OtaPackageBlobStore(dir, 1024);
+        store.putIfAbsent("fw", new byte[]{1, 2, 3, 4, 5});
+
+        assertThat(toArray(store.get("fw", 0, 0))).containsExactly(1, 2, 3, 4, 5);
+        assertThat(toArray(store.get("fw", 2, 0))).containsExactly(1, 2);
+        assertThat(toArray(store.get("fw", 2, 2))).containsExactly(5);
+        assertThat(store.get("fw", 2, 3).remaining()).isZero();
+        assertThat(store.get("fw", 2, 0).isReadOnly()).isTrue();
+        assertThat(store.get("unknown", 0, 0)).isNull();
+        assertThat(store.get("unknown", 2, 0).remaining()).isZero();
+    }
+
+    @Test
+    public void testEvictionDeletesFiles() throws Exception {
+        OtaPackageBlobStore store = new OtaPackageBlobStore(dir, 1024);
+        store.putIfAbsent("fw", new byte[512]);
+        assertThat(Files.list(dir)).hasSize(1);
+
+        store.evict("fw");
+        store.destroy();
+        assertThat(store.get("fw")).isNull();
+        assertThat(Files.list(dir)).isEmpty();
+    }
+
+    @Test
+    public void testOnlyStoreFilesAreDeletedOnStartup() throws Exception {
+        OtaPackageBlobStore previous = new OtaPackageBlobStore(dir, 1024);
+        previous.putIfAbsent("fw", new byte[512]);
+        Path otherFile = Files.writeString(dir.resolve("firmware.bin"), "data");
+
+        new OtaPackageBlobStore(dir, 1024);
+
+        assertThat(Files.list(dir)).containsExactly(otherFile);
+    }
+
+    @Test
+    public void testTotalSizeIsLimited() throws Exception {
+        OtaPackageBlobStore store = new OtaPackageBlobStore(dir, 1024);
+        for (int i = 0; i < 10; i++) {
+            store.putIfAbsent("fw" + i, new byte[400]);
+        }
+        assertThat(Files.list(dir).count()).isLessThanOrEqualTo(2);
+        assertThat(store.get("fw9")).isNotNull();
+
+        store.destroy();
+        assertThat(Files.list(dir)).isEmpty();
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        byte[] result = new byte[buffer.remaining()];
+        buffer.get(result);
+        return result;
+    }
+
+}
@@ -26,6 +26,7 @@ import org.thingsboard.server.common.data.asset.Asset;
 import org.thingsboard.server.common.data.cf.CalculatedField;
 import org.thingsboard.server.common.data.edge.EdgeEventActionType;
 import org.thingsboard.server.common.data.edge.EdgeEventType;
+import org.thingsboard.server.common.data.id.DeviceId;
 import org.thingsboard.server.common.data.id.EdgeId;
 import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.TenantId;
@@ -108,6 +109,8 @@ public interface TbClusterService extends TbQueueClusterService {
 
     void onDeviceDeleted(TenantId tenantId, Device device, TbQueueCallback callback);
 
+    void onDeviceCredentialsUpdated(TenantId tenantId, DeviceId deviceId, TbQueueCallback callback);
+
     void onDeviceAssignedToTenant(TenantId oldTenantId, Device device);
 
     void onAssetUpdated(Asset asset, Asset old);
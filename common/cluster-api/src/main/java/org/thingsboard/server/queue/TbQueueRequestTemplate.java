@@ -17,6 +17,7 @@ package org.thingsboard.server.queue;
 
 import com.google.common.util.concurrent.ListenableFuture;
 import org.thingsboard.server.common.stats.MessagesStats;
+import org.thingsboard.server.common.stats.StatsFactory;
 
 public interface TbQueueRequestTemplate<Request extends TbQueueMsg, Response extends TbQueueMsg> {
 
@@ -31,4 +32,6 @@ public interface TbQueueRequestTemplate<Request extends TbQueueMsg, Response ext
     void stop();
 
     void setMessagesStats(MessagesStats messagesStats);
+
+    void setLatencyStats(StatsFactory statsFactory, String requestType);
 }
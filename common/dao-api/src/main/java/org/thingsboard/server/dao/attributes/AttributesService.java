@@ -52,4 +52,6 @@ public interface AttributesService {
 
     int removeAllByEntityId(TenantId tenantId, EntityId entityId);
 
+    int removeAllByEntityIds(TenantId tenantId, List<EntityId> entityIds);
+
 }
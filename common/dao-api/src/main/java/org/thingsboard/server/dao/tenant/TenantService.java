@@ -49,6 +49,8 @@ public interface TenantService extends EntityDaoService {
 
     List<TenantId> findTenantIdsByTenantProfileId(TenantProfileId tenantProfileId);
 
+    PageData<TenantId> findTenantIdsByTenantProfileId(TenantProfileId tenantProfileId, PageLink pageLink);
+
     Tenant findTenantByName(String name);
 
     void deleteTenants();
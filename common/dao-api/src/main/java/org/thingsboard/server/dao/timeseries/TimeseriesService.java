@@ -55,6 +55,11 @@ public interface TimeseriesService {
 
     ListenableFuture<List<TsKvLatestRemovingResult>> remove(TenantId tenantId, EntityId entityId, List<DeleteTsKvQuery> queries);
 
+    /**
+     * Removes the time series history of the query key for all the entities. The latest values are not removed
+     */
+    ListenableFuture<Void> removeHistory(TenantId tenantId, List<EntityId> entityIds, DeleteTsKvQuery query);
+
     ListenableFuture<List<TsKvLatestRemovingResult>> removeLatest(TenantId tenantId, EntityId entityId, Collection<String> keys);
 
     ListenableFuture<List<String>> removeAllLatest(TenantId tenantId, EntityId entityId);
@@ -36,6 +36,8 @@ public class NotificationRequestStats {
     private final Map<NotificationDeliveryMethod, Map<String, String>> errors;
     private final AtomicInteger totalErrors;
     private String error;
+    private Long processingTime;
+    private Double throughput;
     @JsonIgnore
     private final Map<NotificationDeliveryMethod, Set<Object>> processedRecipients;
 
@@ -51,7 +53,9 @@ public class NotificationRequestStats {
     public NotificationRequestStats(@JsonProperty("sent") Map<NotificationDeliveryMethod, AtomicInteger> sent,
                                     @JsonProperty("errors") Map<NotificationDeliveryMethod, Map<String, String>> errors,
                                     @JsonProperty("totalErrors") Integer totalErrors,
-                                    @JsonProperty("error") String error) {
+                                    @JsonProperty("error") String error,
+                                    @JsonProperty("processingTime") Long processingTime,
+                                    @JsonProperty("throughput") Double throughput) {
         this.sent = sent;
         this.totalSent = null;
         this.errors = errors;
@@ -64,6 +68,8 @@ public class NotificationRequestStats {
         }
         this.totalErrors = new AtomicInteger(totalErrors);
         this.error = error;
+        this.processingTime = processingTime;
+        this.throughput = throughput;
         this.processedRecipients = Collections.emptyMap();
     }
 
@@ -91,6 +97,15 @@ public class NotificationRequestStats {
         processedRecipients.computeIfAbsent(deliveryMethod, k -> ConcurrentHashMap.newKeySet()).add(recipientId);
     }
 
+    /**
+     * Updates the processing time and the throughput (sent notifications per second) since the processing start
+     */
+    public void reportProgress(long startTs) {
+        long time = Math.max(1, System.currentTimeMillis() - startTs);
+        processingTime = time;
+        throughput = totalSent.get() * 1000.0 / time;
+    }
+
     public boolean contains(NotificationDeliveryMethod deliveryMethod, Object recipientId) {
         Set<Object> processedRecipients = this.processedRecipients.get(deliveryMethod);
         return processedRecipients != null && processedRecipients.contains(recipientId);
@@ -0,0 +1,42 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.data.query;
+
+/**
+ * Defines how the total number of matching entities is computed for a paged entity data query.
+ * <p>
+ * The mode applies only to entity data queries ({@code findEntityDataByQuery}).
+ * Entity count queries ({@code countEntitiesByQuery}) have no page link and always return the exact count.
+ */
+public enum EntityDataCountMode {
+
+    /**
+     * Exact total computed by a separate count query before the page is fetched.
+     */
+    SEPARATE,
+
+    /**
+     * Exact total computed together with the page in a single statement using a window function.
+     */
+    WINDOW,
+
+    /**
+     * Total computed by a separate count query that stops counting after a configured limit.
+     * The total is exact for small result sets and a lower bound for large ones.
+     */
+    ESTIMATED
+
+}
@@ -150,6 +150,8 @@ public class DefaultTenantProfileConfiguration implements TenantProfileConfigura
     private String cassandraReadQueryTenantRuleEngineRateLimits;
     @RateLimit(fieldName = "Rule Engine telemetry Cassandra write queries")
     private String cassandraWriteQueryTenantRuleEngineRateLimits;
+    @Schema(example = "1")
+    private int cassandraQueryWeight;
 
     @RateLimit(fieldName = "Edge events")
     private String edgeEventRateLimits;
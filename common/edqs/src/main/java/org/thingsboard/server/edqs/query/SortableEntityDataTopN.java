@@ -0,0 +1,120 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.edqs.query;
+
+import lombok.Getter;
+import org.thingsboard.server.common.data.edqs.DataPoint;
+import org.thingsboard.server.edqs.data.EntityData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+import static org.thingsboard.server.edqs.util.RepositoryUtils.SORT_ASC;
+import static org.thingsboard.server.edqs.util.RepositoryUtils.SORT_DESC;
+
+/**
+ * Bounded top-N of the entity data query results.
+ * <p>
+ * Counts all the matching entities but keeps only the first {@code limit} of them in the sort order.
+ * Entities that are not better than the current worst candidate are not wrapped into {@link SortableEntityData}.
+ * Not thread-safe: parallel scans fill a separate instance per worker and {@link #merge(SortableEntityDataTopN) merge} them.
+ */
+public class SortableEntityDataTopN {
+
+    private static final Comparator<DataPoint> SORT_VALUE_COMPARATOR = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private final boolean asc;
+    @Getter
+    private final int limit;
+    private final Comparator<SortableEntityData> comparator;
+    // the head of the queue is the worst of the collected candidates
+    private final PriorityQueue<SortableEntityData> candidates;
+    @Getter
+    private long total;
+
+    public SortableEntityDataTopN(boolean asc, int limit) {
+        this.asc = asc;
+        this.limit = Math.max(limit, 0);
+        this.comparator = asc ? SORT_ASC : SORT_DESC;
+        this.candidates = new PriorityQueue<>(Math.min(this.limit, 1024) + 1, comparator.reversed());
+    }
+
+    public SortableEntityDataTopN emptyCopy() {
+        return new SortableEntityDataTopN(asc, limit);
+    }
+
+    public void add(EntityData<?> ed, DataPoint sortValue) {
+        total++;
+        if (candidates.size() < limit) {
+            candidates.add(toSortData(ed, sortValue));
+        } else if (limit > 0 && isBetter(sortValue, ed.getId(), candidates.peek())) {
+            candidates.poll();
+            candidates.add(toSortData(ed, sortValue));
+        }
+    }
+
+    public void add(SortableEntityData sortData) {
+        total++;
+        offer(sortData);
+    }
+
+    public void merge(SortableEntityDataTopN other) {
+        total += other.total;
+        for (SortableEntityData sortData : other.candidates) {
+            offer(sortData);
+        }
+    }
+
+    /**
+     * Returns the sorted candidates starting from the {@code offset}.
+     */
+    public List<SortableEntityData> getResult(int offset) {
+        if (offset >= candidates.size()) {
+            return Collections.emptyList();
+        }
+        List<SortableEntityData> result = new ArrayList<>(candidates);
+        result.sort(comparator);
+        return result.subList(offset, result.size());
+    }
+
+    private void offer(SortableEntityData sortData) {
+        if (candidates.size() < limit) {
+            candidates.add(sortData);
+        } else if (limit > 0 && comparator.compare(sortData, candidates.peek()) < 0) {
+            candidates.poll();
+            candidates.add(sortData);
+        }
+    }
+
+    private boolean isBetter(DataPoint sortValue, UUID id, SortableEntityData worst) {
+        int result = SORT_VALUE_COMPARATOR.compare(sortValue, worst.getSortValue());
+        if (result == 0) {
+            result = id.toString().compareTo(worst.getId().toString());
+        }
+        return asc ? result < 0 : result > 0;
+    }
+
+    private static SortableEntityData toSortData(EntityData<?> ed, DataPoint sortValue) {
+        SortableEntityData sortData = new SortableEntityData(ed);
+        sortData.setSortValue(sortValue);
+        return sortData;
+    }
+
+}
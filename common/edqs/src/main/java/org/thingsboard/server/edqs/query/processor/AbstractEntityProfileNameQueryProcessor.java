@@ -23,6 +23,7 @@ import org.thingsboard.server.edqs.query.EdqsQuery;
 import org.thingsboard.server.edqs.repo.TenantRepo;
 import org.thingsboard.server.edqs.util.RepositoryUtils;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -43,6 +44,11 @@ public abstract class AbstractEntityProfileNameQueryProcessor<T extends EntityFi
 
     protected abstract List<String> getProfileNames(T filter);
 
+    @Override
+    protected Collection<EntityData<?>> getIndexedCandidates() {
+        return repository.findEntitiesByNameFilter(entityType, getEntityNameFilter(filter));
+    }
+
     @Override
     protected boolean matches(EntityData<?> ed) {
         return super.matches(ed) && entityProfileNames.contains(ed.getFields().getType())
@@ -24,6 +24,7 @@ import org.thingsboard.server.edqs.query.EdqsQuery;
 import org.thingsboard.server.edqs.repo.TenantRepo;
 import org.thingsboard.server.edqs.util.RepositoryUtils;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -52,6 +53,12 @@ public abstract class AbstractEntityProfileQueryProcessor<T extends EntityFilter
 
     protected abstract EntityType getProfileEntityType();
 
+    @Override
+    protected Collection<EntityData<?>> getIndexedCandidates() {
+        Collection<EntityData<?>> candidates = repository.findEntitiesByProfileIds(entityProfileIds);
+        return candidates != null ? candidates : repository.findEntitiesByNameFilter(entityType, getEntityNameFilter(filter));
+    }
+
     @Override
     protected boolean matches(EntityData<?> ed) {
         ProfileAwareData<?> profileAwareData = (ProfileAwareData<?>) ed;
@@ -24,6 +24,7 @@ import org.thingsboard.server.edqs.query.DataKey;
 import org.thingsboard.server.edqs.query.EdqsDataQuery;
 import org.thingsboard.server.edqs.query.EdqsQuery;
 import org.thingsboard.server.edqs.query.SortableEntityData;
+import org.thingsboard.server.edqs.query.SortableEntityDataTopN;
 import org.thingsboard.server.edqs.repo.TenantRepo;
 
 import java.util.Collection;
@@ -55,6 +56,10 @@ public abstract class AbstractQueryProcessor<T extends EntityFilter> implements
         return sortData;
     }
 
+    protected void addToTopN(SortableEntityDataTopN topN, EntityData<?> ed) {
+        topN.add(ed, getSortValue(ed, sortKey, ctx));
+    }
+
     protected void process(Collection<EntityData<?>> entities, Consumer<EntityData<?>> processor) {
         for (EntityData<?> ed : entities) {
             if (matches(ed)) {
@@ -63,6 +68,17 @@ public abstract class AbstractQueryProcessor<T extends EntityFilter> implements
         }
     }
 
+    /*
+     * Splits the scan of the entities across the EDQS query pool.
+     * Each worker collects its own bounded top-N, which are merged into the given one.
+     */
+    protected void processInParallel(Collection<EntityData<?>> entities, SortableEntityDataTopN topN) {
+        SortableEntityDataTopN result = repository.getQueryPool().submit(() -> entities.parallelStream()
+                .filter(this::matches)
+                .collect(topN::emptyCopy, this::addToTopN, SortableEntityDataTopN::merge)).join();
+        topN.merge(result);
+    }
+
     protected static boolean checkCustomerId(UUID customerId, EntityData<?> ed) {
         return customerId.equals(ed.getCustomerId())
                 || (ed.getEntityType() == EntityType.DASHBOARD && ed.getFields().getAssignedCustomerIds().contains(customerId))
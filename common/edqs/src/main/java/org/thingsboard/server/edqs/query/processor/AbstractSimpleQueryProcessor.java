@@ -21,14 +21,16 @@ import org.thingsboard.server.common.data.query.EntityFilter;
 import org.thingsboard.server.edqs.data.CustomerData;
 import org.thingsboard.server.edqs.data.EntityData;
 import org.thingsboard.server.edqs.query.EdqsQuery;
+import org.thingsboard.server.edqs.query.SortableEntityDataTopN;
 import org.thingsboard.server.edqs.repo.TenantRepo;
 
+import java.util.Collection;
 import java.util.UUID;
 import java.util.function.Consumer;
 
 public abstract class AbstractSimpleQueryProcessor<T extends EntityFilter> extends AbstractSingleEntityTypeQueryProcessor<T> {
 
-    private final EntityType entityType;
+    protected final EntityType entityType;
 
     public AbstractSimpleQueryProcessor(TenantRepo repo, QueryContext ctx, EdqsQuery query, T filter, EntityType entityType) {
         super(repo, ctx, query, filter);
@@ -45,7 +47,32 @@ public abstract class AbstractSimpleQueryProcessor<T extends EntityFilter> exten
 
     @Override
     protected void processAll(Consumer<EntityData<?>> processor) {
-        process(repository.getEntitySet(entityType), processor);
+        Collection<EntityData<?>> candidates = getIndexedCandidates();
+        process(candidates != null ? candidates : repository.getEntitySet(entityType), processor);
+    }
+
+    @Override
+    protected void processTenantQuery(SortableEntityDataTopN topN) {
+        Collection<EntityData<?>> candidates = getIndexedCandidates();
+        if (candidates != null) {
+            if (repository.isParallelScanEnabled(candidates.size())) {
+                processInParallel(candidates, topN);
+            } else {
+                process(candidates, ed -> addToTopN(topN, ed));
+            }
+        } else if (repository.isParallelScanEnabled(entityType)) {
+            processInParallel(repository.getEntitySet(entityType), topN);
+        } else {
+            super.processTenantQuery(topN);
+        }
+    }
+
+    /*
+     * Returns the entities narrowed down by the secondary indexes of the tenant repo,
+     * or null if all the entities of the type should be scanned.
+     */
+    protected Collection<EntityData<?>> getIndexedCandidates() {
+        return null;
     }
 
     @Override
@@ -21,6 +21,7 @@ import org.thingsboard.server.common.data.query.EntityFilter;
 import org.thingsboard.server.edqs.data.EntityData;
 import org.thingsboard.server.edqs.query.EdqsQuery;
 import org.thingsboard.server.edqs.query.SortableEntityData;
+import org.thingsboard.server.edqs.query.SortableEntityDataTopN;
 import org.thingsboard.server.edqs.repo.TenantRepo;
 
 import java.util.ArrayList;
@@ -44,6 +45,15 @@ public abstract class AbstractSingleEntityTypeQueryProcessor<T extends EntityFil
         }
     }
 
+    @Override
+    public void processQuery(SortableEntityDataTopN topN) {
+        if (ctx.isTenantUser()) {
+            processTenantQuery(topN);
+        } else {
+            processCustomerQuery(ctx.getCustomerId().getId(), ed -> addToTopN(topN, ed));
+        }
+    }
+
     @Override
     public long count() {
         AtomicLong result = new AtomicLong();
@@ -67,6 +77,10 @@ public abstract class AbstractSingleEntityTypeQueryProcessor<T extends EntityFil
         return result;
     }
 
+    protected void processTenantQuery(SortableEntityDataTopN topN) {
+        processAll(ed -> addToTopN(topN, ed));
+    }
+
     protected List<SortableEntityData> processCustomerQuery(UUID customerId) {
         List<SortableEntityData> result = new ArrayList<>(getProbableResultSize());
         processCustomerQuery(customerId, ed -> {
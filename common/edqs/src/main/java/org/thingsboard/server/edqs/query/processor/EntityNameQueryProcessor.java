@@ -22,6 +22,7 @@ import org.thingsboard.server.edqs.query.EdqsQuery;
 import org.thingsboard.server.edqs.repo.TenantRepo;
 import org.thingsboard.server.edqs.util.RepositoryUtils;
 
+import java.util.Collection;
 import java.util.regex.Pattern;
 
 public class EntityNameQueryProcessor extends AbstractSimpleQueryProcessor<EntityNameFilter> {
@@ -33,6 +34,11 @@ public class EntityNameQueryProcessor extends AbstractSimpleQueryProcessor<Entit
         pattern = RepositoryUtils.toEntityNameSqlLikePattern(filter.getEntityNameFilter());
     }
 
+    @Override
+    protected Collection<EntityData<?>> getIndexedCandidates() {
+        return repository.findEntitiesByNameFilter(entityType, filter.getEntityNameFilter());
+    }
+
     @Override
     protected boolean matches(EntityData ed) {
         return super.matches(ed) && (pattern == null || pattern.matcher(ed.getFields().getName()).matches());
@@ -16,6 +16,7 @@
 package org.thingsboard.server.edqs.query.processor;
 
 import org.thingsboard.server.edqs.query.SortableEntityData;
+import org.thingsboard.server.edqs.query.SortableEntityDataTopN;
 
 import java.util.List;
 
@@ -23,6 +24,10 @@ public interface EntityQueryProcessor {
 
     List<SortableEntityData> processQuery();
 
+    default void processQuery(SortableEntityDataTopN topN) {
+        processQuery().forEach(topN::add);
+    }
+
     long count();
 
 }
@@ -15,10 +15,14 @@
  */
 package org.thingsboard.server.edqs.repo;
 
-import lombok.AllArgsConstructor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.thingsboard.common.util.ThingsBoardForkJoinWorkerThreadFactory;
 import org.thingsboard.server.common.data.ObjectType;
 import org.thingsboard.server.common.data.edqs.EdqsEvent;
 import org.thingsboard.server.common.data.edqs.EdqsEventType;
@@ -33,10 +37,11 @@ import org.thingsboard.server.queue.edqs.EdqsComponent;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Predicate;
 
 @EdqsComponent
-@AllArgsConstructor
+@RequiredArgsConstructor
 @Service
 @Slf4j
 public class DefaultEdqsRepository implements EdqsRepository {
@@ -45,8 +50,46 @@ public class DefaultEdqsRepository implements EdqsRepository {
     private final static ConcurrentMap<TenantId, TenantRepo> repos = new ConcurrentHashMap<>();
     private final EdqsStatsService statsService;
 
+    @Value("${queue.edqs.query.parallelism:4}")
+    private int queryParallelism;
+    @Value("${queue.edqs.query.parallel_scan_threshold:100000}")
+    private int parallelScanThreshold;
+    @Value("${queue.edqs.query.cache.enabled:false}")
+    private boolean queryCacheEnabled;
+    @Value("${queue.edqs.query.cache.max_weight:100000}")
+    private long queryCacheMaxWeight;
+    @Value("${queue.edqs.query.cache.ttl:60000}")
+    private long queryCacheTtlMs;
+    @Value("${queue.edqs.indexes.profile_enabled:true}")
+    private boolean profileIndexEnabled;
+    @Value("${queue.edqs.indexes.name_enabled:false}")
+    private boolean nameIndexEnabled;
+
+    private TenantRepoSettings tenantRepoSettings;
+
+    @PostConstruct
+    private void init() {
+        ForkJoinPool queryPool = null;
+        if (queryParallelism > 1) {
+            queryPool = new ForkJoinPool(queryParallelism, new ThingsBoardForkJoinWorkerThreadFactory("edqs-query"), null, false);
+        }
+        QueryResultCache queryResultCache = null;
+        if (queryCacheEnabled) {
+            queryResultCache = new QueryResultCache(queryCacheMaxWeight, queryCacheTtlMs);
+        }
+        tenantRepoSettings = new TenantRepoSettings(queryPool, parallelScanThreshold, profileIndexEnabled, nameIndexEnabled,
+                queryResultCache);
+    }
+
+    @PreDestroy
+    private void destroy() {
+        if (tenantRepoSettings.queryPool() != null) {
+            tenantRepoSettings.queryPool().shutdownNow();
+        }
+    }
+
     public TenantRepo get(TenantId tenantId) {
-        return repos.computeIfAbsent(tenantId, id -> new TenantRepo(id, statsService));
+        return repos.computeIfAbsent(tenantId, id -> new TenantRepo(id, statsService, tenantRepoSettings));
     }
 
     @Override
@@ -54,6 +97,9 @@ public class DefaultEdqsRepository implements EdqsRepository {
         if (event.getEventType() == EdqsEventType.DELETED && event.getObjectType() == ObjectType.TENANT) {
             log.info("Tenant {} deleted", event.getTenantId());
             repos.remove(event.getTenantId());
+            if (tenantRepoSettings.queryResultCache() != null) {
+                tenantRepoSettings.queryResultCache().invalidateIf(event.getTenantId()::equals);
+            }
             statsService.reportRemoved(ObjectType.TENANT);
         } else {
             get(event.getTenantId()).processEvent(event);
@@ -80,11 +126,17 @@ public class DefaultEdqsRepository implements EdqsRepository {
     @Override
     public void clearIf(Predicate<TenantId> predicate) {
         repos.keySet().removeIf(predicate);
+        if (tenantRepoSettings.queryResultCache() != null) {
+            tenantRepoSettings.queryResultCache().invalidateIf(predicate);
+        }
     }
 
     @Override
     public void clear() {
         repos.clear();
+        if (tenantRepoSettings.queryResultCache() != null) {
+            tenantRepoSettings.queryResultCache().invalidateAll();
+        }
     }
 
 }
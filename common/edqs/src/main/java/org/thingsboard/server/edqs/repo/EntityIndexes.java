@@ -0,0 +1,181 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.edqs.repo;
+
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.data.StringUtils;
+import org.thingsboard.server.common.data.edqs.fields.EntityFields;
+import org.thingsboard.server.common.data.edqs.fields.ProfileAwareFields;
+import org.thingsboard.server.edqs.data.EntityData;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Secondary indexes of the tenant entities: by profile id and by lower-cased name.
+ * <p>
+ * Updated under the entity update lock of the {@link TenantRepo} and read concurrently by the query processors.
+ * Lookups only narrow down the candidates, so the query filters must still be applied to the returned entities.
+ * Lookups return {@code null} when the corresponding index is disabled or can't be used for the given filter.
+ */
+public class EntityIndexes {
+
+    private static final UUID MIN_UUID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+
+    private final boolean profileIndexEnabled;
+    private final boolean nameIndexEnabled;
+
+    private final ConcurrentMap<UUID, Set<EntityData<?>>> entitiesByProfile = new ConcurrentHashMap<>();
+    private final ConcurrentMap<EntityType, ConcurrentSkipListMap<NameKey, EntityData<?>>> entitiesByName = new ConcurrentHashMap<>();
+
+    public EntityIndexes(boolean profileIndexEnabled, boolean nameIndexEnabled) {
+        this.profileIndexEnabled = profileIndexEnabled;
+        this.nameIndexEnabled = nameIndexEnabled;
+    }
+
+    public void onUpdate(EntityData<?> ed, EntityFields oldFields, EntityFields newFields) {
+        if (profileIndexEnabled) {
+            UUID oldProfileId = getProfileId(oldFields);
+            UUID newProfileId = getProfileId(newFields);
+            if (!Objects.equals(oldProfileId, newProfileId)) {
+                removeFromProfile(oldProfileId, ed);
+                if (newProfileId != null) {
+                    entitiesByProfile.computeIfAbsent(newProfileId, id -> ConcurrentHashMap.newKeySet()).add(ed);
+                }
+            }
+        }
+        if (nameIndexEnabled) {
+            String oldName = getIndexName(oldFields);
+            String newName = getIndexName(newFields);
+            if (!Objects.equals(oldName, newName)) {
+                var names = getNameIndex(ed.getEntityType());
+                if (oldName != null) {
+                    names.remove(new NameKey(oldName, ed.getId()));
+                }
+                if (newName != null) {
+                    names.put(new NameKey(newName, ed.getId()), ed);
+                }
+            }
+        }
+    }
+
+    public void onRemove(EntityData<?> ed) {
+        EntityFields fields = ed.getFields();
+        if (profileIndexEnabled) {
+            removeFromProfile(getProfileId(fields), ed);
+        }
+        if (nameIndexEnabled) {
+            String name = getIndexName(fields);
+            if (name != null) {
+                getNameIndex(ed.getEntityType()).remove(new NameKey(name, ed.getId()));
+            }
+        }
+    }
+
+    public Collection<EntityData<?>> findByProfileIds(Collection<UUID> profileIds) {
+        if (!profileIndexEnabled) {
+            return null;
+        }
+        List<EntityData<?>> result = new ArrayList<>();
+        for (UUID profileId : profileIds) {
+            Set<EntityData<?>> entities = entitiesByProfile.get(profileId);
+            if (entities != null) {
+                result.addAll(entities);
+            }
+        }
+        return result;
+    }
+
+    /*
+     * The name filter is a case-insensitive 'starts with' or an SQL 'like' pattern,
+     * so only its literal part before the first wildcard is used as the prefix.
+     * The prefix is matched against the names lower-cased char by char, which may only add extra candidates.
+     */
+    public Collection<EntityData<?>> findByNameFilter(EntityType entityType, String nameFilter) {
+        if (!nameIndexEnabled || StringUtils.isBlank(nameFilter)) {
+            return null;
+        }
+        String prefix = toIndexName(getLiteralPrefix(nameFilter));
+        if (prefix.isEmpty() || prefix.charAt(prefix.length() - 1) == Character.MAX_VALUE) {
+            return null;
+        }
+        String upperBound = prefix.substring(0, prefix.length() - 1) + (char) (prefix.charAt(prefix.length() - 1) + 1);
+        return getNameIndex(entityType).subMap(new NameKey(prefix, MIN_UUID), new NameKey(upperBound, MIN_UUID)).values();
+    }
+
+    private static String getLiteralPrefix(String nameFilter) {
+        if (!nameFilter.contains("%") && !nameFilter.contains("_")) {
+            return nameFilter;
+        }
+        // the 'like' patterns are converted to regex without quoting, so stop at any special character as well
+        int i = 0;
+        while (i < nameFilter.length() && (Character.isLetterOrDigit(nameFilter.charAt(i)) || nameFilter.charAt(i) == ' ')) {
+            i++;
+        }
+        return nameFilter.substring(0, i);
+    }
+
+    private void removeFromProfile(UUID profileId, EntityData<?> ed) {
+        if (profileId != null) {
+            entitiesByProfile.computeIfPresent(profileId, (id, entities) -> {
+                entities.remove(ed);
+                return entities.isEmpty() ? null : entities;
+            });
+        }
+    }
+
+    private ConcurrentSkipListMap<NameKey, EntityData<?>> getNameIndex(EntityType entityType) {
+        return entitiesByName.computeIfAbsent(entityType, type -> new ConcurrentSkipListMap<>());
+    }
+
+    private static UUID getProfileId(EntityFields fields) {
+        return fields instanceof ProfileAwareFields profileAwareFields ? profileAwareFields.getProfileId() : null;
+    }
+
+    private static String getIndexName(EntityFields fields) {
+        return fields != null && fields.getName() != null ? toIndexName(fields.getName()) : null;
+    }
+
+    /*
+     * Lower-cases the characters one by one, so that the lower-cased prefix of a name
+     * is always the prefix of the lower-cased name (unlike String.toLowerCase).
+     */
+    static String toIndexName(String name) {
+        char[] chars = name.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private record NameKey(String name, UUID id) implements Comparable<NameKey> {
+
+        @Override
+        public int compareTo(NameKey o) {
+            int result = name.compareTo(o.name);
+            return result != 0 ? result : id.compareTo(o.id);
+        }
+
+    }
+
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.edqs.repo;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.id.CustomerId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.page.PageData;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the query results of all tenants.
+ * <p>
+ * Results are keyed by the version of the tenant data the query reads, so an update of that data makes the cached results unreachable.
+ * The weight of a result is the number of its rows, and the total weight of all tenants is limited.
+ * Identical queries that arrive while the result is being calculated wait for the same calculation.
+ */
+@Slf4j
+class QueryResultCache {
+
+    private final AsyncCache<QueryKey, Object> cache;
+
+    QueryResultCache(long maxWeight, long ttlMs) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((QueryKey key, Object result) -> result instanceof PageData<?> pageData ? pageData.getData().size() + 1 : 1)
+                .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+                .buildAsync();
+    }
+
+    @SuppressWarnings("unchecked")
+    <T> T get(TenantId tenantId, long version, CustomerId customerId, boolean ignorePermissionCheck, Object query, Supplier<T> calculation) {
+        QueryKey key = new QueryKey(tenantId, version, customerId, ignorePermissionCheck, query.getClass(), JacksonUtil.toString(query));
+        CompletableFuture<Object> newFuture = new CompletableFuture<>();
+        CompletableFuture<Object> future = cache.asMap().putIfAbsent(key, newFuture);
+        if (future == null) {
+            future = newFuture;
+            try {
+                newFuture.complete(calculation.get());
+            } catch (Throwable t) {
+                cache.asMap().remove(key, newFuture);
+                newFuture.completeExceptionally(t);
+                throw t;
+            }
+        } else {
+            log.trace("Using cached result for query {}", key);
+        }
+        try {
+            return (T) future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    void invalidateIf(Predicate<TenantId> predicate) {
+        cache.asMap().keySet().removeIf(key -> predicate.test(key.tenantId()));
+    }
+
+    void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    private record QueryKey(TenantId tenantId, long version, CustomerId customerId, boolean ignorePermissionCheck,
+                            Class<?> queryClass, String query) {}
+
+}
@@ -15,6 +15,7 @@
  */
 package org.thingsboard.server.edqs.repo;
 
+import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.thingsboard.server.common.data.EntityType;
 import org.thingsboard.server.common.data.ObjectType;
@@ -32,11 +33,16 @@ import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.page.PageData;
 import org.thingsboard.server.common.data.permission.QueryContext;
+import org.thingsboard.server.common.data.query.AliasEntityId;
 import org.thingsboard.server.common.data.query.EntityCountQuery;
 import org.thingsboard.server.common.data.query.EntityDataQuery;
 import org.thingsboard.server.common.data.query.EntityDataSortOrder;
 import org.thingsboard.server.common.data.query.EntityFilter;
 import org.thingsboard.server.common.data.query.EntityKeyType;
+import org.thingsboard.server.common.data.query.EntityListFilter;
+import org.thingsboard.server.common.data.query.EntityNameFilter;
+import org.thingsboard.server.common.data.query.EntityTypeFilter;
+import org.thingsboard.server.common.data.query.SingleEntityFilter;
 import org.thingsboard.server.common.data.query.TsValue;
 import org.thingsboard.server.common.data.relation.EntityRelation;
 import org.thingsboard.server.common.data.relation.RelationTypeGroup;
@@ -53,29 +59,29 @@ import org.thingsboard.server.edqs.data.TenantData;
 import org.thingsboard.server.edqs.query.EdqsDataQuery;
 import org.thingsboard.server.edqs.query.EdqsQuery;
 import org.thingsboard.server.edqs.query.SortableEntityData;
+import org.thingsboard.server.edqs.query.SortableEntityDataTopN;
 import org.thingsboard.server.edqs.query.processor.EntityQueryProcessor;
 import org.thingsboard.server.edqs.query.processor.EntityQueryProcessorFactory;
 import org.thingsboard.server.edqs.util.RepositoryUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeSet;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.stream.Collectors;
 
-import static org.thingsboard.server.edqs.util.RepositoryUtils.SORT_ASC;
-import static org.thingsboard.server.edqs.util.RepositoryUtils.SORT_DESC;
 import static org.thingsboard.server.edqs.util.RepositoryUtils.resolveEntityType;
 
 @Slf4j
@@ -94,10 +100,26 @@ public class TenantRepo {
 
     private final TenantId tenantId;
     private final EdqsStatsService edqsStatsService;
+    @Getter
+    private final ForkJoinPool queryPool;
+    private final int parallelScanThreshold;
+    private final EntityIndexes indexes;
+    private final QueryResultCache queryResultCache;
+    private final ConcurrentMap<EntityType, AtomicLong> versionByType = new ConcurrentHashMap<>();
+    private final AtomicLong relationsVersion = new AtomicLong();
+    private final AtomicLong version = new AtomicLong();
 
     public TenantRepo(TenantId tenantId, EdqsStatsService edqsStatsService) {
+        this(tenantId, edqsStatsService, TenantRepoSettings.DEFAULT);
+    }
+
+    public TenantRepo(TenantId tenantId, EdqsStatsService edqsStatsService, TenantRepoSettings settings) {
         this.tenantId = tenantId;
         this.edqsStatsService = edqsStatsService;
+        this.queryPool = settings.queryPool();
+        this.parallelScanThreshold = settings.parallelScanThreshold();
+        this.indexes = new EntityIndexes(settings.profileIndexEnabled(), settings.nameIndexEnabled());
+        this.queryResultCache = settings.queryResultCache();
     }
 
     public void processEvent(EdqsEvent event) {
@@ -120,6 +142,7 @@ public class TenantRepo {
         } else if (object instanceof Entity entity) {
             addOrUpdateEntity(entity);
         }
+        onUpdate(object);
     }
 
     public void remove(EdqsObject object) {
@@ -132,6 +155,59 @@ public class TenantRepo {
         } else if (object instanceof Entity entity) {
             removeEntity(entity);
         }
+        onUpdate(object);
+    }
+
+    private void onUpdate(EdqsObject object) {
+        if (object instanceof EntityRelation relation) {
+            relationsVersion.incrementAndGet();
+            getVersion(relation.getFrom().getEntityType()).incrementAndGet();
+            getVersion(relation.getTo().getEntityType()).incrementAndGet();
+        } else if (object instanceof AttributeKv attributeKv) {
+            getVersion(attributeKv.getEntityId().getEntityType()).incrementAndGet();
+        } else if (object instanceof LatestTsKv latestTsKv) {
+            getVersion(latestTsKv.getEntityId().getEntityType()).incrementAndGet();
+        } else if (object instanceof Entity entity) {
+            getVersion(entity.getType()).incrementAndGet();
+        }
+        version.incrementAndGet();
+    }
+
+    private AtomicLong getVersion(EntityType entityType) {
+        return versionByType.computeIfAbsent(entityType, type -> new AtomicLong());
+    }
+
+    /*
+     * Versions only grow, so the sum of the versions of the data the query reads changes on every update of that data.
+     * Owner names are read from tenants and customers, profile names from profiles.
+     * Queries that follow relations may read entities of any type and use the version of the whole tenant.
+     */
+    private long getQueryVersion(EntityFilter filter) {
+        List<EntityType> entityTypes = switch (filter.getType()) {
+            case SINGLE_ENTITY -> {
+                AliasEntityId singleEntity = ((SingleEntityFilter) filter).getSingleEntity();
+                yield singleEntity != null && !singleEntity.isAliasEntityId() ? List.of(singleEntity.getEntityType()) : null;
+            }
+            case ENTITY_LIST -> Collections.singletonList(((EntityListFilter) filter).getEntityType());
+            case ENTITY_NAME -> Collections.singletonList(((EntityNameFilter) filter).getEntityType());
+            case ENTITY_TYPE -> Collections.singletonList(((EntityTypeFilter) filter).getEntityType());
+            case DEVICE_TYPE -> List.of(EntityType.DEVICE, EntityType.DEVICE_PROFILE);
+            case ASSET_TYPE -> List.of(EntityType.ASSET, EntityType.ASSET_PROFILE);
+            case ENTITY_VIEW_TYPE -> List.of(EntityType.ENTITY_VIEW);
+            case EDGE_TYPE -> List.of(EntityType.EDGE);
+            case API_USAGE_STATE -> List.of(EntityType.API_USAGE_STATE);
+            default -> null;
+        };
+        if (entityTypes == null || entityTypes.contains(null)) {
+            return version.get();
+        }
+        long queryVersion = getVersion(EntityType.TENANT).get() + getVersion(EntityType.CUSTOMER).get();
+        for (EntityType entityType : entityTypes) {
+            if (entityType != EntityType.TENANT && entityType != EntityType.CUSTOMER) {
+                queryVersion += getVersion(entityType).get();
+            }
+        }
+        return queryVersion;
     }
 
     private void addOrUpdateRelation(EntityRelation entity) {
@@ -190,6 +266,7 @@ public class TenantRepo {
             if (oldFields == null) {
                 getEntitySet(entityType).add(entityData);
             }
+            indexes.onUpdate(entityData, oldFields, fields);
 
             UUID newCustomerId = fields.getCustomerId();
             UUID oldCustomerId = entityData.getCustomerId();
@@ -220,6 +297,7 @@ public class TenantRepo {
             if (removed != null) {
                 if (removed.getFields() != null) {
                     getEntitySet(entityType).remove(removed);
+                    indexes.onRemove(removed);
                 }
                 edqsStatsService.reportRemoved(entity.type());
 
@@ -330,57 +408,67 @@ public class TenantRepo {
         return entitySetByType.computeIfAbsent(entityType, et -> new ConcurrentSkipListSet<>(CREATED_TIME_AND_ID_DESC_COMPARATOR));
     }
 
+    public boolean isParallelScanEnabled(EntityType entityType) {
+        return isParallelScanEnabled(getEntityMap(entityType).size());
+    }
+
+    public boolean isParallelScanEnabled(int candidatesCount) {
+        return queryPool != null && candidatesCount >= parallelScanThreshold;
+    }
+
+    public Collection<EntityData<?>> findEntitiesByProfileIds(Collection<UUID> profileIds) {
+        return indexes.findByProfileIds(profileIds);
+    }
+
+    public Collection<EntityData<?>> findEntitiesByNameFilter(EntityType entityType, String nameFilter) {
+        return indexes.findByNameFilter(entityType, nameFilter);
+    }
+
     public PageData<QueryResult> findEntityDataByQuery(CustomerId customerId, EntityDataQuery oldQuery, boolean ignorePermissionCheck) {
+        if (queryResultCache != null) {
+            return queryResultCache.get(tenantId, getQueryVersion(oldQuery.getEntityFilter()), customerId, ignorePermissionCheck, oldQuery,
+                    () -> doFindEntityDataByQuery(customerId, oldQuery, ignorePermissionCheck));
+        }
+        return doFindEntityDataByQuery(customerId, oldQuery, ignorePermissionCheck);
+    }
+
+    private PageData<QueryResult> doFindEntityDataByQuery(CustomerId customerId, EntityDataQuery oldQuery, boolean ignorePermissionCheck) {
         EdqsDataQuery query = RepositoryUtils.toNewQuery(oldQuery);
         QueryContext ctx = buildContext(customerId, query.getEntityFilter(), ignorePermissionCheck);
         EntityQueryProcessor queryProcessor = EntityQueryProcessorFactory.create(this, ctx, query);
-        return sortAndConvert(query, queryProcessor.processQuery(), ctx);
+        return findTopN(query, queryProcessor, ctx);
     }
 
     public long countEntitiesByQuery(CustomerId customerId, EntityCountQuery oldQuery, boolean ignorePermissionCheck) {
+        if (queryResultCache != null) {
+            return queryResultCache.<Long>get(tenantId, getQueryVersion(oldQuery.getEntityFilter()), customerId, ignorePermissionCheck, oldQuery,
+                    () -> doCountEntitiesByQuery(customerId, oldQuery, ignorePermissionCheck));
+        }
+        return doCountEntitiesByQuery(customerId, oldQuery, ignorePermissionCheck);
+    }
+
+    private long doCountEntitiesByQuery(CustomerId customerId, EntityCountQuery oldQuery, boolean ignorePermissionCheck) {
         EdqsQuery query = RepositoryUtils.toNewQuery(oldQuery);
         QueryContext ctx = buildContext(customerId, query.getEntityFilter(), ignorePermissionCheck);
         EntityQueryProcessor queryProcessor = EntityQueryProcessorFactory.create(this, ctx, query);
         return queryProcessor.count();
     }
 
-    private PageData<QueryResult> sortAndConvert(EdqsDataQuery query, List<SortableEntityData> data, QueryContext ctx) {
-        int totalSize = data.size();
-        int totalPages = (int) Math.ceil((float) totalSize / query.getPageSize());
+    private PageData<QueryResult> findTopN(EdqsDataQuery query, EntityQueryProcessor queryProcessor, QueryContext ctx) {
         int offset = query.getPage() * query.getPageSize();
+        int requiredSize = (int) Math.min((long) offset + query.getPageSize(), Integer.MAX_VALUE);
+        boolean asc = EntityDataSortOrder.Direction.ASC.equals(query.getSortDirection());
+        long startTs = System.nanoTime();
+        SortableEntityDataTopN topN = new SortableEntityDataTopN(asc, requiredSize);
+        queryProcessor.processQuery(topN);
+        int totalSize = (int) topN.getTotal();
+        int totalPages = (int) Math.ceil((float) totalSize / query.getPageSize());
         if (offset > totalSize) {
             return new PageData<>(Collections.emptyList(), totalPages, totalSize, false);
-        } else {
-            Comparator<SortableEntityData> comparator = EntityDataSortOrder.Direction.ASC.equals(query.getSortDirection()) ? SORT_ASC : SORT_DESC;
-            long startTs = System.nanoTime();
-//          IMPLEMENTATION THAT IS BASED ON PRIORITY_QUEUE
-//            var requiredSize = Math.min(offset + query.getPageSize(), totalSize);
-//            PriorityQueue<SortableEntityData> topN = new PriorityQueue<>(requiredSize, comparator.reversed());
-//            for (SortableEntityData item : data) {
-//                topN.add(item);
-//                if (topN.size() > requiredSize) {
-//                    topN.poll();
-//                }
-//            }
-//            List<SortableEntityData> result = new ArrayList<>(topN);
-//            Collections.reverse(result);
-//            result = result.subList(offset, requiredSize);
-//          IMPLEMENTATION THAT IS BASED ON TREE SET  (For offset + query.getPageSize() << totalSize)
-            var requiredSize = Math.min(offset + query.getPageSize(), totalSize);
-            TreeSet<SortableEntityData> topNSet = new TreeSet<>(comparator);
-            for (SortableEntityData sp : data) {
-                topNSet.add(sp);
-                if (topNSet.size() > requiredSize) {
-                    topNSet.pollLast();
-                }
-            }
-            var result = topNSet.stream().skip(offset).limit(query.getPageSize()).collect(Collectors.toList());
-//          IMPLEMENTATION THAT IS BASED ON TIM SORT (For offset + query.getPageSize() > totalSize / 2)
-//            data.sort(comparator);
-//            var result = data.subList(offset, endIndex);
-            log.trace("EDQ Sorted in {}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTs));
-            return new PageData<>(toQueryResult(result, query, ctx), totalPages, totalSize, totalSize > requiredSize);
         }
+        List<SortableEntityData> result = topN.getResult(offset);
+        log.trace("EDQ Sorted in {}", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTs));
+        return new PageData<>(toQueryResult(result, query, ctx), totalPages, totalSize, totalSize > requiredSize);
     }
 
     private List<QueryResult> toQueryResult(List<SortableEntityData> data, EdqsDataQuery query, QueryContext ctx) {
@@ -15,11 +15,15 @@
  */
 package org.thingsboard.server.edqs.state;
 
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.WireFormat;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.thingsboard.common.util.ThingsBoardThreadFactory;
 import org.thingsboard.server.common.data.ObjectType;
 import org.thingsboard.server.common.data.edqs.EdqsEventType;
 import org.thingsboard.server.common.data.id.TenantId;
@@ -32,8 +36,16 @@ import org.thingsboard.server.queue.common.consumer.PartitionedQueueConsumerMana
 import org.thingsboard.server.queue.discovery.DiscoveryService;
 import org.thingsboard.server.queue.edqs.InMemoryEdqsComponent;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.thingsboard.server.common.msg.queue.TopicPartitionInfo.withTopic;
 
@@ -43,11 +55,16 @@ import static org.thingsboard.server.common.msg.queue.TopicPartitionInfo.withTop
 @Slf4j
 public class LocalEdqsStateService implements EdqsStateService {
 
+    private static final int RESTORE_BATCH_SIZE = 1000;
+
     private final EdqsRocksDb db;
     private final DiscoveryService discoveryService;
     @Autowired @Lazy
     private EdqsProcessor processor;
 
+    @Value("${queue.edqs.local.restore_threads:4}")
+    private int restoreThreads;
+
     private PartitionedQueueConsumerManager<TbProtoQueueMsg<ToEdqsMsg>> eventConsumer;
     private List<PartitionedQueueConsumerManager<?>> otherConsumers;
 
@@ -62,26 +79,127 @@ public class LocalEdqsStateService implements EdqsStateService {
     @Override
     public void process(Set<TopicPartitionInfo> partitions) {
         if (!ready) {
+            long startTs = System.currentTimeMillis();
+            int count = restoreThreads > 1 ? restoreInParallel() : restore();
+            log.info("Restore completed: {} msgs restored in {} ms", count, System.currentTimeMillis() - startTs);
+        }
+        ready = true;
+        discoveryService.setReady(true);
+
+        eventConsumer.update(withTopic(partitions, eventConsumer.getTopic()));
+        for (PartitionedQueueConsumerManager<?> consumer : otherConsumers) {
+            consumer.update(withTopic(partitions, consumer.getTopic()));
+        }
+    }
+
+    private int restore() {
+        AtomicInteger count = new AtomicInteger();
+        db.forEach((key, value) -> {
+            try {
+                ToEdqsMsg edqsMsg = ToEdqsMsg.parseFrom(value);
+                log.trace("[{}] Restored msg from RocksDB: {}", key, edqsMsg);
+                processor.process(edqsMsg, false);
+                count.incrementAndGet();
+            } catch (Exception e) {
+                log.error("[{}] Failed to restore value", key, e);
+            }
+        });
+        return count.get();
+    }
+
+    /*
+     * Messages are read sequentially from RocksDB and deserialized and applied by the restore workers.
+     * The reader only reads the tenant id fields of a message to pick its worker.
+     * All messages of a tenant go to the same worker, so they are applied in the same order as they are stored.
+     */
+    private int restoreInParallel() {
+        ExecutorService[] workers = new ExecutorService[restoreThreads];
+        List<List<RestoreEntry>> batches = new ArrayList<>(restoreThreads);
+        for (int i = 0; i < restoreThreads; i++) {
+            workers[i] = Executors.newSingleThreadExecutor(ThingsBoardThreadFactory.forName("edqs-restore-" + i));
+            batches.add(new ArrayList<>(RESTORE_BATCH_SIZE));
+        }
+        Semaphore pendingBatches = new Semaphore(restoreThreads * 4);
+        AtomicInteger count = new AtomicInteger();
+        try {
             db.forEach((key, value) -> {
+                UUID tenantId;
                 try {
-                    ToEdqsMsg edqsMsg = ToEdqsMsg.parseFrom(value);
-                    log.trace("[{}] Restored msg from RocksDB: {}", key, edqsMsg);
-                    processor.process(edqsMsg, false);
+                    tenantId = readTenantId(value);
                 } catch (Exception e) {
                     log.error("[{}] Failed to restore value", key, e);
+                    return;
+                }
+                int worker = Math.floorMod(tenantId.hashCode(), restoreThreads);
+                List<RestoreEntry> batch = batches.get(worker);
+                batch.add(new RestoreEntry(key, value));
+                if (batch.size() >= RESTORE_BATCH_SIZE) {
+                    submitRestoreBatch(workers[worker], batch, pendingBatches, count);
+                    batches.set(worker, new ArrayList<>(RESTORE_BATCH_SIZE));
                 }
             });
-            log.info("Restore completed");
+            for (int i = 0; i < restoreThreads; i++) {
+                if (!batches.get(i).isEmpty()) {
+                    submitRestoreBatch(workers[i], batches.get(i), pendingBatches, count);
+                }
+            }
+        } finally {
+            for (ExecutorService worker : workers) {
+                worker.shutdown();
+            }
+            for (ExecutorService worker : workers) {
+                try {
+                    worker.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.warn("Interrupted while waiting for the restore to complete");
+                    break;
+                }
+            }
         }
-        ready = true;
-        discoveryService.setReady(true);
+        return count.get();
+    }
 
-        eventConsumer.update(withTopic(partitions, eventConsumer.getTopic()));
-        for (PartitionedQueueConsumerManager<?> consumer : otherConsumers) {
-            consumer.update(withTopic(partitions, consumer.getTopic()));
+    private void submitRestoreBatch(ExecutorService worker, List<RestoreEntry> batch, Semaphore pendingBatches, AtomicInteger count) {
+        pendingBatches.acquireUninterruptibly();
+        worker.execute(() -> {
+            try {
+                for (RestoreEntry entry : batch) {
+                    try {
+                        ToEdqsMsg edqsMsg = ToEdqsMsg.parseFrom(entry.value());
+                        log.trace("[{}] Restored msg from RocksDB: {}", entry.key(), edqsMsg);
+                        processor.process(edqsMsg, false);
+                        count.incrementAndGet();
+                    } catch (Exception e) {
+                        log.error("[{}] Failed to restore value", entry.key(), e);
+                    }
+                }
+            } finally {
+                pendingBatches.release();
+            }
+        });
+    }
+
+    static UUID readTenantId(byte[] value) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(value);
+        long tenantIdMSB = 0;
+        long tenantIdLSB = 0;
+        int tag;
+        while ((tag = input.readTag()) != 0) {
+            int field = WireFormat.getTagFieldNumber(tag);
+            if (field == ToEdqsMsg.TENANTIDMSB_FIELD_NUMBER) {
+                tenantIdMSB = input.readInt64();
+            } else if (field == ToEdqsMsg.TENANTIDLSB_FIELD_NUMBER) {
+                tenantIdLSB = input.readInt64();
+            } else if (!input.skipField(tag)) {
+                break;
+            }
         }
+        return new UUID(tenantIdMSB, tenantIdLSB);
     }
 
+    private record RestoreEntry(String key, byte[] value) {}
+
     @Override
     public void save(TenantId tenantId, ObjectType type, String key, EdqsEventType eventType, ToEdqsMsg msg) {
         log.trace("Save to RocksDB: {} {} {} {}", tenantId, type, key, msg);
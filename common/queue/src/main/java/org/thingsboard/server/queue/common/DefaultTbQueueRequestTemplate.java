@@ -18,14 +18,17 @@ package org.thingsboard.server.queue.common;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.Nullable;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.thingsboard.common.util.TbStopWatch;
+import org.thingsboard.common.util.ThingsBoardExecutors;
 import org.thingsboard.common.util.ThingsBoardThreadFactory;
 import org.thingsboard.server.common.msg.queue.TopicPartitionInfo;
 import org.thingsboard.server.common.stats.MessagesStats;
+import org.thingsboard.server.common.stats.StatsFactory;
 import org.thingsboard.server.queue.TbQueueAdmin;
 import org.thingsboard.server.queue.TbQueueCallback;
 import org.thingsboard.server.queue.TbQueueConsumer;
@@ -39,6 +42,7 @@ import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.Lock;
@@ -49,6 +53,10 @@ import java.util.concurrent.locks.ReentrantLock;
 public class DefaultTbQueueRequestTemplate<Request extends TbQueueMsg, Response extends TbQueueMsg> extends AbstractTbQueueTemplate
         implements TbQueueRequestTemplate<Request, Response> {
 
+    private static final String LATENCY_STATS_KEY = "queueRequestLatency";
+    private static final String REQUEST_TYPE_TAG = "requestType";
+    private static final String RESULT_TAG = "result";
+
     private final TbQueueAdmin queueAdmin;
     private final TbQueueProducer<Request> requestTemplate;
     private final TbQueueConsumer<Response> responseTemplate;
@@ -59,11 +67,15 @@ public class DefaultTbQueueRequestTemplate<Request extends TbQueueMsg, Response
     final long maxRequestTimeout;
     final long maxPendingRequests;
     final long pollInterval;
+    final long timeoutTickMs;
+    final RequestTimeoutWheel<UUID> timeoutWheel;
     volatile boolean stopped = false;
-    long nextCleanupNs = 0L;
     private final Lock cleanerLock = new ReentrantLock();
+    private ScheduledExecutorService timeoutExecutor;
 
     private MessagesStats messagesStats;
+    private Timer responseTimer;
+    private Timer timeoutTimer;
 
     @Builder
     public DefaultTbQueueRequestTemplate(TbQueueAdmin queueAdmin,
@@ -72,6 +84,7 @@ public class DefaultTbQueueRequestTemplate<Request extends TbQueueMsg, Response
                                          long maxRequestTimeout,
                                          long maxPendingRequests,
                                          long pollInterval,
+                                         long timeoutTickMs,
                                          @Nullable ExecutorService executor) {
         this.queueAdmin = queueAdmin;
         this.requestTemplate = requestTemplate;
@@ -80,6 +93,8 @@ public class DefaultTbQueueRequestTemplate<Request extends TbQueueMsg, Response
         this.maxRequestTimeout = maxRequestTimeout;
         this.maxPendingRequests = maxPendingRequests;
         this.pollInterval = pollInterval;
+        this.timeoutTickMs = timeoutTickMs;
+        this.timeoutWheel = new RequestTimeoutWheel<>(TimeUnit.MILLISECONDS.toNanos(timeoutTickMs > 0 ? timeoutTickMs : Math.max(pollInterval, 1)), maxRequestTimeoutNs);
         this.internalExecutor = (executor == null);
         this.executor = internalExecutor ? createExecutor() : executor;
     }
@@ -93,6 +108,10 @@ public class DefaultTbQueueRequestTemplate<Request extends TbQueueMsg, Response
         queueAdmin.createTopicIfNotExists(responseTemplate.getTopic());
         responseTemplate.subscribe();
         executor.submit(this::mainLoop);
+        if (timeoutTickMs > 0) {
+            timeoutExecutor = ThingsBoardExecutors.newSingleThreadScheduledExecutor("tb-queue-request-timeouts-" + responseTemplate.getTopic());
+            timeoutExecutor.scheduleWithFixedDelay(this::tryCleanStaleRequests, timeoutTickMs, timeoutTickMs, TimeUnit.MILLISECONDS);
+        }
     }
 
     void mainLoop() {
@@ -118,35 +137,27 @@ public class DefaultTbQueueRequestTemplate<Request extends TbQueueMsg, Response
         tryCleanStaleRequests();
     }
 
-    private boolean tryCleanStaleRequests() {
+    boolean tryCleanStaleRequests() {
         if (!cleanerLock.tryLock()) {
             return false;
         }
         try {
             log.trace("tryCleanStaleRequest...");
             final long currentNs = getCurrentClockNs();
-            if (nextCleanupNs < currentNs) {
-                pendingRequests.forEach((key, value) -> {
-                    if (value.expTime < currentNs) {
-                        ResponseMetaData<Response> staleRequest = pendingRequests.remove(key);
-                        if (staleRequest != null) {
-                            setTimeoutException(key, staleRequest, currentNs);
-                        }
-                    }
-                });
-                setupNextCleanup();
+            for (UUID key : timeoutWheel.expire(currentNs)) {
+                ResponseMetaData<Response> staleRequest = pendingRequests.remove(key);
+                if (staleRequest != null) {
+                    setTimeoutException(key, staleRequest, currentNs);
+                }
             }
+        } catch (Throwable e) {
+            log.warn("Failed to clean stale requests", e);
         } finally {
             cleanerLock.unlock();
         }
         return true;
     }
 
-    void setupNextCleanup() {
-        nextCleanupNs = getCurrentClockNs() + maxRequestTimeoutNs;
-        log.trace("setupNextCleanup {}", nextCleanupNs);
-    }
-
     List<Response> doPoll() {
         return responseTemplate.poll(pollInterval);
     }
@@ -161,6 +172,9 @@ public class DefaultTbQueueRequestTemplate<Request extends TbQueueMsg, Response
         } else {
             log.info("Request timeout detected, currentNs [{}], {}, key [{}]", currentNs, staleRequest, key);
         }
+        if (timeoutTimer != null) {
+            timeoutTimer.record(currentNs - staleRequest.getSubmitTime(), TimeUnit.NANOSECONDS);
+        }
         staleRequest.future.setException(new TimeoutException());
     }
 
@@ -172,19 +186,34 @@ public class DefaultTbQueueRequestTemplate<Request extends TbQueueMsg, Response
         } else {
             requestId = bytesToUuid(requestIdHeader);
             log.trace("[{}] Response received: {}", requestId, response);
-            ResponseMetaData<Response> expectedResponse = pendingRequests.remove(requestId);
+            ResponseMetaData<Response> expectedResponse = removePendingRequest(requestId);
             if (expectedResponse == null) {
                 log.debug("[{}] Invalid or stale request, response: {}", requestId, String.valueOf(response).replace("\n", " "));
             } else {
+                if (responseTimer != null) {
+                    responseTimer.record(getCurrentClockNs() - expectedResponse.getSubmitTime(), TimeUnit.NANOSECONDS);
+                }
                 expectedResponse.future.set(response);
             }
         }
     }
 
+    private ResponseMetaData<Response> removePendingRequest(UUID requestId) {
+        ResponseMetaData<Response> metaData = pendingRequests.remove(requestId);
+        if (metaData != null) {
+            timeoutWheel.cancel(metaData.expiration);
+        }
+        return metaData;
+    }
+
     @Override
     public void stop() {
         stopped = true;
 
+        if (timeoutExecutor != null) {
+            timeoutExecutor.shutdownNow();
+        }
+
         if (responseTemplate != null) {
             responseTemplate.unsubscribe();
         }
@@ -203,6 +232,12 @@ public class DefaultTbQueueRequestTemplate<Request extends TbQueueMsg, Response
         this.messagesStats = messagesStats;
     }
 
+    @Override
+    public void setLatencyStats(StatsFactory statsFactory, String requestType) {
+        this.responseTimer = statsFactory.createTimer(LATENCY_STATS_KEY, REQUEST_TYPE_TAG, requestType, RESULT_TAG, "response");
+        this.timeoutTimer = statsFactory.createTimer(LATENCY_STATS_KEY, REQUEST_TYPE_TAG, requestType, RESULT_TAG, "timeout");
+    }
+
     @Override
     public ListenableFuture<Response> send(Request request) {
         return send(request, this.maxRequestTimeoutNs);
@@ -235,6 +270,7 @@ public class DefaultTbQueueRequestTemplate<Request extends TbQueueMsg, Response
             log.warn("Pending request already exists [{}]!", maxPendingRequests);
             return Futures.immediateFailedFuture(new RuntimeException("Pending request already exists !" + requestId));
         }
+        responseMetaData.expiration = timeoutWheel.schedule(requestId, responseMetaData.expTime, currentClockNs);
         sendToRequestTemplate(request, requestId, partition, future, responseMetaData);
         return future;
     }
@@ -277,7 +313,7 @@ public class DefaultTbQueueRequestTemplate<Request extends TbQueueMsg, Response
                 if (messagesStats != null) {
                     messagesStats.incrementFailed();
                 }
-                pendingRequests.remove(requestId);
+                removePendingRequest(requestId);
                 future.setException(t);
             }
         });
@@ -289,6 +325,7 @@ public class DefaultTbQueueRequestTemplate<Request extends TbQueueMsg, Response
         private final long timeout;
         private final long expTime;
         private final SettableFuture<T> future;
+        private volatile RequestTimeoutWheel.Timeout<UUID> expiration;
 
         ResponseMetaData(long ts, SettableFuture<T> future, long submitTime, long timeout) {
             this.submitTime = submitTime;
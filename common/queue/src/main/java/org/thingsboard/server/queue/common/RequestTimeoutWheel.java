@@ -0,0 +1,137 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.queue.common;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hashed timer wheel used to expire the pending requests.
+ * <p>
+ * Scheduling and cancellation are O(1). Each tick visits only the bucket of the elapsed tick, so a request expires
+ * at most one tick after its own deadline, regardless of the total number of the pending requests.
+ * Requests with the deadline beyond the wheel span stay in their bucket until the matching rotation.
+ */
+class RequestTimeoutWheel<T> {
+
+    private static final int MAX_WHEEL_SIZE = 1 << 16;
+
+    private final long tickNs;
+    private final int mask;
+    private final Timeout<T>[] buckets;
+
+    private boolean started;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    RequestTimeoutWheel(long tickNs, long maxTimeoutNs) {
+        this.tickNs = Math.max(1, tickNs);
+        long ticks = Math.min(maxTimeoutNs / this.tickNs + 2, MAX_WHEEL_SIZE);
+        int wheelSize = Integer.highestOneBit((int) Math.max(ticks - 1, 1)) << 1;
+        this.mask = wheelSize - 1;
+        this.buckets = new Timeout[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            Timeout<T> head = new Timeout<>(null, 0);
+            head.prev = head;
+            head.next = head;
+            buckets[i] = head;
+        }
+    }
+
+    synchronized Timeout<T> schedule(T value, long deadlineNs, long currentNs) {
+        start(currentNs);
+        long tick = Math.max(Math.floorDiv(deadlineNs, tickNs), currentTick + 1);
+        Timeout<T> timeout = new Timeout<>(value, deadlineNs);
+        Timeout<T> head = buckets[(int) (tick & mask)];
+        timeout.prev = head.prev;
+        timeout.next = head;
+        head.prev.next = timeout;
+        head.prev = timeout;
+        size++;
+        return timeout;
+    }
+
+    synchronized void cancel(Timeout<T> timeout) {
+        if (timeout != null && timeout.next != null) {
+            unlink(timeout);
+        }
+    }
+
+    /**
+     * Removes and returns the values of all timeouts with the deadline before the current time.
+     * Only the buckets of the ticks that are completely elapsed are processed.
+     */
+    synchronized List<T> expire(long currentNs) {
+        start(currentNs);
+        long lastTick = Math.floorDiv(currentNs, tickNs) - 1;
+        if (lastTick <= currentTick) {
+            return Collections.emptyList();
+        }
+        List<T> expired = null;
+        long ticks = Math.min(lastTick - currentTick, buckets.length);
+        for (long i = 1; i <= ticks; i++) {
+            Timeout<T> head = buckets[(int) ((currentTick + i) & mask)];
+            Timeout<T> timeout = head.next;
+            while (timeout != head) {
+                Timeout<T> next = timeout.next;
+                if (timeout.deadlineNs <= currentNs) {
+                    unlink(timeout);
+                    if (expired == null) {
+                        expired = new ArrayList<>();
+                    }
+                    expired.add(timeout.value);
+                }
+                timeout = next;
+            }
+        }
+        currentTick = lastTick;
+        return expired != null ? expired : Collections.emptyList();
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private void start(long currentNs) {
+        if (!started) {
+            currentTick = Math.floorDiv(currentNs, tickNs) - 1;
+            started = true;
+        }
+    }
+
+    private void unlink(Timeout<T> timeout) {
+        timeout.prev.next = timeout.next;
+        timeout.next.prev = timeout.prev;
+        timeout.prev = null;
+        timeout.next = null;
+        size--;
+    }
+
+    static final class Timeout<T> {
+        private final T value;
+        private final long deadlineNs;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T value, long deadlineNs) {
+            this.value = value;
+            this.deadlineNs = deadlineNs;
+        }
+    }
+
+}
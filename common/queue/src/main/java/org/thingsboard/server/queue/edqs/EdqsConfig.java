@@ -44,6 +44,8 @@ public class EdqsConfig {
     private int maxPendingRequests;
     @Value("${queue.edqs.max_request_timeout:20000}")
     private int maxRequestTimeout;
+    @Value("${queue.edqs.timeout_tick_ms:10}")
+    private long timeoutTickMs;
     @Value("${queue.edqs.request_executor_size:50}")
     private int requestExecutorSize;
     @Value("${queue.edqs.versions_cache_ttl:60}")
@@ -36,5 +36,9 @@ public class HousekeeperConfig {
     private int taskReprocessingDelay;
     @Value("${queue.core.housekeeper.max-reprocessing-attempts:10}")
     private int maxReprocessingAttempts;
+    @Value("${queue.core.housekeeper.batch-size:1}")
+    private int batchSize;
+    @Value("${queue.core.housekeeper.batch-processing-timeout-ms:0}")
+    private int batchProcessingTimeout;
 
 }
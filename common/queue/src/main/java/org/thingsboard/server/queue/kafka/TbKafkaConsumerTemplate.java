@@ -15,6 +15,7 @@
  */
 package org.thingsboard.server.queue.kafka;
 
+import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
@@ -166,7 +167,11 @@ public class TbKafkaConsumerTemplate<T extends TbQueueMsg> extends AbstractTbQue
         } else {
             recordList = new ArrayList<>(256);
             records.forEach(record -> {
-                recordList.add(record);
+                if (TbKafkaMsgBatches.isBatch(record)) {
+                    unpackBatch(record, recordList);
+                } else {
+                    recordList.add(record);
+                }
                 if (stopWhenRead && endOffsets != null) {
                     readCount++;
                     int partition = record.partition();
@@ -189,6 +194,15 @@ public class TbKafkaConsumerTemplate<T extends TbQueueMsg> extends AbstractTbQue
         return recordList;
     }
 
+    private void unpackBatch(ConsumerRecord<String, byte[]> record, List<ConsumerRecord<String, byte[]>> recordList) {
+        try {
+            recordList.addAll(TbKafkaMsgBatches.decode(record));
+        } catch (InvalidProtocolBufferException e) {
+            // the record can't be decoded on the next poll either, so it is skipped and committed with the rest of the records
+            log.error("[{}-{}] Skipping batch record at offset {} that failed to unpack", record.topic(), record.partition(), record.offset(), e);
+        }
+    }
+
     private void onPartitionsAssigned(Collection<TopicPartition> partitions) {
         if (readFromBeginning) {
             log.debug("Seeking to beginning for {}", partitions);
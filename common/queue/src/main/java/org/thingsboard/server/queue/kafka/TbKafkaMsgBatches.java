@@ -0,0 +1,84 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.queue.kafka;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.thingsboard.server.gen.transport.TransportProtos.QueueMsgBatchProto;
+import org.thingsboard.server.gen.transport.TransportProtos.QueueMsgProto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Envelope for the application-level batching of many small queue messages into a single Kafka record.
+ * <p>
+ * The envelope record is marked with the {@link #BATCH_HEADER} header, and the consumer unpacks it into the original
+ * records with the same topic, partition and offset, so the decoders and the offsets commit are not affected.
+ */
+final class TbKafkaMsgBatches {
+
+    static final String BATCH_HEADER = "_tbBatch";
+    private static final byte[] BATCH_HEADER_VALUE = new byte[]{1};
+
+    private TbKafkaMsgBatches() {
+    }
+
+    static Header batchHeader() {
+        return new RecordHeader(BATCH_HEADER, BATCH_HEADER_VALUE);
+    }
+
+    static QueueMsgProto toProto(String key, List<Header> headers, byte[] data) {
+        QueueMsgProto.Builder builder = QueueMsgProto.newBuilder()
+                .setKey(key)
+                .setData(ByteString.copyFrom(data));
+        for (Header header : headers) {
+            builder.putHeaders(header.key(), ByteString.copyFrom(header.value()));
+        }
+        return builder.build();
+    }
+
+    static byte[] encode(List<QueueMsgProto> msgs) {
+        return QueueMsgBatchProto.newBuilder().addAllMsgs(msgs).build().toByteArray();
+    }
+
+    static boolean isBatch(ConsumerRecord<String, byte[]> record) {
+        return record.headers().lastHeader(BATCH_HEADER) != null;
+    }
+
+    static List<ConsumerRecord<String, byte[]>> decode(ConsumerRecord<String, byte[]> record) throws InvalidProtocolBufferException {
+        QueueMsgBatchProto batch = QueueMsgBatchProto.parseFrom(record.value());
+        if (batch.getMsgsCount() == 0) {
+            return Collections.emptyList();
+        }
+        List<ConsumerRecord<String, byte[]>> records = new ArrayList<>(batch.getMsgsCount());
+        for (QueueMsgProto msg : batch.getMsgsList()) {
+            RecordHeaders headers = new RecordHeaders();
+            msg.getHeadersMap().forEach((key, value) -> headers.add(key, value.toByteArray()));
+            byte[] data = msg.getData().toByteArray();
+            records.add(new ConsumerRecord<>(record.topic(), record.partition(), record.offset(), record.timestamp(), record.timestampType(),
+                    msg.getKey().length(), data.length, msg.getKey(), data, headers, Optional.empty()));
+        }
+        return records;
+    }
+
+}
@@ -21,21 +21,28 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.header.internals.RecordHeader;
+import org.thingsboard.common.util.ThingsBoardExecutors;
 import org.thingsboard.server.common.data.StringUtils;
 import org.thingsboard.server.common.msg.queue.TopicPartitionInfo;
+import org.thingsboard.server.gen.transport.TransportProtos.QueueMsgProto;
 import org.thingsboard.server.queue.TbQueueAdmin;
 import org.thingsboard.server.queue.TbQueueCallback;
 import org.thingsboard.server.queue.TbQueueMsg;
 import org.thingsboard.server.queue.TbQueueProducer;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
@@ -45,6 +52,9 @@ import java.util.stream.Collectors;
 public class TbKafkaProducerTemplate<T extends TbQueueMsg> implements TbQueueProducer<T> {
 
     private final KafkaProducer<String, byte[]> producer;
+    private final String producerPropertiesKey;
+    // producers for the topics whose per-topic properties differ from the ones of the default topic
+    private final Map<String, KafkaProducer<String, byte[]>> topicProducers = new ConcurrentHashMap<>();
 
     @Getter
     private final String defaultTopic;
@@ -59,9 +69,12 @@ public class TbKafkaProducerTemplate<T extends TbQueueMsg> implements TbQueuePro
     @Getter
     private final String clientId;
 
+    private final Map<TopicPartition, MsgBatch> batches = new ConcurrentHashMap<>();
+    private ScheduledExecutorService batchFlushExecutor;
+
     @Builder
     private TbKafkaProducerTemplate(TbKafkaSettings settings, String defaultTopic, String clientId, TbQueueAdmin admin) {
-        Properties props = settings.toProducerProps();
+        Properties props = settings.toProducerProps(defaultTopic);
 
         this.clientId = Objects.requireNonNull(clientId, "Kafka producer client.id is null");
         if (!StringUtils.isEmpty(clientId)) {
@@ -70,9 +83,15 @@ public class TbKafkaProducerTemplate<T extends TbQueueMsg> implements TbQueuePro
         this.settings = settings;
 
         this.producer = new KafkaProducer<>(props);
+        this.producerPropertiesKey = settings.getProducerPropertiesKey(defaultTopic);
         this.defaultTopic = defaultTopic;
         this.admin = admin;
         topics = ConcurrentHashMap.newKeySet();
+        if (settings.isBatchingEnabled()) {
+            long lingerMs = Math.max(1, settings.getBatchingLingerMs());
+            batchFlushExecutor = ThingsBoardExecutors.newSingleThreadScheduledExecutor("kafka-producer-batching-" + clientId);
+            batchFlushExecutor.scheduleWithFixedDelay(this::flushBatches, lingerMs, lingerMs, TimeUnit.MILLISECONDS);
+        }
     }
 
     void addAnalyticHeaders(List<Header> headers) {
@@ -107,8 +126,13 @@ public class TbKafkaProducerTemplate<T extends TbQueueMsg> implements TbQueuePro
                 addAnalyticHeaders(headers);
             }
             Integer partition = tpi.isUseInternalPartition() ? tpi.getPartition().orElse(null) : null;
+            if (partition != null && batchFlushExecutor != null && settings.isBatchingEnabled(topic)) {
+                // the partition is known, so the message may share the record with other messages regardless of its key
+                addToBatch(new TopicPartition(topic, partition), TbKafkaMsgBatches.toProto(key, headers, data), callback);
+                return;
+            }
             record = new ProducerRecord<>(topic, partition, key, data, headers);
-            producer.send(record, (metadata, exception) -> {
+            getProducer(topic).send(record, (metadata, exception) -> {
                 if (exception == null) {
                     if (callback != null) {
                         callback.onSuccess(new KafkaTbQueueMsgMetadata(metadata));
@@ -131,6 +155,71 @@ public class TbKafkaProducerTemplate<T extends TbQueueMsg> implements TbQueuePro
         }
     }
 
+    private void addToBatch(TopicPartition tp, QueueMsgProto msg, TbQueueCallback callback) {
+        MsgBatch batch = batches.computeIfAbsent(tp, MsgBatch::new);
+        // the batch is sent under the lock to keep the order of the records within the partition
+        synchronized (batch) {
+            batch.add(msg, callback);
+            if (batch.msgs.size() >= settings.getBatchingMaxMsgs() || batch.bytes >= settings.getBatchingMaxBytes()) {
+                sendBatch(batch);
+            }
+        }
+    }
+
+    private void flushBatches() {
+        batches.values().forEach(batch -> {
+            synchronized (batch) {
+                if (!batch.msgs.isEmpty()) {
+                    sendBatch(batch);
+                }
+            }
+        });
+    }
+
+    private void sendBatch(MsgBatch batch) {
+        TopicPartition tp = batch.tp;
+        List<QueueMsgProto> msgs = batch.msgs;
+        List<TbQueueCallback> callbacks = batch.callbacks;
+        batch.reset();
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(tp.topic(), tp.partition(), msgs.get(0).getKey(),
+                TbKafkaMsgBatches.encode(msgs), List.of(TbKafkaMsgBatches.batchHeader()));
+        try {
+            getProducer(tp.topic()).send(record, (metadata, exception) -> {
+                for (TbQueueCallback callback : callbacks) {
+                    if (callback == null) {
+                        continue;
+                    }
+                    if (exception == null) {
+                        callback.onSuccess(new KafkaTbQueueMsgMetadata(metadata));
+                    } else {
+                        callback.onFailure(exception);
+                    }
+                }
+                if (exception != null) {
+                    log.warn("[{}] Producer template failure for batch of {} messages", tp, msgs.size(), exception);
+                }
+            });
+        } catch (Exception e) {
+            log.warn("[{}] Failed to send batch of {} messages", tp, msgs.size(), e);
+            callbacks.stream().filter(Objects::nonNull).forEach(callback -> callback.onFailure(e));
+        }
+    }
+
+    private KafkaProducer<String, byte[]> getProducer(String topic) {
+        String key = settings.getProducerPropertiesKey(topic);
+        if (Objects.equals(key, producerPropertiesKey)) {
+            return producer;
+        }
+        return topicProducers.computeIfAbsent(Objects.requireNonNullElse(key, ""), k -> {
+            Properties props = settings.toProducerProps(topic);
+            if (!StringUtils.isEmpty(clientId)) {
+                props.put(ProducerConfig.CLIENT_ID_CONFIG, clientId + "-" + (k.isEmpty() ? "default" : k));
+            }
+            log.debug("[{}] Creating producer for topic {} with properties of {}", clientId, topic, k.isEmpty() ? "common" : k);
+            return new KafkaProducer<>(props);
+        });
+    }
+
     private void createTopicIfNotExist(String topic) {
         if (topics.contains(topic)) {
             return;
@@ -141,9 +230,38 @@ public class TbKafkaProducerTemplate<T extends TbQueueMsg> implements TbQueuePro
 
     @Override
     public void stop() {
+        if (batchFlushExecutor != null) {
+            batchFlushExecutor.shutdownNow();
+            flushBatches();
+        }
         if (producer != null) {
             producer.close();
         }
+        topicProducers.values().forEach(KafkaProducer::close);
+        topicProducers.clear();
+    }
+
+    private static class MsgBatch {
+        private final TopicPartition tp;
+        private List<QueueMsgProto> msgs = new ArrayList<>();
+        private List<TbQueueCallback> callbacks = new ArrayList<>();
+        private int bytes;
+
+        MsgBatch(TopicPartition tp) {
+            this.tp = tp;
+        }
+
+        void add(QueueMsgProto msg, TbQueueCallback callback) {
+            msgs.add(msg);
+            callbacks.add(callback);
+            bytes += msg.getSerializedSize();
+        }
+
+        void reset() {
+            msgs = new ArrayList<>();
+            callbacks = new ArrayList<>();
+            bytes = 0;
+        }
     }
 
 }
@@ -32,10 +32,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.thingsboard.server.common.data.StringUtils;
 import org.thingsboard.server.common.data.TbProperty;
 import org.thingsboard.server.queue.util.PropertyUtils;
 import org.thingsboard.server.queue.util.TbKafkaComponent;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -142,6 +145,28 @@ public class TbKafkaSettings {
     @Value("${queue.kafka.consumer-properties-per-topic-inline:}")
     private String consumerPropertiesPerTopicInline;
 
+    @Value("${queue.kafka.producer-properties-per-topic-inline:}")
+    private String producerPropertiesPerTopicInline;
+
+    @Value("${queue.kafka.batching.enabled:false}")
+    @Getter
+    private boolean batchingEnabled;
+
+    @Value("${queue.kafka.batching.topics:}")
+    private String batchingTopicsStr;
+
+    @Value("${queue.kafka.batching.max_msgs:100}")
+    @Getter
+    private int batchingMaxMsgs;
+
+    @Value("${queue.kafka.batching.max_bytes:262144}")
+    @Getter
+    private int batchingMaxBytes;
+
+    @Value("${queue.kafka.batching.linger_ms:5}")
+    @Getter
+    private long batchingLingerMs;
+
     @Autowired
     private KafkaAdmin kafkaAdmin;
 
@@ -152,12 +177,27 @@ public class TbKafkaSettings {
     @Setter
     private Map<String, List<TbProperty>> consumerPropertiesPerTopic = new HashMap<>();
 
+    @Setter
+    private Map<String, List<TbProperty>> producerPropertiesPerTopic = new HashMap<>();
+
+    private List<String> batchingTopics = Collections.emptyList();
+
     @PostConstruct
     public void initInlineTopicProperties() {
         Map<String, List<TbProperty>> inlineProps = parseTopicPropertyList(consumerPropertiesPerTopicInline);
         if (!inlineProps.isEmpty()) {
             consumerPropertiesPerTopic.putAll(inlineProps);
         }
+        Map<String, List<TbProperty>> inlineProducerProps = parseTopicPropertyList(producerPropertiesPerTopicInline);
+        if (!inlineProducerProps.isEmpty()) {
+            producerPropertiesPerTopic.putAll(inlineProducerProps);
+        }
+        if (StringUtils.isNotBlank(batchingTopicsStr)) {
+            batchingTopics = Arrays.stream(batchingTopicsStr.split(","))
+                    .map(String::trim)
+                    .filter(StringUtils::isNotEmpty)
+                    .toList();
+        }
     }
 
     public Properties toConsumerProps(String topic) {
@@ -174,24 +214,66 @@ public class TbKafkaSettings {
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
 
-        if (topic != null) {
-            List<TbProperty> properties = consumerPropertiesPerTopic.get(topic);
-            if (properties == null) {
-                for (Map.Entry<String, List<TbProperty>> entry : consumerPropertiesPerTopic.entrySet()) {
-                    if (topic.startsWith(entry.getKey())) {
-                        properties = entry.getValue();
-                        break;
-                    }
-                }
-            }
-            if (properties != null) {
-                properties.forEach(kv -> props.put(kv.getKey(), kv.getValue()));
-            }
-        }
+        putTopicProperties(props, consumerPropertiesPerTopic, topic);
         return props;
     }
 
     public Properties toProducerProps() {
+        return toProducerProps(null);
+    }
+
+    /**
+     * Producer properties with the profile of the specific topic (e.g. linger.ms, batch.size, compression.type, acks
+     * and enable.idempotence), so that high-volume topics may be tuned for throughput and request-response topics for latency.
+     */
+    public Properties toProducerProps(String topic) {
+        Properties props = toBaseProducerProps();
+        putTopicProperties(props, producerPropertiesPerTopic, topic);
+        return props;
+    }
+
+    /**
+     * Returns the topic or topic prefix whose producer properties apply to the topic,
+     * or {@code null} if only the common producer properties apply.
+     */
+    public String getProducerPropertiesKey(String topic) {
+        return findTopicPropertiesKey(producerPropertiesPerTopic, topic);
+    }
+
+    /**
+     * Whether the messages to the topic may be packed into a single Kafka record by the producer.
+     * Only the topics that match the configured batching topic prefixes are batched.
+     */
+    public boolean isBatchingEnabled(String topic) {
+        if (!batchingEnabled || topic == null) {
+            return false;
+        }
+        return batchingTopics.stream().anyMatch(topic::startsWith);
+    }
+
+    private static void putTopicProperties(Properties props, Map<String, List<TbProperty>> propertiesPerTopic, String topic) {
+        String key = findTopicPropertiesKey(propertiesPerTopic, topic);
+        if (key != null) {
+            propertiesPerTopic.get(key).forEach(kv -> props.put(kv.getKey(), kv.getValue()));
+        }
+    }
+
+    private static String findTopicPropertiesKey(Map<String, List<TbProperty>> propertiesPerTopic, String topic) {
+        if (topic == null) {
+            return null;
+        }
+        if (propertiesPerTopic.containsKey(topic)) {
+            return topic;
+        }
+        for (String key : propertiesPerTopic.keySet()) {
+            if (topic.startsWith(key)) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    private Properties toBaseProducerProps() {
         Properties props = toProps();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, servers);
         props.put(ProducerConfig.RETRIES_CONFIG, retries);
@@ -16,6 +16,8 @@
 package org.thingsboard.server.queue.memory;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import org.thingsboard.server.queue.TbQueueMsg;
 
@@ -30,9 +32,13 @@ import java.util.concurrent.LinkedBlockingQueue;
 
 @Component
 @Slf4j
+@ConditionalOnProperty(prefix = "queue.in_memory", value = "storage", havingValue = "default", matchIfMissing = true)
 public final class DefaultInMemoryStorage implements InMemoryStorage {
     private final ConcurrentHashMap<String, BlockingQueue<TbQueueMsg>> storage = new ConcurrentHashMap<>();
 
+    @Value("${queue.in_memory.max_poll_records:1000}")
+    private int maxPollRecords = 1000;
+
     @Override
     public void printStats() {
         if (log.isDebugEnabled()) {
@@ -59,18 +65,24 @@ public final class DefaultInMemoryStorage implements InMemoryStorage {
         return storage.computeIfAbsent(topic, (t) -> new LinkedBlockingQueue<>()).add(msg);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public <T extends TbQueueMsg> List<T> get(String topic) throws InterruptedException {
+        return get(topic, maxPollRecords);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T extends TbQueueMsg> List<T> get(String topic, int maxRecords) throws InterruptedException {
+        final int maxDrain = (maxRecords > 0 ? maxRecords : maxPollRecords) - 1;
         final BlockingQueue<TbQueueMsg> queue = storage.get(topic);
         if (queue != null) {
             final TbQueueMsg firstMsg = queue.poll();
             if (firstMsg != null) {
                 final int queueSize = queue.size();
-                if (queueSize > 0) {
-                    final List<TbQueueMsg> entities = new ArrayList<>(Math.min(queueSize, 999) + 1);
+                if (queueSize > 0 && maxDrain > 0) {
+                    final List<TbQueueMsg> entities = new ArrayList<>(Math.min(queueSize, maxDrain) + 1);
                     entities.add(firstMsg);
-                    queue.drainTo(entities, 999);
+                    queue.drainTo(entities, maxDrain);
                     return (List<T>) entities;
                 }
                 return Collections.singletonList((T) firstMsg);
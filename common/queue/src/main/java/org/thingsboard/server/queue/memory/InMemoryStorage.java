@@ -31,4 +31,8 @@ public interface InMemoryStorage {
 
     <T extends TbQueueMsg> List<T> get(String topic) throws InterruptedException;
 
+    default <T extends TbQueueMsg> List<T> get(String topic, int maxRecords) throws InterruptedException {
+        return get(topic);
+    }
+
 }
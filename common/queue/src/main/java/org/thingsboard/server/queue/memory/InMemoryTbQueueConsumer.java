@@ -31,10 +31,16 @@ public class InMemoryTbQueueConsumer<T extends TbQueueMsg> implements TbQueueCon
     private volatile Set<TopicPartitionInfo> partitions;
     private volatile boolean stopped;
     private volatile boolean subscribed;
+    private final int maxPollRecords;
 
     public InMemoryTbQueueConsumer(InMemoryStorage storage, String topic) {
+        this(storage, topic, 0);
+    }
+
+    public InMemoryTbQueueConsumer(InMemoryStorage storage, String topic, int maxPollRecords) {
         this.storage = storage;
         this.topic = topic;
+        this.maxPollRecords = maxPollRecords;
         stopped = false;
     }
 
@@ -76,7 +82,7 @@ public class InMemoryTbQueueConsumer<T extends TbQueueMsg> implements TbQueueCon
                     .stream()
                     .map(tpi -> {
                         try {
-                            return storage.get(tpi.getFullTopicName());
+                            return storage.get(tpi.getFullTopicName(), maxPollRecords);
                         } catch (InterruptedException e) {
                             if (!stopped) {
                                 log.error("Queue was interrupted.", e);
@@ -0,0 +1,199 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.queue.memory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.thingsboard.server.queue.TbQueueMsg;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory storage that backs every topic with a pre-sized ring buffer instead of the unbounded linked queue.
+ * <p>
+ * Producers claim the slots with a single CAS on the tail sequence, and the consumers drain the published slots in batches.
+ * The lag of the topic is the distance between the tail and the head sequences, and the total lag is maintained
+ * by a counter, so both are computed in O(1). When the buffer is full, the producer waits up to the back-pressure timeout
+ * for the consumer to free the slots and fails the message afterwards.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "queue.in_memory", value = "storage", havingValue = "ring_buffer")
+public final class RingBufferInMemoryStorage implements InMemoryStorage {
+
+    private static final long MAX_BACKOFF_NS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ConcurrentHashMap<String, TopicRing> storage = new ConcurrentHashMap<>();
+    private final AtomicLong lagTotal = new AtomicLong();
+
+    @Value("${queue.in_memory.ring_buffer.capacity:65536}")
+    private int capacity = 65536;
+
+    @Value("${queue.in_memory.ring_buffer.back_pressure_timeout_ms:1000}")
+    private long backPressureTimeoutMs = 1000;
+
+    @Value("${queue.in_memory.max_poll_records:1000}")
+    private int maxPollRecords = 1000;
+
+    public RingBufferInMemoryStorage() {
+    }
+
+    RingBufferInMemoryStorage(int capacity, long backPressureTimeoutMs, int maxPollRecords) {
+        this.capacity = capacity;
+        this.backPressureTimeoutMs = backPressureTimeoutMs;
+        this.maxPollRecords = maxPollRecords;
+    }
+
+    @Override
+    public void printStats() {
+        if (log.isDebugEnabled()) {
+            storage.forEach((topic, ring) -> {
+                int size = ring.size();
+                if (size > 0) {
+                    log.debug("[{}] Queue Size [{}], Capacity [{}]", topic, size, ring.capacity());
+                }
+            });
+        }
+    }
+
+    @Override
+    public int getLagTotal() {
+        return (int) lagTotal.get();
+    }
+
+    @Override
+    public int getLag(String topic) {
+        TopicRing ring = storage.get(topic);
+        return ring != null ? ring.size() : 0;
+    }
+
+    @Override
+    public boolean put(String topic, TbQueueMsg msg) {
+        TopicRing ring = storage.computeIfAbsent(topic, t -> new TopicRing(capacity));
+        if (ring.offer(msg)) {
+            lagTotal.incrementAndGet();
+            return true;
+        }
+        if (backPressureTimeoutMs > 0) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backPressureTimeoutMs);
+            long backoffNs = 1000;
+            while (System.nanoTime() < deadline) {
+                LockSupport.parkNanos(backoffNs);
+                if (ring.offer(msg)) {
+                    lagTotal.incrementAndGet();
+                    return true;
+                }
+                backoffNs = Math.min(backoffNs * 2, MAX_BACKOFF_NS);
+            }
+        }
+        log.warn("[{}] Queue is full, capacity [{}]", topic, ring.capacity());
+        return false;
+    }
+
+    @Override
+    public <T extends TbQueueMsg> List<T> get(String topic) {
+        return get(topic, maxPollRecords);
+    }
+
+    @Override
+    public <T extends TbQueueMsg> List<T> get(String topic, int maxRecords) {
+        TopicRing ring = storage.get(topic);
+        if (ring == null) {
+            return Collections.emptyList();
+        }
+        List<T> msgs = ring.drain(maxRecords > 0 ? maxRecords : maxPollRecords);
+        if (!msgs.isEmpty()) {
+            lagTotal.addAndGet(-msgs.size());
+        }
+        return msgs;
+    }
+
+    private static final class TopicRing {
+
+        private final AtomicReferenceArray<TbQueueMsg> slots;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private final ReentrantLock drainLock = new ReentrantLock();
+        private volatile long head;
+
+        TopicRing(int capacity) {
+            int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+            this.slots = new AtomicReferenceArray<>(size);
+            this.mask = size - 1;
+        }
+
+        int capacity() {
+            return slots.length();
+        }
+
+        int size() {
+            return (int) Math.max(0, tail.get() - head);
+        }
+
+        boolean offer(TbQueueMsg msg) {
+            long seq;
+            do {
+                seq = tail.get();
+                if (seq - head >= slots.length()) {
+                    return false;
+                }
+            } while (!tail.compareAndSet(seq, seq + 1));
+            // the slot is free since the head passed it only after the consumer has cleared it
+            slots.set((int) (seq & mask), msg);
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        <T extends TbQueueMsg> List<T> drain(int maxRecords) {
+            drainLock.lock();
+            try {
+                long current = head;
+                int available = (int) Math.min(tail.get() - current, maxRecords);
+                if (available <= 0) {
+                    return Collections.emptyList();
+                }
+                List<T> msgs = new ArrayList<>(available);
+                for (int i = 0; i < available; i++) {
+                    int idx = (int) (current & mask);
+                    TbQueueMsg msg = slots.get(idx);
+                    if (msg == null) {
+                        // the slot is claimed by the producer, but the message is not published yet
+                        break;
+                    }
+                    slots.lazySet(idx, null);
+                    msgs.add((T) msg);
+                    current++;
+                }
+                head = current;
+                return msgs;
+            } finally {
+                drainLock.unlock();
+            }
+        }
+
+    }
+
+}
@@ -17,6 +17,7 @@ package org.thingsboard.server.queue.provider;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
@@ -50,6 +51,7 @@ import org.thingsboard.server.queue.settings.TbQueueRuleEngineSettings;
 import org.thingsboard.server.queue.settings.TbQueueTransportApiSettings;
 import org.thingsboard.server.queue.settings.TbQueueTransportNotificationSettings;
 import org.thingsboard.server.queue.settings.TbQueueVersionControlSettings;
+import org.thingsboard.server.queue.util.PropertyUtils;
 
 @Slf4j
 @Component
@@ -103,7 +105,8 @@ public class InMemoryMonolithQueueFactory implements TbCoreQueueFactory, TbRuleE
 
     @Override
     public TbQueueConsumer<TbProtoQueueMsg<TransportProtos.ToRuleEngineMsg>> createToRuleEngineMsgConsumer(Queue configuration) {
-        return new InMemoryTbQueueConsumer<>(storage, topicService.buildTopicName(configuration.getTopic()));
+        int maxPollRecords = NumberUtils.toInt(PropertyUtils.getProps(configuration.getCustomProperties()).get("max.poll.records"), 0);
+        return new InMemoryTbQueueConsumer<>(storage, topicService.buildTopicName(configuration.getTopic()), maxPollRecords);
     }
 
     @Override
@@ -257,6 +260,7 @@ public class InMemoryMonolithQueueFactory implements TbCoreQueueFactory, TbRuleE
                 .responseTemplate(responseConsumer)
                 .maxPendingRequests(edqsConfig.getMaxPendingRequests())
                 .maxRequestTimeout(edqsConfig.getMaxRequestTimeout())
+                .timeoutTickMs(edqsConfig.getTimeoutTickMs())
                 .pollInterval(edqsConfig.getPollInterval())
                 .build();
     }
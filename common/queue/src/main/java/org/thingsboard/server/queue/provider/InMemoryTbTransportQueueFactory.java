@@ -91,6 +91,7 @@ public class InMemoryTbTransportQueueFactory implements TbTransportQueueFactory
         templateBuilder.responseTemplate(consumerTemplate);
         templateBuilder.maxPendingRequests(transportApiSettings.getMaxPendingRequests());
         templateBuilder.maxRequestTimeout(transportApiSettings.getMaxRequestsTimeout());
+        templateBuilder.timeoutTickMs(transportApiSettings.getTimeoutTickMs());
         templateBuilder.pollInterval(transportApiSettings.getResponsePollInterval());
         return templateBuilder.build();
     }
@@ -352,6 +352,7 @@ public class KafkaMonolithQueueFactory implements TbCoreQueueFactory, TbRuleEngi
         builder.responseTemplate(responseBuilder.build());
         builder.maxPendingRequests(jsInvokeSettings.getMaxPendingRequests());
         builder.maxRequestTimeout(jsInvokeSettings.getMaxRequestsTimeout());
+        builder.timeoutTickMs(jsInvokeSettings.getTimeoutTickMs());
         builder.pollInterval(jsInvokeSettings.getResponsePollInterval());
         return builder.build();
     }
@@ -649,6 +650,7 @@ public class KafkaMonolithQueueFactory implements TbCoreQueueFactory, TbRuleEngi
                 .responseTemplate(responseConsumer.build())
                 .maxPendingRequests(edqsConfig.getMaxPendingRequests())
                 .maxRequestTimeout(edqsConfig.getMaxRequestTimeout())
+                .timeoutTickMs(edqsConfig.getTimeoutTickMs())
                 .pollInterval(edqsConfig.getPollInterval())
                 .build();
     }
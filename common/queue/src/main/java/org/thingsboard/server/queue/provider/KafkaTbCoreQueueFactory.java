@@ -291,6 +291,7 @@ public class KafkaTbCoreQueueFactory implements TbCoreQueueFactory {
         builder.responseTemplate(responseBuilder.build());
         builder.maxPendingRequests(jsInvokeSettings.getMaxPendingRequests());
         builder.maxRequestTimeout(jsInvokeSettings.getMaxRequestsTimeout());
+        builder.timeoutTickMs(jsInvokeSettings.getTimeoutTickMs());
         builder.pollInterval(jsInvokeSettings.getResponsePollInterval());
         return builder.build();
     }
@@ -523,6 +524,7 @@ public class KafkaTbCoreQueueFactory implements TbCoreQueueFactory {
                 .responseTemplate(responseConsumer.build())
                 .maxPendingRequests(edqsConfig.getMaxPendingRequests())
                 .maxRequestTimeout(edqsConfig.getMaxRequestTimeout())
+                .timeoutTickMs(edqsConfig.getTimeoutTickMs())
                 .pollInterval(edqsConfig.getPollInterval())
                 .build();
     }
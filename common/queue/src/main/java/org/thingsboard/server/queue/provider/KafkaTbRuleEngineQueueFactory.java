@@ -295,6 +295,7 @@ public class KafkaTbRuleEngineQueueFactory implements TbRuleEngineQueueFactory {
         builder.responseTemplate(responseBuilder.build());
         builder.maxPendingRequests(jsInvokeSettings.getMaxPendingRequests());
         builder.maxRequestTimeout(jsInvokeSettings.getMaxRequestsTimeout());
+        builder.timeoutTickMs(jsInvokeSettings.getTimeoutTickMs());
         builder.pollInterval(jsInvokeSettings.getResponsePollInterval());
         return builder.build();
     }
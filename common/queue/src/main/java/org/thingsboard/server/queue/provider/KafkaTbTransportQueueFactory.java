@@ -117,6 +117,7 @@ public class KafkaTbTransportQueueFactory implements TbTransportQueueFactory {
         templateBuilder.responseTemplate(responseBuilder.build());
         templateBuilder.maxPendingRequests(transportApiSettings.getMaxPendingRequests());
         templateBuilder.maxRequestTimeout(transportApiSettings.getMaxRequestsTimeout());
+        templateBuilder.timeoutTickMs(transportApiSettings.getTimeoutTickMs());
         templateBuilder.pollInterval(transportApiSettings.getResponsePollInterval());
         return templateBuilder.build();
     }
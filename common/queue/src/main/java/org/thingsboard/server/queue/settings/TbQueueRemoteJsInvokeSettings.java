@@ -42,6 +42,9 @@ public class TbQueueRemoteJsInvokeSettings {
     @Value("${queue.js.max_requests_timeout}")
     private long maxRequestsTimeout;
 
+    @Value("${queue.js.timeout_tick_ms:10}")
+    private long timeoutTickMs;
+
     public String getRequestTopic(){
         return prefix.isBlank() ? requestTopic : prefix + "." + requestTopic;
     }
@@ -46,4 +46,7 @@ public class TbQueueTransportApiSettings {
     @Value("${queue.transport_api.response_poll_interval}")
     private long responsePollInterval;
 
+    @Value("${queue.transport_api.timeout_tick_ms:10}")
+    private long timeoutTickMs;
+
 }
@@ -160,6 +160,7 @@ public class DefaultTbApiUsageReportClient implements TbApiUsageReportClient {
                         ToUsageStatsServiceMsg.newBuilder()
                                 .addAllMsgs(partition)
                                 .setServiceId(serviceInfoProvider.getServiceId())
+                                .setTs(System.currentTimeMillis())
                                 .build())
                 .toList();
     }
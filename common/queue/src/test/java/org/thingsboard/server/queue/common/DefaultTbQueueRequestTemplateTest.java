@@ -82,7 +82,7 @@ public class DefaultTbQueueRequestTemplateTest {
         lenient().doReturn(topic).when(responseTemplate).getTopic();
         inst = spy(new DefaultTbQueueRequestTemplate<>(
                 queueAdmin, requestTemplate, responseTemplate,
-                maxRequestTimeout, maxPendingRequests, pollInterval, executorMock));
+                maxRequestTimeout, maxPendingRequests, pollInterval, 0, executorMock));
 
     }
 
@@ -106,7 +106,6 @@ public class DefaultTbQueueRequestTemplateTest {
     @Test
     public void givenExternalExecutor_whenInitStop_thenOK() {
         inst.init();
-        assertThat(inst.nextCleanupNs, equalTo(0L));
         verify(queueAdmin, times(1)).createTopicIfNotExists(topic);
         verify(responseTemplate, times(1)).subscribe();
         verify(executorMock, times(1)).submit(any(Runnable.class));
@@ -179,7 +178,6 @@ public class DefaultTbQueueRequestTemplateTest {
             return currentTime.get();
         }).given(inst).getCurrentClockNs();
         inst.init();
-        inst.setupNextCleanup();
         willReturn(Collections.emptyList()).given(inst).doPoll();
 
         //when
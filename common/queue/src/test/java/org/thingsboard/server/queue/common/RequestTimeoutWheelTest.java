@@ -0,0 +1,75 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.queue.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestTimeoutWheelTest {
+
+    private static final long TICK_NS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long MAX_TIMEOUT_NS = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testExpiresWithinTickAfterDeadline() {
+        RequestTimeoutWheel<String> wheel = new RequestTimeoutWheel<>(TICK_NS, MAX_TIMEOUT_NS);
+        long start = TimeUnit.SECONDS.toNanos(100);
+        wheel.schedule("a", start + TimeUnit.MILLISECONDS.toNanos(100), start);
+        wheel.schedule("b", start + TimeUnit.MILLISECONDS.toNanos(500), start);
+
+        assertThat(wheel.expire(start + TimeUnit.MILLISECONDS.toNanos(99))).isEmpty();
+        assertThat(wheel.expire(start + TimeUnit.MILLISECONDS.toNanos(110))).containsExactly("a");
+        assertThat(wheel.expire(start + TimeUnit.MILLISECONDS.toNanos(499))).isEmpty();
+        assertThat(wheel.expire(start + TimeUnit.MILLISECONDS.toNanos(510))).containsExactly("b");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    public void testCancelledTimeoutIsNotExpired() {
+        RequestTimeoutWheel<String> wheel = new RequestTimeoutWheel<>(TICK_NS, MAX_TIMEOUT_NS);
+        RequestTimeoutWheel.Timeout<String> timeout = wheel.schedule("a", TimeUnit.MILLISECONDS.toNanos(50), 0);
+        wheel.cancel(timeout);
+        wheel.cancel(timeout);
+
+        assertThat(wheel.expire(TimeUnit.SECONDS.toNanos(1))).isEmpty();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    public void testDeadlineBeyondWheelSpan() {
+        RequestTimeoutWheel<String> wheel = new RequestTimeoutWheel<>(TICK_NS, MAX_TIMEOUT_NS);
+        wheel.schedule("a", TimeUnit.SECONDS.toNanos(5), 0);
+
+        for (long ts = 0; ts < TimeUnit.SECONDS.toNanos(5); ts += TICK_NS) {
+            assertThat(wheel.expire(ts)).isEmpty();
+        }
+        assertThat(wheel.expire(TimeUnit.SECONDS.toNanos(5) + TICK_NS)).containsExactly("a");
+    }
+
+    @Test
+    public void testExpiredDeadlineAndClockJump() {
+        RequestTimeoutWheel<String> wheel = new RequestTimeoutWheel<>(TICK_NS, MAX_TIMEOUT_NS);
+        long start = TimeUnit.SECONDS.toNanos(10);
+        wheel.schedule("a", start - TICK_NS, start);
+        wheel.schedule("b", start + TimeUnit.MILLISECONDS.toNanos(300), start);
+
+        assertThat(wheel.expire(start + TimeUnit.MINUTES.toNanos(1))).containsExactlyInAnyOrder("a", "b");
+    }
+
+}
@@ -0,0 +1,85 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.queue.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.queue.TbQueueMsg;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class TbKafkaConsumerTemplateTest {
+
+    static final String TOPIC = "tb_core";
+
+    TbKafkaConsumerTemplate<TbQueueMsg> consumerTemplate;
+    KafkaConsumer<String, byte[]> consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumerTemplate = mock(TbKafkaConsumerTemplate.class);
+        consumer = mock(KafkaConsumer.class);
+        ReflectionTestUtils.setField(consumerTemplate, "consumer", consumer);
+        willCallRealMethod().given(consumerTemplate).doPoll(anyLong());
+    }
+
+    @Test
+    void testCorruptBatchIsSkipped() {
+        ConsumerRecord<String, byte[]> first = newRecord(0, 10, "key1", "msg1".getBytes(StandardCharsets.UTF_8), false);
+        ConsumerRecord<String, byte[]> corrupt = newRecord(0, 11, "", new byte[]{(byte) 0xFF, (byte) 0xFF}, true);
+        ConsumerRecord<String, byte[]> batch = newRecord(0, 12, "", TbKafkaMsgBatches.encode(List.of(
+                TbKafkaMsgBatches.toProto("key2", Collections.emptyList(), "msg2".getBytes(StandardCharsets.UTF_8)))), true);
+        ConsumerRecord<String, byte[]> other = newRecord(1, 5, "key3", "msg3".getBytes(StandardCharsets.UTF_8), false);
+        given(consumer.poll(any())).willReturn(new ConsumerRecords<>(Map.of(
+                new TopicPartition(TOPIC, 0), List.of(first, corrupt, batch),
+                new TopicPartition(TOPIC, 1), List.of(other))));
+
+        List<ConsumerRecord<String, byte[]>> records = consumerTemplate.doPoll(100);
+
+        assertThat(records).extracting(ConsumerRecord::key).containsExactlyInAnyOrder("key1", "key2", "key3");
+        assertThat(records).extracting(ConsumerRecord::offset).doesNotContain(11L);
+        verify(consumer, never()).seek(any(TopicPartition.class), anyLong());
+    }
+
+    private static ConsumerRecord<String, byte[]> newRecord(int partition, long offset, String key, byte[] value, boolean batch) {
+        RecordHeaders headers = new RecordHeaders();
+        if (batch) {
+            headers.add(TbKafkaMsgBatches.batchHeader());
+        }
+        return new ConsumerRecord<>(TOPIC, partition, offset, 0L, TimestampType.CREATE_TIME, key.length(), value.length, key, value, headers, Optional.empty());
+    }
+
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.queue.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.gen.transport.TransportProtos.QueueMsgProto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TbKafkaMsgBatchesTest {
+
+    @Test
+    void givenBatchRecord_whenDecode_thenOriginalMsgsRestoredWithEnvelopePosition() throws Exception {
+        List<Header> headers = List.of(new RecordHeader("type", "telemetry".getBytes(StandardCharsets.UTF_8)));
+        List<QueueMsgProto> msgs = List.of(
+                TbKafkaMsgBatches.toProto("key1", headers, new byte[]{1, 2, 3}),
+                TbKafkaMsgBatches.toProto("key2", List.of(), new byte[]{4}));
+
+        RecordHeaders envelopeHeaders = new RecordHeaders();
+        envelopeHeaders.add(TbKafkaMsgBatches.batchHeader());
+        byte[] value = TbKafkaMsgBatches.encode(msgs);
+        ConsumerRecord<String, byte[]> envelope = new ConsumerRecord<>("tb_rule_engine.main.0", 3, 42L, 1000L, TimestampType.CREATE_TIME,
+                0, value.length, "", value, envelopeHeaders, Optional.empty());
+
+        assertThat(TbKafkaMsgBatches.isBatch(envelope)).isTrue();
+        List<ConsumerRecord<String, byte[]>> records = TbKafkaMsgBatches.decode(envelope);
+
+        assertThat(records).hasSize(2);
+        assertThat(records).allSatisfy(record -> {
+            assertThat(record.topic()).isEqualTo("tb_rule_engine.main.0");
+            assertThat(record.partition()).isEqualTo(3);
+            assertThat(record.offset()).isEqualTo(42L);
+        });
+        assertThat(records.get(0).key()).isEqualTo("key1");
+        assertThat(records.get(0).value()).containsExactly(1, 2, 3);
+        assertThat(records.get(0).headers().lastHeader("type").value()).isEqualTo("telemetry".getBytes(StandardCharsets.UTF_8));
+        assertThat(records.get(1).key()).isEqualTo("key2");
+        assertThat(records.get(1).value()).containsExactly(4);
+        assertThat(TbKafkaMsgBatches.isBatch(records.get(0))).isFalse();
+    }
+
+}
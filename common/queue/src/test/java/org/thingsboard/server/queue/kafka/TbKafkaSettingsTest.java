@@ -21,7 +21,9 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Collections;
 import java.util.Properties;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -38,7 +40,13 @@ import static org.mockito.Mockito.spy;
                 "tb_core_updated:enable.auto.commit=true;" +
                 "tb_core_updated:bootstrap.servers=kafka1:9092,kafka2:9092;" +
                 "tb_edge_updated:max.poll.records=5;" +
-                "tb_edge_updated:auto.offset.reset=latest"
+                "tb_edge_updated:auto.offset.reset=latest",
+        "queue.kafka.producer-properties-per-topic-inline=" +
+                "tb_rule_engine:linger.ms=20;" +
+                "tb_rule_engine:compression.type=zstd;" +
+                "tb_transport.api.requests:linger.ms=0",
+        "queue.kafka.batching.enabled=true",
+        "queue.kafka.batching.topics=tb_rule_engine, tb_core"
 })
 class TbKafkaSettingsTest {
 
@@ -97,4 +105,45 @@ class TbKafkaSettingsTest {
         assertThat(edgeProps.getProperty("auto.offset.reset")).isEqualTo("latest");
     }
 
+    @Test
+    void givenProducerPropertiesPerTopic_whenToProducerProps_thenTopicProfileApplied() {
+        Properties ruleEngineProps = settings.toProducerProps("tb_rule_engine.main.0");
+        assertThat(ruleEngineProps.getProperty("linger.ms")).isEqualTo("20");
+        assertThat(ruleEngineProps.getProperty("compression.type")).isEqualTo("zstd");
+
+        Properties apiProps = settings.toProducerProps("tb_transport.api.requests");
+        assertThat(apiProps.getProperty("linger.ms")).isEqualTo("0");
+
+        Properties defaultProps = settings.toProducerProps();
+        assertThat(defaultProps).containsEntry("linger.ms", 1L);
+        assertThat(defaultProps).containsEntry("compression.type", "none");
+    }
+
+    @Test
+    void givenBatchingTopics_whenIsBatchingEnabled_thenOnlyMatchingTopicsBatched() {
+        assertThat(settings.isBatchingEnabled("tb_rule_engine.main.0")).isTrue();
+        assertThat(settings.isBatchingEnabled("tb_core.notifications")).isTrue();
+        assertThat(settings.isBatchingEnabled("tb_transport.api.requests")).isFalse();
+        assertThat(settings.isBatchingEnabled(null)).isFalse();
+    }
+
+    @Test
+    void givenNoBatchingTopics_whenIsBatchingEnabled_thenNoTopicsBatched() {
+        Object batchingTopics = ReflectionTestUtils.getField(settings, "batchingTopics");
+        ReflectionTestUtils.setField(settings, "batchingTopics", Collections.emptyList());
+        try {
+            assertThat(settings.isBatchingEnabled("tb_rule_engine.main.0")).isFalse();
+        } finally {
+            ReflectionTestUtils.setField(settings, "batchingTopics", batchingTopics);
+        }
+    }
+
+    @Test
+    void givenProducerPropertiesPerTopic_whenGetProducerPropertiesKey_thenMatchingPrefixReturned() {
+        assertThat(settings.getProducerPropertiesKey("tb_rule_engine.main.0")).isEqualTo("tb_rule_engine");
+        assertThat(settings.getProducerPropertiesKey("tb_transport.api.requests")).isEqualTo("tb_transport.api.requests");
+        assertThat(settings.getProducerPropertiesKey("tb_core.notifications.node-1")).isNull();
+        assertThat(settings.getProducerPropertiesKey(null)).isNull();
+    }
+
 }
@@ -0,0 +1,127 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.queue.memory;
+
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.queue.TbQueueMsg;
+import org.thingsboard.server.gen.transport.TransportProtos.ToCoreMsg;
+import org.thingsboard.server.queue.common.TbProtoQueueMsg;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class RingBufferInMemoryStorageTest {
+
+    final String topic = "tb_core_notification.tb-node-0";
+
+    @Test
+    public void givenMsgs_whenGet_thenDrainedInOrderWithMaxPollRecords() {
+        RingBufferInMemoryStorage storage = new RingBufferInMemoryStorage(16, 0, 10);
+        List<TbQueueMsg> msgs = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            TbQueueMsg msg = newMsg();
+            msgs.add(msg);
+            assertThat(storage.put(topic, msg)).isTrue();
+        }
+        assertThat(storage.getLag(topic)).isEqualTo(15);
+        assertThat(storage.getLagTotal()).isEqualTo(15);
+
+        assertThat(storage.<TbQueueMsg>get(topic)).isEqualTo(msgs.subList(0, 10));
+        assertThat(storage.<TbQueueMsg>get(topic, 3)).isEqualTo(msgs.subList(10, 13));
+        assertThat(storage.<TbQueueMsg>get(topic)).isEqualTo(msgs.subList(13, 15));
+        assertThat(storage.<TbQueueMsg>get(topic)).isEmpty();
+        assertThat(storage.getLag(topic)).isZero();
+        assertThat(storage.getLagTotal()).isZero();
+    }
+
+    @Test
+    public void givenFullBuffer_whenPut_thenRejectedUntilDrained() {
+        RingBufferInMemoryStorage storage = new RingBufferInMemoryStorage(4, 0, 100);
+        for (int i = 0; i < 4; i++) {
+            assertThat(storage.put(topic, mock(TbQueueMsg.class))).isTrue();
+        }
+        assertThat(storage.put(topic, mock(TbQueueMsg.class))).isFalse();
+        assertThat(storage.getLagTotal()).isEqualTo(4);
+
+        assertThat(storage.get(topic, 1)).hasSize(1);
+        assertThat(storage.put(topic, mock(TbQueueMsg.class))).isTrue();
+        assertThat(storage.getLag(topic)).isEqualTo(4);
+    }
+
+    @Test
+    public void givenFullBuffer_whenConsumerDrainsWithinTimeout_thenPutSucceeds() throws Exception {
+        RingBufferInMemoryStorage storage = new RingBufferInMemoryStorage(2, 5000, 100);
+        storage.put(topic, mock(TbQueueMsg.class));
+        storage.put(topic, mock(TbQueueMsg.class));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> {
+                Thread.sleep(100);
+                return storage.get(topic);
+            });
+            assertThat(storage.put(topic, mock(TbQueueMsg.class))).isTrue();
+            assertThat(storage.getLagTotal()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void givenConcurrentProducers_whenDrained_thenNoMsgLostOrDuplicated() throws Exception {
+        int producers = 4;
+        int msgsPerProducer = 10000;
+        RingBufferInMemoryStorage storage = new RingBufferInMemoryStorage(1024, 10000, 500);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch latch = new CountDownLatch(producers);
+        try {
+            for (int p = 0; p < producers; p++) {
+                executor.submit(() -> {
+                    for (int i = 0; i < msgsPerProducer; i++) {
+                        storage.put(topic, newMsg());
+                    }
+                    latch.countDown();
+                });
+            }
+            Set<UUID> received = new HashSet<>();
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(30);
+            while (received.size() < producers * msgsPerProducer && System.currentTimeMillis() < deadline) {
+                List<TbQueueMsg> msgs = storage.get(topic);
+                msgs.forEach(msg -> assertThat(received.add(msg.getKey())).isTrue());
+            }
+            assertThat(latch.await(1, TimeUnit.SECONDS)).isTrue();
+            assertThat(received).hasSize(producers * msgsPerProducer);
+            assertThat(storage.getLagTotal()).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static TbQueueMsg newMsg() {
+        return new TbProtoQueueMsg<>(UUID.randomUUID(), ToCoreMsg.getDefaultInstance());
+    }
+
+}
@@ -111,6 +111,7 @@ public class RemoteJsInvokeService extends AbstractJsInvokeService {
     @Override
     public void init() {
         super.init();
+        requestTemplate.setLatencyStats(statsFactory, "jsInvoke");
         requestTemplate.init();
     }
 
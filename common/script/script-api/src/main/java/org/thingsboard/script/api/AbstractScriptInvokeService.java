@@ -62,7 +62,7 @@ public abstract class AbstractScriptInvokeService implements ScriptInvokeService
     private FutureCallback<Object> invokeCallback;
 
     @Autowired
-    private StatsFactory statsFactory;
+    protected StatsFactory statsFactory;
 
     protected ScheduledExecutorService timeoutExecutorService;
 
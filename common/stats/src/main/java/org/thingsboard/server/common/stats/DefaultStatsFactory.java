@@ -123,6 +123,11 @@ public class DefaultStatsFactory implements StatsFactory {
                 .register(meterRegistry));
     }
 
+    @Override
+    public void removeStats(String type, String name, String... tags) {
+        meterRegistry.find(type).tags(getTags(name, tags)).meters().forEach(meterRegistry::remove);
+    }
+
     private static String[] getTags(String statsName, String[] otherTags) {
         String[] tags = new String[]{STATS_NAME_TAG, statsName};
         if (otherTags.length > 0) {
@@ -37,4 +37,6 @@ public interface StatsFactory {
 
     StatsTimer createStatsTimer(String type, String name, String... tags);
 
+    void removeStats(String type, String name, String... tags);
+
 }
@@ -78,6 +78,18 @@ public class LwM2MTransportServerConfig implements LwM2MSecureServerConfig {
     @Value("${transport.lwm2m.clean_period_in_sec:}")
     private int cleanPeriodInSec;
 
+    @Getter
+    @Value("${transport.lwm2m.registration_store.near_cache.enabled:false}")
+    private boolean registrationStoreNearCacheEnabled;
+
+    @Getter
+    @Value("${transport.lwm2m.registration_store.near_cache.max_size:100000}")
+    private int registrationStoreNearCacheMaxSize;
+
+    @Getter
+    @Value("${transport.lwm2m.registration_store.near_cache.ownership_check_interval_ms:10000}")
+    private long registrationStoreNearCacheOwnershipCheckIntervalMs;
+
     @Getter
     @Value("${transport.lwm2m.server.id:}")
     private Integer id;
@@ -15,6 +15,7 @@
  */
 package org.thingsboard.server.transport.lwm2m.server.store;
 
+import com.google.common.util.concurrent.Striped;
 import lombok.extern.slf4j.Slf4j;
 import org.eclipse.californium.core.coap.Token;
 import org.eclipse.californium.core.network.RandomTokenGenerator;
@@ -42,9 +43,14 @@ import org.eclipse.leshan.server.registration.UpdatedRegistration;
 import org.springframework.data.redis.connection.RedisClusterConnection;
 import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
 import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.types.Expiration;
 import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.integration.redis.util.RedisLockRegistry;
+import org.springframework.integration.support.locks.LockRegistry;
 import org.thingsboard.common.util.ThingsBoardExecutors;
 import org.thingsboard.server.transport.lwm2m.config.LwM2MTransportServerConfig;
 import org.thingsboard.server.transport.lwm2m.server.LwM2mVersionedModelProvider;
@@ -58,10 +64,12 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -78,7 +86,10 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
     private static final String REG_EP_REGID_IDX = "EP:REGID:"; // secondary index key (Registration ID => Endpoint)
     private static final String REG_EP_ADDR_IDX = "EP:ADDR:"; // secondary index key (Socket Address => Endpoint)
     private static final String REG_EP_IDENTITY = "EP:IDENTITY:"; // secondary index key (Identity => Endpoint)
+    private static final String REG_EP_OWNER = "EP:OWNER:"; // (Endpoint => Node ID) written along with the registration by the node that owns the endpoint
     private static final String LOCK_EP = "LOCK:EP:";
+    private static final String OWNER_EP_CHANNEL = "OWNER:EP"; // pub/sub channel (Node ID:Endpoint) notifying that the endpoint was written by another node
+    private static final int LOCAL_LOCK_STRIPES = 1024;
     private static final byte[] OBS_TKN = "OBS:TKN:".getBytes(UTF_8);
     private static final byte[] OBS_TKN_GET_ALL = "OBS:TKN:*".getBytes(UTF_8);
     private static final String OBS_TKNS_REGID_IDX = "TKNS:REGID:"; // secondary index (token list by registration)
@@ -102,13 +113,20 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
     private final int cleanLimit; // maximum number to clean in a clean period
     private final long gracePeriod; // in seconds
 
-    private final RedisLockRegistry redisLock;
+    private final LockRegistry redisLock;
 
     private final LwM2MTransportServerConfig config;
     private TokenGenerator tokenGenerator;
 
     private final LwM2mVersionedModelProvider modelProvider;
 
+    private final String nodeId = UUID.randomUUID().toString();
+    private final byte[] nodeIdBytes = nodeId.getBytes(UTF_8);
+    private final Striped<Lock> localLocks = Striped.lock(LOCAL_LOCK_STRIPES);
+    // null if disabled
+    private final TbLwM2mRegistrationNearCache nearCache;
+    private RedisMessageListenerContainer ownerListenerContainer;
+
     public TbLwM2mRedisRegistrationStore(LwM2MTransportServerConfig config, RedisConnectionFactory connectionFactory, LwM2mVersionedModelProvider modelProvider) {
         this(config, connectionFactory, DEFAULT_CLEAN_PERIOD, DEFAULT_GRACE_PERIOD, DEFAULT_CLEAN_LIMIT, modelProvider); // default clean period 60s
     }
@@ -119,14 +137,21 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
 
     public TbLwM2mRedisRegistrationStore(LwM2MTransportServerConfig config, RedisConnectionFactory connectionFactory, ScheduledExecutorService schedExecutor, long cleanPeriodInSec,
                                          long lifetimeGracePeriodInSec, int cleanLimit, LwM2mVersionedModelProvider modelProvider) {
+        this(config, connectionFactory, new RedisLockRegistry(connectionFactory, "Registration"), schedExecutor, cleanPeriodInSec, lifetimeGracePeriodInSec, cleanLimit, modelProvider);
+    }
+
+    TbLwM2mRedisRegistrationStore(LwM2MTransportServerConfig config, RedisConnectionFactory connectionFactory, LockRegistry redisLock, ScheduledExecutorService schedExecutor,
+                                  long cleanPeriodInSec, long lifetimeGracePeriodInSec, int cleanLimit, LwM2mVersionedModelProvider modelProvider) {
         this.connectionFactory = connectionFactory;
         this.schedExecutor = schedExecutor;
         this.cleanPeriod = cleanPeriodInSec;
         this.cleanLimit = cleanLimit;
         this.gracePeriod = lifetimeGracePeriodInSec;
-        this.redisLock = new RedisLockRegistry(connectionFactory, "Registration");
+        this.redisLock = redisLock;
         this.config = config;
         this.modelProvider = modelProvider;
+        this.nearCache = config.isRegistrationStoreNearCacheEnabled() ? new TbLwM2mRegistrationNearCache(config.getRegistrationStoreNearCacheMaxSize(),
+                config.getRegistrationStoreNearCacheOwnershipCheckIntervalMs(), this::isOwnedInRedis) : null;
     }
 
     /* *************** Redis Key utility function **************** */
@@ -142,39 +167,184 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
         return (prefix + registrationID).getBytes();
     }
 
+    private byte[] toOwnerKey(String endpoint) {
+        return toKey(REG_EP_OWNER, endpoint);
+    }
+
     private String toLockKey(String endpoint) {
         return new String(toKey(LOCK_EP, endpoint));
     }
 
-    private String toLockKey(byte[] endpoint) {
-        return new String(toKey(LOCK_EP.getBytes(UTF_8), endpoint));
+    /* *************** Endpoint ownership **************** */
+
+    /**
+     * Locks the endpoint. The Redis lock is taken only if the endpoint is not owned by this node,
+     * otherwise the local lock is enough since other nodes do not modify the endpoint.
+     */
+    private EndpointLock lockEndpoint(RedisConnection connection, String endpoint) {
+        Lock localLock = localLocks.get(endpoint);
+        localLock.lock();
+        Lock lock = null;
+        try {
+            if (nearCache == null || !isOwned(connection, endpoint)) {
+                lock = redisLock.obtain(toLockKey(endpoint));
+                lock.lock();
+            }
+            return new EndpointLock(localLock, lock);
+        } catch (RuntimeException e) {
+            localLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * The ownership notifications are not guaranteed to be delivered, so the owner key is checked in Redis as well.
+     * It is cheaper than the Redis lock, which takes several round-trips.
+     */
+    private boolean isOwned(RedisConnection connection, String endpoint) {
+        if (!nearCache.isOwned(endpoint)) {
+            return false;
+        }
+        if (Arrays.equals(connection.get(toOwnerKey(endpoint)), nodeIdBytes)) {
+            nearCache.onOwnershipConfirmed(endpoint);
+            return true;
+        }
+        log.debug("[{}] Endpoint is not owned by this node anymore, dropping local copy", endpoint);
+        nearCache.remove(endpoint);
+        return false;
+    }
+
+    private boolean isOwnedInRedis(String endpoint) {
+        try (var connection = connectionFactory.getConnection()) {
+            if (Arrays.equals(connection.get(toOwnerKey(endpoint)), nodeIdBytes)) {
+                return true;
+            }
+        }
+        log.debug("[{}] Endpoint is not owned by this node anymore, local copy is not used", endpoint);
+        return false;
+    }
+
+    private record EndpointLock(Lock localLock, Lock remoteLock) {
+
+        boolean isLocal() {
+            return remoteLock == null;
+        }
+
+        void unlock() {
+            try {
+                if (remoteLock != null) {
+                    remoteLock.unlock();
+                }
+            } finally {
+                localLock.unlock();
+            }
+        }
+
+    }
+
+    /**
+     * Takes the ownership of the endpoint after its registration is written.
+     * Other nodes are notified, unless the endpoint is already owned, so they drop their local copies.
+     */
+    private void onRegistrationWritten(RedisConnection connection, EndpointLock lock, Registration registration, boolean noObservations) {
+        if (nearCache != null) {
+            nearCache.put(registration, noObservations);
+            if (!lock.isLocal()) {
+                notifyEndpointWritten(connection, registration.getEndpoint());
+            }
+        }
+    }
+
+    private void onEndpointWritten(RedisConnection connection, EndpointLock lock, String endpoint) {
+        if (nearCache != null && !lock.isLocal()) {
+            connection.del(toOwnerKey(endpoint));
+            notifyEndpointWritten(connection, endpoint);
+        }
+    }
+
+    private void onRegistrationRemoved(RedisConnection connection, String endpoint) {
+        if (nearCache != null) {
+            nearCache.remove(endpoint);
+            connection.del(toOwnerKey(endpoint));
+            notifyEndpointWritten(connection, endpoint);
+        }
+    }
+
+    /**
+     * Writes this node as the owner of the endpoint. The key expires with the registration lifetime.
+     */
+    private void writeOwner(RedisConnection connection, Registration registration) {
+        if (nearCache != null) {
+            connection.set(toOwnerKey(registration.getEndpoint()), nodeIdBytes,
+                    Expiration.seconds(registration.getLifeTimeInSec()), SetOption.upsert());
+        }
+    }
+
+    private void notifyEndpointWritten(RedisConnection connection, String endpoint) {
+        connection.publish(OWNER_EP_CHANNEL.getBytes(UTF_8), (nodeId + ":" + endpoint).getBytes(UTF_8));
+    }
+
+    private void onEndpointWrittenByOtherNode(String message) {
+        int separatorIdx = message.indexOf(':');
+        if (separatorIdx < 0 || message.substring(0, separatorIdx).equals(nodeId)) {
+            return;
+        }
+        String endpoint = message.substring(separatorIdx + 1);
+        Lock localLock = localLocks.get(endpoint);
+        localLock.lock();
+        try {
+            if (nearCache.isOwned(endpoint)) {
+                log.debug("[{}] Endpoint was written by another node, dropping local copy", endpoint);
+                nearCache.remove(endpoint);
+            }
+        } finally {
+            localLock.unlock();
+        }
+    }
+
+    /**
+     * Sends the commands in a single round-trip. Pipelining is not supported by the cluster connection,
+     * so the commands are sent one by one in that case.
+     */
+    private void pipelined(RedisConnection connection, Consumer<RedisConnection> commands) {
+        boolean pipelined = !(connection instanceof RedisClusterConnection);
+        if (pipelined) {
+            connection.openPipeline();
+        }
+        try {
+            commands.accept(connection);
+        } finally {
+            if (pipelined) {
+                connection.closePipeline();
+            }
+        }
     }
 
     /* *************** Leshan Registration API **************** */
 
     @Override
     public Deregistration addRegistration(Registration registration) {
-        Lock lock = null;
         try (var connection = connectionFactory.getConnection()) {
-            String lockKey = toLockKey(registration.getEndpoint());
-
+            EndpointLock lock = lockEndpoint(connection, registration.getEndpoint());
             try {
-                lock = redisLock.obtain(lockKey);
-                lock.lock();
                 // add registration
                 byte[] k = toEndpointKey(registration.getEndpoint());
                 byte[] old = connection.getSet(k, serializeReg(registration));
 
-                // add registration: secondary indexes
-                byte[] regid_idx = toRegIdKey(registration.getId());
-                connection.set(regid_idx, registration.getEndpoint().getBytes(UTF_8));
-                byte[] addr_idx = toRegAddrKey(registration.getSocketAddress());
-                connection.set(addr_idx, registration.getEndpoint().getBytes(UTF_8));
-                byte[] identity_idx = toRegIdentityKey(registration.getClientTransportData().getIdentity());
-                connection.set(identity_idx, registration.getEndpoint().getBytes(UTF_8));
-
-                // Add or update expiration
-                addOrUpdateExpiration(connection, registration);
+                pipelined(connection, c -> {
+                    // add registration: secondary indexes
+                    byte[] regid_idx = toRegIdKey(registration.getId());
+                    c.set(regid_idx, registration.getEndpoint().getBytes(UTF_8));
+                    byte[] addr_idx = toRegAddrKey(registration.getSocketAddress());
+                    c.set(addr_idx, registration.getEndpoint().getBytes(UTF_8));
+                    byte[] identity_idx = toRegIdentityKey(registration.getClientTransportData().getIdentity());
+                    c.set(identity_idx, registration.getEndpoint().getBytes(UTF_8));
+
+                    // Add or update expiration
+                    addOrUpdateExpiration(c, registration);
+                    writeOwner(c, registration);
+                });
+                onRegistrationWritten(connection, lock, registration, true);
 
                 if (old != null) {
                     Registration oldRegistration = deserializeReg(old);
@@ -195,9 +365,7 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
 
                 return null;
             } finally {
-                if (lock != null) {
-                    lock.unlock();
-                }
+                lock.unlock();
             }
         }
     }
@@ -205,60 +373,70 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
     @Override
     public UpdatedRegistration updateRegistration(RegistrationUpdate update) {
         log.trace("updateRegistration [{}]", update);
-        Lock lock = null;
         try (var connection = connectionFactory.getConnection()) {
 
             // Fetch the registration ep by registration ID index
-            byte[] ep = connection.get(toRegIdKey(update.getRegistrationId()));
-            if (ep == null) {
-                return null;
+            String endpoint = nearCache != null ? nearCache.getEndpointByRegistrationId(update.getRegistrationId()) : null;
+            if (endpoint == null) {
+                byte[] ep = connection.get(toRegIdKey(update.getRegistrationId()));
+                if (ep == null) {
+                    return null;
+                }
+                endpoint = new String(ep, UTF_8);
             }
 
-            String lockKey = toLockKey(ep);
+            EndpointLock lock = lockEndpoint(connection, endpoint);
             try {
-                lock = redisLock.obtain(lockKey);
-                lock.lock();
-
                 // Fetch the registration
-                byte[] data = connection.get(toEndpointKey(ep));
-                if (data == null) {
-                    return null;
+                Registration r = lock.isLocal() ? nearCache.getRegistrationById(update.getRegistrationId()) : null;
+                if (r == null) {
+                    byte[] data = connection.get(toEndpointKey(endpoint));
+                    if (data == null) {
+                        return null;
+                    }
+                    r = deserializeReg(data);
                 }
 
-                Registration r = deserializeReg(data);
-
                 Registration updatedRegistration = update.update(r);
 
-                // Store the new registration
-                connection.set(toEndpointKey(updatedRegistration.getEndpoint()), serializeReg(updatedRegistration));
+                pipelined(connection, c -> {
+                    // Store the new registration
+                    c.set(toEndpointKey(updatedRegistration.getEndpoint()), serializeReg(updatedRegistration));
 
-                // Add or update expiration
-                addOrUpdateExpiration(connection, updatedRegistration);
+                    // Add or update expiration
+                    addOrUpdateExpiration(c, updatedRegistration);
 
-                /** Update secondary index :
-                 * If registration is already associated to this address we don't care as we only want to keep the most
-                 * recent binding. */
-                byte[] addr_idx = toRegAddrKey(updatedRegistration.getSocketAddress());
-                connection.set(addr_idx, updatedRegistration.getEndpoint().getBytes(UTF_8));
+                    /** Update secondary index :
+                     * If registration is already associated to this address we don't care as we only want to keep the most
+                     * recent binding. */
+                    byte[] addr_idx = toRegAddrKey(updatedRegistration.getSocketAddress());
+                    c.set(addr_idx, updatedRegistration.getEndpoint().getBytes(UTF_8));
+                    writeOwner(c, updatedRegistration);
+                });
                 if (!r.getSocketAddress().equals(updatedRegistration.getSocketAddress())) {
                     removeAddrIndex(connection, r);
                 }
                 if (!r.getClientTransportData().getIdentity().equals(updatedRegistration.getClientTransportData().getIdentity())) {
                     removeIdentityIndex(connection, r);
                 }
+                onRegistrationWritten(connection, lock, updatedRegistration, false);
 
                 return new UpdatedRegistration(r, updatedRegistration);
 
             } finally {
-                if (lock != null) {
-                    lock.unlock();
-                }
+                lock.unlock();
             }
         }
     }
 
     @Override
     public Registration getRegistration(String registrationId) {
+        if (nearCache != null) {
+            Registration registration = nearCache.getRegistrationById(registrationId);
+            if (registration != null) {
+                return registration;
+            }
+        }
         try (var connection = connectionFactory.getConnection()) {
             return getRegistration(connection, registrationId);
         }
@@ -280,6 +458,12 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
     @Override
     public Registration getRegistrationByEndpoint(String endpoint) {
         Validate.notNull(endpoint);
+        if (nearCache != null) {
+            Registration registration = nearCache.getRegistration(endpoint);
+            if (registration != null) {
+                return registration;
+            }
+        }
         try (var connection = connectionFactory.getConnection()) {
             byte[] data = connection.get(toEndpointKey(endpoint));
             if (data == null) {
@@ -292,6 +476,12 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
     @Override
     public Registration getRegistrationByAdress(InetSocketAddress address) {
         Validate.notNull(address);
+        if (nearCache != null) {
+            Registration registration = nearCache.getRegistrationByAddress(address);
+            if (registration != null) {
+                return registration;
+            }
+        }
         try (var connection = connectionFactory.getConnection()) {
             byte[] ep = connection.get(toRegAddrKey(address));
             if (ep == null) {
@@ -308,6 +498,12 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
     @Override
     public Registration getRegistrationByIdentity(LwM2mIdentity identity) {
         Validate.notNull(identity);
+        if (nearCache != null) {
+            Registration registration = nearCache.getRegistrationByIdentity(identity);
+            if (registration != null) {
+                return registration;
+            }
+        }
         try (var connection = connectionFactory.getConnection()) {
             byte[] ep = connection.get(toRegIdentityKey(identity));
             if (ep == null) {
@@ -360,12 +556,8 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
             return null;
         }
 
-        Lock lock = null;
-        String lockKey = toLockKey(ep);
+        EndpointLock lock = lockEndpoint(connection, new String(ep, UTF_8));
         try {
-            lock = redisLock.obtain(lockKey);
-            lock.lock();
-
             // fetch the client
             byte[] data = connection.get(toEndpointKey(ep));
             if (data == null) {
@@ -381,14 +573,13 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
                     removeAddrIndex(connection, r);
                     removeIdentityIndex(connection, r);
                     removeExpiration(connection, r);
+                    onRegistrationRemoved(connection, r.getEndpoint());
                     return new Deregistration(r, obsRemoved);
                 }
             }
             return null;
         } finally {
-            if (lock != null) {
-                lock.unlock();
-            }
+            lock.unlock();
         }
     }
 
@@ -475,16 +666,13 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
                         "can not add observation %s there is no registration with id %s", observation, registrationId));
             }
 
-            Lock lock = null;
-            String lockKey = toLockKey(ep);
+            String endpoint = new String(ep, UTF_8);
+            EndpointLock lock = lockEndpoint(connection, endpoint);
             try {
-                lock = redisLock.obtain(lockKey);
-                lock.lock();
                 updateObservation(registrationId, observation, addIfAbsent, removed, connection);
+                onEndpointWritten(connection, lock, endpoint);
             } finally {
-                if (lock != null) {
-                    lock.unlock();
-                }
+                lock.unlock();
             }
         }
         return removed;
@@ -511,6 +699,9 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
 
         // secondary index to get the list by registrationId
         connection.listCommands().lPush(toKey(OBS_TKNS_REGID_IDX, registrationId), observation.getId().getBytes());
+        if (nearCache != null) {
+            nearCache.addObservation(registrationId, observation);
+        }
 
         // log any collisions
         Observation previousObservation;
@@ -540,6 +731,12 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
     }
     @Override
     public Collection<Observation> getObservations(String registrationId) {
+        if (nearCache != null) {
+            Collection<Observation> observations = nearCache.getObservations(registrationId);
+            if (observations != null) {
+                return observations;
+            }
+        }
         try (var connection = connectionFactory.getConnection()) {
             return getObservations(connection, registrationId);
         }
@@ -553,6 +750,12 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
 
     @Override
     public Observation getObservation(ObservationIdentifier observationId) {
+        if (nearCache != null) {
+            Observation observation = nearCache.getObservation(observationId);
+            if (observation != null) {
+                return observation;
+            }
+        }
         try (var connection = connectionFactory.getConnection()) {
             byte[] observationValue = connection.get(toKey(OBS_TKN, observationId.getBytes()));
             return deserializeObs(observationValue);
@@ -574,23 +777,19 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
             }
 
             // remove observation
-            Lock lock = null;
-            String lockKey = toLockKey(ep);
+            String endpoint = new String(ep, UTF_8);
+            EndpointLock lock = lockEndpoint(connection, endpoint);
             try {
-                lock = redisLock.obtain(lockKey);
-                lock.lock();
-
                 Observation observation = get(new Token(observationId));
                 if (observation != null && registrationId.equals(observation.getRegistrationId())) {
                     unsafeRemoveObservation(connection, registrationId, observationId);
+                    onEndpointWritten(connection, lock, endpoint);
                     return observation;
                 }
                 return null;
 
             } finally {
-                if (lock != null) {
-                    lock.unlock();
-                }
+                lock.unlock();
             }
         }
     }
@@ -617,21 +816,24 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
 
             // get endpoint and create lock
             String endpoint = registration.getEndpoint();
-            Lock lock = null;
-            String lockKey = toLockKey(endpoint);
+            EndpointLock lock = lockEndpoint(connection, endpoint);
             try {
-                lock = redisLock.obtain(lockKey);
-                lock.lock();
-                return unsafeRemoveAllObservations(connection, registrationId);
+                Collection<Observation> removed = unsafeRemoveAllObservations(connection, registrationId);
+                onEndpointWritten(connection, lock, endpoint);
+                return removed;
             } finally {
-                if (lock != null) {
-                    lock.unlock();
-                }
+                lock.unlock();
             }
         }
     }
 
     public Observation get(Token token) {
+        if (nearCache != null) {
+            Observation observation = nearCache.getObservation(new ObservationIdentifier(token.getBytes()));
+            if (observation != null) {
+                return observation;
+            }
+        }
         try (var connection = connectionFactory.getConnection()) {
             byte[] obs = connection.get(toKey(OBS_TKN, token.getBytes()));
             if (obs == null) {
@@ -655,6 +857,9 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
         if (connection.commands().del(toKey(OBS_TKN, observationId)) > 0L) {
             connection.listCommands().lRem(toKey(OBS_TKNS_REGID_IDX, registrationId), 0, observationId);
         }
+        if (nearCache != null) {
+            nearCache.removeObservation(registrationId, new ObservationIdentifier(observationId));
+        }
     }
 
     private Collection<Observation> unsafeRemoveAllObservations(RedisConnection connection, String registrationId) {
@@ -670,6 +875,9 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
             connection.del(toKey(OBS_TKN, token));
         }
         connection.del(regIdKey);
+        if (nearCache != null) {
+            nearCache.removeObservations(registrationId);
+        }
 
         return removed;
     }
@@ -710,6 +918,14 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
         if (!started) {
             started = true;
             cleanerTask = schedExecutor.scheduleAtFixedRate(new Cleaner(), cleanPeriod, cleanPeriod, TimeUnit.SECONDS);
+            if (nearCache != null) {
+                ownerListenerContainer = new RedisMessageListenerContainer();
+                ownerListenerContainer.setConnectionFactory(connectionFactory);
+                ownerListenerContainer.addMessageListener((message, pattern) -> onEndpointWrittenByOtherNode(new String(message.getBody(), UTF_8)),
+                        new ChannelTopic(OWNER_EP_CHANNEL));
+                ownerListenerContainer.afterPropertiesSet();
+                ownerListenerContainer.start();
+            }
         }
     }
 
@@ -724,6 +940,22 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
                 cleanerTask.cancel(false);
                 cleanerTask = null;
             }
+            stopOwnerListener();
+        }
+    }
+
+    private void stopOwnerListener() {
+        if (ownerListenerContainer != null) {
+            try {
+                ownerListenerContainer.destroy();
+            } catch (Exception e) {
+                log.warn("Failed to stop the endpoint owner listener", e);
+            }
+            ownerListenerContainer = null;
+        }
+        if (nearCache != null) {
+            // notifications from other nodes are not received anymore
+            nearCache.clear();
         }
     }
 
@@ -733,6 +965,7 @@ public class TbLwM2mRedisRegistrationStore implements RegistrationStore, Startab
     @Override
     public synchronized void destroy() {
         started = false;
+        stopOwnerListener();
         schedExecutor.shutdownNow();
         try {
             schedExecutor.awaitTermination(5, TimeUnit.SECONDS);
@@ -0,0 +1,245 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.transport.lwm2m.server.store;
+
+import org.eclipse.leshan.core.observation.Observation;
+import org.eclipse.leshan.core.observation.ObservationIdentifier;
+import org.eclipse.leshan.core.peer.LwM2mIdentity;
+import org.eclipse.leshan.server.registration.Registration;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Local copy of the registrations and observations of the endpoints owned by this transport node.
+ * <p>
+ * The endpoint is owned by the node that has written its registration last.
+ * Nodes notify each other on such writes, so the previous owner drops its copy.
+ * Modifications are done under the endpoint lock of the registration store.
+ * An entry is not used after the registration lifetime ends. The ownership is also re-checked on reads once it was not confirmed
+ * for the check interval, so a missed notification does not serve a stale copy for the whole lifetime.
+ */
+class TbLwM2mRegistrationNearCache {
+
+    private final int maxSize;
+    private final long ownershipCheckIntervalMs;
+    private final Predicate<String> ownershipCheck;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, String> endpointsByRegId = new ConcurrentHashMap<>();
+    private final Map<String, String> endpointsByAddress = new ConcurrentHashMap<>();
+    private final Map<String, String> endpointsByIdentity = new ConcurrentHashMap<>();
+    private final Map<ObservationIdentifier, String> endpointsByObservationId = new ConcurrentHashMap<>();
+
+    /**
+     * @param ownershipCheck checks in Redis whether the endpoint is still owned by this node
+     */
+    TbLwM2mRegistrationNearCache(int maxSize, long ownershipCheckIntervalMs, Predicate<String> ownershipCheck) {
+        this.maxSize = maxSize;
+        this.ownershipCheckIntervalMs = ownershipCheckIntervalMs;
+        this.ownershipCheck = ownershipCheck;
+    }
+
+    boolean isOwned(String endpoint) {
+        Entry entry = entries.get(endpoint);
+        if (entry != null && !entry.registration.isAlive()) {
+            remove(endpoint);
+            return false;
+        }
+        return entry != null;
+    }
+
+    void onOwnershipConfirmed(String endpoint) {
+        Entry entry = entries.get(endpoint);
+        if (entry != null) {
+            entry.ownershipConfirmedTs = System.currentTimeMillis();
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    Registration getRegistration(String endpoint) {
+        Entry entry = getEntry(endpoint);
+        return entry != null ? entry.registration : null;
+    }
+
+    String getEndpointByRegistrationId(String registrationId) {
+        return endpointsByRegId.get(registrationId);
+    }
+
+    Registration getRegistrationById(String registrationId) {
+        Registration registration = getRegistrationByIndex(endpointsByRegId, registrationId);
+        return registration != null && registration.getId().equals(registrationId) ? registration : null;
+    }
+
+    Registration getRegistrationByAddress(InetSocketAddress address) {
+        Registration registration = getRegistrationByIndex(endpointsByAddress, toAddressKey(address));
+        return registration != null && registration.getSocketAddress().equals(address) ? registration : null;
+    }
+
+    Registration getRegistrationByIdentity(LwM2mIdentity identity) {
+        Registration registration = getRegistrationByIndex(endpointsByIdentity, identity.toString());
+        return registration != null && registration.getClientTransportData().getIdentity().equals(identity) ? registration : null;
+    }
+
+    private Registration getRegistrationByIndex(Map<String, String> index, String key) {
+        String endpoint = index.get(key);
+        return endpoint != null ? getRegistration(endpoint) : null;
+    }
+
+    /**
+     * Takes the ownership of the endpoint after its registration is written to Redis.
+     *
+     * @param noObservations whether the registration is known to have no observations, e.g. the new one.
+     *                       Otherwise, the observations are looked up in Redis until the endpoint is re-registered.
+     */
+    void put(Registration registration, boolean noObservations) {
+        String endpoint = registration.getEndpoint();
+        Entry entry = entries.get(endpoint);
+        if (entry != null) {
+            Registration old = entry.registration;
+            if (!old.getId().equals(registration.getId())) {
+                endpointsByRegId.remove(old.getId(), endpoint);
+                removeObservationIndex(entry, endpoint);
+                entry.observations = null;
+            }
+            endpointsByAddress.remove(toAddressKey(old.getSocketAddress()), endpoint);
+            endpointsByIdentity.remove(old.getClientTransportData().getIdentity().toString(), endpoint);
+            if (noObservations) {
+                removeObservationIndex(entry, endpoint);
+            }
+            entry.registration = registration;
+            entry.ownershipConfirmedTs = System.currentTimeMillis();
+        } else if (entries.size() < maxSize) {
+            entry = new Entry(registration);
+        } else {
+            return;
+        }
+        if (noObservations) {
+            entry.observations = new ConcurrentHashMap<>();
+        }
+        endpointsByRegId.put(registration.getId(), endpoint);
+        endpointsByAddress.put(toAddressKey(registration.getSocketAddress()), endpoint);
+        endpointsByIdentity.put(registration.getClientTransportData().getIdentity().toString(), endpoint);
+        entries.put(endpoint, entry);
+    }
+
+    void remove(String endpoint) {
+        Entry entry = entries.remove(endpoint);
+        if (entry != null) {
+            Registration registration = entry.registration;
+            endpointsByRegId.remove(registration.getId(), endpoint);
+            endpointsByAddress.remove(toAddressKey(registration.getSocketAddress()), endpoint);
+            endpointsByIdentity.remove(registration.getClientTransportData().getIdentity().toString(), endpoint);
+            removeObservationIndex(entry, endpoint);
+        }
+    }
+
+    void clear() {
+        entries.clear();
+        endpointsByRegId.clear();
+        endpointsByAddress.clear();
+        endpointsByIdentity.clear();
+        endpointsByObservationId.clear();
+    }
+
+    /**
+     * @return the observations of the registration or null if they are not known locally.
+     */
+    Collection<Observation> getObservations(String registrationId) {
+        Map<ObservationIdentifier, Observation> observations = getObservationsMap(registrationId);
+        return observations != null ? new ArrayList<>(observations.values()) : null;
+    }
+
+    Observation getObservation(ObservationIdentifier observationId) {
+        String endpoint = endpointsByObservationId.get(observationId);
+        Entry entry = endpoint != null ? getEntry(endpoint) : null;
+        Map<ObservationIdentifier, Observation> observations = entry != null ? entry.observations : null;
+        return observations != null ? observations.get(observationId) : null;
+    }
+
+    void addObservation(String registrationId, Observation observation) {
+        Map<ObservationIdentifier, Observation> observations = getObservationsMap(registrationId);
+        if (observations != null) {
+            observations.put(observation.getId(), observation);
+            endpointsByObservationId.put(observation.getId(), endpointsByRegId.get(registrationId));
+        }
+    }
+
+    void removeObservation(String registrationId, ObservationIdentifier observationId) {
+        Map<ObservationIdentifier, Observation> observations = getObservationsMap(registrationId);
+        if (observations != null && observations.remove(observationId) != null) {
+            endpointsByObservationId.remove(observationId);
+        }
+    }
+
+    void removeObservations(String registrationId) {
+        Map<ObservationIdentifier, Observation> observations = getObservationsMap(registrationId);
+        if (observations != null) {
+            observations.keySet().forEach(endpointsByObservationId::remove);
+            observations.clear();
+        }
+    }
+
+    private Map<ObservationIdentifier, Observation> getObservationsMap(String registrationId) {
+        String endpoint = endpointsByRegId.get(registrationId);
+        Entry entry = endpoint != null ? getEntry(endpoint) : null;
+        return entry != null && entry.registration.getId().equals(registrationId) ? entry.observations : null;
+    }
+
+    private Entry getEntry(String endpoint) {
+        Entry entry = entries.get(endpoint);
+        if (entry == null || !entry.registration.isAlive()) {
+            return null;
+        }
+        if (System.currentTimeMillis() - entry.ownershipConfirmedTs >= ownershipCheckIntervalMs) {
+            if (!ownershipCheck.test(endpoint)) {
+                remove(endpoint);
+                return null;
+            }
+            entry.ownershipConfirmedTs = System.currentTimeMillis();
+        }
+        return entry;
+    }
+
+    private void removeObservationIndex(Entry entry, String endpoint) {
+        if (entry.observations != null) {
+            entry.observations.keySet().forEach(observationId -> endpointsByObservationId.remove(observationId, endpoint));
+        }
+    }
+
+    static String toAddressKey(InetSocketAddress address) {
+        return address.getAddress().toString() + ":" + address.getPort();
+    }
+
+    private static class Entry {
+        private volatile Registration registration;
+        private volatile Map<ObservationIdentifier, Observation> observations;
+        private volatile long ownershipConfirmedTs;
+
+        private Entry(Registration registration) {
+            this.registration = registration;
+            this.ownershipConfirmedTs = System.currentTimeMillis();
+        }
+    }
+
+}
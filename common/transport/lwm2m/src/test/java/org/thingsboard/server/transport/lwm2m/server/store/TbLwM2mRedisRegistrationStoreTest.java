@@ -0,0 +1,205 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.transport.lwm2m.server.store;
+
+import org.eclipse.leshan.core.endpoint.EndpointUriUtil;
+import org.eclipse.leshan.core.link.Link;
+import org.eclipse.leshan.core.peer.IpPeer;
+import org.eclipse.leshan.server.redis.serialization.RegistrationSerDes;
+import org.eclipse.leshan.server.registration.Registration;
+import org.eclipse.leshan.server.registration.RegistrationUpdate;
+import org.eclipse.leshan.server.registration.UpdatedRegistration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.integration.support.locks.LockRegistry;
+import org.thingsboard.server.transport.lwm2m.config.LwM2MTransportServerConfig;
+
+import java.net.InetSocketAddress;
+import java.util.Date;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.locks.Lock;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TbLwM2mRedisRegistrationStoreTest {
+
+    private static final byte[] OWNER_KEY = "EP:OWNER:ep1".getBytes(UTF_8);
+    private static final byte[] ENDPOINT_KEY = "REG:EP:ep1".getBytes(UTF_8);
+
+    private final RegistrationSerDes registrationSerDes = new RegistrationSerDes();
+
+    private LwM2MTransportServerConfig config;
+    private RedisConnection connection;
+    private LockRegistry lockRegistry;
+    private Lock redisLock;
+    private TbLwM2mRedisRegistrationStore store;
+
+    @BeforeEach
+    public void setUp() {
+        config = mock(LwM2MTransportServerConfig.class);
+        when(config.isRegistrationStoreNearCacheEnabled()).thenReturn(true);
+        when(config.getRegistrationStoreNearCacheMaxSize()).thenReturn(100);
+        when(config.getRegistrationStoreNearCacheOwnershipCheckIntervalMs()).thenReturn(60000L);
+        connection = mock(RedisConnection.class);
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        redisLock = mock(Lock.class);
+        lockRegistry = mock(LockRegistry.class);
+        when(lockRegistry.obtain(any())).thenReturn(redisLock);
+        createStore(connectionFactory);
+    }
+
+    private void createStore(RedisConnectionFactory connectionFactory) {
+        store = new TbLwM2mRedisRegistrationStore(config, connectionFactory, lockRegistry, mock(ScheduledExecutorService.class),
+                60, 0, 500, null);
+    }
+
+    @Test
+    public void testRegistrationTakesOwnership() {
+        store.addRegistration(registration("reg1", 300L, new Date()));
+
+        verify(lockRegistry).obtain("LOCK:EP:ep1");
+        verify(redisLock).lock();
+        verify(redisLock).unlock();
+        ArgumentCaptor<Expiration> expiration = ArgumentCaptor.forClass(Expiration.class);
+        verify(connection).set(eq(OWNER_KEY), any(), expiration.capture(), eq(SetOption.upsert()));
+        assertThat(expiration.getValue().getExpirationTimeInSeconds()).isEqualTo(300L);
+        verify(connection).publish(any(), any());
+        assertThat(store.getRegistrationByEndpoint("ep1")).isNotNull();
+    }
+
+    @Test
+    public void testUpdateOfOwnedEndpointSkipsRedisLock() {
+        store.addRegistration(registration("reg1", 300L, new Date()));
+        byte[] owner = getOwner();
+        when(connection.get(OWNER_KEY)).thenReturn(owner);
+
+        UpdatedRegistration updated = store.updateRegistration(update("reg1"));
+
+        // the registration is taken from the local copy
+        assertThat(updated).isNotNull();
+        verify(lockRegistry, times(1)).obtain(any());
+        verify(connection, times(1)).publish(any(), any());
+        verify(connection, times(2)).set(eq(OWNER_KEY), any(), any(Expiration.class), eq(SetOption.upsert()));
+    }
+
+    @Test
+    public void testUpdateOfEndpointOwnedByOtherNodeTakesRedisLock() {
+        Registration registration = registration("reg1", 300L, new Date());
+        store.addRegistration(registration);
+        // the notification from the other node was not delivered
+        when(connection.get(OWNER_KEY)).thenReturn("otherNode".getBytes(UTF_8));
+        when(connection.get(ENDPOINT_KEY)).thenReturn(registrationSerDes.bSerialize(registration));
+
+        UpdatedRegistration updated = store.updateRegistration(update("reg1"));
+
+        assertThat(updated).isNotNull();
+        verify(lockRegistry, times(2)).obtain("LOCK:EP:ep1");
+        verify(redisLock, times(2)).unlock();
+        verify(connection).get(ENDPOINT_KEY);
+        verify(connection, times(2)).publish(any(), any());
+    }
+
+    @Test
+    public void testExpiredRegistrationIsNotUsedLocally() {
+        Registration registration = registration("reg1", 1L, new Date(System.currentTimeMillis() - 2000));
+        store.addRegistration(registration);
+        byte[] owner = getOwner();
+        when(connection.get(OWNER_KEY)).thenReturn(owner);
+
+        assertThat(store.getRegistrationByEndpoint("ep1")).isNull();
+        assertThat(store.getRegistration("reg1")).isNull();
+
+        when(connection.get(ENDPOINT_KEY)).thenReturn(registrationSerDes.bSerialize(registration));
+        store.updateRegistration(update("reg1"));
+        verify(lockRegistry, times(2)).obtain("LOCK:EP:ep1");
+    }
+
+    @Test
+    public void testOwnershipIsCheckedOnReadAfterInterval() {
+        when(config.getRegistrationStoreNearCacheOwnershipCheckIntervalMs()).thenReturn(0L);
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        createStore(connectionFactory);
+        Registration registration = registration("reg1", 300L, new Date());
+        store.addRegistration(registration);
+        byte[] owner = getOwner();
+        when(connection.get(OWNER_KEY)).thenReturn(owner);
+
+        assertThat(store.getRegistrationByEndpoint("ep1")).isNotNull();
+        verify(connection, never()).get(ENDPOINT_KEY);
+
+        // the notification from the node that took over the endpoint was not delivered
+        Registration newRegistration = registration("reg2", 300L, new Date());
+        when(connection.get(OWNER_KEY)).thenReturn("otherNode".getBytes(UTF_8));
+        when(connection.get(ENDPOINT_KEY)).thenReturn(registrationSerDes.bSerialize(newRegistration));
+
+        assertThat(store.getRegistrationByEndpoint("ep1").getId()).isEqualTo("reg2");
+        assertThat(store.getRegistration("reg1")).isNull();
+        verify(connection).get(ENDPOINT_KEY);
+    }
+
+    @Test
+    public void testRemovalDropsOwnership() {
+        store.addRegistration(registration("reg1", 300L, new Date()));
+        byte[] owner = getOwner();
+        when(connection.get(OWNER_KEY)).thenReturn(owner);
+        when(connection.get("EP:REGID:reg1".getBytes(UTF_8))).thenReturn("ep1".getBytes(UTF_8));
+        when(connection.get(ENDPOINT_KEY)).thenReturn(registrationSerDes.bSerialize(registration("reg1", 300L, new Date())));
+        when(connection.del(any(byte[].class))).thenReturn(1L);
+
+        assertThat(store.removeRegistration("reg1")).isNotNull();
+
+        verify(connection).del(OWNER_KEY);
+        assertThat(store.getRegistrationByEndpoint("ep1")).isNotNull(); // read from Redis
+        when(connection.get(ENDPOINT_KEY)).thenReturn(null);
+        assertThat(store.getRegistrationByEndpoint("ep1")).isNull();
+    }
+
+    private byte[] getOwner() {
+        ArgumentCaptor<byte[]> owner = ArgumentCaptor.forClass(byte[].class);
+        verify(connection).set(eq(OWNER_KEY), owner.capture(), any(Expiration.class), any(SetOption.class));
+        return owner.getValue();
+    }
+
+    private static Registration registration(String id, Long lifetime, Date lastUpdate) {
+        return new Registration.Builder(id, "ep1", new IpPeer(new InetSocketAddress(1001)),
+                EndpointUriUtil.createUri("coap://localhost:5685"))
+                .objectLinks(new Link[0])
+                .lifeTimeInSec(lifetime)
+                .lastUpdate(lastUpdate)
+                .build();
+    }
+
+    private static RegistrationUpdate update(String registrationId) {
+        return new RegistrationUpdate(registrationId, new IpPeer(new InetSocketAddress(1001)), null, null, null,
+                null, null, null, null, null, null, null);
+    }
+
+}
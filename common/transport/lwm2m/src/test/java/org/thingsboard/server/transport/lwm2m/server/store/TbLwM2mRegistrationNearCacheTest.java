@@ -0,0 +1,105 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.transport.lwm2m.server.store;
+
+import org.eclipse.leshan.core.endpoint.EndpointUriUtil;
+import org.eclipse.leshan.core.link.Link;
+import org.eclipse.leshan.core.node.LwM2mPath;
+import org.eclipse.leshan.core.observation.Observation;
+import org.eclipse.leshan.core.observation.ObservationIdentifier;
+import org.eclipse.leshan.core.observation.SingleObservation;
+import org.eclipse.leshan.core.peer.IpPeer;
+import org.eclipse.leshan.core.request.ContentFormat;
+import org.eclipse.leshan.server.registration.Registration;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TbLwM2mRegistrationNearCacheTest {
+
+    private final TbLwM2mRegistrationNearCache nearCache = new TbLwM2mRegistrationNearCache(2, TimeUnit.MINUTES.toMillis(1), endpoint -> true);
+
+    @Test
+    public void testRegistrationLookups() {
+        Registration registration = registration("reg1", "ep1", 1001);
+        nearCache.put(registration, true);
+
+        assertThat(nearCache.isOwned("ep1")).isTrue();
+        assertThat(nearCache.getRegistration("ep1")).isSameAs(registration);
+        assertThat(nearCache.getRegistrationById("reg1")).isSameAs(registration);
+        assertThat(nearCache.getRegistrationByAddress(new InetSocketAddress(1001))).isSameAs(registration);
+        assertThat(nearCache.getRegistrationByIdentity(registration.getClientTransportData().getIdentity())).isSameAs(registration);
+
+        Registration reRegistration = registration("reg2", "ep1", 1002);
+        nearCache.put(reRegistration, true);
+
+        assertThat(nearCache.getRegistrationById("reg1")).isNull();
+        assertThat(nearCache.getRegistrationByAddress(new InetSocketAddress(1001))).isNull();
+        assertThat(nearCache.getRegistrationById("reg2")).isSameAs(reRegistration);
+        assertThat(nearCache.getRegistrationByAddress(new InetSocketAddress(1002))).isSameAs(reRegistration);
+
+        nearCache.remove("ep1");
+        assertThat(nearCache.isOwned("ep1")).isFalse();
+        assertThat(nearCache.getRegistrationById("reg2")).isNull();
+    }
+
+    @Test
+    public void testObservations() {
+        nearCache.put(registration("reg1", "ep1", 1001), true);
+        Observation observation = observation(new byte[]{1, 2}, "reg1");
+        nearCache.addObservation("reg1", observation);
+
+        assertThat(nearCache.getObservations("reg1")).containsExactly(observation);
+        assertThat(nearCache.getObservation(new ObservationIdentifier(new byte[]{1, 2}))).isSameAs(observation);
+
+        nearCache.removeObservation("reg1", observation.getId());
+        assertThat(nearCache.getObservations("reg1")).isEmpty();
+        assertThat(nearCache.getObservation(observation.getId())).isNull();
+
+        // the observations are unknown if the ownership is taken on update
+        nearCache.put(registration("reg2", "ep2", 1002), false);
+        nearCache.addObservation("reg2", observation(new byte[]{3}, "reg2"));
+        assertThat(nearCache.getObservations("reg2")).isNull();
+    }
+
+    @Test
+    public void testMaxSize() {
+        nearCache.put(registration("reg1", "ep1", 1001), true);
+        nearCache.put(registration("reg2", "ep2", 1002), true);
+        nearCache.put(registration("reg3", "ep3", 1003), true);
+
+        assertThat(nearCache.size()).isEqualTo(2);
+        assertThat(nearCache.isOwned("ep3")).isFalse();
+        assertThat(nearCache.getRegistrationById("reg3")).isNull();
+    }
+
+    private static Registration registration(String id, String endpoint, int port) {
+        return new Registration.Builder(id, endpoint, new IpPeer(new InetSocketAddress(port)),
+                EndpointUriUtil.createUri("coap://localhost:5685"))
+                .objectLinks(new Link[0])
+                .build();
+    }
+
+    private static Observation observation(byte[] id, String registrationId) {
+        return new SingleObservation(new ObservationIdentifier(id), registrationId, new LwM2mPath(3, 0, 9),
+                ContentFormat.TLV, Collections.emptyMap(), Collections.emptyMap());
+    }
+
+}
@@ -29,6 +29,7 @@ import org.thingsboard.server.queue.scheduler.SchedulerComponent;
 import org.thingsboard.server.transport.mqtt.TbMqttTransportComponent;
 import org.thingsboard.server.common.msg.gateway.metrics.GatewayMetadata;
 import org.thingsboard.server.transport.mqtt.gateway.metrics.GatewayMetricsState;
+import org.thingsboard.server.transport.mqtt.gateway.metrics.GatewayThroughputState;
 
 import java.util.List;
 import java.util.Map;
@@ -41,10 +42,14 @@ import java.util.concurrent.TimeUnit;
 public class GatewayMetricsService {
 
     public static final String GATEWAY_METRICS = "gatewayMetrics";
+    public static final String GATEWAY_THROUGHPUT = "gatewayThroughput";
 
     @Value("${transport.mqtt.gateway_metrics_report_interval_sec:60}")
     private int metricsReportIntervalSec;
 
+    @Value("${transport.mqtt.gateway_throughput_metrics_enabled:false}")
+    private boolean throughputMetricsEnabled;
+
     @Autowired
     private SchedulerComponent scheduler;
 
@@ -52,6 +57,7 @@ public class GatewayMetricsService {
     private TransportService transportService;
 
     private Map<DeviceId, GatewayMetricsState> states = new ConcurrentHashMap<>();
+    private Map<DeviceId, GatewayThroughputState> throughputStates = new ConcurrentHashMap<>();
 
     @PostConstruct
     private void init() {
@@ -62,38 +68,56 @@ public class GatewayMetricsService {
         states.computeIfAbsent(gatewayId, k -> new GatewayMetricsState(sessionInfo)).update(data, serverReceiveTs);
     }
 
+    public void onTelemetryBatch(TransportProtos.SessionInfoProto sessionInfo, DeviceId gatewayId, int deviceMsgs, int dataPoints) {
+        if (throughputMetricsEnabled) {
+            throughputStates.computeIfAbsent(gatewayId, k -> new GatewayThroughputState(sessionInfo)).update(deviceMsgs, dataPoints);
+        }
+    }
+
     public void onDeviceUpdate(TransportProtos.SessionInfoProto sessionInfo, DeviceId gatewayId) {
         var state = states.get(gatewayId);
         if (state != null) {
             state.updateSessionInfo(sessionInfo);
         }
+        var throughputState = throughputStates.get(gatewayId);
+        if (throughputState != null) {
+            throughputState.updateSessionInfo(sessionInfo);
+        }
     }
 
     public void onDeviceDelete(DeviceId deviceId) {
         states.remove(deviceId);
+        throughputStates.remove(deviceId);
     }
 
     public void reportMetrics() {
-        if (states.isEmpty()) {
-            return;
-        }
-        Map<DeviceId, GatewayMetricsState> statesToReport = states;
-        states = new ConcurrentHashMap<>();
-
         long ts = System.currentTimeMillis();
-
-        statesToReport.forEach((gatewayId, state) -> {
-            reportMetrics(state, ts);
-        });
+        if (!states.isEmpty()) {
+            Map<DeviceId, GatewayMetricsState> statesToReport = states;
+            states = new ConcurrentHashMap<>();
+            statesToReport.forEach((gatewayId, state) -> {
+                reportMetrics(state, ts);
+            });
+        }
+        if (!throughputStates.isEmpty()) {
+            Map<DeviceId, GatewayThroughputState> throughputStatesToReport = throughputStates;
+            throughputStates = new ConcurrentHashMap<>();
+            throughputStatesToReport.forEach((gatewayId, state) -> {
+                report(state.getSessionInfo(), GATEWAY_THROUGHPUT, state.getResult(ts), ts);
+            });
+        }
     }
 
     private void reportMetrics(GatewayMetricsState state, long ts) {
         if (state.isEmpty()) {
             return;
         }
-        var result = state.getStateResult();
+        report(state.getSessionInfo(), GATEWAY_METRICS, state.getStateResult(), ts);
+    }
+
+    private void report(TransportProtos.SessionInfoProto sessionInfo, String key, Object result, long ts) {
         var kvProto = TransportProtos.KeyValueProto.newBuilder()
-                .setKey(GATEWAY_METRICS)
+                .setKey(key)
                 .setType(TransportProtos.KeyValueType.JSON_V)
                 .setJsonV(JacksonUtil.toString(result))
                 .build();
@@ -107,7 +131,7 @@ public class GatewayMetricsService {
                 .addTsKvList(tsKvList)
                 .build();
 
-        transportService.process(state.getSessionInfo(), telemetryMsg, TransportServiceCallback.EMPTY);
+        transportService.process(sessionInfo, telemetryMsg, TransportServiceCallback.EMPTY);
     }
 
 }
@@ -0,0 +1,60 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.transport.mqtt.gateway.metrics;
+
+import lombok.Getter;
+import org.thingsboard.server.gen.transport.TransportProtos;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class GatewayThroughputState {
+
+    private final long startTs;
+    private final AtomicLong packets;
+    private final AtomicLong deviceMsgs;
+    private final AtomicLong dataPoints;
+
+    @Getter
+    private volatile TransportProtos.SessionInfoProto sessionInfo;
+
+    public GatewayThroughputState(TransportProtos.SessionInfoProto sessionInfo) {
+        this.startTs = System.currentTimeMillis();
+        this.packets = new AtomicLong(0);
+        this.deviceMsgs = new AtomicLong(0);
+        this.dataPoints = new AtomicLong(0);
+        this.sessionInfo = sessionInfo;
+    }
+
+    public void updateSessionInfo(TransportProtos.SessionInfoProto sessionInfo) {
+        this.sessionInfo = sessionInfo;
+    }
+
+    public void update(int deviceMsgs, int dataPoints) {
+        this.packets.incrementAndGet();
+        this.deviceMsgs.addAndGet(deviceMsgs);
+        this.dataPoints.addAndGet(dataPoints);
+    }
+
+    public GatewayThroughputResult getResult(long ts) {
+        long durationMs = Math.max(1, ts - startTs);
+        long dataPoints = this.dataPoints.get();
+        return new GatewayThroughputResult(packets.get(), deviceMsgs.get(), dataPoints, dataPoints * 1000 / durationMs);
+    }
+
+    public record GatewayThroughputResult(long packets, long deviceMsgs, long dataPoints, long dataPointsPerSec) {
+    }
+
+}
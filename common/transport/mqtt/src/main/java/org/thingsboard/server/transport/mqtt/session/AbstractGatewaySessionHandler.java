@@ -54,6 +54,7 @@ import org.thingsboard.server.common.data.util.TbPair;
 import org.thingsboard.server.common.msg.gateway.metrics.GatewayMetadata;
 import org.thingsboard.server.common.msg.tools.TbRateLimitsException;
 import org.thingsboard.server.common.transport.TransportService;
+import org.thingsboard.server.common.transport.TransportServiceBatchCallback;
 import org.thingsboard.server.common.transport.TransportServiceCallback;
 import org.thingsboard.server.common.transport.auth.GetOrCreateDeviceFromGatewayResponse;
 import org.thingsboard.server.common.transport.auth.TransportDeviceInfo;
@@ -80,11 +81,13 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import static org.springframework.util.ConcurrentReferenceHashMap.ReferenceType;
 import static org.thingsboard.server.common.data.DataConstants.DEFAULT_DEVICE_TYPE;
@@ -421,31 +424,23 @@ public abstract class AbstractGatewaySessionHandler<T extends AbstractGatewayDev
             throw new IllegalArgumentException("[" + sessionId + "] Devices telemetry message is empty for [" + gateway.getDeviceId() + "]");
         }
 
-        AtomicInteger remaining = new AtomicInteger(deviceEntries.size());
-        AtomicBoolean ackSent = new AtomicBoolean(false);
-
+        List<String> deviceNames = new ArrayList<>(deviceEntries.size());
+        List<JsonElement> deviceMsgs = new ArrayList<>(deviceEntries.size());
         for (Map.Entry<String, JsonElement> deviceEntry : deviceEntries) {
-            String deviceName = deviceEntry.getKey();
-            process(deviceName, deviceCtx -> processPostTelemetryMsg(deviceCtx, deviceEntry.getValue(), deviceName, msgId,
-                            remaining, ackSent),
-                    t -> processFailure(msgId, deviceName, TELEMETRY, ackSent, t));
+            deviceNames.add(deviceEntry.getKey());
+            deviceMsgs.add(deviceEntry.getValue());
         }
+        processPostTelemetryBatch(msgId, deviceNames, deviceMsgs, this::convertToPostTelemetryMsg);
     }
 
-    private void processPostTelemetryMsg(T deviceCtx, JsonElement msg, String deviceName, int msgId, AtomicInteger remaining, AtomicBoolean ackSent) {
-        try {
-            long systemTs = System.currentTimeMillis();
-            TbPair<TransportProtos.PostTelemetryMsg, List<GatewayMetadata>> gatewayPayloadPair = JsonConverter.convertToGatewayTelemetry(msg.getAsJsonArray(), systemTs);
-            TransportProtos.PostTelemetryMsg postTelemetryMsg = gatewayPayloadPair.getFirst();
-            List<GatewayMetadata> metadata = gatewayPayloadPair.getSecond();
-            if (!CollectionUtils.isEmpty(metadata)) {
-                gatewayMetricsService.process(deviceSessionCtx.getSessionInfo(), gateway.getDeviceId(), metadata, systemTs);
-            }
-            transportService.process(deviceCtx.getSessionInfo(), postTelemetryMsg, getAggregatePubAckCallback(channel, msgId, deviceName, postTelemetryMsg, remaining, ackSent));
-        } catch (Throwable e) {
-            log.warn("[{}][{}][{}] Failed to convert telemetry: [{}]", gateway.getTenantId(), gateway.getDeviceId(), deviceName, msg, e);
-            ackOrClose(msgId, ackSent);
+    private TransportProtos.PostTelemetryMsg convertToPostTelemetryMsg(JsonElement msg) {
+        long systemTs = System.currentTimeMillis();
+        TbPair<TransportProtos.PostTelemetryMsg, List<GatewayMetadata>> gatewayPayloadPair = JsonConverter.convertToGatewayTelemetry(msg.getAsJsonArray(), systemTs);
+        List<GatewayMetadata> metadata = gatewayPayloadPair.getSecond();
+        if (!CollectionUtils.isEmpty(metadata)) {
+            gatewayMetricsService.process(deviceSessionCtx.getSessionInfo(), gateway.getDeviceId(), metadata, systemTs);
         }
+        return gatewayPayloadPair.getFirst();
     }
 
     protected void onDeviceTelemetryProto(int msgId, ByteBuf payload) throws AdaptorException {
@@ -457,20 +452,85 @@ public abstract class AbstractGatewaySessionHandler<T extends AbstractGatewayDev
                 throw new IllegalArgumentException("[" + sessionId + "] Devices telemetry messages is empty for [" + gateway.getDeviceId() + "]");
             }
 
-            AtomicInteger remaining = new AtomicInteger(deviceMsgList.size());
-            AtomicBoolean ackSent = new AtomicBoolean(false);
-
-            deviceMsgList.forEach(telemetryMsg -> {
-                String deviceName = checkDeviceName(telemetryMsg.getDeviceName());
-                process(deviceName, deviceCtx -> processPostTelemetryMsg(deviceCtx, telemetryMsg.getMsg(), deviceName, msgId,
-                                remaining, ackSent),
-                        t -> processFailure(msgId, deviceName, TELEMETRY, ackSent, t));
-            });
+            List<String> deviceNames = new ArrayList<>(deviceMsgList.size());
+            List<TransportProtos.PostTelemetryMsg> deviceMsgs = new ArrayList<>(deviceMsgList.size());
+            for (TransportApiProtos.TelemetryMsg telemetryMsg : deviceMsgList) {
+                deviceNames.add(checkDeviceName(telemetryMsg.getDeviceName()));
+                deviceMsgs.add(telemetryMsg.getMsg());
+            }
+            processPostTelemetryBatch(msgId, deviceNames, deviceMsgs, this::convertToPostTelemetryMsg);
         } catch (RuntimeException | InvalidProtocolBufferException e) {
             throw new AdaptorException(e);
         }
     }
 
+    private TransportProtos.PostTelemetryMsg convertToPostTelemetryMsg(TransportProtos.PostTelemetryMsg msg) {
+        try {
+            return ProtoConverter.validatePostTelemetryMsg(msg.toByteArray());
+        } catch (InvalidProtocolBufferException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /*
+     * Telemetry of all the devices in the gateway packet is pushed with a single aggregated callback.
+     * Sessions of the known devices are taken from the local map in one pass, only the unknown devices are awaited.
+     * */
+    private <M> void processPostTelemetryBatch(int msgId, List<String> deviceNames, List<M> deviceMsgs,
+                                               Function<M, TransportProtos.PostTelemetryMsg> converter) {
+        List<ListenableFuture<T>> deviceCtxFutures = new ArrayList<>(deviceNames.size());
+        boolean allDone = true;
+        for (String deviceName : deviceNames) {
+            ListenableFuture<T> deviceCtxFuture = onDeviceConnect(deviceName, DEFAULT_DEVICE_TYPE);
+            deviceCtxFutures.add(deviceCtxFuture);
+            allDone &= deviceCtxFuture.isDone();
+        }
+        if (allDone) {
+            processPostTelemetryBatch(msgId, deviceNames, deviceMsgs, converter, deviceCtxFutures);
+        } else {
+            Futures.whenAllComplete(deviceCtxFutures)
+                    .run(() -> processPostTelemetryBatch(msgId, deviceNames, deviceMsgs, converter, deviceCtxFutures), context.getExecutor());
+        }
+    }
+
+    private <M> void processPostTelemetryBatch(int msgId, List<String> deviceNames, List<M> deviceMsgs,
+                                               Function<M, TransportProtos.PostTelemetryMsg> converter, List<ListenableFuture<T>> deviceCtxFutures) {
+        AtomicBoolean ackSent = new AtomicBoolean(false);
+        List<TbPair<TransportProtos.SessionInfoProto, TransportProtos.PostTelemetryMsg>> batch = new ArrayList<>(deviceNames.size());
+        List<String> batchDeviceNames = new ArrayList<>(deviceNames.size());
+        int dataPoints = 0;
+        for (int i = 0; i < deviceNames.size(); i++) {
+            String deviceName = deviceNames.get(i);
+            T deviceCtx;
+            try {
+                deviceCtx = Futures.getDone(deviceCtxFutures.get(i));
+            } catch (ExecutionException e) {
+                processFailure(msgId, deviceName, TELEMETRY, ackSent, e.getCause());
+                continue;
+            } catch (Throwable t) {
+                processFailure(msgId, deviceName, TELEMETRY, ackSent, t);
+                continue;
+            }
+            M msg = deviceMsgs.get(i);
+            try {
+                TransportProtos.PostTelemetryMsg postTelemetryMsg = converter.apply(msg);
+                batch.add(TbPair.of(deviceCtx.getSessionInfo(), postTelemetryMsg));
+                batchDeviceNames.add(deviceName);
+                for (TransportProtos.TsKvListProto tsKv : postTelemetryMsg.getTsKvListList()) {
+                    dataPoints += tsKv.getKvCount();
+                }
+            } catch (Throwable e) {
+                log.warn("[{}][{}][{}] Failed to convert telemetry: [{}]", gateway.getTenantId(), gateway.getDeviceId(), deviceName, msg, e);
+                ackOrClose(msgId, ackSent);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        gatewayMetricsService.onTelemetryBatch(deviceSessionCtx.getSessionInfo(), gateway.getDeviceId(), batch.size(), dataPoints);
+        transportService.process(batch, getBatchPubAckCallback(channel, msgId, batchDeviceNames, ackSent));
+    }
+
     protected void processPostTelemetryMsg(MqttDeviceAwareSessionContext deviceCtx, TransportProtos.PostTelemetryMsg msg, String deviceName, int msgId,
                                            AtomicInteger remaining, AtomicBoolean ackSent) {
         try {
@@ -868,6 +928,51 @@ public abstract class AbstractGatewaySessionHandler<T extends AbstractGatewayDev
         };
     }
 
+    private TransportServiceBatchCallback getBatchPubAckCallback(
+            final ChannelHandlerContext ctx,
+            final int msgId,
+            final List<String> deviceNames,
+            final AtomicBoolean ackSent) {
+
+        return new TransportServiceBatchCallback() {
+            @Override
+            public void onSuccess(Void dummy) {
+                log.trace("[{}][{}][{}] Published telemetry of [{}] devices", gateway.getTenantId(), gateway.getDeviceId(), sessionId, deviceNames.size());
+                if (ackSent.compareAndSet(false, true)) {
+                    if (msgId > 0) {
+                        ctx.writeAndFlush(MqttTransportHandler.createMqttPubAckMsg(
+                                deviceSessionCtx, msgId, MqttReasonCodes.PubAck.SUCCESS.byteValue()));
+                    } else {
+                        log.trace("[{}][{}][{}] Wrong msg id: [{}]", gateway.getTenantId(), gateway.getDeviceId(), sessionId, msgId);
+                        ctx.writeAndFlush(MqttTransportHandler.createMqttPubAckMsg(
+                                deviceSessionCtx, msgId, MqttReasonCodes.PubAck.UNSPECIFIED_ERROR.byteValue()));
+                    }
+                }
+                if (msgId <= 0) {
+                    deviceNames.forEach(deviceName -> closeDeviceSession(deviceName, MqttReasonCodes.Disconnect.MALFORMED_PACKET));
+                }
+            }
+
+            @Override
+            public void onMsgError(TransportProtos.SessionInfoProto sessionInfo, Throwable e) {
+                String deviceName = sessionInfo.getDeviceName();
+                log.trace("[{}][{}][{}][{}] Failed to publish telemetry", gateway.getTenantId(), gateway.getDeviceId(), sessionId, deviceName, e);
+                closeDeviceSession(deviceName, e instanceof TbRateLimitsException ?
+                        MqttReasonCodes.Disconnect.MESSAGE_RATE_TOO_HIGH : MqttReasonCodes.Disconnect.UNSPECIFIED_ERROR);
+            }
+
+            @Override
+            public void onError(Throwable e) {
+                log.trace("[{}][{}][{}] Failed to publish telemetry of some of the devices: {}", gateway.getTenantId(), gateway.getDeviceId(), sessionId, deviceNames, e);
+                if (ackSent.compareAndSet(false, true)) {
+                    MqttReasonCodes.PubAck pubAck = e instanceof TbRateLimitsException ? MqttReasonCodes.PubAck.QUOTA_EXCEEDED : MqttReasonCodes.PubAck.UNSPECIFIED_ERROR;
+                    ctx.writeAndFlush(MqttTransportHandler.createMqttPubAckMsg(deviceSessionCtx, msgId, pubAck.byteValue()));
+                    ctx.close();
+                }
+            }
+        };
+    }
+
     protected void process(String deviceName, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
         ListenableFuture<T> deviceCtxFuture = onDeviceConnect(deviceName, DEFAULT_DEVICE_TYPE);
         process(deviceCtxFuture, onSuccess, onFailure);
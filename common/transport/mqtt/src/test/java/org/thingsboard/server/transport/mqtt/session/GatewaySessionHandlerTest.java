@@ -15,9 +15,11 @@
  */
 package org.thingsboard.server.transport.mqtt.session;
 
+import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.util.ConcurrentReferenceHashMap;
@@ -25,16 +27,23 @@ import org.thingsboard.server.common.data.id.CustomerId;
 import org.thingsboard.server.common.data.id.DeviceId;
 import org.thingsboard.server.common.data.id.DeviceProfileId;
 import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.util.TbPair;
 import org.thingsboard.server.common.transport.TransportService;
+import org.thingsboard.server.common.transport.TransportServiceBatchCallback;
 import org.thingsboard.server.common.transport.auth.TransportDeviceInfo;
+import org.thingsboard.server.gen.transport.TransportProtos;
 import org.thingsboard.server.transport.mqtt.MqttTransportContext;
+import org.thingsboard.server.transport.mqtt.gateway.GatewayMetricsService;
 
 import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.BDDMockito.willCallRealMethod;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
@@ -53,6 +62,9 @@ public class GatewaySessionHandlerTest {
     @Mock
     private MqttTransportContext transportContext;
 
+    @Mock
+    private GatewayMetricsService gatewayMetricsService;
+
     private GatewaySessionHandler handler;
 
     @BeforeEach
@@ -61,6 +73,7 @@ public class GatewaySessionHandlerTest {
         lenient().doNothing().when(transportService).recordActivity(any());
         lenient().when(transportContext.getTransportService()).thenReturn(transportService);
         lenient().when(deviceSessionCtx.getContext()).thenReturn(transportContext);
+        lenient().when(transportContext.getGatewayMetricsService()).thenReturn(gatewayMetricsService);
 
         var deviceInfo = new TransportDeviceInfo();
         deviceInfo.setDeviceId(new DeviceId(UUID.randomUUID()));
@@ -111,6 +124,37 @@ public class GatewaySessionHandlerTest {
         verify(transportService, never()).recordActivity(any());
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldPushTelemetryOfAllDevicesInSingleBatch() throws Exception {
+        // Given
+        ConcurrentHashMap<String, GatewayDeviceSessionContext> devices = new ConcurrentHashMap<>();
+        for (String deviceName : List.of("device1", "device2")) {
+            TransportDeviceInfo deviceInfo = new TransportDeviceInfo();
+            deviceInfo.setDeviceId(new DeviceId(UUID.randomUUID()));
+            deviceInfo.setTenantId(new TenantId(UUID.randomUUID()));
+            deviceInfo.setCustomerId(new CustomerId(UUID.randomUUID()));
+            deviceInfo.setDeviceName(deviceName);
+            deviceInfo.setDeviceType("default");
+            deviceInfo.setDeviceProfileId(new DeviceProfileId(UUID.randomUUID()));
+            devices.put(deviceName, new GatewayDeviceSessionContext(handler, deviceInfo, null, null, transportService));
+        }
+        Field devicesField = AbstractGatewaySessionHandler.class.getDeclaredField("devices");
+        devicesField.setAccessible(true);
+        devicesField.set(handler, devices);
+        String payload = "{\"device1\": [{\"ts\": 1000, \"values\": {\"temperature\": 42}}], " +
+                "\"device2\": [{\"ts\": 1000, \"values\": {\"temperature\": 43, \"humidity\": 50}}]}";
+
+        // When
+        handler.onDeviceTelemetryJson(1, Unpooled.wrappedBuffer(payload.getBytes(StandardCharsets.UTF_8)));
+
+        // Then
+        ArgumentCaptor<List<TbPair<TransportProtos.SessionInfoProto, TransportProtos.PostTelemetryMsg>>> batchCaptor = ArgumentCaptor.forClass(List.class);
+        verify(transportService).process(batchCaptor.capture(), any(TransportServiceBatchCallback.class));
+        assertThat(batchCaptor.getValue()).extracting(pair -> pair.getFirst().getDeviceName()).containsExactlyInAnyOrder("device1", "device2");
+        verify(gatewayMetricsService).onTelemetryBatch(any(), any(), eq(2), eq(3));
+    }
+
     @Test
     public void givenGatewaySessionHandler_WhenCreateWeakMap_thenConcurrentReferenceHashMapClass() {
         GatewaySessionHandler gsh = mock(GatewaySessionHandler.class);
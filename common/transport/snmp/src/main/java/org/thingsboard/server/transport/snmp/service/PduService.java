@@ -42,10 +42,12 @@ import org.thingsboard.server.transport.snmp.session.DeviceSessionContext;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @TbSnmpTransportComponent
@@ -84,6 +86,30 @@ public class PduService {
         return pdus;
     }
 
+    /**
+     * Creates the GET requests for all the given querying configs at once.
+     * OIDs are deduplicated across the configs and packed into as few PDUs as {@code max_request_oids} allows.
+     */
+    public List<PDU> createQueryingPdus(DeviceSessionContext sessionContext, List<? extends SnmpCommunicationConfig> communicationConfigs) {
+        Set<OID> oids = new LinkedHashSet<>();
+        for (SnmpCommunicationConfig communicationConfig : communicationConfigs) {
+            for (SnmpMapping mapping : communicationConfig.getAllMappings()) {
+                oids.add(new OID(mapping.getOid()));
+            }
+        }
+
+        List<PDU> pdus = new ArrayList<>();
+        for (List<OID> chunk : Lists.partition(new ArrayList<>(oids), maxRequestOids)) {
+            PDU pdu = setUpPdu(sessionContext);
+            pdu.setType(SnmpMethod.GET.getCode());
+            for (OID oid : chunk) {
+                pdu.add(new VariableBinding(oid));
+            }
+            pdus.add(pdu);
+        }
+        return pdus;
+    }
+
     public PDU createSingleVariablePdu(DeviceSessionContext sessionContext, SnmpMethod snmpMethod, String oid, String value, DataType dataType) {
         PDU pdu = setUpPdu(sessionContext);
         pdu.setType(snmpMethod.getCode());
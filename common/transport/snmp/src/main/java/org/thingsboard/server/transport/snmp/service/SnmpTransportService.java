@@ -17,11 +17,12 @@ package org.thingsboard.server.transport.snmp.service;
 
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
-import com.google.common.util.concurrent.ListenableScheduledFuture;
-import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timer;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.Builder;
@@ -50,6 +51,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.thingsboard.common.util.ThingsBoardExecutors;
+import org.thingsboard.common.util.ThingsBoardThreadFactory;
 import org.thingsboard.server.common.adaptor.JsonConverter;
 import org.thingsboard.server.common.data.DataConstants;
 import org.thingsboard.server.common.data.TbTransportService;
@@ -59,12 +61,16 @@ import org.thingsboard.server.common.data.transport.snmp.SnmpMapping;
 import org.thingsboard.server.common.data.transport.snmp.SnmpMethod;
 import org.thingsboard.server.common.data.transport.snmp.config.RepeatingQueryingSnmpCommunicationConfig;
 import org.thingsboard.server.common.data.transport.snmp.config.SnmpCommunicationConfig;
+import org.thingsboard.server.common.stats.StatsCounter;
+import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.common.stats.StatsTimer;
 import org.thingsboard.server.common.transport.TransportService;
 import org.thingsboard.server.gen.transport.TransportProtos;
 import org.thingsboard.server.queue.util.TbSnmpTransportComponent;
 import org.thingsboard.server.transport.snmp.SnmpTransportContext;
 import org.thingsboard.server.transport.snmp.session.DeviceSessionContext;
 import org.thingsboard.server.transport.snmp.session.ScheduledTask;
+import org.thingsboard.server.transport.snmp.session.SnmpAgentStats;
 
 import java.io.IOException;
 import java.net.InetAddress;
@@ -72,11 +78,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @TbSnmpTransportComponent
@@ -87,13 +95,17 @@ import java.util.stream.Collectors;
 public class SnmpTransportService implements TbTransportService, CommandResponder {
     private final TransportService transportService;
     private final PduService pduService;
+    private final StatsFactory statsFactory;
     @Autowired @Lazy
     private SnmpTransportContext transportContext;
 
     @Getter
     private Snmp snmp;
-    private ListeningScheduledExecutorService scheduler;
+    private Timer pollingTimer;
+    private ExecutorService queryingExecutor;
     private ExecutorService executor;
+    private StatsTimer responseLatencyTimer;
+    private StatsCounter timeoutsCounter;
 
     private final Map<SnmpCommunicationSpec, ResponseDataMapper> responseDataMappers = new EnumMap<>(SnmpCommunicationSpec.class);
     private final Map<SnmpCommunicationSpec, ResponseProcessor> responseProcessors = new EnumMap<>(SnmpCommunicationSpec.class);
@@ -106,15 +118,25 @@ public class SnmpTransportService implements TbTransportService, CommandResponde
     private int responseProcessingThreadPoolSize;
     @Value("${transport.snmp.scheduler_thread_pool_size:4}")
     private int schedulerThreadPoolSize;
+    @Value("${transport.snmp.polling.tick_duration_ms:10}")
+    private long pollingTickDurationMs;
+    @Value("${transport.snmp.polling.ticks_per_wheel:512}")
+    private int pollingTicksPerWheel;
     @Value("${transport.snmp.underlying_protocol}")
     private String snmpUnderlyingProtocol;
     @Value("${transport.snmp.request_chunk_delay_ms:100}")
     private int requestChunkDelayMs;
+    @Value("${transport.snmp.agent_stats.report_interval_ms:0}")
+    private long agentStatsReportIntervalMs;
 
     @PostConstruct
     private void init() throws IOException {
-        scheduler = MoreExecutors.listeningDecorator(ThingsBoardExecutors.newScheduledThreadPool(schedulerThreadPoolSize, "snmp-querying"));
+        pollingTimer = new HashedWheelTimer(ThingsBoardThreadFactory.forName("snmp-polling-timer"),
+                pollingTickDurationMs, TimeUnit.MILLISECONDS, pollingTicksPerWheel);
+        queryingExecutor = ThingsBoardExecutors.newWorkStealingPool(schedulerThreadPoolSize, "snmp-querying");
         executor = ThingsBoardExecutors.newWorkStealingPool(responseProcessingThreadPoolSize, "snmp-response-processing");
+        responseLatencyTimer = statsFactory.createStatsTimer("snmpTransport", "responseLatency");
+        timeoutsCounter = statsFactory.createStatsCounter("snmpTransport", "timeouts");
 
         initializeSnmp();
         configureResponseDataMappers();
@@ -125,8 +147,11 @@ public class SnmpTransportService implements TbTransportService, CommandResponde
 
     @PreDestroy
     public void stop() {
-        if (scheduler != null) {
-            scheduler.shutdownNow();
+        if (pollingTimer != null) {
+            pollingTimer.stop();
+        }
+        if (queryingExecutor != null) {
+            queryingExecutor.shutdownNow();
         }
         if (executor != null) {
             executor.shutdownNow();
@@ -154,27 +179,59 @@ public class SnmpTransportService implements TbTransportService, CommandResponde
         SecurityModels.getInstance().addSecurityModel(usm);
     }
 
+    /*
+     * Querying configs of the device with the same frequency are polled together:
+     * their OIDs are coalesced into the minimal number of GET requests, and the response is dispatched to each config.
+     * */
     public void createQueryingTasks(DeviceSessionContext sessionContext) {
-        sessionContext.getProfileTransportConfiguration().getCommunicationConfigs().stream()
+        Map<Long, List<RepeatingQueryingSnmpCommunicationConfig>> configsByFrequency = sessionContext.getProfileTransportConfiguration().getCommunicationConfigs().stream()
                 .filter(communicationConfig -> communicationConfig instanceof RepeatingQueryingSnmpCommunicationConfig)
-                .forEach(config -> {
-                    RepeatingQueryingSnmpCommunicationConfig repeatingCommunicationConfig = (RepeatingQueryingSnmpCommunicationConfig) config;
-                    Long queryingFrequency = repeatingCommunicationConfig.getQueryingFrequencyMs();
-
-                    ScheduledTask scheduledTask = new ScheduledTask();
-                    scheduledTask.init(() -> {
-                        try {
-                            if (sessionContext.isActive()) {
-                                return sendRequest(sessionContext, repeatingCommunicationConfig);
-                            }
-                        } catch (Exception e) {
-                            log.error("Failed to send SNMP request for device {}: {}", sessionContext.getDeviceId(), e.toString());
-                            transportService.errorEvent(sessionContext.getTenantId(), sessionContext.getDeviceId(), config.getSpec().getLabel(), e);
-                        }
-                        return Futures.immediateVoidFuture();
-                    }, queryingFrequency, scheduler);
-                    sessionContext.getQueryingTasks().add(scheduledTask);
-                });
+                .map(communicationConfig -> (RepeatingQueryingSnmpCommunicationConfig) communicationConfig)
+                .collect(Collectors.groupingBy(RepeatingQueryingSnmpCommunicationConfig::getQueryingFrequencyMs, LinkedHashMap::new, Collectors.toList()));
+
+        configsByFrequency.forEach((queryingFrequency, configs) -> {
+            ScheduledTask scheduledTask = new ScheduledTask();
+            scheduledTask.init(() -> {
+                try {
+                    if (sessionContext.isActive()) {
+                        return sendQueryingRequest(sessionContext, configs);
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to send SNMP request for device {}: {}", sessionContext.getDeviceId(), e.toString());
+                    for (RepeatingQueryingSnmpCommunicationConfig config : configs) {
+                        transportService.errorEvent(sessionContext.getTenantId(), sessionContext.getDeviceId(), config.getSpec().getLabel(), e);
+                    }
+                }
+                return Futures.immediateVoidFuture();
+            }, queryingFrequency, pollingTimer, queryingExecutor);
+            sessionContext.getQueryingTasks().add(scheduledTask);
+        });
+
+        if (agentStatsReportIntervalMs > 0) {
+            ScheduledTask statsReportingTask = new ScheduledTask();
+            statsReportingTask.init(() -> {
+                if (sessionContext.isActive()) {
+                    reportAgentStats(sessionContext);
+                }
+                return Futures.immediateVoidFuture();
+            }, agentStatsReportIntervalMs, pollingTimer, queryingExecutor);
+            sessionContext.getQueryingTasks().add(statsReportingTask);
+        }
+    }
+
+    private void reportAgentStats(DeviceSessionContext sessionContext) {
+        SnmpAgentStats agentStats = sessionContext.getAgentStats();
+        if (agentStats.getRequests() == 0) {
+            return;
+        }
+        log.debug("[{}] SNMP agent stats: {}", sessionContext.getDeviceId(), agentStats);
+        JsonObject stats = new JsonObject();
+        stats.addProperty("snmpRequests", agentStats.getRequests());
+        stats.addProperty("snmpResponses", agentStats.getResponses());
+        stats.addProperty("snmpTimeouts", agentStats.getTimeouts());
+        stats.addProperty("snmpAvgLatencyMs", agentStats.getAvgLatencyMs());
+        stats.addProperty("snmpLastLatencyMs", agentStats.getLastLatencyMs());
+        transportService.process(sessionContext.getSessionInfo(), JsonConverter.convertToTelemetryProto(stats), null);
     }
 
     public void cancelQueryingTasks(DeviceSessionContext sessionContext) {
@@ -183,8 +240,17 @@ public class SnmpTransportService implements TbTransportService, CommandResponde
     }
 
 
-    private ListenableFuture<Void> sendRequest(DeviceSessionContext sessionContext, SnmpCommunicationConfig communicationConfig) {
-        return sendRequest(sessionContext, communicationConfig, Collections.emptyMap());
+    private ListenableFuture<Void> sendQueryingRequest(DeviceSessionContext sessionContext, List<RepeatingQueryingSnmpCommunicationConfig> communicationConfigs) {
+        if (communicationConfigs.size() == 1) {
+            return sendRequest(sessionContext, communicationConfigs.get(0), Collections.emptyMap());
+        }
+        List<PDU> request = pduService.createQueryingPdus(sessionContext, communicationConfigs);
+        RequestContext requestContext = RequestContext.builder()
+                .method(SnmpMethod.GET)
+                .queryingConfigs(List.copyOf(communicationConfigs))
+                .requestSize(request.size())
+                .build();
+        return sendRequest(sessionContext, request, requestContext);
     }
 
     private ListenableFuture<Void> sendRequest(DeviceSessionContext sessionContext, SnmpCommunicationConfig communicationConfig, Map<String, String> values) {
@@ -212,9 +278,14 @@ public class SnmpTransportService implements TbTransportService, CommandResponde
             if (delay == 0) {
                 sendPdu(pdu, requestContext, sessionContext);
             } else {
-                ListenableScheduledFuture<?> future = scheduler.schedule(() -> {
-                    sendPdu(pdu, requestContext, sessionContext);
-                }, delay, TimeUnit.MILLISECONDS);
+                SettableFuture<Void> future = SettableFuture.create();
+                pollingTimer.newTimeout(timeout -> queryingExecutor.execute(() -> {
+                    try {
+                        sendPdu(pdu, requestContext, sessionContext);
+                    } finally {
+                        future.set(null);
+                    }
+                }), delay, TimeUnit.MILLISECONDS);
                 futures.add(future);
             }
         }
@@ -224,9 +295,20 @@ public class SnmpTransportService implements TbTransportService, CommandResponde
     private void sendPdu(PDU pdu, RequestContext requestContext, DeviceSessionContext sessionContext) {
         log.debug("[{}] Sending SNMP request with {} variable bindings to {}", sessionContext.getDeviceId(), pdu.size(), sessionContext.getTarget().getAddress());
         try {
-            snmp.send(pdu, sessionContext.getTarget(), requestContext, sessionContext);
+            sessionContext.getAgentStats().onRequest();
+            snmp.send(pdu, sessionContext.getTarget(), new PduRequest(requestContext, System.currentTimeMillis()), sessionContext);
         } catch (Exception e) {
             log.error("[{}] Failed to send SNMP request", sessionContext.getDeviceId(), e);
+            onRequestError(sessionContext, requestContext, e);
+        }
+    }
+
+    private void onRequestError(DeviceSessionContext sessionContext, RequestContext requestContext, Throwable e) {
+        if (requestContext.getQueryingConfigs() != null) {
+            for (SnmpCommunicationConfig communicationConfig : requestContext.getQueryingConfigs()) {
+                transportService.errorEvent(sessionContext.getTenantId(), sessionContext.getDeviceId(), communicationConfig.getSpec().getLabel(), e);
+            }
+        } else {
             transportService.errorEvent(sessionContext.getTenantId(), sessionContext.getDeviceId(), requestContext.getCommunicationSpec().getLabel(), e);
         }
     }
@@ -282,22 +364,34 @@ public class SnmpTransportService implements TbTransportService, CommandResponde
 
     public void processResponseEvent(DeviceSessionContext sessionContext, ResponseEvent event) {
         ((Snmp) event.getSource()).cancel(event.getRequest(), sessionContext);
-        RequestContext requestContext = (RequestContext) event.getUserObject();
+        PduRequest pduRequest = (PduRequest) event.getUserObject();
+        RequestContext requestContext = pduRequest.requestContext();
         if (event.getError() != null) {
             log.warn("[{}] SNMP response error: {}", sessionContext.getDeviceId(), event.getError().toString());
-            transportService.errorEvent(sessionContext.getTenantId(), sessionContext.getDeviceId(), requestContext.getCommunicationSpec().getLabel(), new RuntimeException(event.getError()));
+            onRequestError(sessionContext, requestContext, new RuntimeException(event.getError()));
             return;
         }
 
         PDU responsePdu = event.getResponse();
         log.trace("[{}] Received PDU: {}", sessionContext.getDeviceId(), responsePdu);
 
+        SnmpAgentStats agentStats = sessionContext.getAgentStats();
+        if (responsePdu == null) {
+            agentStats.onTimeout();
+            timeoutsCounter.increment();
+            log.debug("[{}] SNMP request to {} timed out. Agent stats: {}", sessionContext.getDeviceId(), sessionContext.getTarget().getAddress(), agentStats);
+        } else {
+            long latencyMs = System.currentTimeMillis() - pduRequest.sendTs();
+            agentStats.onResponse(latencyMs);
+            responseLatencyTimer.record(latencyMs);
+        }
+
         List<PDU> response;
         if (requestContext.getRequestSize() == 1) {
             if (responsePdu == null) {
                 if (requestContext.getMethod() == SnmpMethod.GET) {
                     log.debug("[{}][{}] Empty response from device", sessionContext.getDeviceId(), event.getRequest().getRequestID());
-                    transportService.errorEvent(sessionContext.getTenantId(), sessionContext.getDeviceId(), requestContext.getCommunicationSpec().getLabel(), new RuntimeException("No response from device"));
+                    onRequestError(sessionContext, requestContext, new RuntimeException("No response from device"));
                 }
                 return;
             }
@@ -305,7 +399,7 @@ public class SnmpTransportService implements TbTransportService, CommandResponde
         } else {
             List<PDU> responseParts = requestContext.getResponseParts();
             responseParts.add(responsePdu);
-            if (responseParts.size() == requestContext.getRequestSize()) {
+            if (requestContext.getReceivedParts().incrementAndGet() == requestContext.getRequestSize()) {
                 response = new ArrayList<>();
                 for (PDU responsePart : responseParts) {
                     if (responsePart != null) {
@@ -320,6 +414,21 @@ public class SnmpTransportService implements TbTransportService, CommandResponde
         }
 
         executor.execute(() -> {
+            if (requestContext.getQueryingConfigs() != null) {
+                for (SnmpCommunicationConfig communicationConfig : requestContext.getQueryingConfigs()) {
+                    RequestContext configRequestContext = RequestContext.builder()
+                            .communicationSpec(communicationConfig.getSpec())
+                            .method(communicationConfig.getMethod())
+                            .responseMappings(communicationConfig.getAllMappings())
+                            .build();
+                    try {
+                        processResponse(sessionContext, response, configRequestContext);
+                    } catch (Exception e) {
+                        transportService.errorEvent(sessionContext.getTenantId(), sessionContext.getDeviceId(), communicationConfig.getSpec().getLabel(), e);
+                    }
+                }
+                return;
+            }
             try {
                 processResponse(sessionContext, response, requestContext);
             } catch (Exception e) {
@@ -466,8 +575,11 @@ public class SnmpTransportService implements TbTransportService, CommandResponde
     @PreDestroy
     public void shutdown() {
         log.info("Stopping SNMP transport!");
-        if (scheduler != null) {
-            scheduler.shutdownNow();
+        if (pollingTimer != null) {
+            pollingTimer.stop();
+        }
+        if (queryingExecutor != null) {
+            queryingExecutor.shutdownNow();
         }
         if (executor != null) {
             executor.shutdownNow();
@@ -488,23 +600,30 @@ public class SnmpTransportService implements TbTransportService, CommandResponde
         private final SnmpCommunicationSpec communicationSpec;
         private final SnmpMethod method;
         private final List<SnmpMapping> responseMappings;
+        private final List<SnmpCommunicationConfig> queryingConfigs;
 
         private final int requestSize;
         private List<PDU> responseParts;
+        private AtomicInteger receivedParts;
 
         @Builder
-        public RequestContext(Integer requestId, SnmpCommunicationSpec communicationSpec, SnmpMethod method, List<SnmpMapping> responseMappings, int requestSize) {
+        public RequestContext(Integer requestId, SnmpCommunicationSpec communicationSpec, SnmpMethod method, List<SnmpMapping> responseMappings,
+                              List<SnmpCommunicationConfig> queryingConfigs, int requestSize) {
             this.requestId = requestId;
             this.communicationSpec = communicationSpec;
             this.method = method;
             this.responseMappings = responseMappings;
+            this.queryingConfigs = queryingConfigs;
             this.requestSize = requestSize;
             if (requestSize > 1) {
                 this.responseParts = Collections.synchronizedList(new ArrayList<>());
+                this.receivedParts = new AtomicInteger();
             }
         }
     }
 
+    private record PduRequest(RequestContext requestContext, long sendTs) {}
+
     private interface ResponseDataMapper {
         JsonObject map(List<PDU> pdus, RequestContext requestContext);
     }
@@ -19,43 +19,63 @@ import com.google.common.util.concurrent.AsyncCallable;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Periodic task driven by a timer wheel.
+ * <p>
+ * The timer thread only hands the task over to the executor. The next run is scheduled relative to the start of the previous one,
+ * so slow requests do not shift the querying schedule. The first run is spread randomly within the period
+ * to avoid bursts when a lot of sessions are created at once.
+ */
 @Data
 @Slf4j
 public class ScheduledTask {
-    private ListenableFuture<?> scheduledFuture;
-    private boolean stopped = false;
+    private volatile Timeout timeout;
+    private volatile boolean stopped = false;
+
+    public void init(AsyncCallable<Void> task, long periodMs, Timer timer, Executor executor) {
+        long initialDelayMs = periodMs > 0 ? ThreadLocalRandom.current().nextLong(periodMs) : 0;
+        schedule(task, initialDelayMs, periodMs, timer, executor);
+    }
 
-    public void init(AsyncCallable<Void> task, long delayMs, ScheduledExecutorService scheduler) {
-        schedule(task, delayMs, scheduler);
+    private void schedule(AsyncCallable<Void> task, long delayMs, long periodMs, Timer timer, Executor executor) {
+        if (stopped) {
+            return;
+        }
+        timeout = timer.newTimeout(t -> executor.execute(() -> run(task, periodMs, timer, executor)), delayMs, TimeUnit.MILLISECONDS);
     }
 
-    private void schedule(AsyncCallable<Void> task, long delayMs, ScheduledExecutorService scheduler) {
-        scheduledFuture = Futures.scheduleAsync(() -> {
-            if (stopped) {
-                return Futures.immediateCancelledFuture();
-            }
-            try {
-                return task.call();
-            } catch (Throwable t) {
-                log.error("Unhandled error in scheduled task", t);
-                return Futures.immediateFailedFuture(t);
-            }
-        }, delayMs, TimeUnit.MILLISECONDS, scheduler);
-        if (!stopped) {
-            scheduledFuture.addListener(() -> schedule(task, delayMs, scheduler), MoreExecutors.directExecutor());
+    private void run(AsyncCallable<Void> task, long periodMs, Timer timer, Executor executor) {
+        if (stopped) {
+            return;
+        }
+        long startTs = System.currentTimeMillis();
+        ListenableFuture<Void> future;
+        try {
+            future = task.call();
+        } catch (Throwable t) {
+            log.error("Unhandled error in scheduled task", t);
+            future = Futures.immediateFailedFuture(t);
         }
+        future.addListener(() -> {
+            long elapsed = System.currentTimeMillis() - startTs;
+            schedule(task, Math.max(0, periodMs - elapsed), periodMs, timer, executor);
+        }, MoreExecutors.directExecutor());
     }
 
     public void cancel() {
         stopped = true;
-        if (scheduledFuture != null) {
-            scheduledFuture.cancel(true);
+        Timeout timeout = this.timeout;
+        if (timeout != null) {
+            timeout.cancel();
         }
     }
 
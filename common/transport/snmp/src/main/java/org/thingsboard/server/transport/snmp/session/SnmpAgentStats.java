@@ -0,0 +1,74 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.transport.snmp.session;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Request latency and timeout counters of a single SNMP agent.
+ */
+public class SnmpAgentStats {
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong responses = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong totalLatencyMs = new AtomicLong();
+    @Getter
+    private volatile long lastLatencyMs;
+    @Getter
+    private volatile long lastResponseTs;
+
+    public void onRequest() {
+        requests.incrementAndGet();
+    }
+
+    public void onResponse(long latencyMs) {
+        responses.incrementAndGet();
+        totalLatencyMs.addAndGet(latencyMs);
+        lastLatencyMs = latencyMs;
+        lastResponseTs = System.currentTimeMillis();
+    }
+
+    public void onTimeout() {
+        timeouts.incrementAndGet();
+    }
+
+    public long getRequests() {
+        return requests.get();
+    }
+
+    public long getResponses() {
+        return responses.get();
+    }
+
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    public long getAvgLatencyMs() {
+        long responses = this.responses.get();
+        return responses == 0 ? 0 : totalLatencyMs.get() / responses;
+    }
+
+    @Override
+    public String toString() {
+        return "[requests=" + getRequests() + ", responses=" + getResponses() + ", timeouts=" + getTimeouts() +
+                ", avgLatencyMs=" + getAvgLatencyMs() + ", lastLatencyMs=" + lastLatencyMs + "]";
+    }
+
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.transport.snmp.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.snmp4j.PDU;
+import org.snmp4j.ScopedPDU;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.VariableBinding;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.common.data.device.data.SnmpDeviceTransportConfiguration;
+import org.thingsboard.server.common.data.kv.DataType;
+import org.thingsboard.server.common.data.transport.snmp.SnmpMapping;
+import org.thingsboard.server.common.data.transport.snmp.SnmpProtocolVersion;
+import org.thingsboard.server.common.data.transport.snmp.config.RepeatingQueryingSnmpCommunicationConfig;
+import org.thingsboard.server.common.data.transport.snmp.config.impl.ClientAttributesQueryingSnmpCommunicationConfig;
+import org.thingsboard.server.common.data.transport.snmp.config.impl.TelemetryQueryingSnmpCommunicationConfig;
+import org.thingsboard.server.transport.snmp.session.DeviceSessionContext;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PduServiceTest {
+
+    private final PduService pduService = new PduService();
+    private final SnmpDeviceTransportConfiguration deviceTransportConfiguration = new SnmpDeviceTransportConfiguration();
+    private DeviceSessionContext sessionContext;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(pduService, "maxRequestOids", 2);
+        deviceTransportConfiguration.setProtocolVersion(SnmpProtocolVersion.V2C);
+        sessionContext = mock(DeviceSessionContext.class);
+        when(sessionContext.getDeviceTransportConfiguration()).thenReturn(deviceTransportConfiguration);
+    }
+
+    @Test
+    public void testQueryingPdusCoalesceOidsOfAllConfigs() {
+        var telemetryConfig = config(new TelemetryQueryingSnmpCommunicationConfig(),
+                new SnmpMapping("1.3.6.1.2.1.1.1.0", "temperature", DataType.LONG),
+                new SnmpMapping("1.3.6.1.2.1.1.2.0", "humidity", DataType.LONG));
+        var attributesConfig = config(new ClientAttributesQueryingSnmpCommunicationConfig(),
+                new SnmpMapping("1.3.6.1.2.1.1.2.0", "humidity", DataType.LONG),
+                new SnmpMapping("1.3.6.1.2.1.1.3.0", "serialNumber", DataType.STRING));
+
+        List<PDU> pdus = pduService.createQueryingPdus(sessionContext, List.of(telemetryConfig, attributesConfig));
+
+        assertThat(pdus).hasSize(2).allSatisfy(pdu -> {
+            assertThat(pdu.getType()).isEqualTo(PDU.GET);
+            assertThat(pdu.size()).isLessThanOrEqualTo(2);
+        });
+        assertThat(pdus.stream().flatMap(pdu -> pdu.getVariableBindings().stream()).map(VariableBinding::getOid))
+                .containsExactly(new OID("1.3.6.1.2.1.1.1.0"), new OID("1.3.6.1.2.1.1.2.0"), new OID("1.3.6.1.2.1.1.3.0"));
+    }
+
+    @Test
+    public void testQueryingPdusFitIntoSingleRequest() {
+        ReflectionTestUtils.setField(pduService, "maxRequestOids", 100);
+        var telemetryConfig = config(new TelemetryQueryingSnmpCommunicationConfig(),
+                new SnmpMapping("1.3.6.1.2.1.1.1.0", "temperature", DataType.LONG));
+        var attributesConfig = config(new ClientAttributesQueryingSnmpCommunicationConfig(),
+                new SnmpMapping("1.3.6.1.2.1.1.3.0", "serialNumber", DataType.STRING));
+
+        List<PDU> pdus = pduService.createQueryingPdus(sessionContext, List.of(telemetryConfig, attributesConfig));
+
+        assertThat(pdus).hasSize(1);
+        assertThat(pdus.get(0).size()).isEqualTo(2);
+    }
+
+    @Test
+    public void testQueryingPdusForV3() {
+        deviceTransportConfiguration.setProtocolVersion(SnmpProtocolVersion.V3);
+        deviceTransportConfiguration.setContextName("context");
+        deviceTransportConfiguration.setEngineId("engine");
+        var telemetryConfig = config(new TelemetryQueryingSnmpCommunicationConfig(),
+                new SnmpMapping("1.3.6.1.2.1.1.1.0", "temperature", DataType.LONG));
+
+        List<PDU> pdus = pduService.createQueryingPdus(sessionContext, List.of(telemetryConfig));
+
+        assertThat(pdus).singleElement().isInstanceOfSatisfying(ScopedPDU.class, pdu -> {
+            assertThat(pdu.getContextName().toString()).isEqualTo("context");
+            assertThat(pdu.getContextEngineID().toString()).isEqualTo("engine");
+        });
+    }
+
+    private static RepeatingQueryingSnmpCommunicationConfig config(RepeatingQueryingSnmpCommunicationConfig config, SnmpMapping... mappings) {
+        config.setQueryingFrequencyMs(5000L);
+        config.setMappings(List.of(mappings));
+        return config;
+    }
+
+}
@@ -0,0 +1,213 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.transport.snmp.service;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.snmp4j.PDU;
+import org.snmp4j.Snmp;
+import org.snmp4j.Target;
+import org.snmp4j.event.ResponseEvent;
+import org.snmp4j.event.ResponseListener;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.VariableBinding;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.common.data.device.data.SnmpDeviceTransportConfiguration;
+import org.thingsboard.server.common.data.device.profile.SnmpDeviceProfileTransportConfiguration;
+import org.thingsboard.server.common.data.kv.DataType;
+import org.thingsboard.server.common.data.transport.snmp.SnmpMapping;
+import org.thingsboard.server.common.data.transport.snmp.SnmpProtocolVersion;
+import org.thingsboard.server.common.data.transport.snmp.config.RepeatingQueryingSnmpCommunicationConfig;
+import org.thingsboard.server.common.data.transport.snmp.config.impl.ClientAttributesQueryingSnmpCommunicationConfig;
+import org.thingsboard.server.common.data.transport.snmp.config.impl.TelemetryQueryingSnmpCommunicationConfig;
+import org.thingsboard.server.common.stats.StatsCounter;
+import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.common.stats.StatsTimer;
+import org.thingsboard.server.common.transport.TransportService;
+import org.thingsboard.server.gen.transport.TransportProtos;
+import org.thingsboard.server.transport.snmp.session.DeviceSessionContext;
+import org.thingsboard.server.transport.snmp.session.SnmpAgentStats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SnmpTransportServiceTest {
+
+    private final TransportService transportService = mock(TransportService.class);
+    private final PduService pduService = new PduService();
+    private final Snmp snmp = mock(Snmp.class);
+    private final Timer timer = mock(Timer.class);
+    private final List<TimerTask> timerTasks = new ArrayList<>();
+    private final TransportProtos.SessionInfoProto sessionInfo = TransportProtos.SessionInfoProto.getDefaultInstance();
+    private SnmpTransportService snmpTransportService;
+    private DeviceSessionContext sessionContext;
+
+    @BeforeEach
+    public void setUp() {
+        ReflectionTestUtils.setField(pduService, "maxRequestOids", 1);
+        snmpTransportService = new SnmpTransportService(transportService, pduService, mock(StatsFactory.class));
+        ReflectionTestUtils.setField(snmpTransportService, "snmp", snmp);
+        ReflectionTestUtils.setField(snmpTransportService, "pollingTimer", timer);
+        ReflectionTestUtils.setField(snmpTransportService, "queryingExecutor", MoreExecutors.newDirectExecutorService());
+        ReflectionTestUtils.setField(snmpTransportService, "executor", MoreExecutors.newDirectExecutorService());
+        ReflectionTestUtils.setField(snmpTransportService, "responseLatencyTimer", mock(StatsTimer.class));
+        ReflectionTestUtils.setField(snmpTransportService, "timeoutsCounter", mock(StatsCounter.class));
+        ReflectionTestUtils.invokeMethod(snmpTransportService, "configureResponseDataMappers");
+        ReflectionTestUtils.invokeMethod(snmpTransportService, "configureResponseProcessors");
+
+        when(timer.newTimeout(any(), anyLong(), any())).thenAnswer(invocation -> {
+            timerTasks.add(invocation.getArgument(0));
+            return mock(Timeout.class);
+        });
+
+        SnmpDeviceTransportConfiguration deviceTransportConfiguration = new SnmpDeviceTransportConfiguration();
+        deviceTransportConfiguration.setProtocolVersion(SnmpProtocolVersion.V2C);
+        SnmpDeviceProfileTransportConfiguration profileTransportConfiguration = new SnmpDeviceProfileTransportConfiguration();
+        profileTransportConfiguration.setCommunicationConfigs(List.of(
+                config(new TelemetryQueryingSnmpCommunicationConfig(), 5000L,
+                        new SnmpMapping("1.3.6.1.2.1.1.1.0", "temperature", DataType.LONG),
+                        new SnmpMapping("1.3.6.1.2.1.1.2.0", "humidity", DataType.LONG)),
+                config(new ClientAttributesQueryingSnmpCommunicationConfig(), 5000L,
+                        new SnmpMapping("1.3.6.1.2.1.1.2.0", "humidity", DataType.LONG),
+                        new SnmpMapping("1.3.6.1.2.1.1.3.0", "serialNumber", DataType.STRING))
+        ));
+
+        sessionContext = mock(DeviceSessionContext.class);
+        when(sessionContext.isActive()).thenReturn(true);
+        when(sessionContext.getProfileTransportConfiguration()).thenReturn(profileTransportConfiguration);
+        when(sessionContext.getDeviceTransportConfiguration()).thenReturn(deviceTransportConfiguration);
+        when(sessionContext.getTarget()).thenReturn(mock(Target.class));
+        when(sessionContext.getSessionInfo()).thenReturn(sessionInfo);
+        when(sessionContext.getQueryingTasks()).thenReturn(new ArrayList<>());
+        when(sessionContext.getAgentStats()).thenReturn(new SnmpAgentStats());
+    }
+
+    @Test
+    public void testQueryingConfigsWithSameFrequencyArePolledTogether() throws Exception {
+        snmpTransportService.createQueryingTasks(sessionContext);
+        assertThat(timerTasks).hasSize(1);
+        assertThat(sessionContext.getQueryingTasks()).hasSize(1);
+
+        timerTasks.get(0).run(mock(Timeout.class));
+
+        ArgumentCaptor<PDU> requests = ArgumentCaptor.forClass(PDU.class);
+        ArgumentCaptor<Object> userObjects = ArgumentCaptor.forClass(Object.class);
+        verify(snmp, times(3)).send(requests.capture(), any(Target.class), userObjects.capture(), any(ResponseListener.class));
+
+        for (int i = 0; i < 3; i++) {
+            PDU request = requests.getAllValues().get(i);
+            PDU response = new PDU();
+            VariableBinding requested = request.get(0);
+            response.add(new VariableBinding(requested.getOid(), i == 2 ? new OctetString("SN-1") : new Integer32(10 + i)));
+            snmpTransportService.processResponseEvent(sessionContext, responseEvent(request, response, userObjects.getAllValues().get(i)));
+            if (i < 2) {
+                // the response is dispatched once all the parts are received
+                verify(transportService, never()).process(any(TransportProtos.SessionInfoProto.class), any(TransportProtos.PostTelemetryMsg.class), any());
+            }
+        }
+
+        ArgumentCaptor<TransportProtos.PostTelemetryMsg> telemetry = ArgumentCaptor.forClass(TransportProtos.PostTelemetryMsg.class);
+        verify(transportService).process(eq(sessionInfo), telemetry.capture(), isNull());
+        assertThat(telemetry.getValue().getTsKvList(0).getKvList()).extracting(TransportProtos.KeyValueProto::getKey)
+                .containsExactlyInAnyOrder("temperature", "humidity");
+
+        ArgumentCaptor<TransportProtos.PostAttributeMsg> attributes = ArgumentCaptor.forClass(TransportProtos.PostAttributeMsg.class);
+        verify(transportService).process(eq(sessionInfo), attributes.capture(), isNull());
+        assertThat(attributes.getValue().getKvList()).extracting(TransportProtos.KeyValueProto::getKey)
+                .containsExactlyInAnyOrder("humidity", "serialNumber");
+        verify(transportService, times(2)).recordActivity(sessionInfo);
+    }
+
+    @Test
+    public void testQueryingConfigsWithDifferentFrequenciesArePolledSeparately() {
+        RepeatingQueryingSnmpCommunicationConfig attributesConfig = (RepeatingQueryingSnmpCommunicationConfig)
+                sessionContext.getProfileTransportConfiguration().getCommunicationConfigs().get(1);
+        attributesConfig.setQueryingFrequencyMs(10000L);
+
+        snmpTransportService.createQueryingTasks(sessionContext);
+
+        assertThat(timerTasks).hasSize(2);
+        assertThat(sessionContext.getQueryingTasks()).hasSize(2);
+    }
+
+    @Test
+    public void testAgentStatsAreReportedAsTelemetry() throws Exception {
+        ReflectionTestUtils.setField(snmpTransportService, "agentStatsReportIntervalMs", 60000L);
+        snmpTransportService.createQueryingTasks(sessionContext);
+        assertThat(timerTasks).hasSize(2);
+        assertThat(sessionContext.getQueryingTasks()).hasSize(2);
+
+        timerTasks.get(0).run(mock(Timeout.class));
+        ArgumentCaptor<PDU> requests = ArgumentCaptor.forClass(PDU.class);
+        ArgumentCaptor<Object> userObjects = ArgumentCaptor.forClass(Object.class);
+        verify(snmp, times(3)).send(requests.capture(), any(Target.class), userObjects.capture(), any(ResponseListener.class));
+        for (int i = 0; i < 3; i++) {
+            PDU request = requests.getAllValues().get(i);
+            PDU response = null;
+            if (i < 2) {
+                response = new PDU();
+                response.add(new VariableBinding(request.get(0).getOid(), new Integer32(10 + i)));
+            }
+            snmpTransportService.processResponseEvent(sessionContext, responseEvent(request, response, userObjects.getAllValues().get(i)));
+        }
+
+        SnmpAgentStats agentStats = sessionContext.getAgentStats();
+        assertThat(agentStats.getRequests()).isEqualTo(3);
+        assertThat(agentStats.getResponses()).isEqualTo(2);
+        assertThat(agentStats.getTimeouts()).isEqualTo(1);
+
+        timerTasks.get(1).run(mock(Timeout.class));
+
+        ArgumentCaptor<TransportProtos.PostTelemetryMsg> telemetry = ArgumentCaptor.forClass(TransportProtos.PostTelemetryMsg.class);
+        verify(transportService, times(2)).process(eq(sessionInfo), telemetry.capture(), isNull());
+        Map<String, Long> stats = telemetry.getAllValues().get(1).getTsKvList(0).getKvList().stream()
+                .collect(Collectors.toMap(TransportProtos.KeyValueProto::getKey, TransportProtos.KeyValueProto::getLongV));
+        assertThat(stats).containsEntry("snmpRequests", 3L)
+                .containsEntry("snmpResponses", 2L)
+                .containsEntry("snmpTimeouts", 1L)
+                .containsKeys("snmpAvgLatencyMs", "snmpLastLatencyMs");
+    }
+
+    private ResponseEvent<?> responseEvent(PDU request, PDU response, Object userObject) {
+        return new ResponseEvent<>(snmp, null, request, response, userObject);
+    }
+
+    private static RepeatingQueryingSnmpCommunicationConfig config(RepeatingQueryingSnmpCommunicationConfig config, long queryingFrequencyMs, SnmpMapping... mappings) {
+        config.setQueryingFrequencyMs(queryingFrequencyMs);
+        config.setMappings(List.of(mappings));
+        return config;
+    }
+
+}
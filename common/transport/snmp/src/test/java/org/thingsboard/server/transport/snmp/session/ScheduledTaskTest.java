@@ -0,0 +1,150 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.transport.snmp.session;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.TimerTask;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ScheduledTaskTest {
+
+    private final Timer timer = mock(Timer.class);
+    private final Timeout timeout = mock(Timeout.class);
+    private final List<TimerTask> timerTasks = new ArrayList<>();
+    private final List<Long> delays = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        when(timer.newTimeout(any(), anyLong(), any())).thenAnswer(invocation -> {
+            timerTasks.add(invocation.getArgument(0));
+            delays.add(invocation.getArgument(1));
+            return timeout;
+        });
+    }
+
+    @Test
+    public void testFirstRunIsSpreadWithinPeriod() {
+        for (int i = 0; i < 50; i++) {
+            new ScheduledTask().init(Futures::immediateVoidFuture, 1000, timer, MoreExecutors.directExecutor());
+        }
+
+        assertThat(delays).hasSize(50).allSatisfy(delay -> assertThat(delay).isBetween(0L, 999L));
+        assertThat(new HashSet<>(delays)).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    public void testNextRunIsScheduledRelativeToStart() throws Exception {
+        SettableFuture<Void> result = SettableFuture.create();
+        AtomicInteger runs = new AtomicInteger();
+        new ScheduledTask().init(() -> {
+            runs.incrementAndGet();
+            return result;
+        }, 1000, timer, MoreExecutors.directExecutor());
+
+        runLastTimerTask();
+        assertThat(runs).hasValue(1);
+        // not rescheduled until the run is completed
+        assertThat(timerTasks).hasSize(1);
+
+        Thread.sleep(300);
+        result.set(null);
+
+        assertThat(delays).hasSize(2);
+        assertThat(delays.get(1)).isBetween(0L, 700L);
+        runLastTimerTask();
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    public void testSlowRunIsRescheduledWithoutDelay() throws Exception {
+        new ScheduledTask().init(() -> {
+            Thread.sleep(150);
+            return Futures.immediateVoidFuture();
+        }, 100, timer, MoreExecutors.directExecutor());
+
+        runLastTimerTask();
+
+        assertThat(delays).hasSize(2);
+        assertThat(delays.get(1)).isZero();
+    }
+
+    @Test
+    public void testFailedRunIsRescheduled() throws Exception {
+        new ScheduledTask().init(() -> {
+            throw new IllegalStateException("test");
+        }, 1000, timer, MoreExecutors.directExecutor());
+
+        runLastTimerTask();
+        assertThat(timerTasks).hasSize(2);
+
+        new ScheduledTask().init(() -> Futures.immediateFailedFuture(new IllegalStateException("test")), 1000, timer, MoreExecutors.directExecutor());
+        runLastTimerTask();
+        assertThat(timerTasks).hasSize(4);
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        ScheduledTask scheduledTask = new ScheduledTask();
+        scheduledTask.init(() -> {
+            runs.incrementAndGet();
+            return Futures.immediateVoidFuture();
+        }, 1000, timer, MoreExecutors.directExecutor());
+
+        scheduledTask.cancel();
+        verify(timeout).cancel();
+
+        // the timeout has already expired
+        runLastTimerTask();
+        assertThat(runs).hasValue(0);
+        assertThat(timerTasks).hasSize(1);
+    }
+
+    @Test
+    public void testCancelDuringRun() throws Exception {
+        SettableFuture<Void> result = SettableFuture.create();
+        ScheduledTask scheduledTask = new ScheduledTask();
+        scheduledTask.init(() -> result, 1000, timer, MoreExecutors.directExecutor());
+
+        runLastTimerTask();
+        scheduledTask.cancel();
+        result.set(null);
+
+        assertThat(timerTasks).hasSize(1);
+    }
+
+    private void runLastTimerTask() throws Exception {
+        timerTasks.get(timerTasks.size() - 1).run(timeout);
+    }
+
+}
@@ -0,0 +1,40 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.transport;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.DeviceProfileId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.gen.transport.TransportProtos.ValidateDeviceCredentialsResponseMsg;
+
+import java.util.function.Supplier;
+
+public interface TransportCredentialsCache {
+
+    /**
+     * Returns the cached validation result for the credentials key or loads it using the loader.
+     * Concurrent loads of the same key share a single request to the core.
+     */
+    ListenableFuture<ValidateDeviceCredentialsResponseMsg> get(String key, Supplier<ListenableFuture<ValidateDeviceCredentialsResponseMsg>> loader);
+
+    void evict(DeviceId deviceId);
+
+    void evict(DeviceProfileId deviceProfileId);
+
+    void evict(TenantId tenantId);
+
+}
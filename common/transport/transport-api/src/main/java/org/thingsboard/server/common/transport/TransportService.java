@@ -21,6 +21,7 @@ import org.thingsboard.server.common.data.id.DeviceId;
 import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.plugin.ComponentLifecycleEvent;
 import org.thingsboard.server.common.data.rpc.RpcStatus;
+import org.thingsboard.server.common.data.util.TbPair;
 import org.thingsboard.server.common.msg.TbMsgMetaData;
 import org.thingsboard.server.common.transport.auth.GetOrCreateDeviceFromGatewayResponse;
 import org.thingsboard.server.common.transport.auth.ValidateDeviceCredentialsResponse;
@@ -115,6 +116,12 @@ public interface TransportService {
 
     void process(SessionInfoProto sessionInfo, PostTelemetryMsg msg, TbMsgMetaData md, TransportServiceCallback<Void> callback);
 
+    /**
+     * Pushes the telemetry of multiple devices (e.g. devices behind a gateway) with a single aggregated callback.
+     * The rate limits are checked for all the messages first: the rejected ones are dropped, the rest are pushed to the rule engine queue.
+     */
+    void process(List<TbPair<SessionInfoProto, PostTelemetryMsg>> msgs, TransportServiceBatchCallback callback);
+
     void process(SessionInfoProto sessionInfo, PostAttributeMsg msg, TransportServiceCallback<Void> callback);
 
     void process(SessionInfoProto sessionInfo, PostAttributeMsg msg, TbMsgMetaData md, TransportServiceCallback<Void> callback);
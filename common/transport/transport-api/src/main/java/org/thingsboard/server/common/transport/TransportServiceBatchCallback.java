@@ -0,0 +1,31 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.transport;
+
+import org.thingsboard.server.gen.transport.TransportProtos.SessionInfoProto;
+
+/**
+ * Callback of the messages pushed as a batch. It is completed once, after all the messages are either pushed or failed:
+ * with success if all of them are pushed, otherwise with the first error.
+ */
+public interface TransportServiceBatchCallback extends TransportServiceCallback<Void> {
+
+    /**
+     * Called once per message that is rejected by the rate limits or failed to be pushed.
+     */
+    void onMsgError(SessionInfoProto sessionInfo, Throwable e);
+
+}
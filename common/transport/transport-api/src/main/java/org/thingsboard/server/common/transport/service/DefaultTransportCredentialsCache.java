@@ -0,0 +1,244 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.transport.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.DeviceProfileId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.stats.StatsCounter;
+import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.common.transport.TransportCredentialsCache;
+import org.thingsboard.server.gen.transport.TransportProtos.DeviceInfoProto;
+import org.thingsboard.server.gen.transport.TransportProtos.ValidateDeviceCredentialsResponseMsg;
+import org.thingsboard.server.queue.util.TbTransportComponent;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Transport-local cache of the device credentials validation results.
+ * <p>
+ * Entries are evicted by the device, device profile, tenant and credentials notifications received from the core,
+ * so a reconnect storm is served locally instead of the transport API round-trip for every connection.
+ * Results of requests that were in flight while an eviction happened are not cached.
+ */
+@Slf4j
+@Component
+@TbTransportComponent
+@RequiredArgsConstructor
+public class DefaultTransportCredentialsCache implements TransportCredentialsCache {
+
+    private static final String STATS_KEY = "transportCredentialsCache";
+
+    private final StatsFactory statsFactory;
+
+    @Value("${transport.credentials_cache.enabled:false}")
+    private boolean enabled;
+    @Value("${transport.credentials_cache.max_size:100000}")
+    private long maxSize;
+    @Value("${transport.credentials_cache.ttl_sec:3600}")
+    private long ttlSec;
+    @Value("${transport.credentials_cache.negative_ttl_sec:0}")
+    private long negativeTtlSec;
+
+    private final ConcurrentMap<String, ListenableFuture<ValidateDeviceCredentialsResponseMsg>> pendingRequests = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, Set<String>> deviceKeys = new ConcurrentHashMap<>();
+    private final AtomicLong evictionSeq = new AtomicLong();
+
+    private Cache<String, ValidateDeviceCredentialsResponseMsg> cache;
+    private Cache<String, ValidateDeviceCredentialsResponseMsg> negativeCache;
+
+    private StatsCounter hits;
+    private StatsCounter misses;
+    private StatsCounter coalesced;
+    private StatsCounter evictions;
+
+    @PostConstruct
+    public void init() {
+        hits = statsFactory.createStatsCounter(STATS_KEY, "hits");
+        misses = statsFactory.createStatsCounter(STATS_KEY, "misses");
+        coalesced = statsFactory.createStatsCounter(STATS_KEY, "coalesced");
+        evictions = statsFactory.createStatsCounter(STATS_KEY, "evictions");
+        if (!enabled) {
+            return;
+        }
+        statsFactory.createGauge(STATS_KEY, "hitRatio", this, DefaultTransportCredentialsCache::getHitRatio);
+        statsFactory.createGauge(STATS_KEY, "size", this, c -> c.cache.estimatedSize());
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSec, TimeUnit.SECONDS)
+                .executor(MoreExecutors.directExecutor())
+                .<String, ValidateDeviceCredentialsResponseMsg>removalListener((key, value, cause) -> {
+                    if (key != null && value != null && cause != RemovalCause.REPLACED) {
+                        removeDeviceKey(value.getDeviceInfo(), key);
+                    }
+                })
+                .build();
+        if (negativeTtlSec > 0) {
+            negativeCache = Caffeine.newBuilder()
+                    .maximumSize(maxSize)
+                    .expireAfterWrite(negativeTtlSec, TimeUnit.SECONDS)
+                    .build();
+        }
+    }
+
+    @Override
+    public ListenableFuture<ValidateDeviceCredentialsResponseMsg> get(String key, Supplier<ListenableFuture<ValidateDeviceCredentialsResponseMsg>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        ValidateDeviceCredentialsResponseMsg cached = cache.getIfPresent(key);
+        if (cached == null && negativeCache != null) {
+            cached = negativeCache.getIfPresent(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return Futures.immediateFuture(cached);
+        }
+        SettableFuture<ValidateDeviceCredentialsResponseMsg> result = SettableFuture.create();
+        ListenableFuture<ValidateDeviceCredentialsResponseMsg> pending = pendingRequests.putIfAbsent(key, result);
+        if (pending != null) {
+            coalesced.increment();
+            return pending;
+        }
+        misses.increment();
+        long seq = evictionSeq.get();
+        ListenableFuture<ValidateDeviceCredentialsResponseMsg> response;
+        try {
+            response = loader.get();
+        } catch (Throwable e) {
+            pendingRequests.remove(key, result);
+            result.setException(e);
+            return result;
+        }
+        Futures.addCallback(response, new FutureCallback<>() {
+            @Override
+            public void onSuccess(ValidateDeviceCredentialsResponseMsg msg) {
+                try {
+                    put(key, msg, seq);
+                } finally {
+                    pendingRequests.remove(key, result);
+                    result.set(msg);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                pendingRequests.remove(key, result);
+                result.setException(t);
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+
+    @Override
+    public void evict(DeviceId deviceId) {
+        if (!enabled) {
+            return;
+        }
+        evictionSeq.incrementAndGet();
+        Set<String> keys = deviceKeys.remove(deviceId.getId());
+        if (keys != null) {
+            cache.invalidateAll(keys);
+            evictions.add(keys.size());
+        }
+        // the device may have received the credentials that were previously unknown
+        if (negativeCache != null) {
+            negativeCache.invalidateAll();
+        }
+    }
+
+    @Override
+    public void evict(DeviceProfileId deviceProfileId) {
+        UUID id = deviceProfileId.getId();
+        evictIf(di -> di.getDeviceProfileIdMSB() == id.getMostSignificantBits() && di.getDeviceProfileIdLSB() == id.getLeastSignificantBits());
+    }
+
+    @Override
+    public void evict(TenantId tenantId) {
+        UUID id = tenantId.getId();
+        evictIf(di -> di.getTenantIdMSB() == id.getMostSignificantBits() && di.getTenantIdLSB() == id.getLeastSignificantBits());
+    }
+
+    private void evictIf(Predicate<DeviceInfoProto> predicate) {
+        if (!enabled) {
+            return;
+        }
+        evictionSeq.incrementAndGet();
+        cache.asMap().values().removeIf(msg -> {
+            boolean evict = predicate.test(msg.getDeviceInfo());
+            if (evict) {
+                evictions.increment();
+            }
+            return evict;
+        });
+    }
+
+    private void put(String key, ValidateDeviceCredentialsResponseMsg msg, long seq) {
+        if (seq != evictionSeq.get()) {
+            return;
+        }
+        if (msg.hasDeviceInfo()) {
+            DeviceInfoProto di = msg.getDeviceInfo();
+            deviceKeys.computeIfAbsent(new UUID(di.getDeviceIdMSB(), di.getDeviceIdLSB()), id -> ConcurrentHashMap.newKeySet()).add(key);
+            cache.put(key, msg);
+        } else if (negativeCache != null) {
+            negativeCache.put(key, msg);
+        } else {
+            return;
+        }
+        if (seq != evictionSeq.get()) {
+            // eviction happened concurrently with the put
+            cache.invalidate(key);
+            if (negativeCache != null) {
+                negativeCache.invalidate(key);
+            }
+        }
+    }
+
+    private void removeDeviceKey(DeviceInfoProto di, String key) {
+        deviceKeys.computeIfPresent(new UUID(di.getDeviceIdMSB(), di.getDeviceIdLSB()), (id, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private double getHitRatio() {
+        long hit = hits.get() + coalesced.get();
+        long total = hit + misses.get();
+        return total == 0 ? 0.0 : (double) hit / total;
+    }
+
+}
@@ -16,6 +16,8 @@
 package org.thingsboard.server.common.transport.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
@@ -57,6 +59,7 @@ import org.thingsboard.server.common.data.msg.TbMsgType;
 import org.thingsboard.server.common.data.notification.rule.trigger.RateLimitsTrigger;
 import org.thingsboard.server.common.data.plugin.ComponentLifecycleEvent;
 import org.thingsboard.server.common.data.rpc.RpcStatus;
+import org.thingsboard.server.common.data.util.TbPair;
 import org.thingsboard.server.common.msg.TbMsg;
 import org.thingsboard.server.common.msg.TbMsgMetaData;
 import org.thingsboard.server.common.msg.notification.NotificationRuleProcessor;
@@ -71,9 +74,11 @@ import org.thingsboard.server.common.transport.DeviceDeletedEvent;
 import org.thingsboard.server.common.transport.DeviceProfileUpdatedEvent;
 import org.thingsboard.server.common.transport.DeviceUpdatedEvent;
 import org.thingsboard.server.common.transport.SessionMsgListener;
+import org.thingsboard.server.common.transport.TransportCredentialsCache;
 import org.thingsboard.server.common.transport.TransportDeviceProfileCache;
 import org.thingsboard.server.common.transport.TransportResourceCache;
 import org.thingsboard.server.common.transport.TransportService;
+import org.thingsboard.server.common.transport.TransportServiceBatchCallback;
 import org.thingsboard.server.common.transport.TransportServiceCallback;
 import org.thingsboard.server.common.transport.TransportTenantProfileCache;
 import org.thingsboard.server.common.transport.auth.GetOrCreateDeviceFromGatewayResponse;
@@ -111,6 +116,8 @@ import org.thingsboard.server.queue.scheduler.SchedulerComponent;
 import org.thingsboard.server.queue.util.AfterStartUp;
 import org.thingsboard.server.queue.util.TbTransportComponent;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -124,7 +131,9 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 /**
@@ -172,6 +181,7 @@ public class DefaultTransportService extends TransportActivityManager implements
     private final TbServiceInfoProvider serviceInfoProvider;
     private final StatsFactory statsFactory;
     private final TransportDeviceProfileCache deviceProfileCache;
+    private final TransportCredentialsCache credentialsCache;
     private final TransportTenantProfileCache tenantProfileCache;
 
     private final TransportRateLimitService rateLimitService;
@@ -205,6 +215,7 @@ public class DefaultTransportService extends TransportActivityManager implements
         this.scheduler.scheduleAtFixedRate(this::invalidateRateLimits, new Random().nextInt((int) sessionReportTimeout), sessionReportTimeout, TimeUnit.MILLISECONDS);
         transportApiRequestTemplate = queueProvider.createTransportApiRequestTemplate();
         transportApiRequestTemplate.setMessagesStats(transportApiStats);
+        transportApiRequestTemplate.setLatencyStats(statsFactory, "transportApi");
         ruleEngineMsgProducer = producerProvider.getRuleEngineMsgProducer();
         tbCoreMsgProducer = producerProvider.getTbCoreMsgProducer();
         transportApiRequestTemplate.init();
@@ -355,7 +366,7 @@ public class DefaultTransportService extends TransportActivityManager implements
         log.trace("Processing msg: {}", msg);
         TbProtoQueueMsg<TransportApiRequestMsg> protoMsg = new TbProtoQueueMsg<>(UUID.randomUUID(),
                 TransportApiRequestMsg.newBuilder().setValidateTokenRequestMsg(msg).build());
-        doProcess(transportType, protoMsg, callback);
+        doProcess(transportType, toCredentialsCacheKey("token", msg.getToken()), protoMsg, callback);
     }
 
     @Override
@@ -364,7 +375,7 @@ public class DefaultTransportService extends TransportActivityManager implements
         log.trace("Processing msg: {}", msg);
         TbProtoQueueMsg<TransportApiRequestMsg> protoMsg = new TbProtoQueueMsg<>(UUID.randomUUID(),
                 TransportApiRequestMsg.newBuilder().setValidateBasicMqttCredRequestMsg(msg).build());
-        doProcess(transportType, protoMsg, callback);
+        doProcess(transportType, toCredentialsCacheKey("basic", msg.getClientId(), msg.getUserName(), msg.getPassword()), protoMsg, callback);
     }
 
     @Override
@@ -392,20 +403,21 @@ public class DefaultTransportService extends TransportActivityManager implements
     public void process(DeviceTransportType transportType, TransportProtos.ValidateDeviceX509CertRequestMsg msg, TransportServiceCallback<ValidateDeviceCredentialsResponse> callback) {
         log.trace("Processing msg: {}", msg);
         TbProtoQueueMsg<TransportApiRequestMsg> protoMsg = new TbProtoQueueMsg<>(UUID.randomUUID(), TransportApiRequestMsg.newBuilder().setValidateX509CertRequestMsg(msg).build());
-        doProcess(transportType, protoMsg, callback);
+        doProcess(transportType, toCredentialsCacheKey("x509", msg.getHash()), protoMsg, callback);
     }
 
     @Override
     public void process(DeviceTransportType transportType, TransportProtos.ValidateOrCreateDeviceX509CertRequestMsg msg, TransportServiceCallback<ValidateDeviceCredentialsResponse> callback) {
         log.trace("Processing msg: {}", msg);
         TbProtoQueueMsg<TransportApiRequestMsg> protoMsg = new TbProtoQueueMsg<>(UUID.randomUUID(), TransportApiRequestMsg.newBuilder().setValidateOrCreateX509CertRequestMsg(msg).build());
-        doProcess(transportType, protoMsg, callback);
+        doProcess(transportType, null, protoMsg, callback);
     }
 
-    private void doProcess(DeviceTransportType transportType, TbProtoQueueMsg<TransportApiRequestMsg> protoMsg,
+    private void doProcess(DeviceTransportType transportType, String cacheKey, TbProtoQueueMsg<TransportApiRequestMsg> protoMsg,
                            TransportServiceCallback<ValidateDeviceCredentialsResponse> callback) {
-        ListenableFuture<ValidateDeviceCredentialsResponse> response = Futures.transform(transportApiRequestTemplate.send(protoMsg), tmp -> {
-            TransportProtos.ValidateDeviceCredentialsResponseMsg msg = tmp.getValue().getValidateCredResponseMsg();
+        ListenableFuture<TransportProtos.ValidateDeviceCredentialsResponseMsg> responseMsg = cacheKey != null ?
+                credentialsCache.get(cacheKey, () -> sendValidateCredentials(protoMsg)) : sendValidateCredentials(protoMsg);
+        ListenableFuture<ValidateDeviceCredentialsResponse> response = Futures.transform(responseMsg, msg -> {
             ValidateDeviceCredentialsResponse.ValidateDeviceCredentialsResponseBuilder result = ValidateDeviceCredentialsResponse.builder();
             if (msg.hasDeviceInfo()) {
                 result.credentials(msg.getCredentialsBody());
@@ -426,6 +438,19 @@ public class DefaultTransportService extends TransportActivityManager implements
         AsyncCallbackTemplate.withCallback(response, callback::onSuccess, callback::onError, transportCallbackExecutor);
     }
 
+    private ListenableFuture<TransportProtos.ValidateDeviceCredentialsResponseMsg> sendValidateCredentials(TbProtoQueueMsg<TransportApiRequestMsg> protoMsg) {
+        return Futures.transform(transportApiRequestTemplate.send(protoMsg), tmp -> tmp.getValue().getValidateCredResponseMsg(), MoreExecutors.directExecutor());
+    }
+
+    private static String toCredentialsCacheKey(String type, String... values) {
+        // length-prefixed to keep the keys of different credential parts unambiguous, hashed to not keep the secrets in memory
+        Hasher hasher = Hashing.sha256().newHasher();
+        for (String value : values) {
+            hasher.putInt(value.length()).putString(value, StandardCharsets.UTF_8);
+        }
+        return type + ":" + hasher.hash();
+    }
+
     @Override
     public void process(TenantId tenantId, TransportProtos.GetOrCreateDeviceFromGatewayRequestMsg requestMsg, TransportServiceCallback<GetOrCreateDeviceFromGatewayResponse> callback) {
         log.trace("Processing msg: {}", requestMsg);
@@ -540,27 +565,69 @@ public class DefaultTransportService extends TransportActivityManager implements
 
     @Override
     public void process(TransportProtos.SessionInfoProto sessionInfo, TransportProtos.PostTelemetryMsg msg, TbMsgMetaData md, TransportServiceCallback<Void> callback) {
-        int dataPoints = 0;
-        for (TransportProtos.TsKvListProto tsKv : msg.getTsKvListList()) {
-            dataPoints += tsKv.getKvCount();
-        }
+        int dataPoints = getDataPoints(msg);
         if (checkLimits(sessionInfo, msg, callback, dataPoints)) {
             recordActivityInternal(sessionInfo);
             TenantId tenantId = getTenantId(sessionInfo);
-            DeviceId deviceId = new DeviceId(new UUID(sessionInfo.getDeviceIdMSB(), sessionInfo.getDeviceIdLSB()));
             CustomerId customerId = getCustomerId(sessionInfo);
             MsgPackCallback packCallback = new MsgPackCallback(msg.getTsKvListCount(), new ApiStatsProxyCallback<>(tenantId, customerId, dataPoints, callback));
-            for (TransportProtos.TsKvListProto tsKv : msg.getTsKvListList()) {
-                TbMsgMetaData metaData = md != null ? md.copy() : new TbMsgMetaData();
-                metaData.putValue("deviceName", sessionInfo.getDeviceName());
-                metaData.putValue("deviceType", sessionInfo.getDeviceType());
-                metaData.putValue("ts", tsKv.getTs() + "");
-                JsonObject json = JsonUtils.getJsonObject(tsKv.getKvList());
-                sendToRuleEngine(tenantId, deviceId, customerId, sessionInfo, json, metaData, TbMsgType.POST_TELEMETRY_REQUEST, packCallback);
+            sendTelemetryToRuleEngine(sessionInfo, msg, md, packCallback);
+        }
+    }
+
+    @Override
+    public void process(List<TbPair<TransportProtos.SessionInfoProto, TransportProtos.PostTelemetryMsg>> msgs, TransportServiceBatchCallback callback) {
+        BatchMsgPackCallback batchCallback = new BatchMsgPackCallback(msgs.size(), callback);
+        List<TbPair<TransportProtos.SessionInfoProto, TransportProtos.PostTelemetryMsg>> allowedMsgs = new ArrayList<>(msgs.size());
+        for (TbPair<TransportProtos.SessionInfoProto, TransportProtos.PostTelemetryMsg> pair : msgs) {
+            TransportProtos.SessionInfoProto sessionInfo = pair.getFirst();
+            if (checkLimits(sessionInfo, pair.getSecond(), new TransportServiceCallback<Void>() {
+                @Override
+                public void onSuccess(Void msg) {}
+
+                @Override
+                public void onError(Throwable e) {
+                    batchCallback.onMsgFailure(sessionInfo, e);
+                }
+            }, getDataPoints(pair.getSecond()))) {
+                allowedMsgs.add(pair);
+            }
+        }
+        for (TbPair<TransportProtos.SessionInfoProto, TransportProtos.PostTelemetryMsg> pair : allowedMsgs) {
+            TransportProtos.SessionInfoProto sessionInfo = pair.getFirst();
+            TransportProtos.PostTelemetryMsg msg = pair.getSecond();
+            recordActivityInternal(sessionInfo);
+            TbQueueCallback msgCallback = batchCallback.newMsgCallback(sessionInfo, msg.getTsKvListCount(), getDataPoints(msg));
+            if (msg.getTsKvListCount() == 0) {
+                msgCallback.onSuccess(null);
+            } else {
+                sendTelemetryToRuleEngine(sessionInfo, msg, null, msgCallback);
             }
         }
     }
 
+    private void sendTelemetryToRuleEngine(TransportProtos.SessionInfoProto sessionInfo, TransportProtos.PostTelemetryMsg msg, TbMsgMetaData md, TbQueueCallback callback) {
+        TenantId tenantId = getTenantId(sessionInfo);
+        DeviceId deviceId = new DeviceId(new UUID(sessionInfo.getDeviceIdMSB(), sessionInfo.getDeviceIdLSB()));
+        CustomerId customerId = getCustomerId(sessionInfo);
+        for (TransportProtos.TsKvListProto tsKv : msg.getTsKvListList()) {
+            TbMsgMetaData metaData = md != null ? md.copy() : new TbMsgMetaData();
+            metaData.putValue("deviceName", sessionInfo.getDeviceName());
+            metaData.putValue("deviceType", sessionInfo.getDeviceType());
+            metaData.putValue("ts", tsKv.getTs() + "");
+            JsonObject json = JsonUtils.getJsonObject(tsKv.getKvList());
+            sendToRuleEngine(tenantId, deviceId, customerId, sessionInfo, json, metaData, TbMsgType.POST_TELEMETRY_REQUEST, callback);
+        }
+    }
+
+    private static int getDataPoints(TransportProtos.PostTelemetryMsg msg) {
+        int dataPoints = 0;
+        for (TransportProtos.TsKvListProto tsKv : msg.getTsKvListList()) {
+            dataPoints += tsKv.getKvCount();
+        }
+        return dataPoints;
+    }
+
     @Override
     public void process(TransportProtos.SessionInfoProto sessionInfo, TransportProtos.PostAttributeMsg msg, TransportServiceCallback<Void> callback) {
         process(sessionInfo, msg, null, callback);
@@ -924,17 +991,24 @@ public class DefaultTransportService extends TransportActivityManager implements
                 EntityType entityType = EntityType.valueOf(msg.getEntityType());
                 UUID entityUuid = new UUID(msg.getEntityIdMSB(), msg.getEntityIdLSB());
                 if (EntityType.DEVICE_PROFILE.equals(entityType)) {
-                    deviceProfileCache.evict(new DeviceProfileId(new UUID(msg.getEntityIdMSB(), msg.getEntityIdLSB())));
+                    DeviceProfileId deviceProfileId = new DeviceProfileId(entityUuid);
+                    deviceProfileCache.evict(deviceProfileId);
+                    credentialsCache.evict(deviceProfileId);
                 } else if (EntityType.TENANT_PROFILE.equals(entityType)) {
                     tenantProfileCache.remove(new TenantProfileId(entityUuid));
                 } else if (EntityType.TENANT.equals(entityType)) {
                     TenantId tenantId = TenantId.fromUUID(entityUuid);
                     rateLimitService.remove(tenantId);
                     partitionService.removeTenant(tenantId);
+                    credentialsCache.evict(tenantId);
                 } else if (EntityType.DEVICE.equals(entityType)) {
                     rateLimitService.remove(new DeviceId(entityUuid));
+                    credentialsCache.evict(new DeviceId(entityUuid));
                     onDeviceDeleted(new DeviceId(entityUuid));
                 }
+            } else if (toSessionMsg.hasDeviceCredentialsChangeMsg()) {
+                TransportProtos.DeviceCredentialsChangeMsg msg = toSessionMsg.getDeviceCredentialsChangeMsg();
+                credentialsCache.evict(new DeviceId(new UUID(msg.getDeviceIdMSB(), msg.getDeviceIdLSB())));
             } else if (toSessionMsg.hasResourceUpdateMsg()) {
                 TransportProtos.ResourceUpdateMsg msg = toSessionMsg.getResourceUpdateMsg();
                 TenantId tenantId = TenantId.fromUUID(new UUID(msg.getTenantIdMSB(), msg.getTenantIdLSB()));
@@ -993,6 +1067,7 @@ public class DefaultTransportService extends TransportActivityManager implements
             case DEVICEPROFILE:
                 DeviceProfile deviceProfile = deviceProfileCache.put(msg.getDeviceProfile());
                 log.debug("On device profile update: {}", deviceProfile);
+                credentialsCache.evict(deviceProfile.getId());
                 onProfileUpdate(deviceProfile);
                 break;
             case TENANTPROFILE:
@@ -1012,7 +1087,9 @@ public class DefaultTransportService extends TransportActivityManager implements
                 //TODO: if transport is disabled, we should close all sessions and not to check credentials.
                 break;
             case DEVICE:
-                onDeviceUpdate(ProtoUtils.fromProto(msg.getDevice()));
+                Device device = ProtoUtils.fromProto(msg.getDevice());
+                credentialsCache.evict(device.getId());
+                onDeviceUpdate(device);
                 break;
             default:
                 log.warn("UNKNOWN entity update type: [{}]", msg.getEntityUpdateCase());
@@ -1246,6 +1323,65 @@ public class DefaultTransportService extends TransportActivityManager implements
         }
     }
 
+    /*
+     * Completes the batch callback once all the messages are either pushed or failed.
+     * Each message is settled once, even if several of its records fail, and the API usage is reported for the pushed ones only.
+     * */
+    private class BatchMsgPackCallback {
+        private final AtomicInteger remainingMsgs;
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private final TransportServiceBatchCallback callback;
+
+        public BatchMsgPackCallback(int msgCount, TransportServiceBatchCallback callback) {
+            this.remainingMsgs = new AtomicInteger(msgCount);
+            this.callback = callback;
+            if (msgCount == 0) {
+                DefaultTransportService.this.transportCallbackExecutor.submit(() -> callback.onSuccess(null));
+            }
+        }
+
+        TbQueueCallback newMsgCallback(TransportProtos.SessionInfoProto sessionInfo, int recordCount, int dataPoints) {
+            AtomicInteger remainingRecords = new AtomicInteger(recordCount);
+            AtomicBoolean settled = new AtomicBoolean(false);
+            return new TbQueueCallback() {
+                @Override
+                public void onSuccess(TbQueueMsgMetadata metadata) {
+                    if (remainingRecords.decrementAndGet() <= 0 && settled.compareAndSet(false, true)) {
+                        TenantId tenantId = getTenantId(sessionInfo);
+                        CustomerId customerId = getCustomerId(sessionInfo);
+                        apiUsageClient.report(tenantId, customerId, ApiUsageRecordKey.TRANSPORT_MSG_COUNT, 1);
+                        apiUsageClient.report(tenantId, customerId, ApiUsageRecordKey.TRANSPORT_DP_COUNT, dataPoints);
+                        onMsgDone();
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    if (settled.compareAndSet(false, true)) {
+                        onMsgFailure(sessionInfo, t);
+                    }
+                }
+            };
+        }
+
+        void onMsgFailure(TransportProtos.SessionInfoProto sessionInfo, Throwable t) {
+            error.compareAndSet(null, t);
+            DefaultTransportService.this.transportCallbackExecutor.submit(() -> callback.onMsgError(sessionInfo, t));
+            onMsgDone();
+        }
+
+        private void onMsgDone() {
+            if (remainingMsgs.decrementAndGet() == 0) {
+                Throwable t = error.get();
+                if (t == null) {
+                    DefaultTransportService.this.transportCallbackExecutor.submit(() -> callback.onSuccess(null));
+                } else {
+                    DefaultTransportService.this.transportCallbackExecutor.submit(() -> callback.onError(t));
+                }
+            }
+        }
+    }
+
     @Override
     public ExecutorService getCallbackExecutor() {
         return transportCallbackExecutor;
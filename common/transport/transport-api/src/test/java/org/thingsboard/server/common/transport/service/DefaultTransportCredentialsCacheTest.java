@@ -0,0 +1,132 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.transport.service;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.DeviceProfileId;
+import org.thingsboard.server.common.stats.StatsCounter;
+import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.gen.transport.TransportProtos.DeviceInfoProto;
+import org.thingsboard.server.gen.transport.TransportProtos.ValidateDeviceCredentialsResponseMsg;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DefaultTransportCredentialsCacheTest {
+
+    private static final String KEY = "token:test";
+
+    private final UUID deviceId = UUID.randomUUID();
+    private final UUID deviceProfileId = UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private DefaultTransportCredentialsCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        StatsFactory statsFactory = mock(StatsFactory.class);
+        when(statsFactory.createStatsCounter(anyString(), anyString())).thenAnswer(inv -> mock(StatsCounter.class));
+        cache = new DefaultTransportCredentialsCache(statsFactory);
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttlSec", 60L);
+        cache.init();
+    }
+
+    @Test
+    public void testConcurrentLookupsAreCoalescedAndCached() throws Exception {
+        SettableFuture<ValidateDeviceCredentialsResponseMsg> response = SettableFuture.create();
+        ListenableFuture<ValidateDeviceCredentialsResponseMsg> first = cache.get(KEY, () -> load(response));
+        ListenableFuture<ValidateDeviceCredentialsResponseMsg> second = cache.get(KEY, () -> load(SettableFuture.create()));
+        assertThat(loads.get()).isEqualTo(1);
+
+        response.set(validResponse());
+        assertThat(first.get()).isEqualTo(validResponse());
+        assertThat(second.get()).isEqualTo(validResponse());
+
+        assertThat(cache.get(KEY, () -> load(Futures.immediateFuture(validResponse()))).get()).isEqualTo(validResponse());
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testDeviceEvictionReloadsCredentials() throws Exception {
+        cache.get(KEY, () -> load(Futures.immediateFuture(validResponse()))).get();
+        cache.evict(new DeviceId(deviceId));
+        cache.get(KEY, () -> load(Futures.immediateFuture(validResponse()))).get();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testDeviceProfileEvictionReloadsCredentials() throws Exception {
+        cache.get(KEY, () -> load(Futures.immediateFuture(validResponse()))).get();
+        cache.evict(new DeviceProfileId(UUID.randomUUID()));
+        cache.get(KEY, () -> load(Futures.immediateFuture(validResponse()))).get();
+        assertThat(loads.get()).isEqualTo(1);
+
+        cache.evict(new DeviceProfileId(deviceProfileId));
+        cache.get(KEY, () -> load(Futures.immediateFuture(validResponse()))).get();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testResultIsNotCachedIfEvictedWhileInFlight() throws Exception {
+        SettableFuture<ValidateDeviceCredentialsResponseMsg> response = SettableFuture.create();
+        ListenableFuture<ValidateDeviceCredentialsResponseMsg> result = cache.get(KEY, () -> load(response));
+        cache.evict(new DeviceId(deviceId));
+        response.set(validResponse());
+        assertThat(result.get()).isEqualTo(validResponse());
+
+        cache.get(KEY, () -> load(Futures.immediateFuture(validResponse()))).get();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void testUnknownCredentialsAreNotCachedByDefault() throws Exception {
+        ValidateDeviceCredentialsResponseMsg unknown = ValidateDeviceCredentialsResponseMsg.getDefaultInstance();
+        cache.get(KEY, () -> load(Futures.immediateFuture(unknown))).get();
+        cache.get(KEY, () -> load(Futures.immediateFuture(unknown))).get();
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private ListenableFuture<ValidateDeviceCredentialsResponseMsg> load(ListenableFuture<ValidateDeviceCredentialsResponseMsg> response) {
+        loads.incrementAndGet();
+        return response;
+    }
+
+    private ValidateDeviceCredentialsResponseMsg validResponse() {
+        return ValidateDeviceCredentialsResponseMsg.newBuilder()
+                .setDeviceInfo(DeviceInfoProto.newBuilder()
+                        .setDeviceIdMSB(deviceId.getMostSignificantBits())
+                        .setDeviceIdLSB(deviceId.getLeastSignificantBits())
+                        .setDeviceProfileIdMSB(deviceProfileId.getMostSignificantBits())
+                        .setDeviceProfileIdLSB(deviceProfileId.getLeastSignificantBits())
+                        .build())
+                .setCredentialsBody("test")
+                .build();
+    }
+
+}
@@ -0,0 +1,169 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.transport.service;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.gson.Gson;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.common.data.ApiUsageRecordKey;
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.util.TbPair;
+import org.thingsboard.server.common.msg.notification.NotificationRuleProcessor;
+import org.thingsboard.server.common.msg.tools.TbRateLimitsException;
+import org.thingsboard.server.common.stats.MessagesStats;
+import org.thingsboard.server.common.stats.TbApiUsageReportClient;
+import org.thingsboard.server.common.transport.TransportDeviceProfileCache;
+import org.thingsboard.server.common.transport.TransportServiceBatchCallback;
+import org.thingsboard.server.common.transport.limits.TransportRateLimitService;
+import org.thingsboard.server.gen.transport.TransportProtos;
+import org.thingsboard.server.queue.TbQueueCallback;
+import org.thingsboard.server.queue.common.TbRuleEngineProducerService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DefaultTransportServiceTest {
+
+    private final TransportRateLimitService rateLimitService = mock(TransportRateLimitService.class);
+    private final TbRuleEngineProducerService ruleEngineProducerService = mock(TbRuleEngineProducerService.class);
+    private final TbApiUsageReportClient apiUsageClient = mock(TbApiUsageReportClient.class);
+    private final TransportServiceBatchCallback callback = mock(TransportServiceBatchCallback.class);
+    private final List<TbQueueCallback> queueCallbacks = new ArrayList<>();
+    private DefaultTransportService transportService;
+
+    @BeforeEach
+    public void setUp() {
+        transportService = mock(DefaultTransportService.class);
+        ReflectionTestUtils.setField(transportService, "rateLimitService", rateLimitService);
+        ReflectionTestUtils.setField(transportService, "notificationRuleProcessor", mock(NotificationRuleProcessor.class));
+        ReflectionTestUtils.setField(transportService, "ruleEngineProducerService", ruleEngineProducerService);
+        ReflectionTestUtils.setField(transportService, "ruleEngineProducerStats", mock(MessagesStats.class));
+        ReflectionTestUtils.setField(transportService, "deviceProfileCache", mock(TransportDeviceProfileCache.class));
+        ReflectionTestUtils.setField(transportService, "apiUsageClient", apiUsageClient);
+        ReflectionTestUtils.setField(transportService, "gson", new Gson());
+        ReflectionTestUtils.setField(transportService, "transportCallbackExecutor", MoreExecutors.newDirectExecutorService());
+        doCallRealMethod().when(transportService).process(any(List.class), any(TransportServiceBatchCallback.class));
+        willAnswer(invocation -> queueCallbacks.add(invocation.getArgument(3)))
+                .given(ruleEngineProducerService).sendToRuleEngine(any(), any(), any(), any());
+    }
+
+    @Test
+    public void givenAllMsgsPushed_whenProcessBatch_thenSuccessIsReportedOnce() {
+        var device1 = sessionInfo("device1");
+        var device2 = sessionInfo("device2");
+
+        transportService.process(List.of(TbPair.of(device1, telemetry(2)), TbPair.of(device2, telemetry(1))), callback);
+        queueCallbacks.forEach(queueCallback -> queueCallback.onSuccess(null));
+
+        verify(ruleEngineProducerService, times(3)).sendToRuleEngine(any(), any(), any(), any());
+        verify(callback).onSuccess(null);
+        verify(callback, never()).onError(any());
+        verify(callback, never()).onMsgError(any(), any());
+        verify(apiUsageClient, times(2)).report(any(), any(), eq(ApiUsageRecordKey.TRANSPORT_MSG_COUNT), anyLong());
+    }
+
+    @Test
+    public void givenRateLimitedDevice_whenProcessBatch_thenOtherDevicesArePushed() {
+        var device1 = sessionInfo("device1");
+        var device2 = sessionInfo("device2");
+        var device3 = sessionInfo("device3");
+        when(rateLimitService.checkLimits(any(), any(), eq(deviceId(device2)), anyInt(), anyBoolean()))
+                .thenReturn(TbPair.of(EntityType.DEVICE, false));
+
+        transportService.process(List.of(TbPair.of(device1, telemetry(1)), TbPair.of(device2, telemetry(1)), TbPair.of(device3, telemetry(2))), callback);
+        queueCallbacks.forEach(queueCallback -> queueCallback.onSuccess(null));
+
+        verify(ruleEngineProducerService, times(3)).sendToRuleEngine(any(), any(), any(), any());
+        verify(callback).onMsgError(eq(device2), isA(TbRateLimitsException.class));
+        verify(callback, times(1)).onMsgError(any(), any());
+        verify(callback).onError(isA(TbRateLimitsException.class));
+        verify(callback, never()).onSuccess(any());
+        verify(apiUsageClient, times(2)).report(any(), any(), eq(ApiUsageRecordKey.TRANSPORT_MSG_COUNT), anyLong());
+    }
+
+    @Test
+    public void givenQueueFailures_whenProcessBatch_thenFailedDeviceIsReportedOnce() {
+        var device1 = sessionInfo("device1");
+        var device2 = sessionInfo("device2");
+
+        transportService.process(List.of(TbPair.of(device1, telemetry(3)), TbPair.of(device2, telemetry(1))), callback);
+        RuntimeException error = new RuntimeException("Queue failure");
+        // all the records of device1 failed
+        queueCallbacks.subList(0, 3).forEach(queueCallback -> queueCallback.onFailure(error));
+        queueCallbacks.get(3).onSuccess(null);
+
+        verify(callback).onMsgError(device1, error);
+        verify(callback, times(1)).onMsgError(any(), any());
+        verify(callback).onError(error);
+        verify(callback, never()).onSuccess(any());
+        verify(apiUsageClient, times(1)).report(any(), any(), eq(ApiUsageRecordKey.TRANSPORT_MSG_COUNT), anyLong());
+    }
+
+    @Test
+    public void givenAllDevicesRateLimited_whenProcessBatch_thenNothingIsPushed() {
+        when(rateLimitService.checkLimits(any(), any(), any(), anyInt(), anyBoolean())).thenReturn(TbPair.of(EntityType.TENANT, false));
+
+        transportService.process(List.of(TbPair.of(sessionInfo("device1"), telemetry(1)), TbPair.of(sessionInfo("device2"), telemetry(1))), callback);
+
+        verify(ruleEngineProducerService, never()).sendToRuleEngine(any(), any(), any(), any());
+        verify(callback, times(2)).onMsgError(any(), isA(TbRateLimitsException.class));
+        verify(callback).onError(isA(TbRateLimitsException.class));
+    }
+
+    private static TransportProtos.SessionInfoProto sessionInfo(String deviceName) {
+        UUID deviceId = UUID.randomUUID();
+        return TransportProtos.SessionInfoProto.newBuilder()
+                .setDeviceIdMSB(deviceId.getMostSignificantBits())
+                .setDeviceIdLSB(deviceId.getLeastSignificantBits())
+                .setDeviceName(deviceName)
+                .build();
+    }
+
+    private static DeviceId deviceId(TransportProtos.SessionInfoProto sessionInfo) {
+        return new DeviceId(new UUID(sessionInfo.getDeviceIdMSB(), sessionInfo.getDeviceIdLSB()));
+    }
+
+    private static TransportProtos.PostTelemetryMsg telemetry(int tsKvCount) {
+        TransportProtos.PostTelemetryMsg.Builder builder = TransportProtos.PostTelemetryMsg.newBuilder();
+        IntStream.range(0, tsKvCount).forEach(i -> builder.addTsKvList(TransportProtos.TsKvListProto.newBuilder()
+                .setTs(i)
+                .addKv(TransportProtos.KeyValueProto.newBuilder()
+                        .setKey("temperature")
+                        .setType(TransportProtos.KeyValueType.LONG_V)
+                        .setLongV(i))));
+        return builder.build();
+    }
+
+}
@@ -40,7 +40,9 @@ import org.thingsboard.server.service.sync.vc.GitRepository.Diff;
 import java.io.File;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -49,6 +51,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @ConditionalOnProperty(prefix = "vc", value = "git.service", havingValue = "local", matchIfMissing = true)
@@ -104,19 +107,49 @@ public class DefaultGitRepositoryService implements GitRepositoryService {
     @Override
     public void deleteFolderContent(PendingCommit commit, String relativePath) throws IOException {
         GitRepository repository = checkRepository(commit.getTenantId());
-        FileUtils.deleteDirectory(Path.of(repository.getDirectory(), relativePath).toFile());
+        Path repositoryDir = getRepositoryDir(repository);
+        Path folder = repositoryDir.resolve(relativePath).normalize();
+        if (!Files.isDirectory(folder)) {
+            return;
+        }
+        // files are deleted on push unless re-added, so the unchanged ones are neither rewritten nor re-hashed by git
+        try (Stream<Path> files = Files.walk(folder)) {
+            files.filter(Files::isRegularFile)
+                    .forEach(file -> commit.getStaleFiles().add(repositoryDir.relativize(file).toString()));
+        }
     }
 
     @Override
     public void add(PendingCommit commit, String relativePath, String entityDataJson) throws IOException {
         GitRepository repository = checkRepository(commit.getTenantId());
-        FileUtils.write(Path.of(repository.getDirectory(), relativePath).toFile(), entityDataJson, StandardCharsets.UTF_8);
+        Path repositoryDir = getRepositoryDir(repository);
+        Path file = repositoryDir.resolve(relativePath).normalize();
+        commit.getStaleFiles().remove(repositoryDir.relativize(file).toString());
+        byte[] content = entityDataJson.getBytes(StandardCharsets.UTF_8);
+        if (isSameContent(file, content)) {
+            log.trace("[{}] Skipping unchanged file {}", commit.getTenantId(), relativePath);
+            return;
+        }
+        FileUtils.writeByteArrayToFile(file.toFile(), content);
+    }
+
+    // stale files are tracked by the path relative to the repository, so both sides of relativize must be normalized
+    private static Path getRepositoryDir(GitRepository repository) {
+        return Path.of(repository.getDirectory()).toAbsolutePath().normalize();
+    }
+
+    private static boolean isSameContent(Path file, byte[] content) throws IOException {
+        return Files.isRegularFile(file) && Files.size(file) == content.length
+                && Arrays.equals(Files.readAllBytes(file), content);
     }
 
     @Override
     public VersionCreationResult push(PendingCommit commit) {
         GitRepository repository = checkRepository(commit.getTenantId());
         try {
+            for (String staleFile : commit.getStaleFiles()) {
+                Files.deleteIfExists(getRepositoryDir(repository).resolve(staleFile));
+            }
             repository.add(".");
 
             VersionCreationResult result = new VersionCreationResult();
@@ -131,9 +164,9 @@ public class DefaultGitRepositoryService implements GitRepositoryService {
                 result.setVersion(toVersion(gitCommit));
             }
             return result;
-        } catch (GitAPIException gitAPIException) {
+        } catch (GitAPIException | IOException e) {
             //TODO: analyze and return meaningful exceptions that we can show to the client;
-            throw new RuntimeException(gitAPIException);
+            throw new RuntimeException(e);
         } finally {
             cleanUp(commit);
         }
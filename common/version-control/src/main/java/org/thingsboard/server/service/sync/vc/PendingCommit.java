@@ -19,6 +19,7 @@ import lombok.Data;
 import org.thingsboard.server.common.data.id.TenantId;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -36,6 +37,7 @@ public class PendingCommit {
     private String authorEmail;
 
     private Map<String, String[]> chunkedMsgs;
+    private Set<String> staleFiles;
 
     public PendingCommit(TenantId tenantId, String nodeId, UUID txId, String branch, String versionName, String authorName, String authorEmail) {
         this.tenantId = tenantId;
@@ -55,4 +57,15 @@ public class PendingCommit {
         return chunkedMsgs;
     }
 
+    /**
+     * Files of the folders cleared within this commit that were not re-added yet.
+     * They are removed from the working tree right before the push.
+     */
+    public Set<String> getStaleFiles() {
+        if (staleFiles == null) {
+            staleFiles = ConcurrentHashMap.newKeySet();
+        }
+        return staleFiles;
+    }
+
 }
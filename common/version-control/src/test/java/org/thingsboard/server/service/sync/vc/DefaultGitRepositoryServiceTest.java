@@ -0,0 +1,126 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.sync.vc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.sync.vc.RepositorySettings;
+import org.thingsboard.server.common.data.sync.vc.VersionCreationResult;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DefaultGitRepositoryServiceTest {
+
+    private static final String DEVICE_A = "devices/a.json";
+    private static final String DEVICE_B = "devices/b.json";
+
+    @TempDir
+    Path tempDir;
+
+    private final TenantId tenantId = TenantId.fromUUID(UUID.randomUUID());
+    private DefaultGitRepositoryService gitRepositoryService;
+    private Path repositoryDir;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        gitRepositoryService = new DefaultGitRepositoryService();
+        // a non-normalized folder, to check that the stale files are tracked by the same relative paths
+        ReflectionTestUtils.setField(gitRepositoryService, "repositoriesFolder", tempDir.resolve("repositories/../repositories").toString());
+        RepositorySettings settings = new RepositorySettings();
+        settings.setLocalOnly(true);
+        settings.setRepositoryUri("test");
+        settings.setDefaultBranch("main");
+        gitRepositoryService.initRepository(tenantId, settings, false);
+        repositoryDir = tempDir.resolve("repositories").resolve("local_test");
+
+        PendingCommit commit = newCommit();
+        gitRepositoryService.prepareCommit(commit);
+        gitRepositoryService.add(commit, DEVICE_A, "{\"name\":\"A\"}");
+        gitRepositoryService.add(commit, DEVICE_B, "{\"name\":\"B\"}");
+        VersionCreationResult result = gitRepositoryService.push(commit);
+        assertThat(result.getAdded()).isEqualTo(2);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        gitRepositoryService.clearRepository(tenantId);
+    }
+
+    @Test
+    public void testUnchangedFileIsNotRewritten() throws Exception {
+        PendingCommit commit = newCommit();
+        gitRepositoryService.prepareCommit(commit);
+        File fileA = repositoryDir.resolve(DEVICE_A).toFile();
+        assertThat(fileA.setLastModified(1000L)).isTrue();
+
+        gitRepositoryService.deleteFolderContent(commit, "devices");
+        gitRepositoryService.add(commit, DEVICE_A, "{\"name\":\"A\"}");
+        gitRepositoryService.add(commit, DEVICE_B, "{\"name\":\"B2\"}");
+        assertThat(fileA.lastModified()).isEqualTo(1000L);
+        assertThat(commit.getStaleFiles()).isEmpty();
+
+        VersionCreationResult result = gitRepositoryService.push(commit);
+        assertThat(result.getAdded()).isZero();
+        assertThat(result.getModified()).isEqualTo(1);
+        assertThat(result.getRemoved()).isZero();
+    }
+
+    @Test
+    public void testFilesNotReAddedAreRemovedOnPush() throws Exception {
+        PendingCommit commit = newCommit();
+        gitRepositoryService.prepareCommit(commit);
+
+        gitRepositoryService.deleteFolderContent(commit, "devices");
+        assertThat(commit.getStaleFiles()).hasSize(2);
+        gitRepositoryService.add(commit, DEVICE_A, "{\"name\":\"A\"}");
+        assertThat(commit.getStaleFiles()).containsOnly(Path.of(DEVICE_B).toString());
+        assertThat(repositoryDir.resolve(DEVICE_B)).exists();
+
+        VersionCreationResult result = gitRepositoryService.push(commit);
+        assertThat(result.getModified()).isZero();
+        assertThat(result.getRemoved()).isEqualTo(1);
+        assertThat(result.getVersion()).isNotNull();
+    }
+
+    @Test
+    public void testNoChangesCreateNoVersion() throws Exception {
+        PendingCommit commit = newCommit();
+        gitRepositoryService.prepareCommit(commit);
+
+        gitRepositoryService.deleteFolderContent(commit, "devices");
+        gitRepositoryService.add(commit, DEVICE_A, "{\"name\":\"A\"}");
+        gitRepositoryService.add(commit, DEVICE_B, "{\"name\":\"B\"}");
+
+        VersionCreationResult result = gitRepositoryService.push(commit);
+        assertThat(result.getAdded()).isZero();
+        assertThat(result.getModified()).isZero();
+        assertThat(result.getRemoved()).isZero();
+        assertThat(result.getVersion()).isNull();
+    }
+
+    private PendingCommit newCommit() {
+        return new PendingCommit(tenantId, "node", UUID.randomUUID(), "main", "version", "author", "author@thingsboard.org");
+    }
+
+}
@@ -84,7 +84,7 @@ public interface AlarmDao extends Dao<Alarm> {
 
     PageData<TbPair<UUID, Long>> findAlarmIdsByOriginatorId(TenantId tenantId, EntityId originatorId, long createdTimeOffset, AlarmId idOffset, int limit);
 
-    void createEntityAlarmRecord(EntityAlarm entityAlarm);
+    void createEntityAlarmRecords(List<EntityAlarm> entityAlarms);
 
     List<EntityAlarm> findEntityAlarmRecords(TenantId tenantId, AlarmId id);
 
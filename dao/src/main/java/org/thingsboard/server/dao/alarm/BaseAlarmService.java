@@ -16,10 +16,14 @@
 package org.thingsboard.server.dao.alarm;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.util.concurrent.FluentFuture;
 import com.google.common.util.concurrent.ListenableFuture;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.event.TransactionalEventListener;
@@ -77,6 +81,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -97,6 +102,23 @@ public class BaseAlarmService extends AbstractCachedEntityService<TenantId, Page
     private final AlarmDao alarmDao;
     private final EntityService entityService;
 
+    @Value("${sql.alarms.propagation_cache_ttl_ms:0}")
+    private long propagationCacheTtlMs;
+    @Value("${sql.alarms.propagation_cache_max_size:100000}")
+    private long propagationCacheMaxSize;
+
+    // coalesces lookups of propagation entities for alarms that are updated repeatedly within a short window.
+    // The cache is local to this node and is populated only with committed propagation records
+    private Cache<PropagationCacheKey, List<EntityId>> propagationCache;
+
+    @PostConstruct
+    public void init() {
+        propagationCache = Caffeine.newBuilder()
+                .maximumSize(propagationCacheTtlMs > 0 ? propagationCacheMaxSize : 0)
+                .expireAfterWrite(propagationCacheTtlMs, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
     @Override
     @TransactionalEventListener
     public void handleEvictEvent(AlarmTypesCacheEvictEvent event) {
@@ -104,6 +126,16 @@ public class BaseAlarmService extends AbstractCachedEntityService<TenantId, Page
         cache.evict(tenantId);
     }
 
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handlePropagationCacheEvent(AlarmPropagationCacheEvent event) {
+        PropagationCacheKey key = new PropagationCacheKey(event.getTenantId(), event.getAlarmId());
+        if (event.getPropagationEntityIds() != null) {
+            propagationCache.put(key, event.getPropagationEntityIds());
+        } else {
+            propagationCache.invalidate(key);
+        }
+    }
+
     @Override
     public AlarmApiCallResult updateAlarm(AlarmUpdateRequest request) {
         validateAlarmRequest(request);
@@ -208,6 +240,7 @@ public class BaseAlarmService extends AbstractCachedEntityService<TenantId, Page
             log.debug("[{}][{}] Executing deleteAlarm [{}]", tenantId, alarm.getOriginator(), alarm.getId());
             var propagationIds = getPropagationEntityIdsList(alarm);
             alarmDao.removeById(tenantId, alarm.getUuidId());
+            propagationCache.invalidate(new PropagationCacheKey(tenantId, alarm.getId()));
             eventPublisher.publishEvent(DeleteEntityEvent.builder()
                     .tenantId(tenantId)
                     .entityId(alarm.getId())
@@ -234,7 +267,7 @@ public class BaseAlarmService extends AbstractCachedEntityService<TenantId, Page
         }
     }
 
-    private List<EntityId> createEntityAlarmRecords(Alarm alarm) throws ExecutionException, InterruptedException {
+    private List<EntityId> createEntityAlarmRecords(Alarm alarm, boolean created) throws ExecutionException, InterruptedException {
         Set<EntityId> propagatedEntitiesSet = new LinkedHashSet<>();
         propagatedEntitiesSet.add(alarm.getOriginator());
         if (alarm.isPropagate()) {
@@ -246,10 +279,37 @@ public class BaseAlarmService extends AbstractCachedEntityService<TenantId, Page
         if (alarm.isPropagateToTenant()) {
             propagatedEntitiesSet.add(alarm.getTenantId());
         }
+        List<EntityAlarm> entityAlarms = new ArrayList<>(propagatedEntitiesSet.size());
         for (EntityId entityId : propagatedEntitiesSet) {
-            createEntityAlarmRecord(alarm.getTenantId(), entityId, alarm);
+            entityAlarms.add(new EntityAlarm(alarm.getTenantId(), entityId, alarm.getCreatedTime(), alarm.getType(), alarm.getCustomerId(), null, alarm.getId()));
+        }
+        List<EntityId> propagatedEntities = new ArrayList<>(propagatedEntitiesSet);
+        boolean allCreated = true;
+        try {
+            alarmDao.createEntityAlarmRecords(entityAlarms);
+        } catch (Exception e) {
+            log.warn("[{}] Failed to create entity alarm records in batch, creating one by one: {}", alarm.getTenantId(), entityAlarms, e);
+            for (EntityAlarm entityAlarm : entityAlarms) {
+                allCreated &= createEntityAlarmRecord(entityAlarm);
+            }
+        }
+        if (created && allCreated) {
+            cachePropagationEntities(alarm, propagatedEntities);
+        } else {
+            // the records of the previous propagation are kept, so the cached entities are reloaded from the database
+            evictPropagationEntities(alarm);
+        }
+        return propagatedEntities;
+    }
+
+    private boolean createEntityAlarmRecord(EntityAlarm entityAlarm) {
+        try {
+            alarmDao.createEntityAlarmRecords(List.of(entityAlarm));
+            return true;
+        } catch (Exception e) {
+            log.warn("[{}] Failed to create entity alarm record: {}", entityAlarm.getTenantId(), entityAlarm, e);
+            return false;
         }
-        return new ArrayList<>(propagatedEntitiesSet);
     }
 
     private Set<EntityId> getRelatedEntities(Alarm alarm) throws InterruptedException, ExecutionException {
@@ -357,13 +417,18 @@ public class BaseAlarmService extends AbstractCachedEntityService<TenantId, Page
     @Override
     public int deleteEntityAlarmRecords(TenantId tenantId, EntityId entityId) {
         log.trace("Executing deleteEntityAlarms [{}]", entityId);
-        return alarmDao.deleteEntityAlarmRecords(tenantId, entityId);
+        int deleted = alarmDao.deleteEntityAlarmRecords(tenantId, entityId);
+        if (deleted > 0) {
+            propagationCache.asMap().entrySet().removeIf(e -> e.getKey().tenantId().equals(tenantId) && e.getValue().contains(entityId));
+        }
+        return deleted;
     }
 
     @Override
     public void deleteEntityAlarmRecordsByTenantId(TenantId tenantId) {
         log.trace("Executing deleteEntityAlarmRecordsByTenantId [{}]", tenantId);
         alarmDao.deleteEntityAlarmRecordsByTenantId(tenantId);
+        propagationCache.asMap().keySet().removeIf(key -> key.tenantId().equals(tenantId));
     }
 
     @Override
@@ -439,19 +504,31 @@ public class BaseAlarmService extends AbstractCachedEntityService<TenantId, Page
 
     private Set<EntityId> getPropagationEntityIds(Alarm alarm) {
         if (alarm.isPropagate() || alarm.isPropagateToOwner() || alarm.isPropagateToTenant()) {
-            List<EntityAlarm> entityAlarms = alarmDao.findEntityAlarmRecords(alarm.getTenantId(), alarm.getId());
-            return entityAlarms.stream().map(EntityAlarm::getEntityId).collect(Collectors.toSet());
+            List<EntityId> propagationEntityIds = propagationCache.getIfPresent(new PropagationCacheKey(alarm.getTenantId(), alarm.getId()));
+            if (propagationEntityIds == null) {
+                List<EntityAlarm> entityAlarms = alarmDao.findEntityAlarmRecords(alarm.getTenantId(), alarm.getId());
+                propagationEntityIds = entityAlarms.stream().map(EntityAlarm::getEntityId).distinct().toList();
+                cachePropagationEntities(alarm, propagationEntityIds);
+            }
+            return new LinkedHashSet<>(propagationEntityIds);
         } else {
             return Collections.singleton(alarm.getOriginator());
         }
     }
 
-    private void createEntityAlarmRecord(TenantId tenantId, EntityId entityId, Alarm alarm) {
-        EntityAlarm entityAlarm = new EntityAlarm(tenantId, entityId, alarm.getCreatedTime(), alarm.getType(), alarm.getCustomerId(), null, alarm.getId());
-        try {
-            alarmDao.createEntityAlarmRecord(entityAlarm);
-        } catch (Exception e) {
-            log.warn("[{}] Failed to create entity alarm record: {}", tenantId, entityAlarm, e);
+    private void cachePropagationEntities(Alarm alarm, List<EntityId> propagationEntityIds) {
+        if (propagationCacheTtlMs <= 0) {
+            return;
+        }
+        // published as a transactional event, so the records are cached only after the transaction is committed
+        eventPublisher.publishEvent(new AlarmPropagationCacheEvent(alarm.getTenantId(), alarm.getId(), List.copyOf(propagationEntityIds)));
+    }
+
+    private void evictPropagationEntities(Alarm alarm) {
+        propagationCache.invalidate(new PropagationCacheKey(alarm.getTenantId(), alarm.getId()));
+        if (propagationCacheTtlMs > 0) {
+            // evicted after commit as well, in case the entities were loaded by a concurrent request in the meantime
+            eventPublisher.publishEvent(new AlarmPropagationCacheEvent(alarm.getTenantId(), alarm.getId(), null));
         }
     }
 
@@ -477,7 +554,7 @@ public class BaseAlarmService extends AbstractCachedEntityService<TenantId, Page
             List<EntityId> propagationEntities;
             if (result.isPropagationChanged()) {
                 try {
-                    propagationEntities = createEntityAlarmRecords(result.getAlarm());
+                    propagationEntities = createEntityAlarmRecords(result.getAlarm(), result.isCreated());
                 } catch (ExecutionException | InterruptedException e) {
                     throw new RuntimeException(e);
                 }
@@ -506,4 +583,6 @@ public class BaseAlarmService extends AbstractCachedEntityService<TenantId, Page
         }
     }
 
+    private record PropagationCacheKey(TenantId tenantId, AlarmId alarmId) {}
+
 }
@@ -27,6 +27,7 @@ import org.thingsboard.server.dao.model.sql.AttributeKvEntity;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -57,4 +58,6 @@ public interface AttributesDao {
 
     List<Pair<AttributeScope, String>> removeAllByEntityId(TenantId tenantId, EntityId entityId);
 
+    Map<EntityId, List<Pair<AttributeScope, String>>> removeAllByEntityIds(TenantId tenantId, List<EntityId> entityIds);
+
 }
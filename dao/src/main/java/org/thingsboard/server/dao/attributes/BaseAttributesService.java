@@ -42,6 +42,7 @@ import org.thingsboard.server.dao.service.Validator;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.thingsboard.server.dao.attributes.AttributeUtils.validate;
@@ -150,6 +151,18 @@ public class BaseAttributesService implements AttributesService {
     @Override
     public int removeAllByEntityId(TenantId tenantId, EntityId entityId) {
         List<Pair<AttributeScope, String>> deleted = attributesDao.removeAllByEntityId(tenantId, entityId);
+        onRemoved(tenantId, entityId, deleted);
+        return deleted.size();
+    }
+
+    @Override
+    public int removeAllByEntityIds(TenantId tenantId, List<EntityId> entityIds) {
+        Map<EntityId, List<Pair<AttributeScope, String>>> deleted = attributesDao.removeAllByEntityIds(tenantId, entityIds);
+        deleted.forEach((entityId, attributes) -> onRemoved(tenantId, entityId, attributes));
+        return deleted.values().stream().mapToInt(List::size).sum();
+    }
+
+    private void onRemoved(TenantId tenantId, EntityId entityId, List<Pair<AttributeScope, String>> deleted) {
         deleted.forEach(attribute -> {
             AttributeScope scope = attribute.getKey();
             String key = attribute.getValue();
@@ -157,7 +170,6 @@ public class BaseAttributesService implements AttributesService {
                 edqsService.onDelete(tenantId, ObjectType.ATTRIBUTE_KV, new AttributeKv(entityId, scope, key, Long.MAX_VALUE));
             }
         });
-        return deleted.size();
     }
 
 }
@@ -275,6 +275,18 @@ public class CachedAttributesService implements AttributesService {
     @Override
     public int removeAllByEntityId(TenantId tenantId, EntityId entityId) {
         List<Pair<AttributeScope, String>> result = attributesDao.removeAllByEntityId(tenantId, entityId);
+        onRemoved(tenantId, entityId, result);
+        return result.size();
+    }
+
+    @Override
+    public int removeAllByEntityIds(TenantId tenantId, List<EntityId> entityIds) {
+        Map<EntityId, List<Pair<AttributeScope, String>>> result = attributesDao.removeAllByEntityIds(tenantId, entityIds);
+        result.forEach((entityId, deleted) -> onRemoved(tenantId, entityId, deleted));
+        return result.values().stream().mapToInt(List::size).sum();
+    }
+
+    private void onRemoved(TenantId tenantId, EntityId entityId, List<Pair<AttributeScope, String>> result) {
         result.forEach(deleted -> {
             AttributeScope scope = deleted.getKey();
             String key = deleted.getValue();
@@ -284,7 +296,6 @@ public class CachedAttributesService implements AttributesService {
                 edqsService.onDelete(tenantId, ObjectType.ATTRIBUTE_KV, new AttributeKv(entityId, scope, key, Long.MAX_VALUE));
             }
         });
-        return result.size();
     }
 
 }
@@ -39,4 +39,6 @@ public interface AuditLogDao extends Dao<AuditLog> {
 
     void cleanUpAuditLogs(long expTime);
 
+    void createPartitionsAhead();
+
 }
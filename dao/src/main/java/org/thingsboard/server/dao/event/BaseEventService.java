@@ -137,11 +137,23 @@ public class BaseEventService implements EventService {
         }
     }
 
+    @Override
+    public void removeEvents(TenantId tenantId, List<? extends EntityId> entityIds, long startTime, long endTime) {
+        if (!entityIds.isEmpty()) {
+            eventDao.removeEvents(tenantId.getId(), entityIds.stream().map(EntityId::getId).toList(), startTime, endTime);
+        }
+    }
+
     @Override
     public void cleanupEvents(long regularEventExpTs, long debugEventExpTs, boolean cleanupDb) {
         eventDao.cleanupEvents(regularEventExpTs, debugEventExpTs, cleanupDb);
     }
 
+    @Override
+    public void createPartitionsAhead() {
+        eventDao.createPartitionsAhead();
+    }
+
     private PageData<EventInfo> convert(EntityType entityType, PageData<? extends Event> pd) {
         return new PageData<>(pd.getData() == null ? null :
                 pd.getData().stream().map(e -> e.toInfo(entityType)).collect(Collectors.toList())
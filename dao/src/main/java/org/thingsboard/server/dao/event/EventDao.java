@@ -79,6 +79,11 @@ public interface EventDao {
      */
     void cleanupEvents(long regularEventExpTs, long debugEventExpTs, boolean cleanupDb);
 
+    /**
+     * Creates the current and the upcoming partitions of the event tables in advance
+     */
+    void createPartitionsAhead();
+
     /**
      * Removes all events for the specified entity and time interval
      *
@@ -89,6 +94,16 @@ public interface EventDao {
      */
     void removeEvents(UUID tenantId, UUID entityId, Long startTime, Long endTime);
 
+    /**
+     * Removes the events of the specified entities and time interval with a single delete per event table
+     *
+     * @param tenantId
+     * @param entityIds
+     * @param startTime
+     * @param endTime
+     */
+    void removeEvents(UUID tenantId, List<UUID> entityIds, long startTime, long endTime);
+
     /**
      *
      * Removes all events for the specified entity, event filter and time interval
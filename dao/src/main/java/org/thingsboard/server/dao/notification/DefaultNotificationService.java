@@ -35,6 +35,7 @@ import org.thingsboard.server.common.data.page.SortOrder;
 import org.thingsboard.server.dao.entity.EntityDaoService;
 import org.thingsboard.server.dao.sql.query.EntityKeyMapping;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -52,6 +53,11 @@ public class DefaultNotificationService implements NotificationService, EntityDa
         return notificationDao.save(tenantId, notification);
     }
 
+    @Override
+    public List<Notification> saveNotifications(TenantId tenantId, List<Notification> notifications) {
+        return notificationDao.saveAll(tenantId, notifications);
+    }
+
     @Override
     public Notification findNotificationById(TenantId tenantId, NotificationId notificationId) {
         return notificationDao.findById(tenantId, notificationId.getId());
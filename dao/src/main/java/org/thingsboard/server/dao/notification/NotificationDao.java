@@ -27,6 +27,7 @@ import org.thingsboard.server.common.data.page.PageData;
 import org.thingsboard.server.common.data.page.PageLink;
 import org.thingsboard.server.dao.Dao;
 
+import java.util.List;
 import java.util.Set;
 
 public interface NotificationDao extends Dao<Notification> {
@@ -45,6 +46,11 @@ public interface NotificationDao extends Dao<Notification> {
 
     int updateStatusByDeliveryMethodAndRecipientId(TenantId tenantId, NotificationDeliveryMethod deliveryMethod, UserId recipientId, NotificationStatus status);
 
+    /**
+     * Inserts new notifications with a single batch. Ids and created time are assigned to the given notifications
+     */
+    List<Notification> saveAll(TenantId tenantId, List<Notification> notifications);
+
     void deleteByRequestId(TenantId tenantId, NotificationRequestId requestId);
 
     void deleteByRecipientId(TenantId tenantId, UserId recipientId);
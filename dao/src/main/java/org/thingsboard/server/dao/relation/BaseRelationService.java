@@ -87,6 +87,7 @@ class BaseRelationService implements RelationService {
     private final JpaExecutorService executor;
     private final JpaRelationQueryExecutorService relationsExecutor;
     private final ApiLimitService apiLimitService;
+    private final RelationGraphCache graphCache;
 
     private ScheduledExecutorService timeoutExecutorService;
 
@@ -96,7 +97,8 @@ class BaseRelationService implements RelationService {
     public BaseRelationService(RelationDao relationDao, @Lazy EntityService entityService,
                                TbTransactionalCache<RelationCacheKey, RelationCacheValue> cache,
                                ApplicationEventPublisher eventPublisher, JpaExecutorService executor,
-                               JpaRelationQueryExecutorService relationsExecutor, ApiLimitService apiLimitService) {
+                               JpaRelationQueryExecutorService relationsExecutor, ApiLimitService apiLimitService,
+                               RelationGraphCache graphCache) {
         this.relationDao = relationDao;
         this.entityService = entityService;
         this.cache = cache;
@@ -104,6 +106,7 @@ class BaseRelationService implements RelationService {
         this.executor = executor;
         this.relationsExecutor = relationsExecutor;
         this.apiLimitService = apiLimitService;
+        this.graphCache = graphCache;
     }
 
     @PostConstruct
@@ -127,6 +130,9 @@ class BaseRelationService implements RelationService {
         keys.add(new RelationCacheKey(null, event.getTo(), event.getType(), event.getTypeGroup(), EntitySearchDirection.TO));
         keys.add(new RelationCacheKey(null, event.getTo(), null, event.getTypeGroup(), EntitySearchDirection.TO));
         cache.evict(keys);
+        if (graphCache.isEnabled()) {
+            graphCache.onRelationChanged(event);
+        }
         log.debug("Processed evict event: {}", event);
     }
 
@@ -638,7 +644,7 @@ class BaseRelationService implements RelationService {
     private void processQueue(RelationQueueCtx ctx) {
         RelationTask task = ctx.tasks.poll();
         while (task != null) {
-            List<EntityRelation> relations = findRelations(ctx.tenantId, task.root, ctx.direction, ctx.relationTypeGroup);
+            List<EntityRelation> relations = findRelations(ctx.tenantId, task.root, ctx.direction, ctx.relationTypeGroup, task.currentLvl);
             Map<EntityId, List<EntityRelation>> newChildrenRelations = new HashMap<>();
             for (EntityRelation childRelation : relations) {
                 log.trace("Found Relation: {}", childRelation);
@@ -687,11 +693,17 @@ class BaseRelationService implements RelationService {
     }
 
 
-    private List<EntityRelation> findRelations(final TenantId tenantId, final EntityId rootId, final EntitySearchDirection direction, RelationTypeGroup relationTypeGroup) {
+    private List<EntityRelation> findRelations(final TenantId tenantId, final EntityId rootId, final EntitySearchDirection direction,
+                                               RelationTypeGroup relationTypeGroup, int lvl) {
         List<EntityRelation> relations;
         if (relationTypeGroup == null) {
             relationTypeGroup = RelationTypeGroup.COMMON;
         }
+        if (graphCache.isEnabled() && lvl <= graphCache.getMaxLevel()) {
+            final RelationTypeGroup typeGroup = relationTypeGroup;
+            return graphCache.getRelations(tenantId, rootId, direction, typeGroup, () -> direction == EntitySearchDirection.FROM ?
+                    relationDao.findAllByFrom(tenantId, rootId, typeGroup) : relationDao.findAllByTo(tenantId, rootId, typeGroup));
+        }
         if (direction == EntitySearchDirection.FROM) {
             relations = findByFrom(tenantId, rootId, relationTypeGroup);
         } else {
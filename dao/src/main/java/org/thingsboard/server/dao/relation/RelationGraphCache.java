@@ -0,0 +1,92 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.relation;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.relation.EntityRelation;
+import org.thingsboard.server.common.data.relation.EntitySearchDirection;
+import org.thingsboard.server.common.data.relation.RelationTypeGroup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Local in-memory relation graph used by recursive relation queries.
+ * <p>
+ * Adjacency lists are keyed by entity id, direction and type group. Entity ids are globally unique,
+ * so the lists are shared by all tenants and a relation change invalidates exactly two of them.
+ * Lists are loaded lazily on the first traversal and dropped on relation create/delete events of this node.
+ * The total number of cached edges is bounded by {@code max_edges}.
+ * <p>
+ * Invalidation is not broadcast to other nodes: in cluster mode a node may serve relations changed on another node
+ * for up to {@code ttl_sec}. That is why the cache is disabled by default.
+ */
+@Slf4j
+@Component
+public class RelationGraphCache {
+
+    @Getter
+    @Value("${sql.relations.graph_cache.enabled:false}")
+    private boolean enabled;
+    @Getter
+    @Value("${sql.relations.graph_cache.max_level:10}")
+    private int maxLevel;
+    @Value("${sql.relations.graph_cache.max_edges:1000000}")
+    private long maxEdges;
+    @Value("${sql.relations.graph_cache.ttl_sec:600}")
+    private long ttlSec;
+
+    private Cache<GraphNodeKey, List<EntityRelation>> graph;
+
+    @PostConstruct
+    public void init() {
+        graph = Caffeine.newBuilder()
+                .maximumWeight(maxEdges)
+                .<GraphNodeKey, List<EntityRelation>>weigher((key, relations) -> relations.size() + 1)
+                .expireAfterWrite(ttlSec, TimeUnit.SECONDS)
+                .build();
+    }
+
+    public List<EntityRelation> getRelations(TenantId tenantId, EntityId entityId, EntitySearchDirection direction,
+                                             RelationTypeGroup typeGroup, Supplier<List<EntityRelation>> loader) {
+        return graph.get(new GraphNodeKey(entityId, direction, typeGroup), key -> {
+            log.trace("[{}] Loading relation graph node {}", tenantId, key);
+            return List.copyOf(loader.get());
+        });
+    }
+
+    public void onRelationChanged(EntityRelationEvent event) {
+        graph.invalidate(new GraphNodeKey(event.getFrom(), EntitySearchDirection.FROM, event.getTypeGroup()));
+        graph.invalidate(new GraphNodeKey(event.getTo(), EntitySearchDirection.TO, event.getTypeGroup()));
+    }
+
+    long getCachedNodes() {
+        graph.cleanUp();
+        return graph.estimatedSize();
+    }
+
+    record GraphNodeKey(EntityId entityId, EntitySearchDirection direction, RelationTypeGroup typeGroup) {}
+
+}
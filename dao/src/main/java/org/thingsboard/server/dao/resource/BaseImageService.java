@@ -106,15 +106,18 @@ public class BaseImageService extends BaseResourceService implements ImageServic
     private final AssetProfileDao assetProfileDao;
     private final DeviceProfileDao deviceProfileDao;
     private final WidgetsBundleDao widgetsBundleDao;
+    private final ImageProcessingService imageProcessingService;
     private final Map<EntityType, ImageContainerDao<?>> imageContainerDaoMap = new HashMap<>();
 
     public BaseImageService(TbResourceDao resourceDao, TbResourceInfoDao resourceInfoDao, ResourceDataValidator resourceValidator,
                             AssetProfileDao assetProfileDao, DeviceProfileDao deviceProfileDao, WidgetsBundleDao widgetsBundleDao,
-                            WidgetTypeDao widgetTypeDao, DashboardInfoDao dashboardInfoDao, RuleChainDao ruleChainDao) {
+                            WidgetTypeDao widgetTypeDao, DashboardInfoDao dashboardInfoDao, RuleChainDao ruleChainDao,
+                            ImageProcessingService imageProcessingService) {
         super(resourceDao, resourceInfoDao, resourceValidator, widgetTypeDao, dashboardInfoDao, ruleChainDao);
         this.assetProfileDao = assetProfileDao;
         this.deviceProfileDao = deviceProfileDao;
         this.widgetsBundleDao = widgetsBundleDao;
+        this.imageProcessingService = imageProcessingService;
     }
 
     @PostConstruct
@@ -153,13 +156,14 @@ public class BaseImageService extends BaseResourceService implements ImageServic
     }
 
     private Pair<ImageDescriptor, byte[]> processImage(byte[] data, ImageDescriptor descriptor) throws Exception {
-        ProcessedImage image = ImageUtils.processImage(data, descriptor.getMediaType(), 250);
+        String etag = calculateEtag(data);
+        ProcessedImage image = imageProcessingService.processImage(data, descriptor.getMediaType(), etag, 250);
         ProcessedImage preview = image.getPreview();
 
         descriptor.setWidth(image.getWidth());
         descriptor.setHeight(image.getHeight());
         descriptor.setSize(image.getSize());
-        descriptor.setEtag(calculateEtag(data));
+        descriptor.setEtag(etag);
 
         ImageDescriptor previewDescriptor = new ImageDescriptor();
         previewDescriptor.setWidth(preview.getWidth());
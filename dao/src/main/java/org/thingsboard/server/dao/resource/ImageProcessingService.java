@@ -0,0 +1,120 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.resource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.thingsboard.common.util.ThingsBoardThreadFactory;
+import org.thingsboard.server.dao.util.ImageUtils;
+import org.thingsboard.server.dao.util.ImageUtils.ProcessedImage;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes images and renders their thumbnails on a bounded worker pool.
+ * <p>
+ * Results are deduplicated by the content hash, so an image that is uploaded several times
+ * (e.g. the same icon in many widgets of a bundle) is processed once while it stays in the cache.
+ */
+@Slf4j
+@Service
+public class ImageProcessingService {
+
+    @Value("${image.processing.thread_pool_size:2}")
+    private int threadPoolSize;
+    @Value("${image.processing.timeout_ms:60000}")
+    private long timeoutMs;
+    @Value("${image.processing.cache_max_size_kb:65536}")
+    private long cacheMaxSizeKb;
+
+    private ListeningExecutorService executor;
+    private Cache<ProcessingKey, ListenableFuture<ProcessedImage>> results;
+
+    @PostConstruct
+    public void init() {
+        executor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(Math.max(threadPoolSize, 1), ThingsBoardThreadFactory.forName("image-processing")));
+        results = Caffeine.newBuilder()
+                .maximumWeight(Math.max(cacheMaxSizeKb, 0))
+                .weigher((ProcessingKey key, ListenableFuture<ProcessedImage> future) -> getWeightKb(future))
+                .build();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public ListenableFuture<ProcessedImage> processImageAsync(byte[] data, String mediaType, String etag, int thumbnailMaxDimension) {
+        ProcessingKey key = new ProcessingKey(etag, mediaType, thumbnailMaxDimension);
+        ListenableFuture<ProcessedImage> future = results.asMap().computeIfAbsent(key, k -> executor.submit(() -> {
+            ProcessedImage image = ImageUtils.processImage(data, mediaType, thumbnailMaxDimension);
+            image.setData(null); // the original data is provided by the caller, no need to keep it in the cache
+            return image;
+        }));
+        future.addListener(() -> {
+            if (!isSuccessful(future)) {
+                results.asMap().remove(key, future);
+            } else {
+                results.asMap().replace(key, future, future); // to re-weigh the entry once the preview is rendered
+            }
+        }, MoreExecutors.directExecutor());
+        return Futures.transform(future, image -> image.withData(data), MoreExecutors.directExecutor());
+    }
+
+    public ProcessedImage processImage(byte[] data, String mediaType, String etag, int thumbnailMaxDimension) throws Exception {
+        try {
+            return processImageAsync(data, mediaType, etag, thumbnailMaxDimension).get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isSuccessful(ListenableFuture<ProcessedImage> future) {
+        try {
+            return !future.isCancelled() && Futures.getDone(future) != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static int getWeightKb(ListenableFuture<ProcessedImage> future) {
+        if (!future.isDone() || !isSuccessful(future)) {
+            return 1;
+        }
+        ProcessedImage preview = Futures.getUnchecked(future).getPreview();
+        byte[] previewData = preview != null ? preview.getData() : null;
+        return previewData != null ? previewData.length / 1024 + 1 : 1;
+    }
+
+    private record ProcessingKey(String etag, String mediaType, int thumbnailMaxDimension) {}
+
+}
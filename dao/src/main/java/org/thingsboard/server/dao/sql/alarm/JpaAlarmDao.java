@@ -94,6 +94,9 @@ public class JpaAlarmDao extends JpaAbstractDao<AlarmEntity, Alarm> implements A
     @Autowired
     private EntityAlarmRepository entityAlarmRepository;
 
+    @Autowired
+    private EntityAlarmInsertRepository entityAlarmInsertRepository;
+
     @Override
     protected Class<AlarmEntity> getEntityClass() {
         return AlarmEntity.class;
@@ -325,9 +328,9 @@ public class JpaAlarmDao extends JpaAbstractDao<AlarmEntity, Alarm> implements A
     }
 
     @Override
-    public void createEntityAlarmRecord(EntityAlarm entityAlarm) {
-        log.debug("Saving entity {}", entityAlarm);
-        entityAlarmRepository.save(new EntityAlarmEntity(entityAlarm));
+    public void createEntityAlarmRecords(List<EntityAlarm> entityAlarms) {
+        log.debug("Saving entity alarms {}", entityAlarms);
+        entityAlarmInsertRepository.saveOrUpdate(entityAlarms.stream().map(EntityAlarmEntity::new).toList());
     }
 
     @Override
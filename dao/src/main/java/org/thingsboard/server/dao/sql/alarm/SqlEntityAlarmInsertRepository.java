@@ -0,0 +1,62 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sql.alarm;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.thingsboard.server.dao.model.sql.EntityAlarmEntity;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+@Repository
+@Transactional
+public class SqlEntityAlarmInsertRepository implements EntityAlarmInsertRepository {
+
+    private static final String INSERT_ON_CONFLICT_DO_UPDATE = "INSERT INTO entity_alarm (tenant_id, entity_type, entity_id, created_time, alarm_type, customer_id, alarm_id)" +
+            " VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (entity_id, alarm_id) DO UPDATE SET created_time = excluded.created_time, alarm_type = excluded.alarm_type, customer_id = excluded.customer_id";
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void saveOrUpdate(List<EntityAlarmEntity> entities) {
+        jdbcTemplate.batchUpdate(INSERT_ON_CONFLICT_DO_UPDATE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                EntityAlarmEntity entityAlarm = entities.get(i);
+                ps.setObject(1, entityAlarm.getTenantId());
+                ps.setString(2, entityAlarm.getEntityType());
+                ps.setObject(3, entityAlarm.getEntityId());
+                ps.setLong(4, entityAlarm.getCreatedTime());
+                ps.setString(5, entityAlarm.getAlarmType());
+                ps.setObject(6, entityAlarm.getCustomerId());
+                ps.setObject(7, entityAlarm.getAlarmId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return entities.size();
+            }
+        });
+    }
+
+}
@@ -44,10 +44,13 @@ import org.thingsboard.server.dao.sql.TbSqlBlockingQueueParams;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueWrapper;
 import org.thingsboard.server.dao.util.SqlDao;
 
+import java.sql.PreparedStatement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Function;
@@ -236,6 +239,25 @@ public class JpaAttributeDao extends JpaAbstractDaoListeningExecutorService impl
                 .collect(Collectors.toList());
     }
 
+    @Transactional
+    @Override
+    public Map<EntityId, List<Pair<AttributeScope, String>>> removeAllByEntityIds(TenantId tenantId, List<EntityId> entityIds) {
+        Map<UUID, EntityId> entityIdsMap = entityIds.stream().collect(Collectors.toMap(EntityId::getId, Function.identity(), (a, b) -> a));
+        Map<EntityId, List<Pair<AttributeScope, String>>> result = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement("DELETE FROM attribute_kv WHERE entity_id = ANY (?) " +
+                    "RETURNING entity_id, attribute_type, attribute_key");
+            ps.setArray(1, con.createArrayOf("uuid", entityIdsMap.keySet().toArray()));
+            return ps;
+        }, rs -> {
+            EntityId entityId = entityIdsMap.get(rs.getObject(ModelConstants.ENTITY_ID_COLUMN, UUID.class));
+            result.computeIfAbsent(entityId, id -> new ArrayList<>())
+                    .add(Pair.of(AttributeScope.valueOf(rs.getInt(ModelConstants.ATTRIBUTE_TYPE_COLUMN)),
+                            keyDictionaryDao.getKey(rs.getInt(ModelConstants.ATTRIBUTE_KEY_COLUMN))));
+        });
+        return result;
+    }
+
     private AttributeKvCompositeKey getAttributeKvCompositeKey(EntityId entityId, Integer attributeType, Integer attributeKey) {
         return new AttributeKvCompositeKey(
                 entityId.getId(),
@@ -114,6 +114,11 @@ public class JpaAuditLogDao extends JpaPartitionedAbstractDao<AuditLogEntity, Au
         partitioningRepository.dropPartitionsBefore(AUDIT_LOG_TABLE_NAME, expTime, TimeUnit.HOURS.toMillis(partitionSizeInHours));
     }
 
+    @Override
+    public void createPartitionsAhead() {
+        partitioningRepository.createPartitionsAhead(AUDIT_LOG_TABLE_NAME, System.currentTimeMillis(), TimeUnit.HOURS.toMillis(partitionSizeInHours));
+    }
+
     @Override
     public void createPartition(AuditLogEntity entity) {
         partitioningRepository.createPartitionIfNotExists(AUDIT_LOG_TABLE_NAME, entity.getCreatedTime(), TimeUnit.HOURS.toMillis(partitionSizeInHours));
@@ -89,6 +89,19 @@ public interface ErrorEventRepository extends EventRepository<ErrorEventEntity,
                       @Param("startTime") Long startTime,
                       @Param("endTime") Long endTime);
 
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ErrorEventEntity e WHERE " +
+            "e.tenantId = :tenantId " +
+            "AND e.entityId IN :entityIds " +
+            "AND e.ts >= :startTime " +
+            "AND e.ts <= :endTime"
+    )
+    void removeEventsByEntityIds(@Param("tenantId") UUID tenantId,
+                                 @Param("entityIds") List<UUID> entityIds,
+                                 @Param("startTime") long startTime,
+                                 @Param("endTime") long endTime);
+
     @Transactional
     @Modifying
     @Query(nativeQuery = true,
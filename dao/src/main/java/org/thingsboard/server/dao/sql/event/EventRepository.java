@@ -31,4 +31,6 @@ public interface EventRepository<T extends EventEntity<V>, V extends Event> {
 
     void removeEvents(UUID tenantId, UUID entityId, Long startTime, Long endTime);
 
+    void removeEventsByEntityIds(UUID tenantId, List<UUID> entityIds, long startTime, long endTime);
+
 }
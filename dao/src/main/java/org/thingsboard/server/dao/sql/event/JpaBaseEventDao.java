@@ -179,6 +179,14 @@ public class JpaBaseEventDao implements EventDao {
         }
     }
 
+    @Override
+    public void removeEvents(UUID tenantId, List<UUID> entityIds, long startTime, long endTime) {
+        log.debug("[{}] Remove events of {} entities [{}-{}]", tenantId, entityIds.size(), startTime, endTime);
+        for (EventType eventType : EventType.values()) {
+            getEventRepository(eventType).removeEventsByEntityIds(tenantId, entityIds, startTime, endTime);
+        }
+    }
+
     @Override
     public void removeEvents(UUID tenantId, UUID entityId, EventFilter eventFilter, Long startTime, Long endTime) {
         if (eventFilter.isNotEmpty()) {
@@ -452,6 +460,14 @@ public class JpaBaseEventDao implements EventDao {
         partitioningRepository.dropPartitionsBefore(eventType.getTable(), eventExpTime, partitionConfiguration.getPartitionSizeInMs(eventType));
     }
 
+    @Override
+    public void createPartitionsAhead() {
+        long ts = System.currentTimeMillis();
+        for (EventType eventType : EventType.values()) {
+            partitioningRepository.createPartitionsAhead(eventType.getTable(), ts, partitionConfiguration.getPartitionSizeInMs(eventType));
+        }
+    }
+
     private void cleanupPartitionsCache(long expTime, boolean isDebug) {
         for (EventType eventType : EventType.values()) {
             if (eventType.isDebug() == isDebug) {
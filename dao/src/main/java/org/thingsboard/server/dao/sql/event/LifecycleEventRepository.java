@@ -92,6 +92,19 @@ public interface LifecycleEventRepository extends EventRepository<LifecycleEvent
                       @Param("startTime") Long startTime,
                       @Param("endTime") Long endTime);
 
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LifecycleEventEntity e WHERE " +
+            "e.tenantId = :tenantId " +
+            "AND e.entityId IN :entityIds " +
+            "AND e.ts >= :startTime " +
+            "AND e.ts <= :endTime"
+    )
+    void removeEventsByEntityIds(@Param("tenantId") UUID tenantId,
+                                 @Param("entityIds") List<UUID> entityIds,
+                                 @Param("startTime") long startTime,
+                                 @Param("endTime") long endTime);
+
     @Transactional
     @Modifying
     @Query(nativeQuery = true,
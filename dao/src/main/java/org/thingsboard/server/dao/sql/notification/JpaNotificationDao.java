@@ -15,6 +15,7 @@
  */
 package org.thingsboard.server.dao.sql.notification;
 
+import com.datastax.oss.driver.api.core.uuid.Uuids;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.collections4.CollectionUtils;
 import org.springframework.beans.factory.annotation.Value;
@@ -39,6 +40,8 @@ import org.thingsboard.server.dao.sql.JpaPartitionedAbstractDao;
 import org.thingsboard.server.dao.sqlts.insert.sql.SqlPartitioningRepository;
 import org.thingsboard.server.dao.util.SqlDao;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
@@ -50,6 +53,7 @@ public class JpaNotificationDao extends JpaPartitionedAbstractDao<NotificationEn
 
     private final NotificationRepository notificationRepository;
     private final SqlPartitioningRepository partitioningRepository;
+    private final NotificationInsertRepository notificationInsertRepository;
 
     @Value("${sql.notifications.partition_size:168}")
     private int partitionSizeInHours;
@@ -97,6 +101,22 @@ public class JpaNotificationDao extends JpaPartitionedAbstractDao<NotificationEn
         return notificationRepository.updateStatusByDeliveryMethodAndRecipientIdAndStatusNot(deliveryMethod, recipientId.getId(), status);
     }
 
+    @Override
+    public List<Notification> saveAll(TenantId tenantId, List<Notification> notifications) {
+        long createdTime = System.currentTimeMillis();
+        List<NotificationEntity> entities = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            notification.setId(new NotificationId(Uuids.timeBased()));
+            notification.setCreatedTime(createdTime);
+            entities.add(new NotificationEntity(notification));
+        }
+        if (!entities.isEmpty()) {
+            createPartition(entities.get(0));
+            notificationInsertRepository.save(entities);
+        }
+        return notifications;
+    }
+
     @Override
     public void deleteByRequestId(TenantId tenantId, NotificationRequestId requestId) {
         notificationRepository.deleteByRequestId(requestId.getId());
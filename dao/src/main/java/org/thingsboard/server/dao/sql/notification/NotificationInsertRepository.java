@@ -0,0 +1,79 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sql.notification;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thingsboard.server.dao.model.sql.NotificationEntity;
+import org.thingsboard.server.dao.util.SqlDao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+@Repository
+@SqlDao
+public class NotificationInsertRepository {
+
+    private static final String INSERT =
+            "INSERT INTO notification (id, created_time, request_id, recipient_id, type, delivery_method, subject, body, additional_config, status) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?);";
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public void save(List<NotificationEntity> entities) {
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                jdbcTemplate.batchUpdate(INSERT, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        NotificationEntity notification = entities.get(i);
+                        ps.setObject(1, notification.getId());
+                        ps.setLong(2, notification.getCreatedTime());
+                        ps.setObject(3, notification.getRequestId());
+                        ps.setObject(4, notification.getRecipientId());
+                        ps.setString(5, notification.getType().name());
+                        ps.setString(6, notification.getDeliveryMethod().name());
+                        ps.setString(7, notification.getSubject());
+                        ps.setString(8, notification.getText());
+                        ps.setString(9, notification.getAdditionalConfig() != null
+                                ? notification.getAdditionalConfig().toString()
+                                : null);
+                        ps.setString(10, notification.getStatus() != null
+                                ? notification.getStatus().name()
+                                : null);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return entities.size();
+                    }
+                });
+            }
+        });
+    }
+
+}
@@ -36,6 +36,7 @@ import org.thingsboard.server.common.data.query.DeviceTypeFilter;
 import org.thingsboard.server.common.data.query.EdgeSearchQueryFilter;
 import org.thingsboard.server.common.data.query.EdgeTypeFilter;
 import org.thingsboard.server.common.data.query.EntityCountQuery;
+import org.thingsboard.server.common.data.query.EntityDataCountMode;
 import org.thingsboard.server.common.data.query.EntityData;
 import org.thingsboard.server.common.data.query.EntityDataPageLink;
 import org.thingsboard.server.common.data.query.EntityDataQuery;
@@ -225,6 +226,7 @@ public class DefaultEntityQueryRepository implements EntityQueryRepository {
             " THEN (select additional_info from edge where id = entity_id)" +
             " END as additional_info";
 
+    private static final String TOTAL_COUNT_ALIAS = "tb_total_count";
     private static final String SELECT_RELATED_PARENT_ID = "entity.parent_id AS parent_id";
 
     private static final String SELECT_API_USAGE_STATE = "(select aus.id, aus.created_time, aus.tenant_id, aus.entity_id, " +
@@ -318,6 +320,11 @@ public class DefaultEntityQueryRepository implements EntityQueryRepository {
             .replace("$in", "from").replace("$out", "to")
             .replace("$rootIdCondition", "in (:relation_root_ids)");
 
+    @Value("${sql.entity_query.count_mode:SEPARATE}")
+    private EntityDataCountMode defaultCountMode;
+    @Value("${sql.entity_query.estimated_count_limit:10000}")
+    private long estimatedCountLimit;
+
     @Getter
     @Value("${sql.relations.max_level:50}")
     int maxLevelAllowed; //This value has to be reasonable small to prevent infinite recursion as early as possible
@@ -325,15 +332,19 @@ public class DefaultEntityQueryRepository implements EntityQueryRepository {
     private final NamedParameterJdbcTemplate jdbcTemplate;
     private final TransactionTemplate transactionTemplate;
     private final DefaultQueryLogComponent queryLog;
+    private final EntityQueryTemplateStats templateStats;
 
-    public DefaultEntityQueryRepository(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, DefaultQueryLogComponent queryLog) {
+    public DefaultEntityQueryRepository(NamedParameterJdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                        DefaultQueryLogComponent queryLog, EntityQueryTemplateStats templateStats) {
         this.jdbcTemplate = jdbcTemplate;
         this.transactionTemplate = transactionTemplate;
         this.queryLog = queryLog;
+        this.templateStats = templateStats;
     }
 
     @Override
     public long countEntitiesByQuery(TenantId tenantId, CustomerId customerId, EntityCountQuery query) {
+        long buildStartNs = System.nanoTime();
         EntityType entityType = resolveEntityType(query.getEntityFilter());
         SqlQueryContext ctx = new SqlQueryContext(new QueryContext(tenantId, customerId, entityType, TenantId.SYS_TENANT_ID.equals(tenantId)));
         if (query.getKeyFilters() == null || query.getKeyFilters().isEmpty()) {
@@ -341,13 +352,16 @@ public class DefaultEntityQueryRepository implements EntityQueryRepository {
             ctx.append(addEntityTableQuery(ctx, query.getEntityFilter()));
             ctx.append(" e where ");
             ctx.append(buildEntityWhere(ctx, query.getEntityFilter(), Collections.emptyList()));
+            templateStats.onQueryBuilt(ctx.getQuery(), System.nanoTime() - buildStartNs);
 
             return transactionTemplate.execute(status -> {
                 long startTs = System.currentTimeMillis();
                 try {
                     return jdbcTemplate.queryForObject(ctx.getQuery(), ctx, Long.class);
                 } finally {
-                    queryLog.logQuery(ctx, ctx.getQuery(), System.currentTimeMillis() - startTs);
+                    long duration = System.currentTimeMillis() - startTs;
+                    templateStats.onCountQueryExecuted(duration);
+                    queryLog.logQuery(ctx, ctx.getQuery(), duration);
                 }
             });
         } else {
@@ -392,13 +406,16 @@ public class DefaultEntityQueryRepository implements EntityQueryRepository {
                     aliasWhereQuery);
 
             String countQuery = String.format("select count(id) %s", fromClauseCount);
+            templateStats.onQueryBuilt(countQuery, System.nanoTime() - buildStartNs);
 
             return transactionTemplate.execute(status -> {
                 long startTs = System.currentTimeMillis();
                 try {
                     return jdbcTemplate.queryForObject(countQuery, ctx, Long.class);
                 } finally {
-                    queryLog.logQuery(ctx, countQuery, System.currentTimeMillis() - startTs);
+                    long duration = System.currentTimeMillis() - startTs;
+                    templateStats.onCountQueryExecuted(duration);
+                    queryLog.logQuery(ctx, countQuery, duration);
                 }
             });
         }
@@ -416,6 +433,7 @@ public class DefaultEntityQueryRepository implements EntityQueryRepository {
 
     public PageData<EntityData> findEntityDataByQuery(TenantId tenantId, CustomerId customerId, EntityDataQuery query, boolean ignorePermissionCheck) {
         return transactionTemplate.execute(status -> {
+            long buildStartNs = System.nanoTime();
             EntityType entityType = resolveEntityType(query.getEntityFilter());
             SqlQueryContext ctx = new SqlQueryContext(new QueryContext(tenantId, customerId, entityType, ignorePermissionCheck));
             EntityDataPageLink pageLink = query.getPageLink();
@@ -481,50 +499,92 @@ public class DefaultEntityQueryRepository implements EntityQueryRepository {
                 //Unfortunately, we need to sacrifice performance in case of full text search, because it is applied to all joined records.
                 fromClauseCount = fromClauseData;
             }
-            String countQuery = String.format("select count(id) %s", fromClauseCount);
+            EntityDataCountMode countMode = pageLink.getCountMode() != null ? pageLink.getCountMode() : defaultCountMode;
+            if (countMode == EntityDataCountMode.WINDOW) {
+                String dataQuery = buildDataQuery(ctx, String.format("select *, count(*) over() as %s %s", TOTAL_COUNT_ALIAS, fromClauseData), mappings, pageLink);
+                templateStats.onQueryBuilt(dataQuery, System.nanoTime() - buildStartNs);
+                List<Map<String, Object>> rows = executeDataQuery(ctx, dataQuery);
+                int totalElements;
+                if (!rows.isEmpty()) {
+                    totalElements = ((Number) rows.get(0).get(TOTAL_COUNT_ALIAS)).intValue();
+                } else if (pageLink.getPage() > 0) {
+                    // the requested page is beyond the last one, so the window count is not available
+                    totalElements = executeCountQuery(ctx, String.format("select count(id) %s", fromClauseCount));
+                } else {
+                    return new PageData<>();
+                }
+                return EntityDataAdapter.createEntityData(pageLink, selectionMapping, rows, totalElements);
+            }
 
-            long startTs = System.currentTimeMillis();
-            int totalElements;
-            try {
-                totalElements = jdbcTemplate.queryForObject(countQuery, ctx, Integer.class);
-            } finally {
-                queryLog.logQuery(ctx, countQuery, System.currentTimeMillis() - startTs);
+            String countQuery;
+            if (countMode == EntityDataCountMode.ESTIMATED && pageLink.getPageSize() > 0) {
+                // the count is capped, but never below the end of the requested page, so "hasNext" stays accurate
+                long countLimit = Math.max(estimatedCountLimit, (long) pageLink.getPageSize() * (pageLink.getPage() + 1)) + 1;
+                ctx.addLongParameter("count_limit", countLimit);
+                countQuery = String.format("select count(id) from (select id %s limit :count_limit) capped", fromClauseCount);
+            } else {
+                countQuery = String.format("select count(id) %s", fromClauseCount);
             }
+            templateStats.onQueryBuilt(countQuery, System.nanoTime() - buildStartNs);
 
+            int totalElements = executeCountQuery(ctx, countQuery);
             if (totalElements == 0) {
                 return new PageData<>();
             }
-            String dataQuery = String.format("select * %s", fromClauseData);
-
-            EntityDataSortOrder sortOrder = pageLink.getSortOrder();
-            if (sortOrder != null) {
-                Optional<EntityKeyMapping> sortOrderMappingOpt = mappings.stream().filter(EntityKeyMapping::isSortOrder).findFirst();
-                if (sortOrderMappingOpt.isPresent()) {
-                    EntityKeyMapping sortOrderMapping = sortOrderMappingOpt.get();
-                    String direction = sortOrder.getDirection() == EntityDataSortOrder.Direction.ASC ? "asc" : "desc";
-                    if (sortOrderMapping.getEntityKey().getType() == EntityKeyType.ENTITY_FIELD) {
-                        dataQuery = String.format("%s order by %s %s, result.id %s", dataQuery, sortOrderMapping.getValueAlias(), direction, direction);
-                    } else {
-                        dataQuery = String.format("%s order by %s %s, %s %s, result.id %s", dataQuery,
-                                sortOrderMapping.getSortOrderNumAlias(), direction, sortOrderMapping.getSortOrderStrAlias(), direction, direction);
-                    }
-                }
-            }
-            int startIndex = pageLink.getPageSize() * pageLink.getPage();
-            if (pageLink.getPageSize() > 0) {
-                dataQuery = String.format("%s limit %s offset %s", dataQuery, pageLink.getPageSize(), startIndex);
-            }
-            startTs = System.currentTimeMillis();
-            List<Map<String, Object>> rows;
-            try {
-                rows = jdbcTemplate.queryForList(dataQuery, ctx);
-            } finally {
-                queryLog.logQuery(ctx, dataQuery, System.currentTimeMillis() - startTs);
-            }
+            buildStartNs = System.nanoTime();
+            String dataQuery = buildDataQuery(ctx, String.format("select * %s", fromClauseData), mappings, pageLink);
+            templateStats.onQueryBuilt(dataQuery, System.nanoTime() - buildStartNs);
+            List<Map<String, Object>> rows = executeDataQuery(ctx, dataQuery);
             return EntityDataAdapter.createEntityData(pageLink, selectionMapping, rows, totalElements);
         });
     }
 
+    private String buildDataQuery(SqlQueryContext ctx, String dataQuery, List<EntityKeyMapping> mappings, EntityDataPageLink pageLink) {
+        EntityDataSortOrder sortOrder = pageLink.getSortOrder();
+        if (sortOrder != null) {
+            Optional<EntityKeyMapping> sortOrderMappingOpt = mappings.stream().filter(EntityKeyMapping::isSortOrder).findFirst();
+            if (sortOrderMappingOpt.isPresent()) {
+                EntityKeyMapping sortOrderMapping = sortOrderMappingOpt.get();
+                String direction = sortOrder.getDirection() == EntityDataSortOrder.Direction.ASC ? "asc" : "desc";
+                if (sortOrderMapping.getEntityKey().getType() == EntityKeyType.ENTITY_FIELD) {
+                    dataQuery = String.format("%s order by %s %s, result.id %s", dataQuery, sortOrderMapping.getValueAlias(), direction, direction);
+                } else {
+                    dataQuery = String.format("%s order by %s %s, %s %s, result.id %s", dataQuery,
+                            sortOrderMapping.getSortOrderNumAlias(), direction, sortOrderMapping.getSortOrderStrAlias(), direction, direction);
+                }
+            }
+        }
+        if (pageLink.getPageSize() > 0) {
+            // page bounds are bound as parameters to keep the same query text for every page
+            ctx.addLongParameter("page_limit", pageLink.getPageSize());
+            ctx.addLongParameter("page_offset", (long) pageLink.getPageSize() * pageLink.getPage());
+            dataQuery = String.format("%s limit :page_limit offset :page_offset", dataQuery);
+        }
+        return dataQuery;
+    }
+
+    private int executeCountQuery(SqlQueryContext ctx, String countQuery) {
+        long startTs = System.currentTimeMillis();
+        try {
+            return jdbcTemplate.queryForObject(countQuery, ctx, Integer.class);
+        } finally {
+            long duration = System.currentTimeMillis() - startTs;
+            templateStats.onCountQueryExecuted(duration);
+            queryLog.logQuery(ctx, countQuery, duration);
+        }
+    }
+
+    private List<Map<String, Object>> executeDataQuery(SqlQueryContext ctx, String dataQuery) {
+        long startTs = System.currentTimeMillis();
+        try {
+            return jdbcTemplate.queryForList(dataQuery, ctx);
+        } finally {
+            long duration = System.currentTimeMillis() - startTs;
+            templateStats.onDataQueryExecuted(duration);
+            queryLog.logQuery(ctx, dataQuery, duration);
+        }
+    }
+
     private String buildEntityWhere(SqlQueryContext ctx, EntityFilter entityFilter, List<EntityKeyMapping> entityFieldsFilters) {
         String permissionQuery = this.buildPermissionQuery(ctx, entityFilter);
         String entityFilterQuery = this.buildEntityFilterQuery(ctx, entityFilter);
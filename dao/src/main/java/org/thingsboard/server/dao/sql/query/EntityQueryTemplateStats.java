@@ -0,0 +1,95 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sql.query;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.thingsboard.server.common.stats.StatsCounter;
+import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.common.stats.StatsTimer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks the distinct SQL texts (query shapes) produced by the entity query repository.
+ * <p>
+ * Entity queries bind every value as a parameter, so identical filter/key structures produce identical SQL text.
+ * Such queries reuse the parsed SQL cached by {@link org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate}
+ * and the server-side prepared statements cached by the PostgreSQL driver.
+ * A template hit means that the query text was already seen and its plan is likely reused.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EntityQueryTemplateStats {
+
+    private static final String STATS_KEY = "entityQuery";
+
+    private final StatsFactory statsFactory;
+
+    @Value("${sql.entity_query.template_cache_size:1024}")
+    private int templateCacheSize;
+
+    private Cache<String, Boolean> templates;
+    private StatsCounter templateHits;
+    private StatsCounter templateMisses;
+    private StatsTimer buildTimer;
+    private StatsTimer countTimer;
+    private StatsTimer dataTimer;
+
+    @PostConstruct
+    public void init() {
+        templates = Caffeine.newBuilder()
+                .maximumSize(templateCacheSize)
+                .build();
+        templateHits = statsFactory.createStatsCounter(STATS_KEY, "templateHits");
+        templateMisses = statsFactory.createStatsCounter(STATS_KEY, "templateMisses");
+        buildTimer = statsFactory.createStatsTimer(STATS_KEY, "buildTime");
+        countTimer = statsFactory.createStatsTimer(STATS_KEY, "countTime");
+        dataTimer = statsFactory.createStatsTimer(STATS_KEY, "dataTime");
+        statsFactory.createGauge(STATS_KEY, "templateHitRatio", this, EntityQueryTemplateStats::getHitRatio);
+    }
+
+    public void onQueryBuilt(String query, long buildTimeNs) {
+        buildTimer.record(buildTimeNs, TimeUnit.NANOSECONDS);
+        if (templates.asMap().putIfAbsent(query, Boolean.TRUE) == null) {
+            templateMisses.increment();
+            log.trace("New entity query template: {}", query);
+        } else {
+            templateHits.increment();
+        }
+    }
+
+    public void onCountQueryExecuted(long durationMs) {
+        countTimer.record(durationMs);
+    }
+
+    public void onDataQueryExecuted(long durationMs) {
+        dataTimer.record(durationMs);
+    }
+
+    public double getHitRatio() {
+        long hits = templateHits.get();
+        long total = hits + templateMisses.get();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+}
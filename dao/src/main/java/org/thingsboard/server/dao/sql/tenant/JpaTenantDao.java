@@ -93,6 +93,11 @@ public class JpaTenantDao extends JpaAbstractDao<TenantEntity, Tenant> implement
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public PageData<TenantId> findTenantIdsByTenantProfileId(TenantProfileId tenantProfileId, PageLink pageLink) {
+        return DaoUtil.pageToPageData(tenantRepository.findTenantIdsByTenantProfileId(tenantProfileId.getId(), DaoUtil.toPageable(pageLink))).mapData(TenantId::fromUUID);
+    }
+
     @Override
     public Tenant findTenantByName(TenantId tenantId, String name) {
         return DaoUtil.getData(tenantRepository.findFirstByTitle(name));
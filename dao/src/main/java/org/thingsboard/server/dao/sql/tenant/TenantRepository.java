@@ -56,6 +56,9 @@ public interface TenantRepository extends JpaRepository<TenantEntity, UUID> {
     @Query("SELECT t.id FROM TenantEntity t where t.tenantProfileId = :tenantProfileId")
     List<UUID> findTenantIdsByTenantProfileId(@Param("tenantProfileId") UUID tenantProfileId);
 
+    @Query("SELECT t.id FROM TenantEntity t where t.tenantProfileId = :tenantProfileId")
+    Page<UUID> findTenantIdsByTenantProfileId(@Param("tenantProfileId") UUID tenantProfileId, Pageable pageable);
+
     @Query("SELECT new org.thingsboard.server.common.data.edqs.fields.TenantFields(t.id, t.createdTime, t.title, t.version," +
             "t.additionalInfo, t.country, t.state, t.city, t.address, t.address2, t.zip, t.phone, t.email, t.region) FROM TenantEntity t WHERE t.id > :id ORDER BY t.id")
     List<TenantFields> findNextBatch(@Param("id") UUID id, Limit limit);
@@ -39,6 +39,7 @@ import org.thingsboard.server.dao.model.sqlts.ts.TsKvEntity;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueParams;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueWrapper;
 import org.thingsboard.server.dao.sqlts.insert.InsertTsRepository;
+import org.thingsboard.server.dao.sqlts.rollup.TsRollupAggregate;
 import org.thingsboard.server.dao.sqlts.ts.TsKvRepository;
 import org.thingsboard.server.dao.timeseries.TimeseriesDao;
 import org.thingsboard.server.dao.util.TimeUtils;
@@ -46,6 +47,7 @@ import org.thingsboard.server.dao.util.TimeUtils;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Function;
@@ -80,7 +82,7 @@ public abstract class AbstractChunkedAggregationTimeseriesDao extends AbstractSq
 
         Function<TsKvEntity, Integer> hashcodeFunction = entity -> entity.getEntityId().hashCode();
         tsQueue = new TbSqlBlockingQueueWrapper<>(tsParams, hashcodeFunction, tsBatchThreads, statsFactory);
-        tsQueue.init(logExecutor, v -> insertRepository.saveOrUpdate(v),
+        tsQueue.init(logExecutor, v -> rollupService.save(v, insertRepository::saveOrUpdate),
                 Comparator.comparing((Function<TsKvEntity, UUID>) AbstractTsKvEntity::getEntityId)
                         .thenComparing(AbstractTsKvEntity::getKey)
                         .thenComparing(AbstractTsKvEntity::getTs)
@@ -97,11 +99,24 @@ public abstract class AbstractChunkedAggregationTimeseriesDao extends AbstractSq
     @Override
     public ListenableFuture<Void> remove(TenantId tenantId, EntityId entityId, DeleteTsKvQuery query) {
         return service.submit(() -> {
+            Integer keyId = keyDictionaryDao.getOrSaveKeyId(query.getKey());
             tsKvRepository.delete(
                     entityId.getId(),
-                    keyDictionaryDao.getOrSaveKeyId(query.getKey()),
+                    keyId,
                     query.getStartTs(),
                     query.getEndTs());
+            rollupService.onRemoved(entityId.getId(), keyId, query.getStartTs(), query.getEndTs());
+            return null;
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> remove(TenantId tenantId, List<EntityId> entityIds, DeleteTsKvQuery query) {
+        return service.submit(() -> {
+            Integer keyId = keyDictionaryDao.getOrSaveKeyId(query.getKey());
+            List<UUID> ids = entityIds.stream().map(EntityId::getId).toList();
+            tsKvRepository.deleteAll(ids, keyId, query.getStartTs(), query.getEndTs());
+            ids.forEach(id -> rollupService.onRemoved(id, keyId, query.getStartTs(), query.getEndTs()));
             return null;
         });
     }
@@ -174,6 +189,12 @@ public abstract class AbstractChunkedAggregationTimeseriesDao extends AbstractSq
 
     protected TsKvEntity switchAggregation(EntityId entityId, String key, long startTs, long endTs, Aggregation aggregation) {
         var keyId = keyDictionaryDao.getOrSaveKeyId(key);
+        if (rollupService.isRoutable(startTs, endTs)) {
+            TsRollupAggregate rollup = rollupService.findAggregate(entityId.getId(), keyId, startTs, endTs);
+            if (!rollup.requiresRawValues(aggregation)) {
+                return toTsKvEntity(rollup, aggregation);
+            }
+        }
         switch (aggregation) {
             case AVG:
                 return tsKvRepository.findAvg(entityId.getId(), keyId, startTs, endTs);
@@ -199,4 +220,22 @@ public abstract class AbstractChunkedAggregationTimeseriesDao extends AbstractSq
                 throw new IllegalArgumentException("Not supported aggregation type: " + aggregation);
         }
     }
+
+    private static TsKvEntity toTsKvEntity(TsRollupAggregate rollup, Aggregation aggregation) {
+        if (rollup.isEmpty()) {
+            return null;
+        }
+        return switch (aggregation) {
+            case AVG, SUM -> new TsKvEntity(Objects.requireNonNullElse(rollup.getLongSum(), 0L), Objects.requireNonNullElse(rollup.getDoubleSum(), 0.0),
+                    rollup.getLongCount(), rollup.getDoubleCount(), aggregation.name(), rollup.getMaxTs());
+            case MAX -> new TsKvEntity(rollup.getLongMax(), rollup.getDoubleMax(),
+                    rollup.getLongCount(), rollup.getDoubleCount(), aggregation.name(), rollup.getMaxTs());
+            case MIN -> new TsKvEntity(rollup.getLongMin(), rollup.getDoubleMin(),
+                    rollup.getLongCount(), rollup.getDoubleCount(), aggregation.name(), rollup.getMaxTs());
+            case COUNT -> new TsKvEntity(rollup.getBooleanCount(), rollup.getStrCount(), rollup.getLongCount(),
+                    rollup.getDoubleCount(), rollup.getJsonCount(), rollup.getMaxTs());
+            default -> throw new IllegalArgumentException("Not supported aggregation type: " + aggregation);
+        };
+    }
+
 }
@@ -29,6 +29,7 @@ import org.thingsboard.server.common.data.kv.ReadTsKvQueryResult;
 import org.thingsboard.server.common.data.kv.TsKvEntry;
 import org.thingsboard.server.dao.model.ModelConstants;
 import org.thingsboard.server.dao.sql.ScheduledLogExecutorComponent;
+import org.thingsboard.server.dao.sqlts.rollup.TsRollupService;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -47,6 +48,9 @@ public abstract class AbstractSqlTimeseriesDao extends BaseAbstractSqlTimeseries
     @Autowired
     protected ScheduledLogExecutorComponent logExecutor;
 
+    @Autowired
+    protected TsRollupService rollupService;
+
     @Value("${sql.ts.batch_size:1000}")
     protected int tsBatchSize;
 
@@ -85,6 +89,7 @@ public abstract class AbstractSqlTimeseriesDao extends BaseAbstractSqlTimeseries
         } catch (SQLException e) {
             log.error("SQLException occurred during timeseries TTL task execution ", e);
         }
+        rollupService.cleanup(systemTtl);
     }
 
     protected ListenableFuture<List<ReadTsKvQueryResult>> processFindAllAsync(TenantId tenantId, EntityId entityId, List<ReadTsKvQuery> queries) {
@@ -19,6 +19,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
@@ -41,6 +42,9 @@ public class SqlPartitioningRepository {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Value("${sql.partitions_create_ahead:1}")
+    private int partitionsCreateAhead;
+
     private static final String SELECT_PARTITIONS_STMT = "SELECT tablename from pg_tables WHERE schemaname = 'public' and tablename like concat(?, '_%')";
 
     private static final int PSQL_VERSION_14 = 140000;
@@ -81,6 +85,16 @@ public class SqlPartitioningRepository {
         }
     }
 
+    /**
+     * Creates the current partition and the configured number of the upcoming ones in advance,
+     * so that the writes at the start of a new time range do not wait for the partition DDL.
+     */
+    public void createPartitionsAhead(String table, long ts, long partitionDurationMs) {
+        for (int i = 0; i <= partitionsCreateAhead; i++) {
+            createPartitionIfNotExists(table, ts + i * partitionDurationMs, partitionDurationMs);
+        }
+    }
+
     public long dropPartitionsBefore(String table, long ts, long partitionDurationMs) {
         List<Long> partitions = fetchPartitions(table);
         long lastDroppedPartitionEndTime = -1;
@@ -0,0 +1,96 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.rollup;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.thingsboard.server.common.data.kv.Aggregation;
+
+/**
+ * Partial aggregate of the time series values within a time range.
+ * <p>
+ * Partial aggregates of adjacent ranges are merged to get the aggregate of the whole range,
+ * so AVG, MIN, MAX, SUM and COUNT of any range may be computed from the rollup buckets and the raw values at the range edges.
+ */
+@Data
+@NoArgsConstructor
+public class TsRollupAggregate {
+
+    private long ts;
+    private long booleanCount;
+    private long strCount;
+    private long jsonCount;
+    private long longCount;
+    private long doubleCount;
+    private Long longSum;
+    private Double doubleSum;
+    private Long longMin;
+    private Long longMax;
+    private Double doubleMin;
+    private Double doubleMax;
+    private Long maxTs;
+
+    public TsRollupAggregate(long ts) {
+        this.ts = ts;
+    }
+
+    public boolean isEmpty() {
+        return maxTs == null;
+    }
+
+    /**
+     * The rollups keep no string values, so MIN and MAX of a range with string values are computed from the raw values.
+     * The raw query then applies the precedence of numeric and string values of the particular time series database.
+     */
+    public boolean requiresRawValues(Aggregation aggregation) {
+        return (aggregation == Aggregation.MIN || aggregation == Aggregation.MAX) && strCount > 0;
+    }
+
+    public void merge(TsRollupAggregate other) {
+        if (other == null || other.isEmpty()) {
+            return;
+        }
+        booleanCount += other.booleanCount;
+        strCount += other.strCount;
+        jsonCount += other.jsonCount;
+        longCount += other.longCount;
+        doubleCount += other.doubleCount;
+        longSum = sum(longSum, other.longSum);
+        doubleSum = sum(doubleSum, other.doubleSum);
+        longMin = min(longMin, other.longMin);
+        longMax = max(longMax, other.longMax);
+        doubleMin = min(doubleMin, other.doubleMin);
+        doubleMax = max(doubleMax, other.doubleMax);
+        maxTs = max(maxTs, other.maxTs);
+    }
+
+    private static Long sum(Long a, Long b) {
+        return a == null ? b : (b == null ? a : Long.valueOf(a + b));
+    }
+
+    private static Double sum(Double a, Double b) {
+        return a == null ? b : (b == null ? a : Double.valueOf(a + b));
+    }
+
+    private static <T extends Comparable<T>> T min(T a, T b) {
+        return a == null ? b : (b == null ? a : (a.compareTo(b) <= 0 ? a : b));
+    }
+
+    private static <T extends Comparable<T>> T max(T a, T b) {
+        return a == null ? b : (b == null ? a : (a.compareTo(b) >= 0 ? a : b));
+    }
+
+}
@@ -0,0 +1,29 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.rollup;
+
+import java.util.UUID;
+
+/**
+ * Rollup bucket of the time series key that starts at {@code ts}.
+ */
+public record TsRollupBucket(UUID entityId, int key, long ts) {
+
+    public TsRollupBucket truncateTo(long intervalMs) {
+        return new TsRollupBucket(entityId, key, ts - ts % intervalMs);
+    }
+
+}
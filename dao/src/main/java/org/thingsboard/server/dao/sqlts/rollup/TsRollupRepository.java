@@ -0,0 +1,258 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.rollup;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.thingsboard.server.dao.util.SqlTsAnyDao;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+@SqlTsAnyDao
+@Repository
+@Transactional
+public class TsRollupRepository {
+
+    private static final String ROLLUP_COLUMNS = "entity_id, key, interval_ms, ts, bool_cnt, str_cnt, json_cnt, long_cnt, dbl_cnt, " +
+            "long_sum, dbl_sum, long_min, long_max, dbl_min, dbl_max, max_ts";
+
+    private static final String RAW_AGGREGATES = "COUNT(bool_v), COUNT(str_v), COUNT(json_v), COUNT(long_v), COUNT(dbl_v), " +
+            "SUM(long_v), SUM(dbl_v), MIN(long_v), MAX(long_v), MIN(dbl_v), MAX(dbl_v), MAX(ts)";
+
+    private static final String ROLLUP_AGGREGATES = "SUM(bool_cnt), SUM(str_cnt), SUM(json_cnt), SUM(long_cnt), SUM(dbl_cnt), " +
+            "SUM(long_sum), SUM(dbl_sum), MIN(long_min), MAX(long_max), MIN(dbl_min), MAX(dbl_max), MAX(max_ts)";
+
+    private static final String ON_CONFLICT_DO_UPDATE = " ON CONFLICT (entity_id, key, interval_ms, ts) DO UPDATE SET " +
+            "bool_cnt = excluded.bool_cnt, str_cnt = excluded.str_cnt, json_cnt = excluded.json_cnt, " +
+            "long_cnt = excluded.long_cnt, dbl_cnt = excluded.dbl_cnt, long_sum = excluded.long_sum, dbl_sum = excluded.dbl_sum, " +
+            "long_min = excluded.long_min, long_max = excluded.long_max, dbl_min = excluded.dbl_min, dbl_max = excluded.dbl_max, " +
+            "max_ts = excluded.max_ts";
+
+    private static final String REFRESH_FROM_RAW = "INSERT INTO ts_rollup (" + ROLLUP_COLUMNS + ") " +
+            "SELECT entity_id, key, ?, ?, " + RAW_AGGREGATES + " FROM ts_kv " +
+            "WHERE entity_id = ? AND key = ? AND ts >= ? AND ts < ? GROUP BY entity_id, key" + ON_CONFLICT_DO_UPDATE;
+
+    private static final String REFRESH_FROM_ROLLUP = "INSERT INTO ts_rollup (" + ROLLUP_COLUMNS + ") " +
+            "SELECT entity_id, key, ?, ?, " + ROLLUP_AGGREGATES + " FROM ts_rollup " +
+            "WHERE entity_id = ? AND key = ? AND interval_ms = ? AND ts >= ? AND ts < ? GROUP BY entity_id, key" + ON_CONFLICT_DO_UPDATE;
+
+    private static final String LOCK_BUCKETS = "SELECT pg_advisory_xact_lock(lock_key) FROM unnest(?) AS lock_key";
+
+    private static final String FIND_RAW_AGGREGATE = "SELECT " + RAW_AGGREGATES + " FROM ts_kv " +
+            "WHERE entity_id = ? AND key = ? AND ts >= ? AND ts < ?";
+
+    private static final String FIND_ROLLUP_AGGREGATE = "SELECT " + ROLLUP_AGGREGATES + " FROM ts_rollup " +
+            "WHERE entity_id = ? AND key = ? AND interval_ms = ? AND ts >= ? AND ts < ?";
+
+    private static final String FIND_ROLLUP_AGGREGATES = "SELECT ? + ((ts - ?) / ?) * ? AS bucket_ts, " + ROLLUP_AGGREGATES + " FROM ts_rollup " +
+            "WHERE entity_id = ? AND key = ? AND interval_ms = ? AND ts >= ? AND ts < ? GROUP BY 1 ORDER BY 1";
+
+    private static final String DELETE_RANGE = "DELETE FROM ts_rollup WHERE entity_id = ? AND key = ? AND interval_ms = ? AND ts >= ? AND ts < ?";
+
+    private static final String DELETE_OLDER_THAN = "DELETE FROM ts_rollup WHERE interval_ms = ? AND ts < ?";
+
+    private static final String FIND_WATERMARKS = "SELECT interval_ms, start_ts, end_ts FROM ts_rollup_watermark";
+
+    private static final String UPDATE_WATERMARK = "INSERT INTO ts_rollup_watermark (interval_ms, start_ts, end_ts) VALUES (?, ?, ?) " +
+            "ON CONFLICT (interval_ms) DO UPDATE SET " +
+            "start_ts = CASE WHEN ts_rollup_watermark.end_ts < excluded.end_ts - ? THEN excluded.start_ts ELSE ts_rollup_watermark.start_ts END, " +
+            "end_ts = GREATEST(ts_rollup_watermark.end_ts, excluded.end_ts)";
+
+    private static final String MARK_PENDING = "INSERT INTO ts_rollup_pending (entity_id, key, ts) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String CLAIM_PENDING = "DELETE FROM ts_rollup_pending WHERE (entity_id, key, ts) IN " +
+            "(SELECT entity_id, key, ts FROM ts_rollup_pending ORDER BY entity_id, key, ts LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING entity_id, key, ts";
+
+    private static final String MOVE_WATERMARK_START = "UPDATE ts_rollup_watermark SET start_ts = GREATEST(start_ts, ?) WHERE interval_ms = ?";
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    public void markPending(List<TsRollupBucket> buckets) {
+        jdbcTemplate.batchUpdate(MARK_PENDING, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                TsRollupBucket bucket = buckets.get(i);
+                ps.setObject(1, bucket.entityId());
+                ps.setInt(2, bucket.key());
+                ps.setLong(3, bucket.ts());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return buckets.size();
+            }
+        });
+    }
+
+    /**
+     * Removes up to {@code limit} pending buckets that are not claimed by other nodes and returns them.
+     * The buckets are pending again if the calling transaction is rolled back.
+     */
+    public List<TsRollupBucket> claimPending(int limit) {
+        return jdbcTemplate.query(CLAIM_PENDING, (rs, rowNum) ->
+                new TsRollupBucket(rs.getObject(1, UUID.class), rs.getInt(2), rs.getLong(3)), limit);
+    }
+
+    public void refreshFromRaw(long intervalMs, List<TsRollupBucket> buckets) {
+        jdbcTemplate.batchUpdate(REFRESH_FROM_RAW, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                TsRollupBucket bucket = buckets.get(i);
+                ps.setLong(1, intervalMs);
+                ps.setLong(2, bucket.ts());
+                ps.setObject(3, bucket.entityId());
+                ps.setInt(4, bucket.key());
+                ps.setLong(5, bucket.ts());
+                ps.setLong(6, bucket.ts() + intervalMs);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return buckets.size();
+            }
+        });
+    }
+
+    /**
+     * Recomputes the buckets from the finer rollup rows. Finer buckets of the same coarse bucket may be refreshed by other nodes at the
+     * same time, so each coarse bucket is locked until the end of the transaction. The finer rows committed by the lock holder are visible
+     * to the next refresh of the bucket, so the last refresh always aggregates all of them.
+     */
+    public void refreshFromRollup(long intervalMs, long sourceIntervalMs, List<TsRollupBucket> buckets) {
+        lockBuckets(intervalMs, buckets);
+        jdbcTemplate.batchUpdate(REFRESH_FROM_ROLLUP, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                TsRollupBucket bucket = buckets.get(i);
+                ps.setLong(1, intervalMs);
+                ps.setLong(2, bucket.ts());
+                ps.setObject(3, bucket.entityId());
+                ps.setInt(4, bucket.key());
+                ps.setLong(5, sourceIntervalMs);
+                ps.setLong(6, bucket.ts());
+                ps.setLong(7, bucket.ts() + intervalMs);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return buckets.size();
+            }
+        });
+    }
+
+    private void lockBuckets(long intervalMs, List<TsRollupBucket> buckets) {
+        // locks are acquired in the same order on all nodes to avoid deadlocks
+        Long[] lockKeys = buckets.stream().map(bucket -> toLockKey(intervalMs, bucket)).distinct().sorted().toArray(Long[]::new);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(LOCK_BUCKETS);
+            ps.setArray(1, con.createArrayOf("bigint", lockKeys));
+            return ps;
+        }, rs -> {});
+    }
+
+    private static long toLockKey(long intervalMs, TsRollupBucket bucket) {
+        long hash = bucket.entityId().getMostSignificantBits();
+        hash = 31 * hash + bucket.entityId().getLeastSignificantBits();
+        hash = 31 * hash + bucket.key();
+        hash = 31 * hash + intervalMs;
+        return 31 * hash + bucket.ts();
+    }
+
+    public TsRollupAggregate findRawAggregate(UUID entityId, int key, long startTs, long endTs) {
+        return jdbcTemplate.queryForObject(FIND_RAW_AGGREGATE, (rs, rowNum) -> toAggregate(rs, startTs, 1),
+                entityId, key, startTs, endTs);
+    }
+
+    public TsRollupAggregate findRollupAggregate(UUID entityId, int key, long intervalMs, long startTs, long endTs) {
+        return jdbcTemplate.queryForObject(FIND_ROLLUP_AGGREGATE, (rs, rowNum) -> toAggregate(rs, startTs, 1),
+                entityId, key, intervalMs, startTs, endTs);
+    }
+
+    public List<TsRollupAggregate> findRollupAggregates(UUID entityId, int key, long intervalMs, long startTs, long endTs, long bucketMs) {
+        return jdbcTemplate.query(FIND_ROLLUP_AGGREGATES, (rs, rowNum) -> toAggregate(rs, rs.getLong(1), 2),
+                startTs, startTs, bucketMs, bucketMs, entityId, key, intervalMs, startTs, endTs);
+    }
+
+    public void delete(UUID entityId, int key, long intervalMs, long startTs, long endTs) {
+        jdbcTemplate.update(DELETE_RANGE, entityId, key, intervalMs, startTs, endTs);
+    }
+
+    public int deleteOlderThan(long intervalMs, long ts) {
+        int deleted = jdbcTemplate.update(DELETE_OLDER_THAN, intervalMs, ts);
+        jdbcTemplate.update(MOVE_WATERMARK_START, ts, intervalMs);
+        return deleted;
+    }
+
+    public List<TsRollupWatermark> findWatermarks() {
+        return jdbcTemplate.query(FIND_WATERMARKS, (rs, rowNum) ->
+                new TsRollupWatermark(rs.getLong(1), rs.getLong(2), rs.getLong(3)));
+    }
+
+    public void updateWatermarks(List<TsRollupWatermark> watermarks, long maxGapMs) {
+        jdbcTemplate.batchUpdate(UPDATE_WATERMARK, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                TsRollupWatermark watermark = watermarks.get(i);
+                ps.setLong(1, watermark.intervalMs());
+                ps.setLong(2, watermark.startTs());
+                ps.setLong(3, watermark.endTs());
+                ps.setLong(4, maxGapMs);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return watermarks.size();
+            }
+        });
+    }
+
+    private static TsRollupAggregate toAggregate(ResultSet rs, long ts, int offset) throws SQLException {
+        TsRollupAggregate aggregate = new TsRollupAggregate(ts);
+        aggregate.setBooleanCount(rs.getLong(offset));
+        aggregate.setStrCount(rs.getLong(offset + 1));
+        aggregate.setJsonCount(rs.getLong(offset + 2));
+        aggregate.setLongCount(rs.getLong(offset + 3));
+        aggregate.setDoubleCount(rs.getLong(offset + 4));
+        aggregate.setLongSum(getLong(rs, offset + 5));
+        aggregate.setDoubleSum(getDouble(rs, offset + 6));
+        aggregate.setLongMin(getLong(rs, offset + 7));
+        aggregate.setLongMax(getLong(rs, offset + 8));
+        aggregate.setDoubleMin(getDouble(rs, offset + 9));
+        aggregate.setDoubleMax(getDouble(rs, offset + 10));
+        aggregate.setMaxTs(getLong(rs, offset + 11));
+        return aggregate;
+    }
+
+    private static Long getLong(ResultSet rs, int column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Double getDouble(ResultSet rs, int column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? null : value;
+    }
+
+}
@@ -0,0 +1,348 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.rollup;
+
+import com.google.common.collect.Lists;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thingsboard.common.util.ThingsBoardExecutors;
+import org.thingsboard.server.common.stats.StatsCounter;
+import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.dao.model.sql.AbstractTsKvEntity;
+import org.thingsboard.server.dao.util.SqlTsAnyDao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the {@code ts_rollup} table with pre-aggregated time series buckets of increasing size (1 minute, 1 hour and 1 day by default)
+ * and serves aggregation queries from the coarsest rollup that fits the requested range.
+ * <p>
+ * Every inserted batch of raw values marks its finest buckets as pending in the {@code ts_rollup_pending} table within the same transaction,
+ * so no change is lost when a node stops before the refresh. Pending buckets are periodically claimed in batches, recomputed from {@code ts_kv}
+ * using the primary key index, and each coarser bucket is recomputed from the finer rollup rows. The claimed buckets are removed from the pending
+ * table by the transaction that recomputes them. Recomputation instead of delta updates keeps the rollups correct when the raw values are
+ * overwritten. Coarser buckets are locked while they are recomputed, so concurrent refreshes of their finer buckets on different nodes
+ * are serialized and the last one aggregates all committed finer rows.
+ * <p>
+ * The {@code ts_rollup_watermark} table holds the range covered by each rollup interval. The range starts when the rollups were enabled
+ * and ends at the last refresh; values newer than {@code lag_ms} are always aggregated from the raw table.
+ * Rollups are removed by the system time series TTL, or by their own {@code ttl_ms} if it is set.
+ * Tenant and customer level TTL attributes are not applied to the rollups.
+ */
+@Slf4j
+@SqlTsAnyDao
+@Component
+@RequiredArgsConstructor
+public class TsRollupService {
+
+    private static final String STATS_KEY = "tsRollup";
+    private static final Comparator<TsRollupBucket> BUCKET_COMPARATOR = Comparator.comparing(TsRollupBucket::entityId)
+            .thenComparingInt(TsRollupBucket::key)
+            .thenComparingLong(TsRollupBucket::ts);
+
+    private final TsRollupRepository rollupRepository;
+    private final StatsFactory statsFactory;
+    private final TransactionTemplate transactionTemplate;
+
+    @Getter
+    @Value("${sql.ts_rollup.enabled:false}")
+    private boolean enabled;
+    @Value("${sql.ts_rollup.intervals:60000,3600000,86400000}")
+    private long[] intervals;
+    @Value("${sql.ts_rollup.refresh_interval_ms:10000}")
+    private long refreshIntervalMs;
+    @Value("${sql.ts_rollup.lag_ms:60000}")
+    private long lagMs;
+    @Value("${sql.ts_rollup.max_gap_ms:3600000}")
+    private long maxGapMs;
+    @Value("${sql.ts_rollup.max_pending_buckets:100000}")
+    private int maxPendingBuckets;
+    @Value("${sql.ts_rollup.batch_size:1000}")
+    private int batchSize;
+    @Value("${sql.ts_rollup.ttl_ms:0}")
+    private long ttlMs;
+
+    private volatile Map<Long, TsRollupWatermark> watermarks = Map.of();
+    private ScheduledExecutorService scheduler;
+
+    private StatsCounter rollupQueries;
+    private StatsCounter rawQueries;
+    private StatsCounter refreshedBuckets;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        if (intervals.length == 0) {
+            throw new IllegalArgumentException("At least one time series rollup interval is required!");
+        }
+        for (int i = 0; i < intervals.length; i++) {
+            if (intervals[i] <= 0 || (i > 0 && (intervals[i] <= intervals[i - 1] || intervals[i] % intervals[i - 1] != 0))) {
+                throw new IllegalArgumentException("Time series rollup intervals must be ascending and each interval must be a multiple of the previous one!");
+            }
+        }
+        rollupQueries = statsFactory.createStatsCounter(STATS_KEY, "rollupQueries");
+        rawQueries = statsFactory.createStatsCounter(STATS_KEY, "rawQueries");
+        refreshedBuckets = statsFactory.createStatsCounter(STATS_KEY, "refreshedBuckets");
+        scheduler = ThingsBoardExecutors.newSingleThreadScheduledExecutor("ts-rollup");
+        scheduler.scheduleWithFixedDelay(this::refresh, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (scheduler != null) {
+            // pending buckets are kept in the database and are refreshed by any node after the restart
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Saves the batch of raw values and marks their rollup buckets as pending within the same transaction.
+     */
+    public <T extends AbstractTsKvEntity> void save(List<T> entities, Consumer<List<T>> saveFunction) {
+        if (!enabled) {
+            saveFunction.accept(entities);
+            return;
+        }
+        long interval = intervals[0];
+        Set<TsRollupBucket> buckets = new TreeSet<>(BUCKET_COMPARATOR);
+        for (AbstractTsKvEntity entity : entities) {
+            buckets.add(new TsRollupBucket(entity.getEntityId(), entity.getKey(), floor(entity.getTs(), interval)));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            saveFunction.accept(entities);
+            rollupRepository.markPending(new ArrayList<>(buckets));
+        });
+    }
+
+    public void onRemoved(UUID entityId, int key, long startTs, long endTs) {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < intervals.length; i++) {
+            long interval = intervals[i];
+            rollupRepository.delete(entityId, key, interval, floor(startTs, interval), ceil(endTs, interval));
+            // buckets that are only partially removed are recomputed from the remaining values
+            Set<TsRollupBucket> edgeBuckets = new HashSet<>();
+            if (startTs % interval != 0) {
+                edgeBuckets.add(new TsRollupBucket(entityId, key, floor(startTs, interval)));
+            }
+            if (endTs % interval != 0) {
+                edgeBuckets.add(new TsRollupBucket(entityId, key, floor(endTs, interval)));
+            }
+            refreshLevel(i, edgeBuckets);
+        }
+    }
+
+    /**
+     * Removes the rollups older than {@code ttl_ms}, or older than the system time series TTL if {@code ttl_ms} is not set.
+     */
+    public void cleanup(long systemTtl) {
+        long rollupTtlMs = ttlMs > 0 ? ttlMs : TimeUnit.SECONDS.toMillis(systemTtl);
+        if (!enabled || rollupTtlMs <= 0) {
+            return;
+        }
+        long expirationTs = System.currentTimeMillis() - rollupTtlMs;
+        for (long interval : intervals) {
+            int deleted = rollupRepository.deleteOlderThan(interval, ceil(expirationTs, interval));
+            log.info("Removed {} expired time series rollups with interval {}ms", deleted, interval);
+        }
+    }
+
+    /**
+     * Checks whether at least one rollup bucket fits into the range, so the aggregate may be read from the rollups.
+     */
+    public boolean isRoutable(long startTs, long endTs) {
+        if (!enabled) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        for (long interval : intervals) {
+            TsRollupWatermark watermark = watermarks.get(interval);
+            if (watermark != null && getCoveredStart(watermark, startTs) < getCoveredEnd(watermark, endTs, now)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Aggregates the range using the coarsest rollup buckets that fit into it, finer rollups for the remaining edges
+     * and the raw values for the parts that are not covered by any rollup.
+     */
+    public TsRollupAggregate findAggregate(UUID entityId, int key, long startTs, long endTs) {
+        return aggregate(entityId, key, startTs, endTs, intervals.length - 1, System.currentTimeMillis());
+    }
+
+    /**
+     * Returns the end of the range, starting at {@code startTs}, whose buckets of {@code bucketMs} may be aggregated from a single rollup.
+     * Returns {@code startTs} when no rollup is aligned with the buckets.
+     */
+    public long getRollupEndTs(long startTs, long endTs, long bucketMs) {
+        TsRollupWatermark watermark = getAlignedWatermark(startTs, bucketMs);
+        if (watermark == null) {
+            return startTs;
+        }
+        long coveredEnd = getCoveredEnd(watermark, endTs, System.currentTimeMillis());
+        return coveredEnd > startTs ? startTs + (coveredEnd - startTs) / bucketMs * bucketMs : startTs;
+    }
+
+    /**
+     * Aggregates the buckets of {@code bucketMs} within the range returned by {@link #getRollupEndTs(long, long, long)} with a single query.
+     */
+    public List<TsRollupAggregate> findAggregates(UUID entityId, int key, long startTs, long endTs, long bucketMs) {
+        TsRollupWatermark watermark = getAlignedWatermark(startTs, bucketMs);
+        if (watermark == null) {
+            throw new IllegalArgumentException("No time series rollup is aligned with buckets of " + bucketMs + "ms starting at " + startTs);
+        }
+        rollupQueries.increment();
+        return rollupRepository.findRollupAggregates(entityId, key, watermark.intervalMs(), startTs, endTs, bucketMs);
+    }
+
+    private TsRollupAggregate aggregate(UUID entityId, int key, long startTs, long endTs, int level, long now) {
+        TsRollupAggregate result = new TsRollupAggregate(startTs);
+        if (startTs >= endTs) {
+            return result;
+        }
+        for (int i = level; i >= 0; i--) {
+            long interval = intervals[i];
+            TsRollupWatermark watermark = watermarks.get(interval);
+            if (watermark == null) {
+                continue;
+            }
+            long from = getCoveredStart(watermark, startTs);
+            long to = getCoveredEnd(watermark, endTs, now);
+            if (from < to) {
+                rollupQueries.increment();
+                result.merge(rollupRepository.findRollupAggregate(entityId, key, interval, from, to));
+                result.merge(aggregate(entityId, key, startTs, from, i - 1, now));
+                result.merge(aggregate(entityId, key, to, endTs, i - 1, now));
+                return result;
+            }
+        }
+        rawQueries.increment();
+        result.merge(rollupRepository.findRawAggregate(entityId, key, startTs, endTs));
+        return result;
+    }
+
+    private TsRollupWatermark getAlignedWatermark(long startTs, long bucketMs) {
+        if (!enabled) {
+            return null;
+        }
+        for (int i = intervals.length - 1; i >= 0; i--) {
+            long interval = intervals[i];
+            TsRollupWatermark watermark = watermarks.get(interval);
+            if (watermark != null && startTs % interval == 0 && bucketMs % interval == 0 && startTs >= watermark.startTs()) {
+                return watermark;
+            }
+        }
+        return null;
+    }
+
+    private long getCoveredStart(TsRollupWatermark watermark, long startTs) {
+        return Math.max(ceil(startTs, watermark.intervalMs()), watermark.startTs());
+    }
+
+    private long getCoveredEnd(TsRollupWatermark watermark, long endTs, long now) {
+        return floor(Math.min(endTs, Math.min(watermark.endTs(), now - lagMs)), watermark.intervalMs());
+    }
+
+    private void refresh() {
+        try {
+            long now = System.currentTimeMillis();
+            refreshPendingBuckets();
+            List<TsRollupWatermark> heartbeats = new ArrayList<>(intervals.length);
+            for (long interval : intervals) {
+                heartbeats.add(new TsRollupWatermark(interval, ceil(now, interval), now));
+            }
+            rollupRepository.updateWatermarks(heartbeats, maxGapMs);
+            watermarks = rollupRepository.findWatermarks().stream()
+                    .collect(Collectors.toUnmodifiableMap(TsRollupWatermark::intervalMs, Function.identity()));
+        } catch (Throwable t) {
+            log.warn("Failed to refresh time series rollups", t);
+        }
+    }
+
+    void refreshPendingBuckets() {
+        Integer claimed;
+        do {
+            // the claimed buckets stay pending if the transaction that recomputes them fails
+            claimed = transactionTemplate.execute(status -> {
+                List<TsRollupBucket> buckets = rollupRepository.claimPending(maxPendingBuckets);
+                Collection<TsRollupBucket> levelBuckets = buckets;
+                for (int i = 0; i < intervals.length; i++) {
+                    long interval = intervals[i];
+                    if (i > 0) {
+                        levelBuckets = levelBuckets.stream().map(bucket -> bucket.truncateTo(interval))
+                                .collect(Collectors.toCollection(() -> new TreeSet<>(BUCKET_COMPARATOR)));
+                    }
+                    refreshLevel(i, levelBuckets);
+                }
+                return buckets.size();
+            });
+            log.debug("Refreshed {} pending time series rollup buckets", claimed);
+        } while (claimed != null && claimed >= maxPendingBuckets);
+    }
+
+    private void refreshLevel(int level, Collection<TsRollupBucket> buckets) {
+        if (buckets.isEmpty()) {
+            return;
+        }
+        // sorted buckets keep the row lock order consistent between the nodes that refresh the same buckets
+        List<TsRollupBucket> sortedBuckets = buckets.stream().sorted(BUCKET_COMPARATOR).toList();
+        for (List<TsRollupBucket> batch : Lists.partition(sortedBuckets, batchSize)) {
+            if (level == 0) {
+                rollupRepository.refreshFromRaw(intervals[level], batch);
+            } else {
+                rollupRepository.refreshFromRollup(intervals[level], intervals[level - 1], batch);
+            }
+        }
+        refreshedBuckets.add(buckets.size());
+    }
+
+    private static long floor(long ts, long interval) {
+        return ts - ts % interval;
+    }
+
+    private static long ceil(long ts, long interval) {
+        long remainder = ts % interval;
+        if (remainder == 0) {
+            return ts;
+        }
+        return ts > Long.MAX_VALUE - interval ? Long.MAX_VALUE : ts - remainder + interval;
+    }
+
+}
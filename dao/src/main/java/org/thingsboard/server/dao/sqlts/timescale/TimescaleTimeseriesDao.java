@@ -43,6 +43,7 @@ import org.thingsboard.server.dao.sql.TbSqlBlockingQueueParams;
 import org.thingsboard.server.dao.sql.TbSqlBlockingQueueWrapper;
 import org.thingsboard.server.dao.sqlts.AbstractSqlTimeseriesDao;
 import org.thingsboard.server.dao.sqlts.insert.InsertTsRepository;
+import org.thingsboard.server.dao.sqlts.rollup.TsRollupAggregate;
 import org.thingsboard.server.dao.timeseries.TimeseriesDao;
 import org.thingsboard.server.dao.util.TimeUtils;
 import org.thingsboard.server.dao.util.TimescaleDBTsDao;
@@ -51,6 +52,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Function;
@@ -91,7 +93,7 @@ public class TimescaleTimeseriesDao extends AbstractSqlTimeseriesDao implements
         Function<TimescaleTsKvEntity, Integer> hashcodeFunction = entity -> entity.getEntityId().hashCode();
         tsQueue = new TbSqlBlockingQueueWrapper<>(tsParams, hashcodeFunction, timescaleBatchThreads, statsFactory);
 
-        tsQueue.init(logExecutor, v -> insertRepository.saveOrUpdate(v),
+        tsQueue.init(logExecutor, v -> rollupService.save(v, insertRepository::saveOrUpdate),
                 Comparator.comparing((Function<TimescaleTsKvEntity, UUID>) AbstractTsKvEntity::getEntityId)
                         .thenComparing(AbstractTsKvEntity::getKey)
                         .thenComparing(AbstractTsKvEntity::getTs)
@@ -143,6 +145,18 @@ public class TimescaleTimeseriesDao extends AbstractSqlTimeseriesDao implements
                     keyId,
                     query.getStartTs(),
                     query.getEndTs());
+            rollupService.onRemoved(entityId.getId(), keyId, query.getStartTs(), query.getEndTs());
+            return null;
+        });
+    }
+
+    @Override
+    public ListenableFuture<Void> remove(TenantId tenantId, List<EntityId> entityIds, DeleteTsKvQuery query) {
+        Integer keyId = keyDictionaryDao.getOrSaveKeyId(query.getKey());
+        return service.submit(() -> {
+            List<UUID> ids = entityIds.stream().map(EntityId::getId).toList();
+            tsKvRepository.deleteAll(ids, keyId, query.getStartTs(), query.getEndTs());
+            ids.forEach(id -> rollupService.onRemoved(id, keyId, query.getStartTs(), query.getEndTs()));
             return null;
         });
     }
@@ -157,7 +171,14 @@ public class TimescaleTimeseriesDao extends AbstractSqlTimeseriesDao implements
             long startTs = query.getStartTs();
             long endTs = Math.max(query.getStartTs() + 1, query.getEndTs());
             long timeBucket = query.getInterval();
-            List<Optional<? extends AbstractTsKvEntity>> data = findAllAndAggregateAsync(entityId, query.getKey(), startTs, endTs, timeBucket, query.getAggregation());
+            long rollupEndTs = rollupService.getRollupEndTs(startTs, endTs, timeBucket);
+            List<Optional<? extends AbstractTsKvEntity>> data = new ArrayList<>();
+            if (rollupEndTs > startTs) {
+                data.addAll(findRollupAggregates(entityId, query.getKey(), startTs, rollupEndTs, timeBucket, query.getAggregation()));
+            }
+            if (rollupEndTs < endTs) {
+                data.addAll(findAllAndAggregateAsync(entityId, query.getKey(), rollupEndTs, endTs, timeBucket, query.getAggregation()));
+            }
             return getReadTsKvQueryResultFuture(query, Futures.immediateFuture(data));
         } else {
             //TODO: @dshvaika improve according to native capabilities of Timescale.
@@ -167,7 +188,11 @@ public class TimescaleTimeseriesDao extends AbstractSqlTimeseriesDao implements
             while (startPeriod < endPeriod) {
                 long startTs = startPeriod;
                 long endTs = Math.min(TimeUtils.calculateIntervalEnd(startTs, intervalType, aggParams.getTzId()), endPeriod);
-                timescaleTsKvEntities.addAll(switchAggregation(query.getKey(), startTs, endTs, endTs - startTs, query.getAggregation(), entityId.getId()));
+                if (rollupService.isRoutable(startTs, endTs)) {
+                    timescaleTsKvEntities.add(findRollupAggregate(entityId, query.getKey(), startTs, endTs, query.getAggregation()));
+                } else {
+                    timescaleTsKvEntities.addAll(switchAggregation(query.getKey(), startTs, endTs, endTs - startTs, query.getAggregation(), entityId.getId()));
+                }
                 startPeriod = endTs;
             }
             return getReadTsKvQueryResultFuture(query, Futures.immediateFuture(toResultList(entityId, query.getKey(), timescaleTsKvEntities)));
@@ -210,6 +235,46 @@ public class TimescaleTimeseriesDao extends AbstractSqlTimeseriesDao implements
         return toResultList(entityId, key, timescaleTsKvEntities);
     }
 
+    private List<Optional<? extends AbstractTsKvEntity>> findRollupAggregates(EntityId entityId, String key, long startTs, long endTs, long timeBucket, Aggregation aggregation) {
+        Integer keyId = keyDictionaryDao.getOrSaveKeyId(key);
+        List<TimescaleTsKvEntity> timescaleTsKvEntities = new ArrayList<>();
+        for (TsRollupAggregate rollup : rollupService.findAggregates(entityId.getId(), keyId, startTs, endTs, timeBucket)) {
+            if (rollup.requiresRawValues(aggregation)) {
+                timescaleTsKvEntities.addAll(switchAggregation(key, rollup.getTs(), rollup.getTs() + timeBucket, timeBucket, aggregation, entityId.getId()));
+            } else {
+                timescaleTsKvEntities.add(toTimescaleTsKvEntity(rollup, timeBucket, aggregation));
+            }
+        }
+        return toResultList(entityId, key, timescaleTsKvEntities);
+    }
+
+    private TimescaleTsKvEntity findRollupAggregate(EntityId entityId, String key, long startTs, long endTs, Aggregation aggregation) {
+        Integer keyId = keyDictionaryDao.getOrSaveKeyId(key);
+        TsRollupAggregate rollup = rollupService.findAggregate(entityId.getId(), keyId, startTs, endTs);
+        if (rollup.requiresRawValues(aggregation)) {
+            List<TimescaleTsKvEntity> entities = switchAggregation(key, startTs, endTs, endTs - startTs, aggregation, entityId.getId());
+            return entities.isEmpty() ? null : entities.get(0);
+        }
+        return toTimescaleTsKvEntity(rollup, endTs - startTs, aggregation);
+    }
+
+    private static TimescaleTsKvEntity toTimescaleTsKvEntity(TsRollupAggregate rollup, long interval, Aggregation aggregation) {
+        if (rollup.isEmpty()) {
+            return null;
+        }
+        return switch (aggregation) {
+            case AVG, SUM -> new TimescaleTsKvEntity(rollup.getTs(), interval, Objects.requireNonNullElse(rollup.getLongSum(), 0L),
+                    Objects.requireNonNullElse(rollup.getDoubleSum(), 0.0), rollup.getLongCount(), rollup.getDoubleCount(), null, aggregation.name(), rollup.getMaxTs());
+            case MAX -> new TimescaleTsKvEntity(rollup.getTs(), interval, rollup.getLongMax(), rollup.getDoubleMax(),
+                    rollup.getLongCount(), rollup.getDoubleCount(), null, aggregation.name(), rollup.getMaxTs());
+            case MIN -> new TimescaleTsKvEntity(rollup.getTs(), interval, rollup.getLongMin(), rollup.getDoubleMin(),
+                    rollup.getLongCount(), rollup.getDoubleCount(), null, aggregation.name(), rollup.getMaxTs());
+            case COUNT -> new TimescaleTsKvEntity(rollup.getTs(), interval, rollup.getBooleanCount(), rollup.getStrCount(),
+                    rollup.getLongCount(), rollup.getDoubleCount(), rollup.getJsonCount(), rollup.getMaxTs());
+            default -> throw new IllegalArgumentException("Not supported aggregation type: " + aggregation);
+        };
+    }
+
     private static List<Optional<? extends AbstractTsKvEntity>> toResultList(EntityId entityId, String key, List<TimescaleTsKvEntity> timescaleTsKvEntities) {
         if (!CollectionUtils.isEmpty(timescaleTsKvEntities)) {
             List<Optional<? extends AbstractTsKvEntity>> result = new ArrayList<>();
@@ -25,6 +25,7 @@ import org.thingsboard.server.dao.model.sqlts.timescale.ts.TimescaleTsKvComposit
 import org.thingsboard.server.dao.model.sqlts.timescale.ts.TimescaleTsKvEntity;
 import org.thingsboard.server.dao.util.TimescaleDBTsOrTsLatestDao;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -49,4 +50,14 @@ public interface TsKvTimescaleRepository extends JpaRepository<TimescaleTsKvEnti
                 @Param("startTs") long startTs,
                 @Param("endTs") long endTs);
 
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM TimescaleTsKvEntity tskv WHERE tskv.entityId IN :entityIds " +
+            "AND tskv.key = :entityKey " +
+            "AND tskv.ts >= :startTs AND tskv.ts < :endTs")
+    void deleteAll(@Param("entityIds") Collection<UUID> entityIds,
+                   @Param("entityKey") int key,
+                   @Param("startTs") long startTs,
+                   @Param("endTs") long endTs);
+
 }
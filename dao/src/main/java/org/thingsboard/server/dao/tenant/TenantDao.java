@@ -40,6 +40,8 @@ public interface TenantDao extends Dao<Tenant> {
 
     List<TenantId> findTenantIdsByTenantProfileId(TenantProfileId tenantProfileId);
 
+    PageData<TenantId> findTenantIdsByTenantProfileId(TenantProfileId tenantProfileId, PageLink pageLink);
+
     Tenant findTenantByName(TenantId tenantId, String name);
 
 }
@@ -206,6 +206,13 @@ public class TenantServiceImpl extends AbstractCachedEntityService<TenantId, Ten
         return tenantDao.findTenantIdsByTenantProfileId(tenantProfileId);
     }
 
+    @Override
+    public PageData<TenantId> findTenantIdsByTenantProfileId(TenantProfileId tenantProfileId, PageLink pageLink) {
+        log.trace("Executing findTenantIdsByTenantProfileId [{}], pageLink [{}]", tenantProfileId, pageLink);
+        Validator.validatePageLink(pageLink);
+        return tenantDao.findTenantIdsByTenantProfileId(tenantProfileId, pageLink);
+    }
+
     @Override
     public Tenant findTenantByName(String name) {
         log.trace("Executing findTenantByName [{}]", name);
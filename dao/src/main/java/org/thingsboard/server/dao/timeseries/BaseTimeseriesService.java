@@ -242,6 +242,13 @@ public class BaseTimeseriesService implements TimeseriesService {
         return Futures.allAsList(futures);
     }
 
+    @Override
+    public ListenableFuture<Void> removeHistory(TenantId tenantId, List<EntityId> entityIds, DeleteTsKvQuery query) {
+        entityIds.forEach(BaseTimeseriesService::validate);
+        validate(query);
+        return timeseriesDao.remove(tenantId, entityIds, query);
+    }
+
     @Override
     public ListenableFuture<List<TsKvLatestRemovingResult>> removeLatest(TenantId tenantId, EntityId entityId, Collection<String> keys) {
         validate(entityId);
@@ -120,6 +120,9 @@ public class CassandraBaseTimeseriesDao extends AbstractCassandraBaseTimeseriesD
     @Value("${cassandra.query.ts_key_value_partitions_max_cache_size:100000}")
     private long partitionsCacheSize;
 
+    @Value("${cassandra.query.ts_key_value_read_parallelism:4}")
+    private int readParallelism;
+
     @Value("${cassandra.query.ts_key_value_ttl}")
     private long systemTtl;
 
@@ -135,6 +138,7 @@ public class CassandraBaseTimeseriesDao extends AbstractCassandraBaseTimeseriesD
     private PreparedStatement[] fetchStmtsAsc;
     private PreparedStatement[] fetchStmtsDesc;
     private PreparedStatement deleteStmt;
+    private PreparedStatement deletePartitionStmt;
     private PreparedStatement saveWithNullStmt;
     private PreparedStatement saveWithNullWithTtlStmt;
     private final Lock stmtCreationLock = new ReentrantLock();
@@ -257,11 +261,19 @@ public class CassandraBaseTimeseriesDao extends AbstractCassandraBaseTimeseriesD
             @Override
             public void onFailure(Throwable t) {
                 log.error("[{}][{}] Failed to fetch partitions for interval {}-{}", entityId.getEntityType().name(), entityId.getId(), minPartition, maxPartition, t);
+                resultFuture.setException(t);
             }
         }, readResultsProcessingExecutor);
         return resultFuture;
     }
 
+    @Override
+    public ListenableFuture<Void> remove(TenantId tenantId, List<EntityId> entityIds, DeleteTsKvQuery query) {
+        // each entity key is stored in its own partitions, so the entities are removed concurrently
+        List<ListenableFuture<Void>> futures = entityIds.stream().map(entityId -> remove(tenantId, entityId, query)).toList();
+        return Futures.transform(Futures.allAsList(futures), v -> null, MoreExecutors.directExecutor());
+    }
+
     @Override
     public ListenableFuture<ReadTsKvQueryResult> findAllAsync(TenantId tenantId, EntityId entityId, ReadTsKvQuery query) {
         var aggParams = query.getAggParameters();
@@ -325,12 +337,13 @@ public class CassandraBaseTimeseriesDao extends AbstractCassandraBaseTimeseriesD
             @Override
             public void onSuccess(@Nullable List<Long> partitions) {
                 TsKvQueryCursor cursor = new TsKvQueryCursor(entityId.getEntityType().name(), entityId.getId(), query, partitions);
-                findAllAsyncSequentiallyWithLimit(tenantId, cursor, resultFuture);
+                findAllAsyncByPartitionsWithLimit(tenantId, cursor, resultFuture);
             }
 
             @Override
             public void onFailure(Throwable t) {
                 log.error("[{}][{}] Failed to fetch partitions for interval {}-{}", entityId.getEntityType().name(), entityId.getId(), toPartitionTs(query.getStartTs()), toPartitionTs(query.getEndTs()), t);
+                resultFuture.setException(t);
             }
         }, readResultsProcessingExecutor);
 
@@ -348,56 +361,71 @@ public class CassandraBaseTimeseriesDao extends AbstractCassandraBaseTimeseriesD
         return tsFormat.truncatedTo(time).toInstant(ZoneOffset.UTC).toEpochMilli();
     }
 
-    private void findAllAsyncSequentiallyWithLimit(TenantId tenantId, final TsKvQueryCursor cursor, final SimpleListenableFuture<List<TsKvEntry>> resultFuture) {
+    /*
+     * Partitions are fetched in waves of up to 'readParallelism' queries dispatched through the buffered rate read executor.
+     * The first partition of a wave is fetched with the remaining cursor limit and the limit is split across the other queries of the wave.
+     * The results are merged in the partition order.
+     * A partition that returns its whole limit may have more data, so the next wave continues from it,
+     * and the next wave is not started once the limit is reached.
+     */
+    private void findAllAsyncByPartitionsWithLimit(TenantId tenantId, final TsKvQueryCursor cursor, final SimpleListenableFuture<List<TsKvEntry>> resultFuture) {
         if (cursor.isFull() || !cursor.hasNextPartition()) {
             resultFuture.set(cursor.getData());
-        } else {
-            PreparedStatement proto = getFetchStmt(Aggregation.NONE, cursor.getOrderBy());
-            BoundStatementBuilder stmtBuilder = new BoundStatementBuilder(proto.bind());
-
-            stmtBuilder.setString(0, cursor.getEntityType());
-            stmtBuilder.setUuid(1, cursor.getEntityId());
-            stmtBuilder.setString(2, cursor.getKey());
-            stmtBuilder.setLong(3, cursor.getNextPartition());
-            stmtBuilder.setLong(4, cursor.getStartTs());
-            stmtBuilder.setLong(5, cursor.getEndTs());
-            stmtBuilder.setInt(6, cursor.getCurrentLimit());
-
-            BoundStatement stmt = stmtBuilder.build();
-
-            Futures.addCallback(executeAsyncRead(tenantId, stmt), new FutureCallback<TbResultSet>() {
-                @Override
-                public void onSuccess(@Nullable TbResultSet result) {
-                    if (result == null) {
-                        cursor.addData(convertResultToTsKvEntryList(Collections.emptyList()));
-                        findAllAsyncSequentiallyWithLimit(tenantId, cursor, resultFuture);
-                    } else {
-                        Futures.addCallback(result.allRows(readResultsProcessingExecutor), new FutureCallback<List<Row>>() {
+            return;
+        }
+        List<Long> partitions = cursor.getNextPartitions(readParallelism);
+        int[] limits = new int[partitions.size()];
+        List<ListenableFuture<List<TsKvEntry>>> futures = new ArrayList<>(partitions.size());
+        for (int i = 0; i < partitions.size(); i++) {
+            limits[i] = cursor.getPartitionLimit(i, partitions.size());
+            futures.add(fetchPartitionAsync(tenantId, cursor, partitions.get(i), limits[i]));
+        }
+        Futures.addCallback(Futures.allAsList(futures), new FutureCallback<>() {
+            @Override
+            public void onSuccess(@Nullable List<List<TsKvEntry>> results) {
+                if (results != null) {
+                    for (int i = 0; i < results.size(); i++) {
+                        if (!cursor.addPartitionData(partitions.get(i), results.get(i), limits[i])) {
+                            break;
+                        }
+                    }
+                }
+                findAllAsyncByPartitionsWithLimit(tenantId, cursor, resultFuture);
+            }
 
-                            @Override
-                            public void onSuccess(@Nullable List<Row> result) {
-                                cursor.addData(convertResultToTsKvEntryList(result == null ? Collections.emptyList() : result));
-                                findAllAsyncSequentiallyWithLimit(tenantId, cursor, resultFuture);
-                            }
+            @Override
+            public void onFailure(Throwable t) {
+                log.error("[{}][{}] Failed to fetch data for key {}", cursor.getEntityType(), cursor.getEntityId(), cursor.getKey(), t);
+                resultFuture.setException(t);
+            }
+        }, readResultsProcessingExecutor);
+    }
 
-                            @Override
-                            public void onFailure(Throwable t) {
-                                log.error("[{}][{}] Failed to fetch data for query {}-{}", stmt, t);
-                            }
-                        }, readResultsProcessingExecutor);
+    private ListenableFuture<List<TsKvEntry>> fetchPartitionAsync(TenantId tenantId, TsKvQueryCursor cursor, long partition, int limit) {
+        PreparedStatement proto = getFetchStmt(Aggregation.NONE, cursor.getOrderBy());
+        BoundStatementBuilder stmtBuilder = new BoundStatementBuilder(proto.bind());
 
+        stmtBuilder.setString(0, cursor.getEntityType());
+        stmtBuilder.setUuid(1, cursor.getEntityId());
+        stmtBuilder.setString(2, cursor.getKey());
+        stmtBuilder.setLong(3, partition);
+        stmtBuilder.setLong(4, cursor.getStartTs());
+        stmtBuilder.setLong(5, cursor.getEndTs());
+        stmtBuilder.setInt(6, limit);
 
-                    }
-                }
+        BoundStatement stmt = stmtBuilder.build();
 
-                @Override
-                public void onFailure(Throwable t) {
-                    log.error("[{}][{}] Failed to fetch data for query {}-{}", stmt, t);
-                }
-            }, readResultsProcessingExecutor);
-        }
+        return Futures.transformAsync(executeAsyncRead(tenantId, stmt), result -> {
+            if (result == null) {
+                return Futures.immediateFuture(Collections.emptyList());
+            }
+            return Futures.transform(result.allRows(readResultsProcessingExecutor),
+                    rows -> convertResultToTsKvEntryList(rows == null ? Collections.emptyList() : rows), MoreExecutors.directExecutor());
+        }, readResultsProcessingExecutor);
     }
 
+    // aggregation needs every partition of the interval and has no limit to stop early on,
+    // so all partitions are fetched at once and the buffered rate read executor bounds the concurrency
     private ListenableFuture<Optional<TsKvEntryAggWrapper>> findAndAggregateAsync(TenantId tenantId, EntityId entityId, ReadTsKvQuery query, long minPartition, long maxPartition) {
         final Aggregation aggregation = query.getAggregation();
         final String key = query.getKey();
@@ -550,14 +578,19 @@ public class CassandraBaseTimeseriesDao extends AbstractCassandraBaseTimeseriesD
         if (!cursor.hasNextPartition()) {
             resultFuture.set(null);
         } else {
-            PreparedStatement proto = getDeleteStmt();
+            long partition = cursor.getNextPartition();
+            // partitions that end before the end of the range are deleted entirely, with a single partition tombstone
+            boolean wholePartition = partition >= cursor.getStartTs() && partition < toPartitionTs(cursor.getEndTs());
+            PreparedStatement proto = wholePartition ? getDeletePartitionStmt() : getDeleteStmt();
             BoundStatementBuilder stmtBuilder = new BoundStatementBuilder(proto.bind());
             stmtBuilder.setString(0, cursor.getEntityType());
             stmtBuilder.setUuid(1, cursor.getEntityId());
             stmtBuilder.setString(2, cursor.getKey());
-            stmtBuilder.setLong(3, cursor.getNextPartition());
-            stmtBuilder.setLong(4, cursor.getStartTs());
-            stmtBuilder.setLong(5, cursor.getEndTs());
+            stmtBuilder.setLong(3, partition);
+            if (!wholePartition) {
+                stmtBuilder.setLong(4, cursor.getStartTs());
+                stmtBuilder.setLong(5, cursor.getEndTs());
+            }
 
             BoundStatement stmt = stmtBuilder.build();
 
@@ -570,6 +603,7 @@ public class CassandraBaseTimeseriesDao extends AbstractCassandraBaseTimeseriesD
                 @Override
                 public void onFailure(Throwable t) {
                     log.error("[{}][{}] Failed to delete data for query {}-{}", stmt, t);
+                    resultFuture.setException(t);
                 }
             }, readResultsProcessingExecutor);
         }
@@ -595,6 +629,24 @@ public class CassandraBaseTimeseriesDao extends AbstractCassandraBaseTimeseriesD
         return deleteStmt;
     }
 
+    private PreparedStatement getDeletePartitionStmt() {
+        if (deletePartitionStmt == null) {
+            stmtCreationLock.lock();
+            try {
+                if (deletePartitionStmt == null) {
+                    deletePartitionStmt = prepare("DELETE FROM " + ModelConstants.TS_KV_CF +
+                            " WHERE " + ModelConstants.ENTITY_TYPE_COLUMN + EQUALS_PARAM
+                            + "AND " + ModelConstants.ENTITY_ID_COLUMN + EQUALS_PARAM
+                            + "AND " + ModelConstants.KEY_COLUMN + EQUALS_PARAM
+                            + "AND " + ModelConstants.PARTITION_COLUMN + EQUALS_PARAM);
+                }
+            } finally {
+                stmtCreationLock.unlock();
+            }
+        }
+        return deletePartitionStmt;
+    }
+
     private PreparedStatement getSaveWithNullStmt() {
         if (saveWithNullStmt == null) {
             stmtCreationLock.lock();
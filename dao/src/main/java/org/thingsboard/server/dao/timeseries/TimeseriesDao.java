@@ -38,5 +38,7 @@ public interface TimeseriesDao {
 
     ListenableFuture<Void> remove(TenantId tenantId, EntityId entityId, DeleteTsKvQuery query);
 
+    ListenableFuture<Void> remove(TenantId tenantId, List<EntityId> entityIds, DeleteTsKvQuery query);
+
     void cleanup(long systemTtl);
 }
@@ -37,6 +37,8 @@ public class TsKvQueryCursor extends QueryCursor {
 
     private int partitionIndex;
     private int currentLimit;
+    private long startTs;
+    private long endTs;
 
     public TsKvQueryCursor(String entityType, UUID entityId, ReadTsKvQuery baseQuery, List<Long> partitions) {
         super(entityType, entityId, baseQuery, partitions);
@@ -44,6 +46,18 @@ public class TsKvQueryCursor extends QueryCursor {
         this.partitionIndex = isDesc() ? partitions.size() - 1 : 0;
         this.data = new ArrayList<>();
         this.currentLimit = baseQuery.getLimit();
+        this.startTs = baseQuery.getStartTs();
+        this.endTs = baseQuery.getEndTs();
+    }
+
+    @Override
+    public long getStartTs() {
+        return startTs;
+    }
+
+    @Override
+    public long getEndTs() {
+        return endTs;
     }
 
     @Override
@@ -66,11 +80,54 @@ public class TsKvQueryCursor extends QueryCursor {
         return partition;
     }
 
+    public List<Long> getNextPartitions(int maxCount) {
+        List<Long> result = new ArrayList<>(Math.max(1, maxCount));
+        do {
+            result.add(getNextPartition());
+        } while (result.size() < maxCount && hasNextPartition());
+        return result;
+    }
+
     public int getCurrentLimit() {
         return currentLimit;
     }
 
+    /**
+     * Returns the limit of the partition at the given index among the partitions fetched at once. The first partition in the query order
+     * gets the whole remaining limit, so dense data is read with a single wave, and the remaining limit is split across the others
+     */
+    public int getPartitionLimit(int index, int partitionsCount) {
+        if (index == 0) {
+            return Math.max(1, currentLimit);
+        }
+        return Math.max(1, (currentLimit + partitionsCount - 1) / partitionsCount);
+    }
+
+    /**
+     * Adds the data of a partition that was fetched with the given limit. If the partition returned the whole limit,
+     * it may have more data, so the cursor is moved back to continue that partition after its last entry.
+     *
+     * @return whether the data of the partitions that follow in the query order may be added
+     */
+    public boolean addPartitionData(long partition, List<TsKvEntry> partitionData, int partitionLimit) {
+        addData(partitionData);
+        if (isFull() || partitionData.size() < partitionLimit) {
+            return !isFull();
+        }
+        long lastTs = partitionData.get(partitionData.size() - 1).getTs();
+        if (isDesc()) {
+            endTs = lastTs;
+        } else {
+            startTs = lastTs + 1;
+        }
+        partitionIndex = partitions.indexOf(partition);
+        return false;
+    }
+
     public void addData(List<TsKvEntry> newData) {
+        if (newData.size() > currentLimit) {
+            newData = newData.subList(0, Math.max(0, currentLimit));
+        }
         currentLimit -= newData.size();
         data.addAll(newData);
     }
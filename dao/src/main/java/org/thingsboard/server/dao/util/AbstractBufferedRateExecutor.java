@@ -29,10 +29,12 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import jakarta.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.thingsboard.common.util.ThingsBoardExecutors;
 import org.thingsboard.common.util.ThingsBoardThreadFactory;
 import org.thingsboard.server.cache.limits.RateLimitService;
 import org.thingsboard.server.common.data.exception.RateLimitExceededException;
+import org.thingsboard.server.common.data.TenantProfile;
 import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.limit.LimitedApi;
 import org.thingsboard.server.common.msg.queue.ServiceType;
@@ -41,13 +43,15 @@ import org.thingsboard.server.common.stats.StatsCounter;
 import org.thingsboard.server.common.stats.StatsFactory;
 import org.thingsboard.server.common.stats.StatsType;
 import org.thingsboard.server.dao.entity.EntityService;
+import org.thingsboard.server.dao.eventsourcing.DeleteEntityEvent;
 import org.thingsboard.server.dao.nosql.CassandraStatementTask;
+import org.thingsboard.server.dao.tenant.TbTenantProfileCache;
 import org.thingsboard.server.queue.discovery.TbServiceInfoProvider;
 
-import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingDeque;
@@ -69,6 +73,7 @@ public abstract class AbstractBufferedRateExecutor<T extends AsyncTask, F extend
     private final long pollMs;
     private final String bufferName;
     private final BlockingQueue<AsyncTaskContext<T, V>> queue;
+    private final TenantFairTaskQueue<AsyncTaskContext<T, V>> fairQueue;
     private final ExecutorService dispatcherExecutor;
     private final ExecutorService callbackExecutor;
     private final ScheduledExecutorService timeoutExecutor;
@@ -82,22 +87,30 @@ public abstract class AbstractBufferedRateExecutor<T extends AsyncTask, F extend
 
     private final EntityService entityService;
     private final RateLimitService rateLimitService;
+    private final TbTenantProfileCache tenantProfileCache;
 
     private final boolean printTenantNames;
-    private final Map<TenantId, String> tenantNamesCache = new HashMap<>();
+    private final Map<TenantId, String> tenantNamesCache = new ConcurrentHashMap<>();
 
     private final LimitedApi myLimitedApi;
 
     public AbstractBufferedRateExecutor(int queueLimit, int concurrencyLimit, long maxWaitTime, int dispatcherThreads,
                                         int callbackThreads, long pollMs, int printQueriesFreq, BufferedRateExecutorType executorType, TbServiceInfoProvider serviceInfoProvider,
-                                        RateLimitService rateLimitService, StatsFactory statsFactory, EntityService entityService, boolean printTenantNames) {
+                                        RateLimitService rateLimitService, StatsFactory statsFactory, EntityService entityService, boolean printTenantNames,
+                                        boolean fairSchedulingEnabled, TbTenantProfileCache tenantProfileCache) {
         this.maxWaitTime = maxWaitTime;
         this.pollMs = pollMs;
         this.bufferName = executorType.getDisplayName();
         this.myLimitedApi = resolveLimitedApi(serviceInfoProvider, executorType);
         this.concurrencyLimit = concurrencyLimit;
         this.printQueriesFreq = printQueriesFreq;
-        this.queue = new LinkedBlockingDeque<>(queueLimit);
+        if (fairSchedulingEnabled) {
+            this.queue = null;
+            this.fairQueue = new TenantFairTaskQueue<>(queueLimit);
+        } else {
+            this.queue = new LinkedBlockingDeque<>(queueLimit);
+            this.fairQueue = null;
+        }
         this.dispatcherExecutor = Executors.newFixedThreadPool(dispatcherThreads, ThingsBoardThreadFactory.forName("nosql-" + bufferName + "-dispatcher"));
         this.callbackExecutor = ThingsBoardExecutors.newWorkStealingPool(callbackThreads, "nosql-" + bufferName + "-callback");
         this.timeoutExecutor = ThingsBoardExecutors.newSingleThreadScheduledExecutor("nosql-" + bufferName + "-timeout");
@@ -107,6 +120,7 @@ public abstract class AbstractBufferedRateExecutor<T extends AsyncTask, F extend
 
         this.entityService = entityService;
         this.rateLimitService = rateLimitService;
+        this.tenantProfileCache = tenantProfileCache;
         this.printTenantNames = printTenantNames;
 
         for (int i = 0; i < dispatcherThreads; i++) {
@@ -135,7 +149,12 @@ public abstract class AbstractBufferedRateExecutor<T extends AsyncTask, F extend
         if (!perTenantLimitReached) {
             try {
                 stats.getTotalAdded().increment();
-                queue.add(new AsyncTaskContext<>(UUID.randomUUID(), task, settableFuture, System.currentTimeMillis()));
+                AsyncTaskContext<T, V> taskCtx = new AsyncTaskContext<>(UUID.randomUUID(), task, settableFuture, System.currentTimeMillis());
+                if (fairQueue != null) {
+                    fairQueue.add(tenantId, getTenantWeight(tenantId), taskCtx);
+                } else {
+                    queue.add(taskCtx);
+                }
             } catch (IllegalStateException e) {
                 stats.getTotalRejected().increment();
                 settableFuture.setException(e);
@@ -144,6 +163,31 @@ public abstract class AbstractBufferedRateExecutor<T extends AsyncTask, F extend
         return result;
     }
 
+    private int getTenantWeight(TenantId tenantId) {
+        if (tenantId == null || tenantId.isSysTenantId() || tenantProfileCache == null) {
+            return 1;
+        }
+        try {
+            TenantProfile tenantProfile = tenantProfileCache.get(tenantId);
+            return tenantProfile != null ? Math.max(1, tenantProfile.getDefaultProfileConfiguration().getCassandraQueryWeight()) : 1;
+        } catch (Exception e) {
+            log.debug("[{}][{}] Failed to resolve tenant weight", bufferName, tenantId, e);
+            return 1;
+        }
+    }
+
+    private AsyncTaskContext<T, V> takeTask() throws InterruptedException {
+        if (fairQueue != null) {
+            AsyncTaskContext<T, V> taskCtx = fairQueue.take();
+            TenantId tenantId = taskCtx.getTask().getTenantId();
+            if (tenantId != null) {
+                stats.reportTenantWaitTime(bufferName, tenantId, fairQueue, System.currentTimeMillis() - taskCtx.getCreateTime());
+            }
+            return taskCtx;
+        }
+        return queue.take();
+    }
+
     private LimitedApi resolveLimitedApi(TbServiceInfoProvider serviceInfoProvider, BufferedRateExecutorType executorType) {
         if (serviceInfoProvider == null || serviceInfoProvider.isMonolith()) {
             return executorType.getMonolithLimitedApi();
@@ -179,7 +223,7 @@ public abstract class AbstractBufferedRateExecutor<T extends AsyncTask, F extend
             AsyncTaskContext<T, V> taskCtx = null;
             try {
                 if (curLvl <= concurrencyLimit) {
-                    taskCtx = queue.take();
+                    taskCtx = takeTask();
                     final AsyncTaskContext<T, V> finalTaskCtx = taskCtx;
                     if (printQueriesFreq > 0) {
                         if (printQueriesIdx.incrementAndGet() >= printQueriesFreq) {
@@ -290,10 +334,21 @@ public abstract class AbstractBufferedRateExecutor<T extends AsyncTask, F extend
     }
 
     protected int getQueueSize() {
-        return queue.size();
+        return fairQueue != null ? fairQueue.size() : queue.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true,
+            condition = "#event.entityId.getEntityType() == T(org.thingsboard.server.common.data.EntityType).TENANT")
+    public void handleTenantDeleteEvent(DeleteEntityEvent<?> event) {
+        TenantId tenantId = event.getTenantId();
+        stats.removeTenantStats(bufferName, tenantId);
+        tenantNamesCache.remove(tenantId);
     }
 
     public void printStats() {
+        if (fairQueue != null) {
+            stats.removeIdleTenantStats(bufferName, fairQueue);
+        }
         int queueSize = getQueueSize();
         int rateLimitedTenantsCount = (int) stats.getRateLimitedTenants().values().stream()
                 .filter(defaultCounter -> defaultCounter.get() > 0)
@@ -21,6 +21,7 @@ import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.stats.DefaultCounter;
 import org.thingsboard.server.common.stats.StatsCounter;
 import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.common.stats.StatsTimer;
 import org.thingsboard.server.common.stats.StatsType;
 
 import java.util.ArrayList;
@@ -32,6 +33,7 @@ import java.util.concurrent.ConcurrentMap;
 @Getter
 public class BufferedRateExecutorStats {
     private static final String TENANT_ID_TAG = "tenantId";
+    private static final String BUFFER_TAG = "buffer";
 
 
     private static final String TOTAL_ADDED = "totalAdded";
@@ -41,10 +43,13 @@ public class BufferedRateExecutorStats {
     private static final String TOTAL_EXPIRED = "totalExpired";
     private static final String TOTAL_REJECTED = "totalRejected";
     private static final String TOTAL_RATE_LIMITED = "totalRateLimited";
+    private static final String TENANT_QUEUE_SIZE = "tenantQueueSize";
+    private static final String TENANT_WAIT_TIME = "tenantWaitTime";
 
     private final StatsFactory statsFactory;
 
     private final ConcurrentMap<TenantId, DefaultCounter> rateLimitedTenants = new ConcurrentHashMap<>();
+    private final ConcurrentMap<TenantId, TenantWaitStats> tenantWaitStats = new ConcurrentHashMap<>();
 
     private final List<StatsCounter> statsCounters = new ArrayList<>();
 
@@ -87,4 +92,58 @@ public class BufferedRateExecutorStats {
         )
                 .increment();
     }
+
+    public void reportTenantWaitTime(String bufferName, TenantId tenantId, TenantFairTaskQueue<?> queue, long waitTimeMs) {
+        TenantWaitStats tenantStats = tenantWaitStats.computeIfAbsent(tenantId, tId -> {
+            String key = StatsType.RATE_EXECUTOR.getName();
+            String tenantIdStr = tId.toString();
+            statsFactory.createGauge(key, TENANT_QUEUE_SIZE, queue, q -> q.size(tId), TENANT_ID_TAG, tenantIdStr, BUFFER_TAG, bufferName);
+            return new TenantWaitStats(statsFactory.createStatsTimer(key, TENANT_WAIT_TIME, TENANT_ID_TAG, tenantIdStr, BUFFER_TAG, bufferName));
+        });
+        tenantStats.active = true;
+        tenantStats.timer.record(waitTimeMs);
+    }
+
+    /**
+     * Removes the per-tenant stats of the tenants that have no queued tasks and dispatched none since the previous call
+     */
+    public void removeIdleTenantStats(String bufferName, TenantFairTaskQueue<?> queue) {
+        for (TenantId tenantId : tenantWaitStats.keySet()) {
+            tenantWaitStats.computeIfPresent(tenantId, (tId, tenantStats) -> {
+                if (tenantStats.active || queue.size(tId) > 0) {
+                    tenantStats.active = false;
+                    return tenantStats;
+                }
+                removeTenantWaitStats(bufferName, tId);
+                return null;
+            });
+        }
+    }
+
+    public void removeTenantStats(String bufferName, TenantId tenantId) {
+        rateLimitedTenants.remove(tenantId);
+        tenantWaitStats.computeIfPresent(tenantId, (tId, tenantStats) -> {
+            removeTenantWaitStats(bufferName, tId);
+            return null;
+        });
+    }
+
+    private void removeTenantWaitStats(String bufferName, TenantId tenantId) {
+        String key = StatsType.RATE_EXECUTOR.getName();
+        String tenantIdStr = tenantId.toString();
+        statsFactory.removeStats(key, TENANT_QUEUE_SIZE, TENANT_ID_TAG, tenantIdStr, BUFFER_TAG, bufferName);
+        statsFactory.removeStats(key, TENANT_WAIT_TIME, TENANT_ID_TAG, tenantIdStr, BUFFER_TAG, bufferName);
+    }
+
+    private static class TenantWaitStats {
+
+        private final StatsTimer timer;
+        private volatile boolean active;
+
+        private TenantWaitStats(StatsTimer timer) {
+            this.timer = timer;
+        }
+
+    }
+
 }
@@ -41,15 +41,20 @@ import org.thingsboard.common.util.JacksonUtil;
 
 import javax.imageio.IIOImage;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
 import javax.imageio.ImageTypeSpecifier;
 import javax.imageio.ImageWriteParam;
 import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.regex.Pattern;
 
@@ -88,12 +93,12 @@ public class ImageUtils {
                 return previewAsOriginalImage(data, mediaType);
             }
         }
-        BufferedImage bufferedImage = null;
+        DecodedImage decodedImage = null;
         try {
-            bufferedImage = ImageIO.read(new ByteArrayInputStream(data));
+            decodedImage = decodeImage(data, thumbnailMaxDimension);
         } catch (Exception ignored) {
         }
-        if (bufferedImage == null) { // means that media type is not supported by ImageIO; extracting width and height from metadata and leaving preview as original image
+        if (decodedImage == null) { // means that media type is not supported by ImageIO; extracting width and height from metadata and leaving preview as original image
             Metadata metadata = ImageMetadataReader.readMetadata(new ByteArrayInputStream(data));
             ProcessedImage image = previewAsOriginalImage(data, mediaType);
             String dirName = "Unknown";
@@ -124,8 +129,8 @@ public class ImageUtils {
         image.setMediaType(mediaType);
         image.setData(data);
         image.setSize(data.length);
-        image.setWidth(bufferedImage.getWidth());
-        image.setHeight(bufferedImage.getHeight());
+        image.setWidth(decodedImage.width());
+        image.setHeight(decodedImage.height());
 
         ProcessedImage preview = new ProcessedImage();
         int[] thumbnailDimensions = getThumbnailDimensions(image.getWidth(), image.getHeight(), thumbnailMaxDimension, true);
@@ -143,7 +148,7 @@ public class ImageUtils {
         }
 
         BufferedImage thumbnail = new BufferedImage(preview.getWidth(), preview.getHeight(), BufferedImage.TYPE_INT_ARGB);
-        thumbnail.getGraphics().drawImage(bufferedImage, 0, 0, preview.getWidth(), preview.getHeight(), null);
+        thumbnail.getGraphics().drawImage(decodedImage.image(), 0, 0, preview.getWidth(), preview.getHeight(), null);
 
         byte[] pngThumbnail = toCompressedPngData(thumbnail);
 
@@ -154,6 +159,38 @@ public class ImageUtils {
         return image;
     }
 
+    /**
+     * Reads the image dimensions from the header and decodes only every n-th pixel of every n-th row,
+     * so that the decoded raster is close to the thumbnail size rather than the full image size.
+     */
+    private static DecodedImage decodeImage(byte[] data, int thumbnailMaxDimension) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(data))) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int[] thumbnailDimensions = getThumbnailDimensions(width, height, thumbnailMaxDimension, true);
+                int subsampling = Math.min(width / Math.max(thumbnailDimensions[0], 1), height / Math.max(thumbnailDimensions[1], 1));
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                BufferedImage image = reader.read(0, param);
+                return image != null ? new DecodedImage(image, width, height) : null;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
     public static ProcessedImage processSvgImage(byte[] data, String mediaType, int thumbnailMaxDimension) throws Exception {
         var imageData = removeScadaSymbolMetadata(data);
 
@@ -387,6 +424,8 @@ public class ImageUtils {
         private ProcessedImage preview;
     }
 
+    private record DecodedImage(BufferedImage image, int width, int height) {}
+
     @Data
     public static class ScadaSymbolMetadataInfo {
         private String title;
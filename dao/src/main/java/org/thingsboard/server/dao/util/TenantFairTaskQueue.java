@@ -0,0 +1,127 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.util;
+
+import org.thingsboard.server.common.data.id.TenantId;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded task queue with a separate sub-queue per tenant.
+ * <p>
+ * Tasks are taken using deficit round-robin: each tenant with pending tasks receives a quantum equal to its weight
+ * and may dispatch that many tasks before the next tenant is served. A tenant flooding the queue therefore only
+ * delays its own tasks, while other tenants keep getting their share of the dispatcher.
+ */
+public class TenantFairTaskQueue<E> {
+
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Map<TenantId, TenantQueue<E>> tenantQueues = new HashMap<>();
+    private final ArrayDeque<TenantQueue<E>> activeQueues = new ArrayDeque<>();
+    private int size;
+
+    public TenantFairTaskQueue(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @throws IllegalStateException if the queue is full, same as {@link java.util.concurrent.BlockingQueue#add}
+     */
+    public void add(TenantId tenantId, int weight, E task) {
+        TenantId key = tenantId != null ? tenantId : TenantId.SYS_TENANT_ID;
+        lock.lock();
+        try {
+            if (size >= capacity) {
+                throw new IllegalStateException("Queue full");
+            }
+            TenantQueue<E> tenantQueue = tenantQueues.computeIfAbsent(key, TenantQueue::new);
+            tenantQueue.weight = Math.max(1, weight);
+            tenantQueue.tasks.add(task);
+            if (tenantQueue.tasks.size() == 1) {
+                activeQueues.addLast(tenantQueue);
+            }
+            size++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public E take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                notEmpty.await();
+            }
+            TenantQueue<E> tenantQueue = activeQueues.peekFirst();
+            if (tenantQueue.deficit <= 0) {
+                tenantQueue.deficit = tenantQueue.weight;
+            }
+            E task = tenantQueue.tasks.poll();
+            tenantQueue.deficit--;
+            size--;
+            if (tenantQueue.tasks.isEmpty()) {
+                activeQueues.pollFirst();
+                tenantQueues.remove(tenantQueue.tenantId);
+            } else if (tenantQueue.deficit <= 0) {
+                activeQueues.addLast(activeQueues.pollFirst());
+            }
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size(TenantId tenantId) {
+        lock.lock();
+        try {
+            TenantQueue<E> tenantQueue = tenantQueues.get(tenantId);
+            return tenantQueue != null ? tenantQueue.tasks.size() : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static class TenantQueue<E> {
+
+        private final TenantId tenantId;
+        private final Queue<E> tasks = new ArrayDeque<>();
+        private int weight = 1;
+        private int deficit;
+
+        private TenantQueue(TenantId tenantId) {
+            this.tenantId = tenantId;
+        }
+
+    }
+
+}
@@ -34,6 +34,42 @@ CREATE TABLE IF NOT EXISTS key_dictionary (
     CONSTRAINT key_dictionary_id_pkey PRIMARY KEY (key)
 );
 
+CREATE TABLE IF NOT EXISTS ts_rollup
+(
+    entity_id   uuid   NOT NULL,
+    key         int    NOT NULL,
+    interval_ms bigint NOT NULL,
+    ts          bigint NOT NULL,
+    bool_cnt    bigint NOT NULL,
+    str_cnt     bigint NOT NULL,
+    json_cnt    bigint NOT NULL,
+    long_cnt    bigint NOT NULL,
+    dbl_cnt     bigint NOT NULL,
+    long_sum    bigint,
+    dbl_sum     double precision,
+    long_min    bigint,
+    long_max    bigint,
+    dbl_min     double precision,
+    dbl_max     double precision,
+    max_ts      bigint NOT NULL,
+    CONSTRAINT ts_rollup_pkey PRIMARY KEY (entity_id, key, interval_ms, ts)
+);
+
+CREATE TABLE IF NOT EXISTS ts_rollup_watermark
+(
+    interval_ms bigint NOT NULL CONSTRAINT ts_rollup_watermark_pkey PRIMARY KEY,
+    start_ts    bigint NOT NULL,
+    end_ts      bigint NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS ts_rollup_pending
+(
+    entity_id uuid   NOT NULL,
+    key       int    NOT NULL,
+    ts        bigint NOT NULL,
+    CONSTRAINT ts_rollup_pending_pkey PRIMARY KEY (entity_id, key, ts)
+);
+
 CREATE SEQUENCE IF NOT EXISTS ts_kv_latest_version_seq cache 1;
 
 CREATE TABLE IF NOT EXISTS ts_kv_latest (
@@ -0,0 +1,217 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.alarm;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.cache.TbTransactionalCache;
+import org.thingsboard.server.common.data.alarm.AlarmApiCallResult;
+import org.thingsboard.server.common.data.alarm.AlarmCreateOrUpdateActiveRequest;
+import org.thingsboard.server.common.data.alarm.AlarmInfo;
+import org.thingsboard.server.common.data.alarm.AlarmSeverity;
+import org.thingsboard.server.common.data.alarm.EntityAlarm;
+import org.thingsboard.server.common.data.id.AlarmId;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.dao.entity.EntityService;
+import org.thingsboard.server.dao.tenant.TenantService;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class BaseAlarmServiceTest {
+
+    private final TenantId TENANT_ID = TenantId.fromUUID(UUID.fromString("5a4d4b70-2f34-11ef-9b5b-3b1f5e4c6a01"));
+    private final DeviceId DEVICE_ID = new DeviceId(UUID.fromString("5a4d4b71-2f34-11ef-9b5b-3b1f5e4c6a01"));
+
+    @Mock
+    private TenantService tenantService;
+    @Mock
+    private AlarmDao alarmDao;
+    @Mock
+    private EntityService entityService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private TbTransactionalCache<TenantId, ?> alarmTypesCache;
+
+    private BaseAlarmService alarmService;
+
+    @BeforeEach
+    public void setUp() {
+        alarmService = new BaseAlarmService(tenantService, alarmDao, entityService);
+        ReflectionTestUtils.setField(alarmService, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(alarmService, "cache", alarmTypesCache);
+        ReflectionTestUtils.setField(alarmService, "propagationCacheTtlMs", 60000L);
+        ReflectionTestUtils.setField(alarmService, "propagationCacheMaxSize", 100L);
+        alarmService.init();
+    }
+
+    @Test
+    public void givenCreatedAlarm_whenTransactionCommitted_thenPropagationEntitiesAreCached() {
+        AlarmInfo alarm = mockCreatedAlarm();
+
+        AlarmApiCallResult result = alarmService.createAlarm(createRequest());
+
+        assertThat(result.getPropagatedEntitiesList()).containsExactly(DEVICE_ID, TENANT_ID);
+        verify(alarmDao).createEntityAlarmRecords(List.of(
+                new EntityAlarm(TENANT_ID, DEVICE_ID, alarm.getCreatedTime(), alarm.getType(), null, null, alarm.getId()),
+                new EntityAlarm(TENANT_ID, TENANT_ID, alarm.getCreatedTime(), alarm.getType(), null, null, alarm.getId())));
+
+        // not cached until the transaction is committed
+        mockAcknowledgedAlarm(alarm);
+        given(alarmDao.findEntityAlarmRecords(TENANT_ID, alarm.getId())).willReturn(List.of(
+                new EntityAlarm(TENANT_ID, DEVICE_ID, alarm.getCreatedTime(), alarm.getType(), null, null, alarm.getId()),
+                new EntityAlarm(TENANT_ID, TENANT_ID, alarm.getCreatedTime(), alarm.getType(), null, null, alarm.getId())));
+        assertThat(alarmService.acknowledgeAlarm(TENANT_ID, alarm.getId(), 1L).getPropagatedEntitiesList()).containsExactly(DEVICE_ID, TENANT_ID);
+        verify(alarmDao, times(1)).findEntityAlarmRecords(TENANT_ID, alarm.getId());
+
+        commitPropagationCacheEvents();
+
+        assertThat(alarmService.acknowledgeAlarm(TENANT_ID, alarm.getId(), 2L).getPropagatedEntitiesList()).containsExactly(DEVICE_ID, TENANT_ID);
+        verify(alarmDao, times(1)).findEntityAlarmRecords(TENANT_ID, alarm.getId());
+    }
+
+    @Test
+    public void givenEntityAlarmRecordsFailedToSave_whenAlarmCreated_thenPropagationEntitiesAreNotCached() {
+        AlarmInfo alarm = mockCreatedAlarm();
+        willThrow(new RuntimeException("update failed")).given(alarmDao).createEntityAlarmRecords(any());
+
+        alarmService.createAlarm(createRequest());
+        commitPropagationCacheEvents();
+
+        mockAcknowledgedAlarm(alarm);
+        given(alarmDao.findEntityAlarmRecords(TENANT_ID, alarm.getId())).willReturn(List.of(
+                new EntityAlarm(TENANT_ID, DEVICE_ID, alarm.getCreatedTime(), alarm.getType(), null, null, alarm.getId())));
+        assertThat(alarmService.acknowledgeAlarm(TENANT_ID, alarm.getId(), 1L).getPropagatedEntitiesList()).containsExactly(DEVICE_ID);
+        verify(alarmDao).findEntityAlarmRecords(TENANT_ID, alarm.getId());
+    }
+
+    @Test
+    public void givenBatchFailedToSave_whenAlarmCreated_thenEntityAlarmRecordsAreCreatedOneByOne() {
+        AlarmInfo alarm = mockCreatedAlarm();
+        EntityAlarm deviceRecord = new EntityAlarm(TENANT_ID, DEVICE_ID, alarm.getCreatedTime(), alarm.getType(), null, null, alarm.getId());
+        EntityAlarm tenantRecord = new EntityAlarm(TENANT_ID, TENANT_ID, alarm.getCreatedTime(), alarm.getType(), null, null, alarm.getId());
+        willThrow(new RuntimeException("batch update failed")).given(alarmDao).createEntityAlarmRecords(List.of(deviceRecord, tenantRecord));
+        willThrow(new RuntimeException("update failed")).given(alarmDao).createEntityAlarmRecords(List.of(deviceRecord));
+
+        AlarmApiCallResult result = alarmService.createAlarm(createRequest());
+
+        assertThat(result.getPropagatedEntitiesList()).containsExactly(DEVICE_ID, TENANT_ID);
+        verify(alarmDao).createEntityAlarmRecords(List.of(deviceRecord));
+        verify(alarmDao).createEntityAlarmRecords(List.of(tenantRecord));
+    }
+
+    @Test
+    public void givenCachedPropagationEntities_whenPropagationChanged_thenEntitiesAreReloaded() {
+        AlarmInfo alarm = mockCreatedAlarm();
+        alarmService.createAlarm(createRequest());
+        commitPropagationCacheEvents();
+
+        AlarmInfo updated = new AlarmInfo(alarm);
+        updated.setPropagateToTenant(false);
+        given(alarmDao.acknowledgeAlarm(eq(TENANT_ID), eq(alarm.getId()), eq(1L))).willReturn(AlarmApiCallResult.builder()
+                .successful(true).modified(true).alarm(updated).old(alarm).build());
+        alarmService.acknowledgeAlarm(TENANT_ID, alarm.getId(), 1L);
+        commitPropagationCacheEvents();
+
+        // the records of the previous propagation are not removed, so all of them are read from the database
+        mockAcknowledgedAlarm(alarm);
+        given(alarmDao.findEntityAlarmRecords(TENANT_ID, alarm.getId())).willReturn(List.of(
+                new EntityAlarm(TENANT_ID, DEVICE_ID, alarm.getCreatedTime(), alarm.getType(), null, null, alarm.getId()),
+                new EntityAlarm(TENANT_ID, TENANT_ID, alarm.getCreatedTime(), alarm.getType(), null, null, alarm.getId())));
+        assertThat(alarmService.acknowledgeAlarm(TENANT_ID, alarm.getId(), 2L).getPropagatedEntitiesList()).containsExactly(DEVICE_ID, TENANT_ID);
+        verify(alarmDao).findEntityAlarmRecords(TENANT_ID, alarm.getId());
+    }
+
+    @Test
+    public void givenCachedPropagationEntities_whenOtherTenantRecordsDeleted_thenCacheIsKept() {
+        AlarmInfo alarm = mockCreatedAlarm();
+        alarmService.createAlarm(createRequest());
+        commitPropagationCacheEvents();
+
+        alarmService.deleteEntityAlarmRecordsByTenantId(TenantId.fromUUID(UUID.randomUUID()));
+        mockAcknowledgedAlarm(alarm);
+        alarmService.acknowledgeAlarm(TENANT_ID, alarm.getId(), 1L);
+        verify(alarmDao, never()).findEntityAlarmRecords(any(), any());
+
+        alarmService.deleteEntityAlarmRecordsByTenantId(TENANT_ID);
+        alarmService.acknowledgeAlarm(TENANT_ID, alarm.getId(), 2L);
+        verify(alarmDao).findEntityAlarmRecords(TENANT_ID, alarm.getId());
+    }
+
+    private AlarmCreateOrUpdateActiveRequest createRequest() {
+        return AlarmCreateOrUpdateActiveRequest.builder()
+                .tenantId(TENANT_ID)
+                .originator(DEVICE_ID)
+                .type("TEST_ALARM")
+                .severity(AlarmSeverity.CRITICAL)
+                .startTs(1L).build();
+    }
+
+    private AlarmInfo mockCreatedAlarm() {
+        AlarmInfo alarm = new AlarmInfo();
+        alarm.setId(new AlarmId(UUID.randomUUID()));
+        alarm.setCreatedTime(1L);
+        alarm.setTenantId(TENANT_ID);
+        alarm.setOriginator(DEVICE_ID);
+        alarm.setType("TEST_ALARM");
+        alarm.setSeverity(AlarmSeverity.CRITICAL);
+        alarm.setPropagateToTenant(true);
+        given(tenantService.tenantExists(TENANT_ID)).willReturn(true);
+        given(entityService.fetchEntityCustomerId(TENANT_ID, DEVICE_ID)).willReturn(Optional.empty());
+        given(alarmDao.createOrUpdateActiveAlarm(any(), anyBoolean())).willReturn(AlarmApiCallResult.builder()
+                .successful(true).created(true).alarm(alarm).build());
+        return alarm;
+    }
+
+    private void mockAcknowledgedAlarm(AlarmInfo alarm) {
+        given(alarmDao.acknowledgeAlarm(eq(TENANT_ID), eq(alarm.getId()), anyLong())).willReturn(AlarmApiCallResult.builder()
+                .successful(true).modified(true).alarm(alarm).build());
+    }
+
+    private void commitPropagationCacheEvents() {
+        ArgumentCaptor<Object> eventCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, atLeastOnce()).publishEvent(eventCaptor.capture());
+        List<AlarmPropagationCacheEvent> events = eventCaptor.getAllValues().stream()
+                .filter(AlarmPropagationCacheEvent.class::isInstance)
+                .map(AlarmPropagationCacheEvent.class::cast)
+                .toList();
+        assertThat(events).isNotEmpty();
+        events.forEach(alarmService::handlePropagationCacheEvent);
+    }
+
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.relation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.common.data.id.AssetId;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.relation.EntityRelation;
+import org.thingsboard.server.common.data.relation.EntitySearchDirection;
+import org.thingsboard.server.common.data.relation.RelationTypeGroup;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RelationGraphCacheTest {
+
+    private final TenantId tenantId = TenantId.fromUUID(UUID.randomUUID());
+    private final AssetId siteId = new AssetId(UUID.randomUUID());
+    private final DeviceId deviceId = new DeviceId(UUID.randomUUID());
+
+    private RelationGraphCache graphCache;
+
+    @BeforeEach
+    void setUp() {
+        graphCache = new RelationGraphCache();
+        ReflectionTestUtils.setField(graphCache, "enabled", true);
+        ReflectionTestUtils.setField(graphCache, "maxLevel", 10);
+        ReflectionTestUtils.setField(graphCache, "maxEdges", 100L);
+        ReflectionTestUtils.setField(graphCache, "ttlSec", 60L);
+        graphCache.init();
+    }
+
+    @Test
+    void testAdjacencyListIsLoadedOnce() {
+        AtomicInteger loads = new AtomicInteger();
+        EntityRelation relation = new EntityRelation(siteId, deviceId, EntityRelation.CONTAINS_TYPE);
+
+        for (int i = 0; i < 3; i++) {
+            List<EntityRelation> relations = graphCache.getRelations(tenantId, siteId, EntitySearchDirection.FROM, RelationTypeGroup.COMMON, () -> {
+                loads.incrementAndGet();
+                return List.of(relation);
+            });
+            assertThat(relations).containsExactly(relation);
+        }
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testRelationChangeInvalidatesBothDirections() {
+        AtomicInteger loads = new AtomicInteger();
+        EntityRelation relation = new EntityRelation(siteId, deviceId, EntityRelation.CONTAINS_TYPE);
+
+        graphCache.getRelations(tenantId, siteId, EntitySearchDirection.FROM, RelationTypeGroup.COMMON, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        graphCache.getRelations(tenantId, deviceId, EntitySearchDirection.TO, RelationTypeGroup.COMMON, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        graphCache.onRelationChanged(EntityRelationEvent.from(relation));
+
+        assertThat(graphCache.getRelations(tenantId, siteId, EntitySearchDirection.FROM, RelationTypeGroup.COMMON, () -> {
+            loads.incrementAndGet();
+            return List.of(relation);
+        })).containsExactly(relation);
+        assertThat(graphCache.getRelations(tenantId, deviceId, EntitySearchDirection.TO, RelationTypeGroup.COMMON, () -> {
+            loads.incrementAndGet();
+            return List.of(relation);
+        })).containsExactly(relation);
+        assertThat(loads.get()).isEqualTo(4);
+    }
+
+    @Test
+    void testOtherTypeGroupIsNotInvalidated() {
+        AtomicInteger loads = new AtomicInteger();
+        graphCache.getRelations(tenantId, siteId, EntitySearchDirection.FROM, RelationTypeGroup.COMMON, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+
+        EntityRelation ruleRelation = new EntityRelation(siteId, deviceId, EntityRelation.CONTAINS_TYPE, RelationTypeGroup.RULE_NODE);
+        graphCache.onRelationChanged(EntityRelationEvent.from(ruleRelation));
+
+        graphCache.getRelations(tenantId, siteId, EntitySearchDirection.FROM, RelationTypeGroup.COMMON, () -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testCachedEdgesAreBoundedAcrossTenants() {
+        for (int i = 0; i < 200; i++) {
+            TenantId otherTenantId = TenantId.fromUUID(UUID.randomUUID());
+            AssetId assetId = new AssetId(UUID.randomUUID());
+            EntityRelation relation = new EntityRelation(assetId, deviceId, EntityRelation.CONTAINS_TYPE);
+            graphCache.getRelations(otherTenantId, assetId, EntitySearchDirection.FROM, RelationTypeGroup.COMMON, () -> List.of(relation));
+        }
+        // each node weighs 2 (one relation + the node itself)
+        assertThat(graphCache.getCachedNodes()).isLessThanOrEqualTo(50);
+    }
+
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.resource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.dao.util.ImageUtils.ProcessedImage;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class ImageProcessingServiceTest {
+
+    private ImageProcessingService imageProcessingService;
+
+    @BeforeEach
+    void setUp() {
+        imageProcessingService = new ImageProcessingService();
+        ReflectionTestUtils.setField(imageProcessingService, "threadPoolSize", 2);
+        ReflectionTestUtils.setField(imageProcessingService, "timeoutMs", 30000L);
+        ReflectionTestUtils.setField(imageProcessingService, "cacheMaxSizeKb", 65536L);
+        imageProcessingService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        imageProcessingService.destroy();
+    }
+
+    @Test
+    void testSameContentProcessedOnce() throws Exception {
+        byte[] data = toPng(noise(1000, 500));
+
+        ProcessedImage first = imageProcessingService.processImage(data, "image/png", "etag", 250);
+        ProcessedImage second = imageProcessingService.processImage(data, "image/png", "etag", 250);
+
+        assertThat(first.getData()).isSameAs(data);
+        assertThat(second.getData()).isSameAs(data);
+        assertThat(second.getPreview()).isSameAs(first.getPreview());
+        assertThat(first.getPreview().getWidth()).isEqualTo(250);
+
+        ProcessedImage otherDimension = imageProcessingService.processImage(data, "image/png", "etag", 100);
+        assertThat(otherDimension.getPreview()).isNotSameAs(first.getPreview());
+        assertThat(otherDimension.getPreview().getWidth()).isEqualTo(100);
+    }
+
+    @Test
+    void testFailedProcessingIsNotCached() throws Exception {
+        byte[] invalidData = "not an image".getBytes(StandardCharsets.UTF_8);
+        assertThatThrownBy(() -> imageProcessingService.processImage(invalidData, "image/png", "etag", 250))
+                .isInstanceOf(Exception.class);
+        await().atMost(10, TimeUnit.SECONDS).until(() -> getResults().asMap().isEmpty());
+
+        byte[] data = toPng(noise(100, 50));
+        ProcessedImage image = imageProcessingService.processImage(data, "image/png", "etag", 250);
+        assertThat(image.getWidth()).isEqualTo(100);
+    }
+
+    @Test
+    void testEntryIsReweighedWhenPreviewIsRendered() throws Exception {
+        byte[] data = toPng(noise(1000, 1000));
+
+        ProcessedImage image = imageProcessingService.processImage(data, "image/png", "etag", 250);
+
+        long expectedWeightKb = image.getPreview().getData().length / 1024 + 1;
+        assertThat(expectedWeightKb).isGreaterThan(1);
+        await().atMost(10, TimeUnit.SECONDS).until(() -> {
+            getResults().cleanUp();
+            return getResults().policy().eviction().orElseThrow().weightedSize().orElseThrow() == expectedWeightKb;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private Cache<Object, Object> getResults() {
+        return (Cache<Object, Object>) ReflectionTestUtils.getField(imageProcessingService, "results");
+    }
+
+    private static BufferedImage noise(int width, int height) {
+        Random random = new Random(42);
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, random.nextInt());
+            }
+        }
+        return image;
+    }
+
+    private static byte[] toPng(BufferedImage image) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+}
@@ -237,6 +237,34 @@ public class TenantServiceTest extends AbstractServiceTest {
 
     }
 
+    @Test
+    public void testFindTenantIdsByTenantProfileId() {
+        TenantProfile profile = createAndSaveTenantProfile();
+        List<TenantId> tenantIds = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            tenantIds.add(createAndSaveTenant(profile).getId());
+        }
+        Tenant otherTenant = new Tenant();
+        otherTenant.setTitle("Tenant with default profile");
+        otherTenant = tenantService.saveTenant(otherTenant);
+
+        List<TenantId> loadedTenantIds = new ArrayList<>();
+        PageLink pageLink = new PageLink(5);
+        PageData<TenantId> pageData;
+        do {
+            pageData = tenantService.findTenantIdsByTenantProfileId(profile.getId(), pageLink);
+            loadedTenantIds.addAll(pageData.getData());
+            pageLink = pageLink.nextPageLink();
+        } while (pageData.hasNext());
+
+        assertThat(loadedTenantIds).containsExactlyInAnyOrderElementsOf(tenantIds);
+        assertThat(tenantService.findTenantIdsByTenantProfileId(profile.getId())).containsExactlyInAnyOrderElementsOf(tenantIds);
+
+        tenantIds.forEach(tenantService::deleteTenant);
+        tenantService.deleteTenant(otherTenant.getId());
+        tenantProfileService.deleteTenantProfile(TenantId.SYS_TENANT_ID, profile.getId());
+    }
+
     @Test
     public void testFindTenantsByTitle() {
         String title1 = "Tenant title 1";
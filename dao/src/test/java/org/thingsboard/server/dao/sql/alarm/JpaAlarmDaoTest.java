@@ -27,8 +27,11 @@ import org.thingsboard.server.common.data.alarm.AlarmApiCallResult;
 import org.thingsboard.server.common.data.alarm.AlarmCreateOrUpdateActiveRequest;
 import org.thingsboard.server.common.data.alarm.AlarmInfo;
 import org.thingsboard.server.common.data.alarm.AlarmSeverity;
+import org.thingsboard.server.common.data.alarm.EntityAlarm;
 import org.thingsboard.server.common.data.id.AlarmId;
+import org.thingsboard.server.common.data.id.AssetId;
 import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.id.UserId;
 import org.thingsboard.server.common.data.tenant.profile.DefaultTenantProfileConfiguration;
@@ -38,6 +41,8 @@ import org.thingsboard.server.dao.alarm.AlarmDao;
 import org.thingsboard.server.dao.tenant.TenantDao;
 import org.thingsboard.server.dao.tenant.TenantProfileDao;
 
+import java.util.HashSet;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -329,6 +334,28 @@ public class JpaAlarmDaoTest extends AbstractJpaDaoTest {
         assertNull(result.getAlarm().getAssigneeId());
     }
 
+    @Test
+    public void testCreateEntityAlarmRecordsInBatch() {
+        UUID tenantId = UUID.randomUUID();
+        UUID originatorId = UUID.randomUUID();
+        Alarm alarm = saveAlarm(UUID.randomUUID(), tenantId, originatorId, "TEST_ALARM");
+        List<EntityId> entityIds = List.of(alarm.getOriginator(), new AssetId(UUID.randomUUID()), new AssetId(UUID.randomUUID()), alarm.getTenantId());
+
+        alarmDao.createEntityAlarmRecords(entityIds.stream()
+                .map(entityId -> new EntityAlarm(alarm.getTenantId(), entityId, alarm.getCreatedTime(), "TEST_ALARM", null, null, alarm.getId()))
+                .toList());
+        List<EntityAlarm> entityAlarms = alarmDao.findEntityAlarmRecords(alarm.getTenantId(), alarm.getId());
+        assertEquals(new HashSet<>(entityIds), entityAlarms.stream().map(EntityAlarm::getEntityId).collect(Collectors.toSet()));
+
+        // the same records are updated in place instead of failing on the unique constraint
+        alarmDao.createEntityAlarmRecords(entityIds.stream()
+                .map(entityId -> new EntityAlarm(alarm.getTenantId(), entityId, alarm.getCreatedTime(), "TEST_ALARM_2", null, null, alarm.getId()))
+                .toList());
+        entityAlarms = alarmDao.findEntityAlarmRecords(alarm.getTenantId(), alarm.getId());
+        assertEquals(entityIds.size(), entityAlarms.size());
+        assertTrue(entityAlarms.stream().allMatch(entityAlarm -> "TEST_ALARM_2".equals(entityAlarm.getAlarmType())));
+    }
+
     private Alarm saveAlarm(UUID id, UUID tenantId, UUID deviceId, String type) {
         Alarm alarm = new Alarm();
         alarm.setId(new AlarmId(id));
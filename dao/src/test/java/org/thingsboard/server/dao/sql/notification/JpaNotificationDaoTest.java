@@ -0,0 +1,85 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sql.notification;
+
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.thingsboard.server.common.data.id.NotificationRequestId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.id.UserId;
+import org.thingsboard.server.common.data.notification.Notification;
+import org.thingsboard.server.common.data.notification.NotificationDeliveryMethod;
+import org.thingsboard.server.common.data.notification.NotificationStatus;
+import org.thingsboard.server.common.data.notification.NotificationType;
+import org.thingsboard.server.common.data.page.PageData;
+import org.thingsboard.server.common.data.page.PageLink;
+import org.thingsboard.server.dao.AbstractJpaDaoTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JpaNotificationDaoTest extends AbstractJpaDaoTest {
+
+    @Autowired
+    JpaNotificationDao notificationDao;
+
+    @Test
+    public void testSaveAll() {
+        TenantId tenantId = TenantId.fromUUID(UUID.randomUUID());
+        NotificationRequestId requestId = new NotificationRequestId(UUID.randomUUID());
+        List<UserId> recipients = new ArrayList<>();
+        List<Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            UserId recipientId = new UserId(UUID.randomUUID());
+            recipients.add(recipientId);
+            notifications.add(Notification.builder()
+                    .requestId(requestId)
+                    .recipientId(recipientId)
+                    .type(NotificationType.GENERAL)
+                    .deliveryMethod(NotificationDeliveryMethod.WEB)
+                    .subject("Subject " + i)
+                    .text("Text " + i)
+                    .status(NotificationStatus.SENT)
+                    .build());
+        }
+
+        List<Notification> saved = notificationDao.saveAll(tenantId, notifications);
+        assertThat(saved).hasSize(10).allSatisfy(notification -> {
+            assertThat(notification.getId()).isNotNull();
+            assertThat(notification.getCreatedTime()).isPositive();
+        });
+
+        for (int i = 0; i < recipients.size(); i++) {
+            PageData<Notification> found = notificationDao.findUnreadByDeliveryMethodAndRecipientIdAndPageLink(tenantId,
+                    NotificationDeliveryMethod.WEB, recipients.get(i), new PageLink(10));
+            assertThat(found.getData()).singleElement().satisfies(notification -> {
+                assertThat(notification.getRequestId()).isEqualTo(requestId);
+                assertThat(notification.getType()).isEqualTo(NotificationType.GENERAL);
+                assertThat(notification.getStatus()).isEqualTo(NotificationStatus.SENT);
+            });
+            assertThat(found.getData().get(0).getText()).isEqualTo("Text " + i);
+        }
+    }
+
+    @Test
+    public void testSaveAll_empty() {
+        assertThat(notificationDao.saveAll(TenantId.SYS_TENANT_ID, new ArrayList<>())).isEmpty();
+    }
+
+}
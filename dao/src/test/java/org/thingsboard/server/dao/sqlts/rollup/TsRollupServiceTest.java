@@ -0,0 +1,223 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.sqlts.rollup;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.thingsboard.server.common.stats.StatsCounter;
+import org.thingsboard.server.common.stats.StatsFactory;
+import org.thingsboard.server.dao.model.sqlts.ts.TsKvEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TsRollupServiceTest {
+
+    private static final long MINUTE = 60000;
+    private static final long HOUR = 3600000;
+    private static final long DAY = 86400000;
+
+    private final UUID entityId = UUID.randomUUID();
+    private final int key = 7;
+
+    private TsRollupRepository rollupRepository;
+    private PlatformTransactionManager transactionManager;
+    private TsRollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        rollupRepository = mock(TsRollupRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        rollupService = createRollupService();
+        ReflectionTestUtils.setField(rollupService, "watermarks", Map.of(
+                MINUTE, new TsRollupWatermark(MINUTE, 0, 20 * DAY),
+                HOUR, new TsRollupWatermark(HOUR, 0, 20 * DAY),
+                DAY, new TsRollupWatermark(DAY, 0, 20 * DAY)));
+    }
+
+    private TsRollupService createRollupService() {
+        StatsFactory statsFactory = mock(StatsFactory.class);
+        when(statsFactory.createStatsCounter(anyString(), anyString())).thenReturn(mock(StatsCounter.class));
+        TsRollupService rollupService = new TsRollupService(rollupRepository, statsFactory, new TransactionTemplate(transactionManager));
+        ReflectionTestUtils.setField(rollupService, "enabled", true);
+        ReflectionTestUtils.setField(rollupService, "intervals", new long[]{MINUTE, HOUR, DAY});
+        ReflectionTestUtils.setField(rollupService, "refreshIntervalMs", HOUR);
+        ReflectionTestUtils.setField(rollupService, "lagMs", MINUTE);
+        ReflectionTestUtils.setField(rollupService, "maxGapMs", HOUR);
+        ReflectionTestUtils.setField(rollupService, "maxPendingBuckets", 1000);
+        ReflectionTestUtils.setField(rollupService, "batchSize", 100);
+        rollupService.init();
+        return rollupService;
+    }
+
+    @AfterEach
+    void tearDown() {
+        rollupService.destroy();
+    }
+
+    @Test
+    void testRangeIsSplitIntoCoarsestRollups() {
+        when(rollupRepository.findRollupAggregate(eq(entityId), eq(key), anyLong(), anyLong(), anyLong())).thenAnswer(invocation -> aggregate(invocation.getArgument(4)));
+        when(rollupRepository.findRawAggregate(eq(entityId), eq(key), anyLong(), anyLong())).thenAnswer(invocation -> aggregate(invocation.getArgument(3)));
+
+        long startTs = 10 * DAY - 30 * MINUTE - 500;
+        long endTs = 13 * DAY + 2 * HOUR + 5 * MINUTE + 700;
+        assertThat(rollupService.isRoutable(startTs, endTs)).isTrue();
+
+        TsRollupAggregate result = rollupService.findAggregate(entityId, key, startTs, endTs);
+
+        verify(rollupRepository).findRollupAggregate(entityId, key, DAY, 10 * DAY, 13 * DAY);
+        verify(rollupRepository).findRollupAggregate(entityId, key, MINUTE, 10 * DAY - 30 * MINUTE, 10 * DAY);
+        verify(rollupRepository).findRollupAggregate(entityId, key, HOUR, 13 * DAY, 13 * DAY + 2 * HOUR);
+        verify(rollupRepository).findRollupAggregate(entityId, key, MINUTE, 13 * DAY + 2 * HOUR, 13 * DAY + 2 * HOUR + 5 * MINUTE);
+        verify(rollupRepository).findRawAggregate(entityId, key, startTs, 10 * DAY - 30 * MINUTE);
+        verify(rollupRepository).findRawAggregate(entityId, key, 13 * DAY + 2 * HOUR + 5 * MINUTE, endTs);
+        assertThat(result.getLongCount()).isEqualTo(6);
+        assertThat(result.getLongSum()).isEqualTo(60);
+        assertThat(result.getMaxTs()).isEqualTo(endTs - 1);
+    }
+
+    @Test
+    void testRangeWithoutRollupBucketsIsNotRoutable() {
+        assertThat(rollupService.isRoutable(10 * DAY + 1, 10 * DAY + MINUTE)).isFalse();
+        assertThat(rollupService.isRoutable(25 * DAY, 26 * DAY)).isFalse();
+    }
+
+    @Test
+    void testRollupEndIsAlignedWithBuckets() {
+        assertThat(rollupService.getRollupEndTs(10 * DAY, 30 * DAY, DAY)).isEqualTo(20 * DAY);
+        assertThat(rollupService.getRollupEndTs(10 * DAY, 30 * DAY, 3 * DAY)).isEqualTo(19 * DAY);
+        assertThat(rollupService.getRollupEndTs(10 * DAY + 1, 30 * DAY, DAY)).isEqualTo(10 * DAY + 1);
+    }
+
+    @Test
+    void testPartiallyRemovedBucketsAreRecomputed() {
+        rollupService.onRemoved(entityId, key, 10 * DAY + 30 * MINUTE, 11 * DAY);
+
+        verify(rollupRepository).delete(entityId, key, MINUTE, 10 * DAY + 30 * MINUTE, 11 * DAY);
+        verify(rollupRepository).delete(entityId, key, HOUR, 10 * DAY, 11 * DAY);
+        verify(rollupRepository).delete(entityId, key, DAY, 10 * DAY, 11 * DAY);
+        verify(rollupRepository, never()).refreshFromRaw(anyLong(), anyList());
+        verify(rollupRepository).refreshFromRollup(HOUR, MINUTE, List.of(new TsRollupBucket(entityId, key, 10 * DAY)));
+        verify(rollupRepository).refreshFromRollup(DAY, HOUR, List.of(new TsRollupBucket(entityId, key, 10 * DAY)));
+    }
+
+    @Test
+    void testPendingBucketsAreMarkedWithSavedValues() {
+        List<TsKvEntity> entities = List.of(
+                tsKvEntity(10 * DAY + 5 * MINUTE + 100),
+                tsKvEntity(10 * DAY + 5 * MINUTE + 200),
+                tsKvEntity(10 * DAY + MINUTE));
+        List<List<TsKvEntity>> saved = new ArrayList<>();
+
+        rollupService.save(entities, saved::add);
+
+        assertThat(saved).containsExactly(entities);
+        verify(rollupRepository).markPending(List.of(
+                new TsRollupBucket(entityId, key, 10 * DAY + MINUTE),
+                new TsRollupBucket(entityId, key, 10 * DAY + 5 * MINUTE)));
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testPendingBucketsAreRefreshedAfterRestart() {
+        rollupService.save(List.of(tsKvEntity(10 * DAY + 5 * MINUTE + 100)), entities -> {});
+        rollupService.destroy();
+
+        // pending buckets are read from the database, not from the memory of the stopped instance
+        List<TsRollupBucket> pending = List.of(new TsRollupBucket(entityId, key, 10 * DAY + 5 * MINUTE));
+        when(rollupRepository.claimPending(1000)).thenReturn(pending);
+        rollupService = createRollupService();
+
+        rollupService.refreshPendingBuckets();
+
+        verify(rollupRepository).refreshFromRaw(MINUTE, pending);
+        verify(rollupRepository).refreshFromRollup(HOUR, MINUTE, List.of(new TsRollupBucket(entityId, key, 10 * DAY)));
+        verify(rollupRepository).refreshFromRollup(DAY, HOUR, List.of(new TsRollupBucket(entityId, key, 10 * DAY)));
+    }
+
+    @Test
+    void testPendingBucketsAreClaimedInBoundedBatches() {
+        ReflectionTestUtils.setField(rollupService, "maxPendingBuckets", 2);
+        when(rollupRepository.claimPending(2)).thenReturn(
+                List.of(new TsRollupBucket(entityId, key, 0), new TsRollupBucket(entityId, key, MINUTE)),
+                List.of(new TsRollupBucket(entityId, key, 2 * MINUTE)));
+
+        rollupService.refreshPendingBuckets();
+
+        verify(rollupRepository, times(2)).claimPending(2);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void testClaimedBucketsAreRolledBackIfRefreshFails() {
+        when(rollupRepository.claimPending(1000)).thenReturn(List.of(new TsRollupBucket(entityId, key, 0)));
+        doThrow(new RuntimeException("refresh failed")).when(rollupRepository).refreshFromRaw(anyLong(), anyList());
+
+        assertThatThrownBy(() -> rollupService.refreshPendingBuckets()).hasMessage("refresh failed");
+
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void testRollupsAreRemovedBySystemTtl() {
+        rollupService.cleanup(TimeUnit.DAYS.toSeconds(7));
+
+        verify(rollupRepository).deleteOlderThan(eq(MINUTE), anyLong());
+        verify(rollupRepository).deleteOlderThan(eq(HOUR), anyLong());
+        verify(rollupRepository).deleteOlderThan(eq(DAY), anyLong());
+    }
+
+    private TsKvEntity tsKvEntity(long ts) {
+        TsKvEntity entity = new TsKvEntity();
+        entity.setEntityId(entityId);
+        entity.setKey(key);
+        entity.setTs(ts);
+        entity.setLongValue(1L);
+        return entity;
+    }
+
+    private static TsRollupAggregate aggregate(long endTs) {
+        TsRollupAggregate aggregate = new TsRollupAggregate();
+        aggregate.setLongCount(1);
+        aggregate.setLongSum(10L);
+        aggregate.setMaxTs(endTs - 1);
+        return aggregate;
+    }
+
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.timeseries;
+
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.data.kv.BaseReadTsKvQuery;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TsKvQueryCursorTest {
+
+    @Test
+    void givenDescOrder_whenGetNextPartitions_thenReturnsPartitionsInQueryOrder() {
+        TsKvQueryCursor cursor = newCursor(10, "DESC", List.of(1L, 2L, 3L, 4L, 5L));
+
+        assertThat(cursor.getNextPartitions(2)).containsExactly(5L, 4L);
+        assertThat(cursor.getNextPartitions(2)).containsExactly(3L, 2L);
+        assertThat(cursor.getNextPartitions(2)).containsExactly(1L);
+        assertThat(cursor.hasNextPartition()).isFalse();
+    }
+
+    @Test
+    void givenParallelPartitionResults_whenAddData_thenTrimmedToLimit() {
+        TsKvQueryCursor cursor = newCursor(5, "ASC", List.of(1L, 2L, 3L));
+
+        cursor.addData(entries(0, 3));
+        cursor.addData(entries(3, 6));
+
+        assertThat(cursor.isFull()).isTrue();
+        assertThat(cursor.getData()).extracting(TsKvEntry::getTs).containsExactly(0L, 1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void givenRemainingLimit_whenGetPartitionLimit_thenFirstPartitionGetsWholeLimitAndOthersSplitIt() {
+        TsKvQueryCursor cursor = newCursor(10, "ASC", List.of(1L, 2L, 3L, 4L));
+
+        assertThat(cursor.getPartitionLimit(0, 4)).isEqualTo(10);
+        assertThat(cursor.getPartitionLimit(1, 4)).isEqualTo(3);
+        assertThat(cursor.getPartitionLimit(0, 1)).isEqualTo(10);
+
+        cursor.addData(entries(0, 9));
+        assertThat(cursor.getPartitionLimit(0, 4)).isEqualTo(1);
+        assertThat(cursor.getPartitionLimit(3, 4)).isEqualTo(1);
+    }
+
+    @Test
+    void givenDensePartitions_whenFirstWaveAdded_thenCursorIsFull() {
+        TsKvQueryCursor cursor = newCursor(100, "DESC", List.of(1L, 2L, 3L, 4L, 5L, 6L));
+        List<Long> wave = cursor.getNextPartitions(4);
+        int firstLimit = cursor.getPartitionLimit(0, wave.size());
+
+        assertThat(firstLimit).isEqualTo(100);
+        assertThat(cursor.addPartitionData(wave.get(0), entries(0, firstLimit), firstLimit)).isFalse();
+
+        assertThat(cursor.isFull()).isTrue();
+        assertThat(cursor.getData()).hasSize(100);
+    }
+
+    @Test
+    void givenPartitionReturnedWholeLimit_whenAddPartitionData_thenCursorContinuesThatPartition() {
+        TsKvQueryCursor cursor = newCursor(10, "ASC", List.of(1L, 2L, 3L));
+        List<Long> wave = cursor.getNextPartitions(2);
+        int firstLimit = cursor.getPartitionLimit(0, wave.size());
+        int secondLimit = cursor.getPartitionLimit(1, wave.size());
+
+        assertThat(cursor.addPartitionData(wave.get(0), entries(0, 2), firstLimit)).isTrue();
+        assertThat(cursor.addPartitionData(wave.get(1), entries(10, 15), secondLimit)).isFalse();
+
+        assertThat(cursor.getData()).hasSize(7);
+        assertThat(cursor.getStartTs()).isEqualTo(15);
+        assertThat(cursor.getEndTs()).isEqualTo(100);
+        assertThat(cursor.getNextPartitions(2)).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void givenDescOrderAndPartitionReturnedWholeLimit_whenAddPartitionData_thenEndTsMovedToLastEntry() {
+        TsKvQueryCursor cursor = newCursor(4, "DESC", List.of(1L, 2L, 3L));
+        List<Long> wave = cursor.getNextPartitions(2);
+        int firstLimit = cursor.getPartitionLimit(0, wave.size());
+        int secondLimit = cursor.getPartitionLimit(1, wave.size());
+
+        assertThat(cursor.addPartitionData(wave.get(0), List.of(entry(95)), firstLimit)).isTrue();
+        assertThat(cursor.addPartitionData(wave.get(1), List.of(entry(90), entry(80)), secondLimit)).isFalse();
+
+        assertThat(cursor.getStartTs()).isEqualTo(0);
+        assertThat(cursor.getEndTs()).isEqualTo(80);
+        assertThat(cursor.getNextPartitions(2)).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void givenPartitionReturnedLessThanLimit_whenAddPartitionData_thenNextPartitionDataAdded() {
+        TsKvQueryCursor cursor = newCursor(10, "ASC", List.of(1L, 2L));
+        List<Long> wave = cursor.getNextPartitions(2);
+        int firstLimit = cursor.getPartitionLimit(0, wave.size());
+        int secondLimit = cursor.getPartitionLimit(1, wave.size());
+
+        assertThat(cursor.addPartitionData(wave.get(0), entries(0, 2), firstLimit)).isTrue();
+        assertThat(cursor.addPartitionData(wave.get(1), entries(2, 5), secondLimit)).isTrue();
+
+        assertThat(cursor.getData()).extracting(TsKvEntry::getTs).containsExactly(0L, 1L, 2L, 3L, 4L);
+        assertThat(cursor.getStartTs()).isEqualTo(0);
+        assertThat(cursor.hasNextPartition()).isFalse();
+    }
+
+    private static TsKvQueryCursor newCursor(int limit, String order, List<Long> partitions) {
+        return new TsKvQueryCursor("DEVICE", UUID.randomUUID(), new BaseReadTsKvQuery("temperature", 0, 100, limit, order), partitions);
+    }
+
+    private static List<TsKvEntry> entries(long from, long to) {
+        return LongStream.range(from, to)
+                .mapToObj(TsKvQueryCursorTest::entry)
+                .toList();
+    }
+
+    private static TsKvEntry entry(long ts) {
+        return new BasicTsKvEntry(ts, new LongDataEntry("temperature", ts));
+    }
+
+}
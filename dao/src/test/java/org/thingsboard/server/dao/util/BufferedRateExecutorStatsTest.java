@@ -0,0 +1,92 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.util;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.stats.DefaultStatsFactory;
+import org.thingsboard.server.common.stats.StatsType;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BufferedRateExecutorStatsTest {
+
+    private static final String BUFFER = "READ";
+
+    private final TenantId tenantId = TenantId.fromUUID(UUID.randomUUID());
+
+    private MeterRegistry meterRegistry;
+    private BufferedRateExecutorStats stats;
+    private TenantFairTaskQueue<String> queue;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        DefaultStatsFactory statsFactory = new DefaultStatsFactory();
+        ReflectionTestUtils.setField(statsFactory, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(statsFactory, "metricsEnabled", true);
+        stats = new BufferedRateExecutorStats(statsFactory);
+        queue = new TenantFairTaskQueue<>(100);
+    }
+
+    @Test
+    void givenDrainedTenant_whenRemoveIdleTenantStats_thenRemovedAfterIdleInterval() {
+        stats.reportTenantWaitTime(BUFFER, tenantId, queue, 5);
+        assertThat(tenantMetersCount()).isEqualTo(2);
+
+        // the tenant dispatched tasks since the registration, so it is kept for one more interval
+        stats.removeIdleTenantStats(BUFFER, queue);
+        assertThat(tenantMetersCount()).isEqualTo(2);
+
+        stats.removeIdleTenantStats(BUFFER, queue);
+        assertThat(tenantMetersCount()).isZero();
+        assertThat(stats.getTenantWaitStats()).isEmpty();
+    }
+
+    @Test
+    void givenTenantWithQueuedTasks_whenRemoveIdleTenantStats_thenKept() {
+        stats.reportTenantWaitTime(BUFFER, tenantId, queue, 5);
+        queue.add(tenantId, 1, "task");
+
+        stats.removeIdleTenantStats(BUFFER, queue);
+        stats.removeIdleTenantStats(BUFFER, queue);
+
+        assertThat(tenantMetersCount()).isEqualTo(2);
+    }
+
+    @Test
+    void givenDeletedTenant_whenRemoveTenantStats_thenRemovedImmediately() {
+        stats.reportTenantWaitTime(BUFFER, tenantId, queue, 5);
+        stats.incrementRateLimitedTenant(tenantId);
+
+        stats.removeTenantStats(BUFFER, tenantId);
+
+        assertThat(tenantMetersCount()).isZero();
+        assertThat(stats.getTenantWaitStats()).isEmpty();
+        assertThat(stats.getRateLimitedTenants()).isEmpty();
+    }
+
+    private int tenantMetersCount() {
+        return meterRegistry.find(StatsType.RATE_EXECUTOR.getName()).tag("tenantId", tenantId.toString()).meters().size();
+    }
+
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.util;
+
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.dao.util.ImageUtils.ProcessedImage;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageUtilsTest {
+
+    @Test
+    void testProcessLargeImage() throws Exception {
+        byte[] data = toPng(new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB));
+
+        ProcessedImage image = ImageUtils.processImage(data, "image/png", 250);
+
+        assertThat(image.getWidth()).isEqualTo(2000);
+        assertThat(image.getHeight()).isEqualTo(1000);
+        ProcessedImage preview = image.getPreview();
+        assertThat(preview.getMediaType()).isEqualTo("image/png");
+        assertThat(preview.getWidth()).isEqualTo(250);
+        assertThat(preview.getHeight()).isEqualTo(125);
+        BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(preview.getData()));
+        assertThat(thumbnail.getWidth()).isEqualTo(250);
+        assertThat(thumbnail.getHeight()).isEqualTo(125);
+    }
+
+    @Test
+    void testProcessSmallImage() throws Exception {
+        byte[] data = toPng(new BufferedImage(100, 50, BufferedImage.TYPE_INT_RGB));
+
+        ProcessedImage image = ImageUtils.processImage(data, "image/png", 250);
+
+        assertThat(image.getWidth()).isEqualTo(100);
+        assertThat(image.getHeight()).isEqualTo(50);
+        assertThat(image.getPreview().getWidth()).isEqualTo(100);
+        assertThat(image.getPreview().getHeight()).isEqualTo(50);
+        assertThat(image.getPreview().getData()).isNull();
+    }
+
+    private static byte[] toPng(BufferedImage image) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+}
@@ -0,0 +1,75 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.util;
+
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.data.id.TenantId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TenantFairTaskQueueTest {
+
+    private final TenantId noisyTenantId = TenantId.fromUUID(UUID.randomUUID());
+    private final TenantId quietTenantId = TenantId.fromUUID(UUID.randomUUID());
+
+    @Test
+    void givenNoisyTenant_whenTake_thenOtherTenantIsNotStarved() throws InterruptedException {
+        TenantFairTaskQueue<String> queue = new TenantFairTaskQueue<>(100);
+        for (int i = 0; i < 10; i++) {
+            queue.add(noisyTenantId, 1, "noisy" + i);
+        }
+        queue.add(quietTenantId, 1, "quiet0");
+        queue.add(quietTenantId, 1, "quiet1");
+
+        assertThat(take(queue, 4)).containsExactly("noisy0", "quiet0", "noisy1", "quiet1");
+        assertThat(queue.size()).isEqualTo(8);
+        assertThat(queue.size(noisyTenantId)).isEqualTo(8);
+        assertThat(queue.size(quietTenantId)).isZero();
+    }
+
+    @Test
+    void givenWeights_whenTake_thenTasksDispatchedProportionally() throws InterruptedException {
+        TenantFairTaskQueue<String> queue = new TenantFairTaskQueue<>(100);
+        for (int i = 0; i < 6; i++) {
+            queue.add(noisyTenantId, 1, "a");
+            queue.add(quietTenantId, 2, "b");
+        }
+
+        assertThat(take(queue, 6)).containsExactly("a", "b", "b", "a", "b", "b");
+    }
+
+    @Test
+    void givenFullQueue_whenAdd_thenRejected() {
+        TenantFairTaskQueue<String> queue = new TenantFairTaskQueue<>(1);
+        queue.add(noisyTenantId, 1, "a");
+
+        assertThatThrownBy(() -> queue.add(quietTenantId, 1, "b")).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static List<String> take(TenantFairTaskQueue<String> queue, int count) throws InterruptedException {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add(queue.take());
+        }
+        return result;
+    }
+
+}
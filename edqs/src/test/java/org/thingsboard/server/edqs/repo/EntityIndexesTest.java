@@ -0,0 +1,88 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.edqs.repo;
+
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.data.edqs.fields.DeviceFields;
+import org.thingsboard.server.edqs.data.DeviceData;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EntityIndexesTest {
+
+    private final EntityIndexes indexes = new EntityIndexes(true, true);
+
+    @Test
+    public void testFindByProfileIds() {
+        UUID profileA = UUID.randomUUID();
+        UUID profileB = UUID.randomUUID();
+        DeviceData first = createDevice("Thermostat 1", profileA);
+        DeviceData second = createDevice("Thermostat 2", profileB);
+
+        assertThat(indexes.findByProfileIds(List.of(profileA))).containsExactly(first);
+        assertThat(indexes.findByProfileIds(List.of(profileA, profileB))).containsExactlyInAnyOrder(first, second);
+
+        updateDevice(second, "Thermostat 2", profileA);
+        assertThat(indexes.findByProfileIds(List.of(profileA))).containsExactlyInAnyOrder(first, second);
+        assertThat(indexes.findByProfileIds(List.of(profileB))).isEmpty();
+
+        indexes.onRemove(first);
+        assertThat(indexes.findByProfileIds(List.of(profileA))).containsExactly(second);
+    }
+
+    @Test
+    public void testFindByNameFilter() {
+        UUID profileId = UUID.randomUUID();
+        DeviceData thermostat = createDevice("Thermostat 1", profileId);
+        DeviceData thermometer = createDevice("thermometer", profileId);
+        DeviceData sensor = createDevice("Sensor", profileId);
+
+        assertThat(indexes.findByNameFilter(EntityType.DEVICE, "THERMO")).containsExactlyInAnyOrder(thermostat, thermometer);
+        assertThat(indexes.findByNameFilter(EntityType.DEVICE, "Thermos")).containsExactly(thermostat);
+        assertThat(indexes.findByNameFilter(EntityType.DEVICE, "thermo%1")).containsExactlyInAnyOrder(thermostat, thermometer);
+        assertThat(indexes.findByNameFilter(EntityType.ASSET, "thermo")).isEmpty();
+        // no literal prefix, a full scan is required
+        assertThat(indexes.findByNameFilter(EntityType.DEVICE, "%stat")).isNull();
+        assertThat(indexes.findByNameFilter(EntityType.DEVICE, "")).isNull();
+        // blank filters are ignored by the queries, so all the entities are candidates
+        assertThat(indexes.findByNameFilter(EntityType.DEVICE, "  ")).isNull();
+
+        updateDevice(sensor, "Thermal sensor", profileId);
+        assertThat(indexes.findByNameFilter(EntityType.DEVICE, "therm")).containsExactlyInAnyOrder(thermostat, thermometer, sensor);
+        assertThat(indexes.findByNameFilter(EntityType.DEVICE, "sensor")).isEmpty();
+
+        indexes.onRemove(thermometer);
+        assertThat(indexes.findByNameFilter(EntityType.DEVICE, "therm")).containsExactlyInAnyOrder(thermostat, sensor);
+    }
+
+    private DeviceData createDevice(String name, UUID profileId) {
+        DeviceData device = new DeviceData(UUID.randomUUID());
+        updateDevice(device, name, profileId);
+        return device;
+    }
+
+    private void updateDevice(DeviceData device, String name, UUID profileId) {
+        DeviceFields fields = DeviceFields.builder().id(device.getId()).name(name).deviceProfileId(profileId).build();
+        var oldFields = device.getFields();
+        device.setFields(fields);
+        indexes.onUpdate(device, oldFields, fields);
+    }
+
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.edqs.repo;
+
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.query.EntityCountQuery;
+import org.thingsboard.server.common.data.query.EntityTypeFilter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class QueryResultCacheTest {
+
+    private static final TenantId TENANT_ID = TenantId.fromUUID(UUID.randomUUID());
+
+    private final QueryResultCache cache = new QueryResultCache(100, TimeUnit.MINUTES.toMillis(1));
+
+    @Test
+    public void testCachedUntilVersionChanges() {
+        AtomicInteger calculations = new AtomicInteger();
+        assertThat(cache.<Long>get(TENANT_ID, 1, null, false, countQuery(EntityType.DEVICE), () -> (long) calculations.incrementAndGet())).isEqualTo(1L);
+        assertThat(cache.<Long>get(TENANT_ID, 1, null, false, countQuery(EntityType.DEVICE), () -> (long) calculations.incrementAndGet())).isEqualTo(1L);
+        assertThat(cache.<Long>get(TENANT_ID, 1, null, false, countQuery(EntityType.ASSET), () -> (long) calculations.incrementAndGet())).isEqualTo(2L);
+        assertThat(cache.<Long>get(TENANT_ID, 2, null, false, countQuery(EntityType.DEVICE), () -> (long) calculations.incrementAndGet())).isEqualTo(3L);
+    }
+
+    @Test
+    public void testTenantsCachedSeparately() {
+        TenantId otherTenantId = TenantId.fromUUID(UUID.randomUUID());
+        assertThat(cache.<Long>get(TENANT_ID, 1, null, false, countQuery(EntityType.DEVICE), () -> 1L)).isEqualTo(1L);
+        assertThat(cache.<Long>get(otherTenantId, 1, null, false, countQuery(EntityType.DEVICE), () -> 2L)).isEqualTo(2L);
+
+        cache.invalidateIf(TENANT_ID::equals);
+        assertThat(cache.<Long>get(TENANT_ID, 1, null, false, countQuery(EntityType.DEVICE), () -> 3L)).isEqualTo(3L);
+        assertThat(cache.<Long>get(otherTenantId, 1, null, false, countQuery(EntityType.DEVICE), () -> 4L)).isEqualTo(2L);
+    }
+
+    @Test
+    public void testFailedCalculationIsNotCached() {
+        assertThatThrownBy(() -> cache.get(TENANT_ID, 1, null, false, countQuery(EntityType.DEVICE), () -> {
+            throw new IllegalStateException("failed");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(cache.<Long>get(TENANT_ID, 1, null, false, countQuery(EntityType.DEVICE), () -> 5L)).isEqualTo(5L);
+    }
+
+    @Test
+    public void testConcurrentQueriesCalculatedOnce() throws Exception {
+        AtomicInteger calculations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get(TENANT_ID, 1, null, false, countQuery(EntityType.DEVICE), () -> {
+                started.countDown();
+                awaitQuietly(release);
+                return (long) calculations.incrementAndGet();
+            })));
+            assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> cache.get(TENANT_ID, 1, null, false, countQuery(EntityType.DEVICE),
+                        () -> (long) calculations.incrementAndGet())));
+            }
+            release.countDown();
+            for (Future<Long> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo(1L);
+            }
+            assertThat(calculations.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static EntityCountQuery countQuery(EntityType entityType) {
+        EntityTypeFilter filter = new EntityTypeFilter();
+        filter.setEntityType(entityType);
+        return new EntityCountQuery(filter);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.edqs.repo;
+
+import org.junit.jupiter.api.Test;
+import org.thingsboard.server.edqs.data.DeviceData;
+import org.thingsboard.server.edqs.data.dp.LongDataPoint;
+import org.thingsboard.server.edqs.query.SortableEntityData;
+import org.thingsboard.server.edqs.query.SortableEntityDataTopN;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.thingsboard.server.edqs.util.RepositoryUtils.SORT_ASC;
+import static org.thingsboard.server.edqs.util.RepositoryUtils.SORT_DESC;
+
+public class SortableEntityDataTopNTest {
+
+    @Test
+    public void testTopNMatchesFullSort() {
+        List<SortableEntityData> data = generate(1000);
+        for (boolean asc : new boolean[]{true, false}) {
+            SortableEntityDataTopN topN = new SortableEntityDataTopN(asc, 30);
+            data.forEach(sd -> topN.add(sd.getEntityData(), sd.getSortValue()));
+
+            List<SortableEntityData> expected = new ArrayList<>(data);
+            expected.sort(asc ? SORT_ASC : SORT_DESC);
+            assertThat(topN.getTotal()).isEqualTo(1000);
+            assertThat(topN.getResult(20)).containsExactlyElementsOf(expected.subList(20, 30));
+        }
+    }
+
+    @Test
+    public void testMergedTopNMatchesSingleTopN() {
+        List<SortableEntityData> data = generate(1000);
+        SortableEntityDataTopN single = new SortableEntityDataTopN(false, 50);
+        data.forEach(sd -> single.add(sd.getEntityData(), sd.getSortValue()));
+
+        SortableEntityDataTopN merged = single.emptyCopy();
+        for (int i = 0; i < data.size(); i += 300) {
+            SortableEntityDataTopN partial = merged.emptyCopy();
+            data.subList(i, Math.min(i + 300, data.size())).forEach(sd -> partial.add(sd.getEntityData(), sd.getSortValue()));
+            merged.merge(partial);
+        }
+
+        assertThat(merged.getTotal()).isEqualTo(single.getTotal());
+        assertThat(merged.getResult(0)).containsExactlyElementsOf(single.getResult(0));
+        assertThat(merged.getResult(50)).isEmpty();
+    }
+
+    private static List<SortableEntityData> generate(int count) {
+        Random random = new Random(42);
+        List<SortableEntityData> data = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            SortableEntityData sd = new SortableEntityData(new DeviceData(UUID.randomUUID()));
+            // duplicate and missing sort values check the tie breaking by id
+            if (i % 10 != 0) {
+                sd.setSortValue(new LongDataPoint(0, random.nextInt(100)));
+            }
+            data.add(sd);
+        }
+        return data;
+    }
+
+}
@@ -0,0 +1,90 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.edqs.repo;
+
+import org.junit.Test;
+import org.springframework.test.context.TestPropertySource;
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.data.edqs.LatestTsKv;
+import org.thingsboard.server.common.data.edqs.query.QueryResult;
+import org.thingsboard.server.common.data.id.AssetId;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.page.PageData;
+import org.thingsboard.server.common.data.query.EntityDataPageLink;
+import org.thingsboard.server.common.data.query.EntityDataQuery;
+import org.thingsboard.server.common.data.query.EntityDataSortOrder;
+import org.thingsboard.server.common.data.query.EntityKey;
+import org.thingsboard.server.common.data.query.EntityKeyType;
+import org.thingsboard.server.common.data.query.EntityTypeFilter;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = "queue.edqs.query.cache.enabled=true")
+public class TenantRepoQueryCacheTest extends AbstractEDQTest {
+
+    @Test
+    public void testResultKeptOnUpdatesOfOtherEntityTypes() {
+        UUID deviceId = createDevice("Device 1");
+        PageData<QueryResult> result = findByEntityType(EntityType.DEVICE);
+        assertThat(result.getTotalElements()).isEqualTo(1);
+
+        UUID assetId = createAsset("Asset 1");
+        addOrUpdate(new LatestTsKv(new AssetId(assetId), new BasicTsKvEntry(42, new DoubleDataEntry("temperature", 20.0)), 0L));
+        assertThat(findByEntityType(EntityType.DEVICE)).isSameAs(result);
+
+        addOrUpdate(new LatestTsKv(new DeviceId(deviceId), new BasicTsKvEntry(42, new DoubleDataEntry("temperature", 25.0)), 0L));
+        PageData<QueryResult> updated = findByEntityType(EntityType.DEVICE);
+        assertThat(updated).isNotSameAs(result);
+        assertThat(updated.getData().get(0).getLatest().get(EntityKeyType.TIME_SERIES).get("temperature").getValue()).isEqualTo("25.0");
+    }
+
+    @Test
+    public void testResultInvalidatedOnOwnerUpdate() {
+        createDevice(customerId, "Device 1");
+        PageData<QueryResult> result = findByEntityType(EntityType.DEVICE);
+
+        createCustomer(customerId.getId(), null, "Customer B");
+        assertThat(findByEntityType(EntityType.DEVICE)).isNotSameAs(result);
+    }
+
+    @Test
+    public void testResultInvalidatedOnClear() {
+        createDevice("Device 1");
+        PageData<QueryResult> result = findByEntityType(EntityType.DEVICE);
+
+        repository.clear();
+        createDevice("Device 2");
+        PageData<QueryResult> afterClear = findByEntityType(EntityType.DEVICE);
+        assertThat(afterClear).isNotSameAs(result);
+        assertThat(afterClear.getData()).singleElement().satisfies(queryResult ->
+                assertThat(queryResult.getLatest().get(EntityKeyType.ENTITY_FIELD).get("name").getValue()).isEqualTo("Device 2"));
+    }
+
+    private PageData<QueryResult> findByEntityType(EntityType entityType) {
+        EntityTypeFilter filter = new EntityTypeFilter();
+        filter.setEntityType(entityType);
+        var pageLink = new EntityDataPageLink(20, 0, null, new EntityDataSortOrder(new EntityKey(EntityKeyType.ENTITY_FIELD, "createdTime"), EntityDataSortOrder.Direction.DESC), false);
+        var entityFields = List.of(new EntityKey(EntityKeyType.ENTITY_FIELD, "name"));
+        var latestValues = List.of(new EntityKey(EntityKeyType.TIME_SERIES, "temperature"));
+        return repository.findEntityDataByQuery(tenantId, null, new EntityDataQuery(filter, pageLink, entityFields, latestValues, null), false);
+    }
+
+}
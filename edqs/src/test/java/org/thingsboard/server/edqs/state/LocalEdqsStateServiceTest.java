@@ -0,0 +1,139 @@
+/**
+ * Copyright © 2016-2025 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.edqs.state;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thingsboard.server.edqs.processor.EdqsProcessor;
+import org.thingsboard.server.edqs.util.EdqsRocksDb;
+import org.thingsboard.server.gen.transport.TransportProtos.ToEdqsMsg;
+import org.thingsboard.server.queue.common.consumer.PartitionedQueueConsumerManager;
+import org.thingsboard.server.queue.discovery.DiscoveryService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class LocalEdqsStateServiceTest {
+
+    private EdqsRocksDb db;
+    private DiscoveryService discoveryService;
+    private EdqsProcessor processor;
+    private LocalEdqsStateService stateService;
+
+    private final ConcurrentMap<UUID, List<Long>> restored = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        db = mock(EdqsRocksDb.class);
+        discoveryService = mock(DiscoveryService.class);
+        processor = mock(EdqsProcessor.class);
+        stateService = new LocalEdqsStateService(db, discoveryService);
+        ReflectionTestUtils.setField(stateService, "processor", processor);
+        ReflectionTestUtils.setField(stateService, "restoreThreads", 4);
+        stateService.init(mock(PartitionedQueueConsumerManager.class), Collections.emptyList());
+
+        willAnswer(invocation -> {
+            ToEdqsMsg msg = invocation.getArgument(0);
+            if (msg.getTs() < 0) {
+                throw new IllegalStateException("Failed to process msg");
+            }
+            restored.computeIfAbsent(new UUID(msg.getTenantIdMSB(), msg.getTenantIdLSB()), id -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(msg.getTs());
+            return null;
+        }).given(processor).process(any(), anyBoolean());
+    }
+
+    @Test
+    public void testRestoreInParallelKeepsTenantOrder() {
+        List<UUID> tenants = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        Map<String, byte[]> stored = new LinkedHashMap<>();
+        for (int i = 0; i < 10_000; i++) {
+            UUID tenantId = tenants.get(i % tenants.size());
+            stored.put("key_" + i, toEdqsMsg(tenantId, i).toByteArray());
+        }
+        mockDb(stored);
+
+        stateService.process(Set.of());
+
+        assertThat(restored).hasSize(tenants.size());
+        for (int t = 0; t < tenants.size(); t++) {
+            List<Long> expected = new ArrayList<>();
+            for (long i = t; i < 10_000; i += tenants.size()) {
+                expected.add(i);
+            }
+            assertThat(restored.get(tenants.get(t))).containsExactlyElementsOf(expected);
+        }
+        assertThat(stateService.isReady()).isTrue();
+        verify(discoveryService).setReady(true);
+    }
+
+    @Test
+    public void testRestoreInParallelSkipsFailedMessages() {
+        UUID tenantId = UUID.randomUUID();
+        Map<String, byte[]> stored = new LinkedHashMap<>();
+        stored.put("key_1", toEdqsMsg(tenantId, 1).toByteArray());
+        stored.put("key_2", new byte[]{(byte) 0xFF});
+        stored.put("key_3", toEdqsMsg(tenantId, -1).toByteArray());
+        stored.put("key_4", toEdqsMsg(tenantId, 4).toByteArray());
+        mockDb(stored);
+
+        stateService.process(Set.of());
+
+        assertThat(restored.get(tenantId)).containsExactly(1L, 4L);
+        assertThat(stateService.isReady()).isTrue();
+    }
+
+    @Test
+    public void testReadTenantId() throws Exception {
+        UUID tenantId = UUID.randomUUID();
+        assertThat(LocalEdqsStateService.readTenantId(toEdqsMsg(tenantId, 42).toByteArray())).isEqualTo(tenantId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockDb(Map<String, byte[]> stored) {
+        willAnswer(invocation -> {
+            BiConsumer<String, byte[]> consumer = invocation.getArgument(0);
+            stored.forEach(consumer);
+            return null;
+        }).given(db).forEach(any());
+    }
+
+    private static ToEdqsMsg toEdqsMsg(UUID tenantId, long ts) {
+        return ToEdqsMsg.newBuilder()
+                .setTenantIdMSB(tenantId.getMostSignificantBits())
+                .setTenantIdLSB(tenantId.getLeastSignificantBits())
+                .setTs(ts)
+                .build();
+    }
+
+}